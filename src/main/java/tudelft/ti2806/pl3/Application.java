@@ -6,6 +6,7 @@ import tudelft.ti2806.pl3.controls.KeyController;
 import tudelft.ti2806.pl3.controls.ScrollListener;
 import tudelft.ti2806.pl3.controls.WindowController;
 import tudelft.ti2806.pl3.data.graph.GraphDataRepository;
+import tudelft.ti2806.pl3.data.mapping.Coverage;
 import tudelft.ti2806.pl3.exception.FileSelectorException;
 import tudelft.ti2806.pl3.findgenes.FindGenesController;
 import tudelft.ti2806.pl3.loading.LoadingMouse;
@@ -14,6 +15,7 @@ import tudelft.ti2806.pl3.menubar.MenuBarController;
 import tudelft.ti2806.pl3.metafilter.MetaFilterController;
 import tudelft.ti2806.pl3.sidebar.SideBarController;
 import tudelft.ti2806.pl3.sidebar.phylotree.PhyloController;
+import tudelft.ti2806.pl3.ui.util.BackgroundTask;
 import tudelft.ti2806.pl3.ui.util.DialogUtil;
 import tudelft.ti2806.pl3.util.FileSelector;
 import tudelft.ti2806.pl3.util.LastOpenedStack;
@@ -32,6 +34,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import javax.swing.JFrame;
 import javax.swing.JLayeredPane;
 import javax.swing.JMenuBar;
@@ -241,6 +245,105 @@ public class Application extends JFrame implements ControllerContainer {
 		}
 	}
 
+	/**
+	 * Maps the reads of a FASTQ file to the graph in the background, and shows their coverage in the zoom bar when
+	 * they are mapped.
+	 */
+	public void mapReads() {
+		File readFile;
+		try {
+			readFile = FileSelector.selectFile("Select reads file", this, Constants.EXTENSION_FASTQ);
+		} catch (FileSelectorException exception) {
+			if (DialogUtil.confirm(Constants.DIALOG_TITLE_ERROR, Constants.DIALOG_FILE_NOT_FOUND)) {
+				mapReads();
+			}
+			return;
+		}
+		final int version = graphController.getGraphVersion();
+		BackgroundTask.start("map-reads", () -> graphController.mapReads(readFile),
+				coverage -> showCoverage(coverage, version));
+	}
+
+	/**
+	 * Shows the coverage of mapped reads, unless another graph was parsed since they were mapped.
+	 */
+	private void showCoverage(Coverage coverage, int version) {
+		if (graphController.setCoverage(coverage, version)) {
+			DialogUtil.displayMessage(Constants.MENU_FILE_MAP_READS, "Mapped " + coverage.getMappedReads() + " of "
+					+ (coverage.getMappedReads() + coverage.getUnmappedReads()) + " reads.");
+		}
+	}
+
+	/**
+	 * Writes the sequences of the genomes selected in the phylogenetic tree or metadata filter, or of all genomes when
+	 * none are selected, to FASTA files in a folder. The files are written in the background.
+	 */
+	public void exportFasta() {
+		if (!graphController.isGraphParsed()) {
+			DialogUtil.displayError("Please open a graph first.", Constants.DIALOG_TITLE_ERROR);
+			return;
+		}
+		File directory;
+		try {
+			directory = FileSelector.selectFolder("Select the folder to export to", this);
+		} catch (FileSelectorException exception) {
+			return;
+		}
+		BackgroundTask.start("export-fasta", () -> graphController.exportFasta(directory),
+				files -> DialogUtil.displayMessage(Constants.MENU_FILE_EXPORT_FASTA,
+						getExportFastaMessage(files, directory)));
+	}
+
+	/**
+	 * Describes the result of a FASTA export, naming the genomes which were skipped because they are not in the graph.
+	 */
+	static String getExportFastaMessage(Map<String, File> files, File directory) {
+		List<String> skipped = new ArrayList<>();
+		for (Map.Entry<String, File> entry : files.entrySet()) {
+			if (entry.getValue() == null) {
+				skipped.add(entry.getKey());
+			}
+		}
+		return "Exported " + (files.size() - skipped.size()) + " genomes to " + directory + "."
+				+ getSkippedMessage(skipped);
+	}
+
+	/**
+	 * Writes the variants of the selected genomes against the reference, with the genotype of each genome, to a VCF
+	 * file in a folder. The file is written in the background.
+	 */
+	public void exportVariants() {
+		if (!graphController.isGraphParsed()) {
+			DialogUtil.displayError("Please open a graph first.", Constants.DIALOG_TITLE_ERROR);
+			return;
+		}
+		File directory;
+		try {
+			directory = FileSelector.selectFolder("Select the folder to export to", this);
+		} catch (FileSelectorException exception) {
+			return;
+		}
+		File file = new File(directory, "variants" + Constants.EXTENSION_VCF);
+		BackgroundTask.start("export-variants", () -> graphController.exportVariants(file),
+				result -> DialogUtil.displayMessage(Constants.MENU_FILE_EXPORT_VCF,
+						getExportVariantsMessage(result.getFirst(), result.getSecond(), file)));
+	}
+
+	/**
+	 * Describes the result of a VCF export, naming the genomes which were skipped because they are not in the graph.
+	 */
+	static String getExportVariantsMessage(int variants, List<String> skipped, File file) {
+		return "Exported " + variants + " variants to " + file + "." + getSkippedMessage(skipped);
+	}
+
+	private static String getSkippedMessage(List<String> skipped) {
+		if (skipped.isEmpty()) {
+			return "";
+		}
+		return " Skipped " + String.join(", ", skipped) + ", which " + (skipped.size() == 1 ? "is" : "are")
+				+ " not in the graph.";
+	}
+
 	/**
 	 * Stop the application and exit.
 	 */
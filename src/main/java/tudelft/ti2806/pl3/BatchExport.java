@@ -0,0 +1,162 @@
+package tudelft.ti2806.pl3;
+
+import tudelft.ti2806.pl3.data.filter.Filter;
+import tudelft.ti2806.pl3.data.filter.GenomeFilter;
+import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.gene.GeneData;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.GraphDataRepository;
+import tudelft.ti2806.pl3.visualization.BatchRenderer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Renders parts of a graph to image files from the command line, without a display.
+ *
+ * <p>
+ * Usage:
+ * </p>
+ *
+ * <pre>
+ * --nodes=&lt;file&gt; --edges=&lt;file&gt; [--meta=&lt;file&gt;] [--annotations=&lt;file&gt;]
+ * [--genomes=&lt;a,b,...&gt;] [--gene=&lt;name&gt;]... [--window=&lt;name&gt;:&lt;from&gt;-&lt;to&gt;]...
+ * [--out=&lt;directory&gt;] [--format=png|svg] [--width=&lt;pixels&gt;] [--height=&lt;pixels&gt;]
+ * [--threads=&lt;count&gt;]
+ * </pre>
+ */
+public final class BatchExport {
+	private static final String USAGE = "Usage: --nodes=<file> --edges=<file> [--meta=<file>] [--annotations=<file>] "
+			+ "[--genomes=<a,b,...>] [--gene=<name>]... [--window=<name>:<from>-<to>]... [--out=<directory>] "
+			+ "[--format=png|svg] [--width=<pixels>] [--height=<pixels>] [--threads=<count>]";
+	private static final String DEFAULT_ANNOTATIONS = "geneAnnotationsRef.gff";
+	private static final int DEFAULT_WIDTH = 1600;
+	private static final int DEFAULT_HEIGHT = 400;
+
+	private File nodes;
+	private File edges;
+	private File meta;
+	private String annotations = DEFAULT_ANNOTATIONS;
+	private List<String> genomes;
+	private final List<String> genes = new ArrayList<>();
+	private final List<BatchRenderer.Window> windows = new ArrayList<>();
+	private File out = new File(".");
+	private BatchRenderer.Format format = BatchRenderer.Format.PNG;
+	private int width = DEFAULT_WIDTH;
+	private int height = DEFAULT_HEIGHT;
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	private BatchExport() {
+	}
+
+	/**
+	 * Renders the windows and genes given in the arguments.
+	 *
+	 * @param args
+	 *            the arguments, see the class documentation
+	 */
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+		BatchExport export = new BatchExport();
+		try {
+			export.parseArguments(args);
+			List<File> files = export.run();
+			System.out.println("Rendered " + files.stream().filter(file -> file != null).count() + " of "
+					+ files.size() + " windows to " + export.out);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+		} catch (IOException e) {
+			System.err.println("Could not render the windows: " + e.getMessage());
+		}
+	}
+
+	void parseArguments(String[] args) {
+		for (String arg : args) {
+			int split = arg.indexOf('=');
+			if (!arg.startsWith("--") || split < 0) {
+				throw new IllegalArgumentException("Unknown argument " + arg);
+			}
+			String value = arg.substring(split + 1);
+			switch (arg.substring(2, split)) {
+				case "nodes":
+					nodes = new File(value);
+					break;
+				case "edges":
+					edges = new File(value);
+					break;
+				case "meta":
+					meta = new File(value);
+					break;
+				case "annotations":
+					annotations = value;
+					break;
+				case "genomes":
+					genomes = Arrays.asList(value.split(","));
+					break;
+				case "gene":
+					genes.add(value);
+					break;
+				case "window":
+					windows.add(parseWindow(value));
+					break;
+				case "out":
+					out = new File(value);
+					break;
+				case "format":
+					format = BatchRenderer.Format.valueOf(value.toUpperCase());
+					break;
+				case "width":
+					width = Integer.parseInt(value);
+					break;
+				case "height":
+					height = Integer.parseInt(value);
+					break;
+				case "threads":
+					threads = Integer.parseInt(value);
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown argument " + arg);
+			}
+		}
+		if (nodes == null || edges == null) {
+			throw new IllegalArgumentException("The node and edge files are required");
+		}
+	}
+
+	/**
+	 * Parses a window given as {@code name:from-to}.
+	 */
+	static BatchRenderer.Window parseWindow(String value) {
+		int colon = value.lastIndexOf(':');
+		int dash = value.indexOf('-', colon + 1);
+		if (colon < 0 || dash < 0) {
+			throw new IllegalArgumentException("A window should be given as <name>:<from>-<to>, not " + value);
+		}
+		return new BatchRenderer.Window(value.substring(0, colon), Integer.parseInt(value.substring(colon + 1, dash)),
+				Integer.parseInt(value.substring(dash + 1)));
+	}
+
+	List<File> run() throws IOException {
+		GeneData geneData = GeneData.parseGenes(annotations);
+		GraphDataRepository graphData = new GraphDataRepository();
+		graphData.parseGraph(nodes, edges, meta, geneData);
+		for (String name : genes) {
+			Gene gene = geneData.getGenes().stream().filter(g -> g.getName().equals(name)).findFirst()
+					.orElseThrow(() -> new IllegalArgumentException("There is no gene named " + name));
+			windows.add(BatchRenderer.Window.of(gene));
+		}
+		List<Filter<DataNode>> filters = new ArrayList<>();
+		if (genomes != null) {
+			filters.add(new GenomeFilter(genomes));
+		}
+		if (!out.isDirectory() && !out.mkdirs()) {
+			throw new IOException("Could not create the directory " + out);
+		}
+		BatchRenderer renderer = new BatchRenderer(graphData, filters, width, height);
+		return renderer.render(windows, out, format, threads);
+	}
+}
@@ -43,6 +43,8 @@ public class Constants {
 			+ "Move the view to the left \t " + ARROW_LEFT + " \n"
 			+ "Move the view to the right \t " + ARROW_RIGHT + " \n"
 			+ "Gene navigation window \t G \n"
+			+ "Find a sequence \t S \n"
+			+ "Go to a position of the reference \t P \n"
 			+ "Filter on metadata window \t F \n"
 			+ "Hide/show phylogenetic tree window \t " + SPACE + " \n"
 			+ "\n"
@@ -57,6 +59,9 @@ public class Constants {
 	public static final String MENU_FILE_OPEN_GRAPH_FILES = "Open graph files";
 	public static final String MENU_FILE_OPEN_NWK_FILE = "Open .nwk file";
 	public static final String MENU_FILE_OPEN_META_FILE = "Open metadata file";
+	public static final String MENU_FILE_MAP_READS = "Map reads";
+	public static final String MENU_FILE_EXPORT_FASTA = "Export genomes to FASTA";
+	public static final String MENU_FILE_EXPORT_VCF = "Export variants to VCF";
 	public static final String MENU_FILE_OPEN_RECENTS = "Open recent files";
 	public static final String MENU_FILE_EXIT = "Exit";
 
@@ -67,6 +72,8 @@ public class Constants {
 	public static final String MENU_VIEW_MOVE_RIGHT = "Move right";
 	public static final String MENU_VIEW_RESET = "Reset view";
 	public static final String MENU_VIEW_NAVIGATE_TO_GENE = "Navigate to gene";
+	public static final String MENU_VIEW_FIND_SEQUENCE = "Find sequence";
+	public static final String MENU_VIEW_GO_TO_POSITION = "Go to position";
 	public static final String MENU_VIEW_METADATA = "Filter on metadata";
 	public static final String MENU_VIEW_PYLO = "Phylogenetic view";
 
@@ -93,6 +100,8 @@ public class Constants {
 	public static final String EXTENSION_EDGE = ".edge" + EXTENSION_GRAPH;
 	public static final String EXTENSION_PHYLOTREE = ".nwk";
 	public static final String EXTENSION_TEXT = ".txt";
+	public static final String EXTENSION_FASTQ = ".fastq";
+	public static final String EXTENSION_VCF = ".vcf";
 
 	// Phylogenetic view constants.
 	public static final String PHYLO_WINDOW_TITLE = "Select Genomes";
@@ -1,5 +1,7 @@
 package tudelft.ti2806.pl3;
 
+import tudelft.ti2806.pl3.visualization.GraphController;
+
 import java.awt.GraphicsEnvironment;
 import java.awt.Rectangle;
 import javax.swing.UIManager;
@@ -9,15 +11,23 @@ import javax.swing.UnsupportedLookAndFeelException;
  * Main application launcher. Created by Boris Mattijssen on 30-04-15.
  */
 public class Main {
+	private static final String RENDERER_ARGUMENT = "--renderer=";
 
 	/**
 	 * Launch application.
 	 * 
 	 * @param args
-	 *            input arguments
+	 *            input arguments, {@code --renderer=java2d} draws the graph with Java2D instead of GraphStream
 	 */
 	public static void main(String[] args) {
 		System.setProperty("org.graphstream.ui.renderer", "org.graphstream.ui.j2dviewer.J2DGraphRenderer");
+		if (args != null) {
+			for (String arg : args) {
+				if (arg.startsWith(RENDERER_ARGUMENT)) {
+					System.setProperty(GraphController.RENDERER_PROPERTY, arg.substring(RENDERER_ARGUMENT.length()));
+				}
+			}
+		}
 
 		// set native look and feel
 		try {
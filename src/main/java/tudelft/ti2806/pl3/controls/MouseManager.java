@@ -1,28 +1,45 @@
 package tudelft.ti2806.pl3.controls;
 
-import org.graphstream.ui.graphicGraph.GraphicElement;
+import org.graphstream.graph.Node;
+import org.graphstream.ui.geom.Point3;
 import org.graphstream.ui.graphicGraph.GraphicGraph;
 import org.graphstream.ui.swingViewer.View;
+import org.graphstream.ui.swingViewer.util.Camera;
 import org.graphstream.ui.swingViewer.util.DefaultMouseManager;
 
 import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
 import tudelft.ti2806.pl3.detailview.DetailView;
+import tudelft.ti2806.pl3.util.SpatialGrid;
+import tudelft.ti2806.pl3.visualization.GraphDelta;
 
 import java.awt.BorderLayout;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
 
 /**
  * This MouseManager extends the functionality of the default mouse actions of GraphStream.
+ * The node under the mouse is looked up in a {@link SpatialGrid} of the nodes, and the
+ * {@link DetailView} is only updated when the mouse moves to another node.
  * Created by Mathieu Post on 8-6-15.
  */
 public class MouseManager extends DefaultMouseManager {
 	private static final int MARGIN = 5;
+	/**
+	 * Half the size of a node in pixels, as set in the style sheet.
+	 */
+	private static final double NODE_RADIUS = 7.5;
 	private final DetailView detailView;
+	private final SpatialGrid<Node> nodeGrid;
 	private WrapperClone node = null;
 	private boolean clicked = false;
 
-	public MouseManager() {
+	/**
+	 * Construct a MouseManager.
+	 *
+	 * @param nodeGrid
+	 * 		the grid of the nodes in the graph, on their position in graph units
+	 */
+	public MouseManager(SpatialGrid<Node> nodeGrid) {
+		this.nodeGrid = nodeGrid;
 		detailView = new DetailView();
 	}
 
@@ -44,6 +61,7 @@ public class MouseManager extends DefaultMouseManager {
 			removeDetailView();
 		} else {
 			clicked = true;
+			node = clickedNode;
 			showDetailView(clickedNode, x, y);
 		}
 	}
@@ -67,23 +85,27 @@ public class MouseManager extends DefaultMouseManager {
 	 * 		y location of the mouse cursor.
 	 */
 	private void mouseMoved(int x, int y) {
-		node = getNodeAtPosition(x, y);
-		if (node == null) {
+		WrapperClone hovered = getNodeAtPosition(x, y);
+		if (hovered == node) {
+			return;
+		}
+		if (hovered == null) {
 			removeDetailView();
 		} else {
+			node = hovered;
 			showDetailView(node, x, y);
 		}
 	}
 
 	private WrapperClone getNodeAtPosition(int x, int y) {
-		ArrayList<GraphicElement> graphicElements =
-				view.allNodesOrSpritesIn(x - MARGIN, y - MARGIN, x + MARGIN, y + MARGIN);
-		if (graphicElements.size() == 0) {
+		Camera camera = view.getCamera();
+		Point3 position = camera.transformPxToGu(x, y);
+		float reach = (float) ((MARGIN + NODE_RADIUS) / camera.getMetrics().ratioPx2Gu);
+		Node graphNode = nodeGrid.findNearest((float) position.x, (float) position.y, reach, reach);
+		if (graphNode == null) {
 			return null;
-		} else {
-			GraphicElement element = graphicElements.get(0);
-			return element.getAttribute("node", WrapperClone.class);
 		}
+		return graphNode.getAttribute(GraphDelta.NODE_ATTRIBUTE, WrapperClone.class);
 	}
 
 	/**
@@ -91,8 +113,10 @@ public class MouseManager extends DefaultMouseManager {
 	 */
 	public void removeDetailView() {
 		node = null;
-		view.remove(detailView);
-		view.updateUI();
+		if (detailView.getParent() != null) {
+			view.remove(detailView);
+			view.updateUI();
+		}
 	}
 
 	private void showDetailView(WrapperClone node, int x, int y) {
@@ -29,6 +29,16 @@ public enum AminoAcid {
 		return TRANSLATION_TABLE[index];
 	}
 	
+	/**
+	 * Checks if this is the stop signal.
+	 *
+	 * @return true if the codons of this {@code AminoAcid} are stop codons,
+	 *         which end the protein
+	 */
+	public boolean isStop() {
+		return this == Ochre || this == Amber || this == Opal;
+	}
+	
 	/**
 	 * Read the translation table file and store it in a table.
 	 * 
@@ -10,6 +10,16 @@ public enum BasePair {
 		this.value = value;
 	}
 	
+	/**
+	 * Gives the encoding of the base pair.
+	 *
+	 * @return the two bit encoding of the basePair <br>
+	 *         -1 for an unknown basePair (N)
+	 */
+	public int getValue() {
+		return value;
+	}
+	
 	/**
 	 * Translates a three bit string of quaternary numbers into a six bit string
 	 * of binary numbers.
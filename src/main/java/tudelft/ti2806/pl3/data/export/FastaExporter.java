@@ -0,0 +1,251 @@
+package tudelft.ti2806.pl3.data.export;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.search.GenomePathIndex;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes the sequences of genomes to FASTA files, by following the path of each genome through the graph.
+ *
+ * <p>
+ * A sequence is never kept in memory as a whole: the content of each node on the path is copied into a fixed buffer,
+ * which is written to the file each time it is full. Each thread has its own buffer, so the memory used only depends
+ * on the number of threads. The genomes are written in parallel, each to its own file.
+ * </p>
+ */
+public class FastaExporter {
+	/**
+	 * The extension of the written files.
+	 */
+	public static final String FILE_EXTENSION = ".fasta";
+	/**
+	 * The number of base pairs on each line of a sequence.
+	 */
+	static final int LINE_LENGTH = 60;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final GenomePathIndex pathIndex;
+	private final Map<String, Genome> genomes = new HashMap<>();
+
+	/**
+	 * Construct an exporter of the genomes of a graph.
+	 *
+	 * @param pathIndex
+	 *            the paths of the genomes through the graph
+	 */
+	public FastaExporter(GenomePathIndex pathIndex) {
+		this.pathIndex = pathIndex;
+		for (Genome genome : pathIndex.getGenomes()) {
+			genomes.put(genome.getIdentifier(), genome);
+		}
+	}
+
+	/**
+	 * Writes the sequence of each genome to a file named after the genome in a directory. Genomes which are not in the
+	 * graph, like genomes only named in the phylogenetic tree, are skipped. When the names of several genomes give the
+	 * same file name, a number is added to the names of the later genomes.
+	 *
+	 * @param identifiers
+	 *            the identifiers of the genomes to write
+	 * @param directory
+	 *            the directory to write the files to
+	 * @param threads
+	 *            the number of genomes written at the same time
+	 * @return the written files, in the order of the identifiers, with {@code null} for genomes which are not in the
+	 *         graph
+	 * @throws IOException
+	 *             if a file can't be written
+	 */
+	public List<File> export(List<String> identifiers, File directory, int threads) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+				Thread thread = new Thread(runnable, "fasta-export");
+				thread.setDaemon(true);
+				return thread;
+			}
+		);
+		try {
+			List<Future<File>> futures = new ArrayList<>(identifiers.size());
+			Set<String> used = new HashSet<>();
+			for (String identifier : identifiers) {
+				Genome genome = genomes.get(identifier);
+				if (genome == null) {
+					futures.add(null);
+					continue;
+				}
+				File file = new File(directory, getUniqueFileName(identifier, used));
+				futures.add(executor.submit(() -> write(genome, file)));
+			}
+			List<File> files = new ArrayList<>(identifiers.size());
+			for (Future<File> future : futures) {
+				files.add(future == null ? null : future.get());
+			}
+			return files;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("The export was interrupted", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Could not export a genome", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Gets the name of the file of a genome.
+	 *
+	 * @return the name of the file of a genome, where characters which may not be in a file name are replaced
+	 */
+	static String getFileName(String identifier) {
+		return getBaseName(identifier) + FILE_EXTENSION;
+	}
+
+	private static String getBaseName(String identifier) {
+		return identifier.replaceAll("[^A-Za-z0-9._-]", "_");
+	}
+
+	/**
+	 * Gets a name of the file of a genome which isn't used yet. File names are compared without case, because not all
+	 * file systems distinguish them.
+	 *
+	 * @param identifier
+	 *            the identifier of the genome
+	 * @param used
+	 *            the file names used so far in lower case, to which the new file name is added
+	 * @return the file name
+	 */
+	static String getUniqueFileName(String identifier, Set<String> used) {
+		String fileName = getFileName(identifier);
+		for (int i = 2; !used.add(fileName.toLowerCase(Locale.ROOT)); i++) {
+			fileName = getBaseName(identifier) + "-" + i + FILE_EXTENSION;
+		}
+		return fileName;
+	}
+
+	/**
+	 * Writes the sequence of a genome as a FASTA record, with the identifier of the genome as its header.
+	 *
+	 * @param genome
+	 *            the genome to write
+	 * @param out
+	 *            the stream to write to, which is not buffered further
+	 * @throws IOException
+	 *             if the stream can't be written
+	 */
+	public void write(Genome genome, OutputStream out) throws IOException {
+		SequenceWriter writer = new SequenceWriter(out);
+		writer.writeHeader(genome.getIdentifier());
+		try {
+			pathIndex.forEachNode(genome, node -> writer.writeSequence(node.getContent()));
+		} catch (WriteException e) {
+			throw e.getCause();
+		}
+		writer.finish();
+	}
+
+	private File write(Genome genome, File file) throws IOException {
+		try (OutputStream out = new FileOutputStream(file)) {
+			write(genome, out);
+		}
+		return file;
+	}
+
+	/**
+	 * Copies base pairs into a buffer, breaking the lines, and writes the buffer when it is full.
+	 */
+	private static final class SequenceWriter {
+		private final OutputStream out;
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+		private int size;
+		private int column;
+
+		private SequenceWriter(OutputStream out) {
+			this.out = out;
+		}
+
+		private void writeHeader(String identifier) throws IOException {
+			put('>');
+			for (int i = 0; i < identifier.length(); i++) {
+				put(identifier.charAt(i));
+			}
+			put('\n');
+		}
+
+		/**
+		 * Copies the content in runs which fit on the current line and in the buffer.
+		 */
+		private void writeSequence(String content) {
+			try {
+				for (int i = 0; i < content.length();) {
+					if (size == buffer.length) {
+						flush();
+					}
+					int run = Math.min(content.length() - i, Math.min(LINE_LENGTH - column, buffer.length - size));
+					for (int end = i + run; i < end; i++) {
+						buffer[size++] = (byte) content.charAt(i);
+					}
+					column += run;
+					if (column == LINE_LENGTH) {
+						put('\n');
+						column = 0;
+					}
+				}
+			} catch (IOException e) {
+				throw new WriteException(e);
+			}
+		}
+
+		private void flush() throws IOException {
+			out.write(buffer, 0, size);
+			size = 0;
+		}
+
+		private void put(char character) throws IOException {
+			if (size == buffer.length) {
+				flush();
+			}
+			buffer[size++] = (byte) character;
+		}
+
+		private void finish() throws IOException {
+			if (column > 0) {
+				put('\n');
+			}
+			flush();
+			out.flush();
+		}
+	}
+
+	/**
+	 * Carries an {@link IOException} out of the walk over a path.
+	 */
+	private static final class WriteException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		private WriteException(IOException cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized IOException getCause() {
+			return (IOException) super.getCause();
+		}
+	}
+}
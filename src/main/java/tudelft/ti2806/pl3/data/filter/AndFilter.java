@@ -0,0 +1,24 @@
+package tudelft.ti2806.pl3.data.filter;
+
+/**
+ * Keeps the genomes selected by both filters, and the nodes accepted by both filters.
+ */
+public class AndFilter extends ComposableFilter {
+	private final ComposableFilter first;
+	private final ComposableFilter second;
+
+	public AndFilter(ComposableFilter first, ComposableFilter second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	@Override
+	public GenomeMask getMask(GenomeMask all) {
+		return first.getMask(all).and(second.getMask(all));
+	}
+
+	@Override
+	public NodePredicate getPredicate(GenomeMask all) {
+		return NodePredicate.and(first.getPredicate(all), second.getPredicate(all));
+	}
+}
@@ -0,0 +1,155 @@
+package tudelft.ti2806.pl3.data.filter;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A set of filters reduced to a single {@link GenomeMask} and a single {@link NodePredicate}, so all filters are
+ * applied in one parallel pass over the nodes.
+ *
+ * <p>
+ * Filters which are not a {@link ComposableFilter} can't be reduced. These are applied one by one after the pass,
+ * in the order they were given.
+ */
+public final class CompiledFilter {
+	private final GenomeMask mask;
+	private final NodePredicate predicate;
+	private final List<Filter<DataNode>> remaining;
+	private final int genomeCount;
+	/**
+	 * The genomes of the node being tested, kept for each thread of the pass so testing a node allocates nothing.
+	 */
+	private final ThreadLocal<BitSet> bits;
+
+	private CompiledFilter(GenomeMask mask, NodePredicate predicate, List<Filter<DataNode>> remaining,
+			int genomeCount) {
+		this.mask = mask;
+		this.predicate = predicate;
+		this.remaining = remaining;
+		this.genomeCount = genomeCount;
+		bits = ThreadLocal.withInitial(() -> new BitSet(mask.capacity()));
+	}
+
+	/**
+	 * Reduces the given filters, which are all required to hold, to a single mask and predicate.
+	 *
+	 * @param filters
+	 * 		the filters to combine
+	 * @param genomes
+	 * 		all genomes of the graph
+	 * @return the compiled filter
+	 */
+	public static CompiledFilter compile(Collection<? extends Filter<DataNode>> filters, List<Genome> genomes) {
+		GenomeMask all = GenomeMask.all(genomes);
+		GenomeMask mask = all;
+		NodePredicate predicate = NodePredicate.ALWAYS;
+		List<Filter<DataNode>> remaining = new ArrayList<>();
+		GenomeMask counted = all;
+		for (Filter<DataNode> filter : filters) {
+			if (filter instanceof ComposableFilter) {
+				ComposableFilter composable = (ComposableFilter) filter;
+				mask = mask.and(composable.getMask(all));
+				predicate = NodePredicate.and(predicate, composable.getPredicate(all));
+			} else {
+				remaining.add(filter);
+				if (filter.getGenomes() != null) {
+					counted = counted.and(all.select(filter.getGenomes()));
+				}
+			}
+		}
+		return new CompiledFilter(mask, predicate, remaining, mask.and(counted).size());
+	}
+
+	/**
+	 * Collects all genomes which occur in the given nodes.
+	 *
+	 * @param nodes
+	 * 		the nodes
+	 * @return a list of all genomes found in the sources of the nodes
+	 */
+	public static List<Genome> collectGenomes(Collection<DataNode> nodes) {
+		Set<Genome> genomes = new LinkedHashSet<>();
+		for (DataNode node : nodes) {
+			genomes.addAll(node.getSource());
+		}
+		return new ArrayList<>(genomes);
+	}
+
+	/**
+	 * Removes all nodes from the list which are not kept by the filters, and sets the current genomes of the nodes
+	 * which are kept.
+	 *
+	 * @param nodes
+	 * 		the list of nodes to filter
+	 */
+	public void apply(List<DataNode> nodes) {
+		if (mask.isEmpty()) {
+			nodes.clear();
+		} else {
+			List<DataNode> kept = nodes.parallelStream().filter(this::test).collect(Collectors.toList());
+			nodes.clear();
+			nodes.addAll(kept);
+		}
+		for (Filter<DataNode> filter : remaining) {
+			filter.filter(nodes);
+		}
+	}
+
+	/**
+	 * Masks the genomes of the node and tests the node against the predicate. Only a node which is kept with part of
+	 * its genomes gets a new set of current genomes.
+	 *
+	 * @param node
+	 * 		the node to test
+	 * @return {@code true} if the node is kept
+	 */
+	private boolean test(DataNode node) {
+		BitSet bits = this.bits.get();
+		bits.clear();
+		int selected = 0;
+		for (Genome genome : node.getSource()) {
+			int ordinal = mask.ordinal(genome);
+			if (ordinal != -1 && mask.get(ordinal)) {
+				bits.set(ordinal);
+				selected++;
+			}
+		}
+		if (selected == 0 || !predicate.test(node, bits)) {
+			return false;
+		}
+		if (selected == node.getSource().size()) {
+			node.setCurrentGenomeList(node.getSource());
+		} else {
+			Set<Genome> current = new HashSet<>(selected * 2);
+			for (Genome genome : node.getSource()) {
+				if (mask.contains(genome)) {
+					current.add(genome);
+				}
+			}
+			node.setCurrentGenomeList(current);
+		}
+		return true;
+	}
+
+	public GenomeMask getMask() {
+		return mask;
+	}
+
+	/**
+	 * Returns the number of genomes which are kept by all filters.
+	 *
+	 * @return the number of genomes which are kept by all filters
+	 */
+	public int getGenomeCount() {
+		return genomeCount;
+	}
+}
@@ -0,0 +1,93 @@
+package tudelft.ti2806.pl3.data.filter;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link Filter} which can be combined with other filters without costing an extra pass over the nodes.
+ *
+ * <p>
+ * Every composable filter reduces to a {@link GenomeMask}, selecting which genomes are kept, and a
+ * {@link NodePredicate}, selecting which nodes are kept. A node is kept when at least one of its genomes is selected
+ * by the mask and the predicate accepts it. Any combination of composable filters reduces to a single mask and a
+ * single predicate, which are evaluated by a {@link CompiledFilter} in one pass.
+ */
+public abstract class ComposableFilter implements Filter<DataNode> {
+
+	/**
+	 * Returns the genomes kept by this filter, derived from {@code all}.
+	 *
+	 * @param all
+	 * 		the mask selecting all genomes of the graph
+	 * @return the genomes kept by this filter, derived from {@code all}
+	 */
+	public GenomeMask getMask(GenomeMask all) {
+		return all;
+	}
+
+	/**
+	 * Returns the condition a node should meet to be kept by this filter.
+	 *
+	 * @param all
+	 * 		the mask selecting all genomes of the graph
+	 * @return the condition a node should meet to be kept by this filter
+	 */
+	public NodePredicate getPredicate(GenomeMask all) {
+		return NodePredicate.ALWAYS;
+	}
+
+	/**
+	 * Combines the mask and the predicate of this filter into a single decision on a node: the node should have a
+	 * genome selected by the mask, and the predicate should accept it on the selected genomes.
+	 *
+	 * @param all
+	 * 		the mask selecting all genomes of the graph
+	 * @return the condition which accepts exactly the nodes kept by this filter on its own
+	 */
+	NodePredicate getDecision(GenomeMask all) {
+		GenomeMask mask = getMask(all);
+		NodePredicate predicate = getPredicate(all);
+		if (mask.isFull()) {
+			return NodePredicate.and((node, genomes) -> !genomes.isEmpty(), predicate);
+		}
+		if (predicate == NodePredicate.ALWAYS) {
+			return (node, genomes) -> mask.intersects(genomes);
+		}
+		return (node, genomes) -> mask.intersects(genomes) && predicate.test(node, mask.retain(genomes));
+	}
+
+	/**
+	 * Composable filters do not need to restrict the genomes.
+	 *
+	 * @return {@code null}, unless overridden by a filter which selects genomes by name
+	 */
+	@Override
+	public List<String> getGenomes() {
+		return null;
+	}
+
+	/**
+	 * Applies this filter on its own. The genomes are taken from the given nodes.
+	 *
+	 * @param nodes
+	 * 		the list of nodes, from which all nodes not kept by this filter are removed
+	 */
+	@Override
+	public void filter(List<DataNode> nodes) {
+		CompiledFilter.compile(Collections.singletonList(this), CompiledFilter.collectGenomes(nodes)).apply(nodes);
+	}
+
+	public ComposableFilter and(ComposableFilter other) {
+		return new AndFilter(this, other);
+	}
+
+	public ComposableFilter or(ComposableFilter other) {
+		return new OrFilter(this, other);
+	}
+
+	public ComposableFilter not() {
+		return new NotFilter(this);
+	}
+}
@@ -14,6 +14,12 @@ import java.util.List;
  */
 public interface Filter<T> {
 
+	/**
+	 * Returns the identifiers of the genomes kept by this filter.
+	 *
+	 * @return the identifiers of the genomes kept by this filter<br>
+	 *         {@code null} if this filter does not select genomes
+	 */
 	List<String> getGenomes();
 
 	void filter(List<T> list);
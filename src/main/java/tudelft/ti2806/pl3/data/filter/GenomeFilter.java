@@ -1,19 +1,12 @@
 package tudelft.ti2806.pl3.data.filter;
 
-import tudelft.ti2806.pl3.data.Genome;
-import tudelft.ti2806.pl3.data.graph.DataNode;
-
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * This filter will filter all nodes depending on a list of genomes.
  * @author Boris Mattijssen
  */
-public class GenomeFilter implements Filter<DataNode> {
+public class GenomeFilter extends ComposableFilter {
 	public static final String NAME = "genome";
 	private final List<String> genomes;
 	
@@ -27,27 +20,16 @@ public class GenomeFilter implements Filter<DataNode> {
 	}
 
 	/**
-	 * Filter that removes all nodes that are not in the genome list.
-	 * It also removes the genomes from the node that should be filtered out.
-	 * @param nodes
-	 *          the list of nodes
+	 * Selects the genomes in the genome list. The nodes without any of these genomes are removed, and the other
+	 * genomes are removed from the nodes which are kept.
+	 *
+	 * @param all
+	 *          the mask selecting all genomes
+	 * @return the mask selecting the genomes in the genome list
 	 */
 	@Override
-	public void filter(List<DataNode> nodes) {
-		List<DataNode> remove = new ArrayList<>();
-		for (DataNode dataNode : nodes) {
-			Set<Genome> currentGenomeList = new HashSet<>();
-			currentGenomeList.addAll(
-					dataNode.getSource().stream()
-							.filter(genome -> genomes.contains(genome.getIdentifier()))
-							.collect(Collectors.toList())
-			);
-			dataNode.setCurrentGenomeList(currentGenomeList);
-			if (currentGenomeList.size() == 0) {
-				remove.add(dataNode);
-			}
-		}
-		nodes.removeAll(remove);
+	public GenomeMask getMask(GenomeMask all) {
+		return all.select(genomes);
 	}
 
 	@Override
@@ -0,0 +1,230 @@
+package tudelft.ti2806.pl3.data.filter;
+
+import tudelft.ti2806.pl3.data.Genome;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A selection of genomes, stored as a bit set over the ordinals of a fixed list of genomes. All masks derived from
+ * the same mask share this list, so combining them is a single bitwise operation.
+ *
+ * <p>
+ * Instances are immutable; every combining operation returns a new mask.
+ */
+public final class GenomeMask {
+	private final List<Genome> genomes;
+	private final Map<Genome, Integer> ordinals;
+	private final BitSet bits;
+
+	private GenomeMask(List<Genome> genomes, Map<Genome, Integer> ordinals, BitSet bits) {
+		this.genomes = genomes;
+		this.ordinals = ordinals;
+		this.bits = bits;
+	}
+
+	/**
+	 * Construct a mask selecting all of the given genomes.
+	 *
+	 * @param genomes
+	 * 		the genomes which can be selected by this mask and all masks derived from it
+	 * @return a mask with every genome selected
+	 */
+	public static GenomeMask all(List<Genome> genomes) {
+		List<Genome> list = new ArrayList<>(genomes);
+		Map<Genome, Integer> ordinals = new HashMap<>(list.size() * 2);
+		for (int i = 0; i < list.size(); i++) {
+			ordinals.put(list.get(i), i);
+		}
+		BitSet bits = new BitSet(list.size());
+		bits.set(0, list.size());
+		return new GenomeMask(list, ordinals, bits);
+	}
+
+	/**
+	 * Construct a mask selecting only the genomes with one of the given identifiers.
+	 *
+	 * @param identifiers
+	 * 		the identifiers of the genomes to select
+	 * @return a mask over the same genomes as this mask
+	 */
+	public GenomeMask select(Collection<String> identifiers) {
+		Set<String> lookup = new HashSet<>(identifiers);
+		BitSet result = new BitSet(genomes.size());
+		for (int i = 0; i < genomes.size(); i++) {
+			if (lookup.contains(genomes.get(i).getIdentifier())) {
+				result.set(i);
+			}
+		}
+		return new GenomeMask(genomes, ordinals, result);
+	}
+
+	/**
+	 * Returns a mask selecting the genomes selected by both masks.
+	 *
+	 * @param other
+	 * 		a mask derived from the same genomes
+	 * @return a mask selecting the genomes selected by both masks
+	 */
+	public GenomeMask and(GenomeMask other) {
+		BitSet result = (BitSet) bits.clone();
+		result.and(other.bits);
+		return new GenomeMask(genomes, ordinals, result);
+	}
+
+	/**
+	 * Returns a mask selecting the genomes selected by one of the masks.
+	 *
+	 * @param other
+	 * 		a mask derived from the same genomes
+	 * @return a mask selecting the genomes selected by one of the masks
+	 */
+	public GenomeMask or(GenomeMask other) {
+		BitSet result = (BitSet) bits.clone();
+		result.or(other.bits);
+		return new GenomeMask(genomes, ordinals, result);
+	}
+
+	/**
+	 * Returns a mask selecting all genomes not selected by this mask.
+	 *
+	 * @return a mask selecting all genomes not selected by this mask
+	 */
+	public GenomeMask not() {
+		BitSet result = (BitSet) bits.clone();
+		result.flip(0, genomes.size());
+		return new GenomeMask(genomes, ordinals, result);
+	}
+
+	/**
+	 * Looks up the ordinal of a genome.
+	 *
+	 * @param genome
+	 * 		the genome to look up
+	 * @return the ordinal of the genome, or -1 if the genome is not one of the genomes of this mask
+	 */
+	public int ordinal(Genome genome) {
+		Integer ordinal = ordinals.get(genome);
+		return ordinal == null ? -1 : ordinal;
+	}
+
+	public boolean get(int ordinal) {
+		return bits.get(ordinal);
+	}
+
+	public boolean contains(Genome genome) {
+		int ordinal = ordinal(genome);
+		return ordinal != -1 && bits.get(ordinal);
+	}
+
+	public boolean isFull() {
+		return bits.cardinality() == genomes.size();
+	}
+
+	public boolean isEmpty() {
+		return bits.isEmpty();
+	}
+
+	/**
+	 * Returns the number of selected genomes.
+	 *
+	 * @return the number of selected genomes
+	 */
+	public int size() {
+		return bits.cardinality();
+	}
+
+	/**
+	 * Returns the number of genomes which can be selected by this mask.
+	 *
+	 * @return the number of genomes which can be selected by this mask
+	 */
+	public int capacity() {
+		return genomes.size();
+	}
+
+	/**
+	 * Checks if this mask selects one of the genomes set in the given bits.
+	 *
+	 * @param other
+	 * 		bits indexed on the ordinals of this mask
+	 * @return {@code true} if at least one of the given bits is selected by this mask
+	 */
+	public boolean intersects(BitSet other) {
+		return bits.intersects(other);
+	}
+
+	/**
+	 * Returns the bits of the given genomes, whether they are selected by this mask or not.
+	 *
+	 * @param source
+	 * 		the genomes, of which those which are not one of the genomes of this mask are ignored
+	 * @return bits indexed on the ordinals of this mask, set for each of the given genomes
+	 */
+	public BitSet toBits(Collection<Genome> source) {
+		BitSet result = new BitSet(genomes.size());
+		for (Genome genome : source) {
+			int ordinal = ordinal(genome);
+			if (ordinal != -1) {
+				result.set(ordinal);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a copy of the given bits with all genomes not selected by this mask cleared.
+	 *
+	 * @param other
+	 * 		bits indexed on the ordinals of this mask
+	 * @return a copy of the given bits with all genomes not selected by this mask cleared
+	 */
+	public BitSet retain(BitSet other) {
+		BitSet result = (BitSet) other.clone();
+		result.and(bits);
+		return result;
+	}
+
+	/**
+	 * Checks if another mask selects the same genomes out of the same list of genomes.
+	 *
+	 * @param obj
+	 * 		the other mask
+	 * @return {@code true} if both masks select the same genomes
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GenomeMask)) {
+			return false;
+		}
+		GenomeMask other = (GenomeMask) obj;
+		return bits.equals(other.bits) && (genomes == other.genomes || genomes.equals(other.genomes));
+	}
+
+	@Override
+	public int hashCode() {
+		return bits.hashCode();
+	}
+
+	/**
+	 * Returns the identifiers of all selected genomes.
+	 *
+	 * @return the identifiers of all selected genomes
+	 */
+	public List<String> getIdentifiers() {
+		List<String> result = new ArrayList<>(size());
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			result.add(genomes.get(i).getIdentifier());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,19 @@
+package tudelft.ti2806.pl3.data.filter;
+
+/**
+ * Keeps the nodes which are shared by at least the given number of genomes. Only the genomes left after masking are
+ * counted.
+ */
+public class MinimumGenomeCountFilter extends ComposableFilter {
+	public static final String NAME = "minimumGenomeCount";
+	private final int count;
+
+	public MinimumGenomeCountFilter(int count) {
+		this.count = count;
+	}
+
+	@Override
+	public NodePredicate getPredicate(GenomeMask all) {
+		return (node, genomes) -> genomes.cardinality() >= count;
+	}
+}
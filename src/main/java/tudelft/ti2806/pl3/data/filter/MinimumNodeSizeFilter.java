@@ -0,0 +1,18 @@
+package tudelft.ti2806.pl3.data.filter;
+
+/**
+ * Keeps the nodes which contain at least the given number of base pairs.
+ */
+public class MinimumNodeSizeFilter extends ComposableFilter {
+	public static final String NAME = "minimumNodeSize";
+	private final long size;
+
+	public MinimumNodeSizeFilter(long size) {
+		this.size = size;
+	}
+
+	@Override
+	public NodePredicate getPredicate(GenomeMask all) {
+		return (node, genomes) -> node.getBasePairCount() >= size;
+	}
+}
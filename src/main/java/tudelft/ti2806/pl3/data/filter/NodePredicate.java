@@ -0,0 +1,58 @@
+package tudelft.ti2806.pl3.data.filter;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+
+import java.util.BitSet;
+
+/**
+ * A condition on a single {@link DataNode}, evaluated after its genomes are masked by a {@link GenomeMask}.
+ *
+ * <p>
+ * The combining methods fold away {@link #ALWAYS}, so a chain of filters without any node condition costs nothing
+ * per node, and they short-circuit on the first operand which decides the outcome.
+ */
+@FunctionalInterface
+public interface NodePredicate {
+	/**
+	 * The condition which accepts every node.
+	 */
+	NodePredicate ALWAYS = (node, genomes) -> true;
+
+	/**
+	 * Tests if a node should be kept.
+	 *
+	 * @param node
+	 * 		the node to test
+	 * @param genomes
+	 * 		the genomes of the node which are left after masking, indexed on the ordinals of the mask
+	 * @return {@code true} if the node should be kept
+	 */
+	boolean test(DataNode node, BitSet genomes);
+
+	/**
+	 * Returns a condition which accepts a node only if both conditions accept it.
+	 *
+	 * @return a condition which accepts a node only if both conditions accept it
+	 */
+	static NodePredicate and(NodePredicate first, NodePredicate second) {
+		if (first == ALWAYS) {
+			return second;
+		}
+		if (second == ALWAYS) {
+			return first;
+		}
+		return (node, genomes) -> first.test(node, genomes) && second.test(node, genomes);
+	}
+
+	/**
+	 * Returns a condition which accepts a node if one of the conditions accepts it.
+	 *
+	 * @return a condition which accepts a node if one of the conditions accepts it
+	 */
+	static NodePredicate or(NodePredicate first, NodePredicate second) {
+		if (first == ALWAYS || second == ALWAYS) {
+			return ALWAYS;
+		}
+		return (node, genomes) -> first.test(node, genomes) || second.test(node, genomes);
+	}
+}
@@ -0,0 +1,24 @@
+package tudelft.ti2806.pl3.data.filter;
+
+/**
+ * Inverts a filter: a node is kept exactly when the inverted filter would not keep it. The genome selection and the
+ * node condition of the inverted filter are combined into one decision before it is inverted, so the genomes of the
+ * nodes which are kept are not restricted, and the inverse of {@code a.and(b)} is {@code a.not().or(b.not())}.
+ *
+ * <p>
+ * The decision is taken on all genomes of the node, not on the genomes left by the masks of the filters around this
+ * one, so {@code a.and(b.not())} removes the nodes of genome b even though the mask of a clears it.
+ */
+public class NotFilter extends ComposableFilter {
+	private final ComposableFilter filter;
+
+	public NotFilter(ComposableFilter filter) {
+		this.filter = filter;
+	}
+
+	@Override
+	public NodePredicate getPredicate(GenomeMask all) {
+		NodePredicate decision = filter.getDecision(all);
+		return (node, genomes) -> !decision.test(node, all.toBits(node.getSource()));
+	}
+}
@@ -0,0 +1,52 @@
+package tudelft.ti2806.pl3.data.filter;
+
+/**
+ * Keeps the genomes selected by either filter, and the nodes accepted by either filter.
+ *
+ * <p>
+ * Each operand only judges a node on the genomes it selects itself, so combining a genome selection with a node
+ * condition keeps the nodes of the selected genomes and the nodes meeting the condition.
+ */
+public class OrFilter extends ComposableFilter {
+	private final ComposableFilter first;
+	private final ComposableFilter second;
+
+	public OrFilter(ComposableFilter first, ComposableFilter second) {
+		this.first = first;
+		this.second = second;
+	}
+
+	@Override
+	public GenomeMask getMask(GenomeMask all) {
+		return first.getMask(all).or(second.getMask(all));
+	}
+
+	@Override
+	public NodePredicate getPredicate(GenomeMask all) {
+		GenomeMask union = getMask(all);
+		return NodePredicate.or(restrict(first, all, union), restrict(second, all, union));
+	}
+
+	/**
+	 * Restricts the predicate of an operand to the genomes selected by that operand.
+	 *
+	 * @param operand
+	 * 		the operand
+	 * @param all
+	 * 		the mask selecting all genomes
+	 * @param union
+	 * 		the mask of this filter
+	 * @return the predicate of the operand, evaluated on its own genomes only
+	 */
+	private static NodePredicate restrict(ComposableFilter operand, GenomeMask all, GenomeMask union) {
+		GenomeMask mask = operand.getMask(all);
+		NodePredicate predicate = operand.getPredicate(all);
+		if (mask.equals(union)) {
+			return predicate;
+		}
+		if (predicate == NodePredicate.ALWAYS) {
+			return (node, genomes) -> mask.intersects(genomes);
+		}
+		return (node, genomes) -> mask.intersects(genomes) && predicate.test(node, mask.retain(genomes));
+	}
+}
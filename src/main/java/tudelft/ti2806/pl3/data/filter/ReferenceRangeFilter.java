@@ -0,0 +1,28 @@
+package tudelft.ti2806.pl3.data.filter;
+
+/**
+ * Keeps the nodes which overlap with a range on the reference genome.
+ */
+public class ReferenceRangeFilter extends ComposableFilter {
+	public static final String NAME = "referenceRange";
+	private final int start;
+	private final int end;
+
+	/**
+	 * Construct a filter keeping all nodes overlapping with the given range.
+	 *
+	 * @param start
+	 * 		the first reference position of the range
+	 * @param end
+	 * 		the last reference position of the range
+	 */
+	public ReferenceRangeFilter(int start, int end) {
+		this.start = start;
+		this.end = end;
+	}
+
+	@Override
+	public NodePredicate getPredicate(GenomeMask all) {
+		return (node, genomes) -> node.getRefStartPoint() <= end && node.getRefEndPoint() >= start;
+	}
+}
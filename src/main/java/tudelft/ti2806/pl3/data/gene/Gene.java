@@ -2,24 +2,37 @@ package tudelft.ti2806.pl3.data.gene;
 
 /**
  * A gene from the gene annotations database.
- * A gene consists of a name and a start and end index.
+ * A gene consists of a name and a start and end index, and the strand it is read from.
  */
 public class Gene implements Comparable<Gene> {
 
 	private final String name;
 	private final int end;
 	private final int start;
+	private final boolean reverse;
 
 	/**
-	 * Construct a gene containing a name and start and stop index.
+	 * Construct a gene on the forward strand containing a name and start and stop index.
 	 * @param name The gene's name
 	 * @param start The gene's start index
 	 * @param end The gene's end index
 	 */
 	public Gene(String name, int start, int end) {
+		this(name, start, end, false);
+	}
+
+	/**
+	 * Construct a gene containing a name, start and stop index and strand.
+	 * @param name The gene's name
+	 * @param start The gene's start index
+	 * @param end The gene's end index
+	 * @param reverse Whether the gene is read from the reverse strand, from its end index to its start index
+	 */
+	public Gene(String name, int start, int end, boolean reverse) {
 		this.name = name;
 		this.start = start;
 		this.end = end;
+		this.reverse = reverse;
 	}
 
 	public String getName() {
@@ -34,6 +47,10 @@ public class Gene implements Comparable<Gene> {
 		return start;
 	}
 
+	public boolean isReverse() {
+		return reverse;
+	}
+
 	/**
 	 * Check whether two genes are equal
 	 * based on name and start and end index.
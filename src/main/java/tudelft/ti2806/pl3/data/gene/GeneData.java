@@ -45,11 +45,13 @@ public class GeneData {
 	private static final String GENE_ATTRIBUTE_DELIMITER = ";";
 	private static final String GENE_DISPLAY_NAME_IDENTIFIER = "displayName=";
 	private static final String GENE_TYPE = "CDS";
+	private static final String GENE_REVERSE_STRAND = "-";
 
 	private static final int GENE_TYPE_POSITION = 2;
 	private static final int GENE_ATTRIBUTES_POSITION = 8;
 	private static final int GENE_REF_START_POSITION = 3;
 	private static final int GENE_REF_END_POSITION = 4;
+	private static final int GENE_STRAND_POSITION = 6;
 	private static final int GENE_ATTRIBUTE_DISPLAY_NAME_POSITION = 3;
 
 	/**
@@ -154,7 +156,8 @@ public class GeneData {
 					attributes[GENE_ATTRIBUTE_DISPLAY_NAME_POSITION]
 						.replace(GENE_DISPLAY_NAME_IDENTIFIER, ""),
 					Integer.parseInt(tokens[GENE_REF_START_POSITION]),
-					Integer.parseInt(tokens[GENE_REF_END_POSITION])
+					Integer.parseInt(tokens[GENE_REF_END_POSITION]),
+					GENE_REVERSE_STRAND.equals(tokens[GENE_STRAND_POSITION])
 			);
 			genes.add(gene);
 			geneMap.put(gene.getName(), new GeneLabel(gene.getName()));
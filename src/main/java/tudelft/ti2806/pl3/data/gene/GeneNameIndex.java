@@ -0,0 +1,343 @@
+package tudelft.ti2806.pl3.data.gene;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An index of the names of a list of genes, to find the genes matching what the user typed while typing.
+ *
+ * <p>
+ * The genes are sorted on their name, ignoring case. A trie of the names gives the genes starting with a prefix as
+ * one range of this order, found in the time of reading the prefix. The genes containing the query elsewhere are
+ * found by intersecting the lists of genes containing each pair of consecutive characters of the query. When there
+ * are only a few of these, genes with a name close to the query are added as well: the names which contain the query
+ * with at most one typo, or two for longer queries. A typo removes at most two pairs of the query from the name, so
+ * only the genes with enough pairs in common are compared. A short query can have no pair in common with a close
+ * name, so then all names are compared.
+ * </p>
+ */
+public class GeneNameIndex {
+	/**
+	 * Typos are only looked for when there are fewer matches than this.
+	 */
+	static final int FUZZY_THRESHOLD = 20;
+	private static final int LONG_QUERY = 6;
+
+	private final Gene[] genes;
+	private final String[] names;
+
+	/**
+	 * The trie, where each node is a character with the range of the genes starting with the characters up to it.
+	 * The children of a node are a list of siblings. Node 0 is the root.
+	 */
+	private char[] trieCharacter = new char[64];
+	private int[] trieFirstChild = new int[64];
+	private int[] trieNextSibling = new int[64];
+	private int[] trieFrom = new int[64];
+	private int[] trieTo = new int[64];
+	private int trieSize = 0;
+
+	/**
+	 * The genes containing each pair of characters, in the order of the genes.
+	 */
+	private final Map<Integer, int[]> pairs = new HashMap<>();
+
+	/**
+	 * Construct the index of a list of genes.
+	 *
+	 * @param genes
+	 *            the genes
+	 */
+	public GeneNameIndex(List<Gene> genes) {
+		this.genes = genes.toArray(new Gene[genes.size()]);
+		Arrays.sort(this.genes, (a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+		names = new String[this.genes.length];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = this.genes[i].getName().toLowerCase(Locale.ROOT);
+		}
+		addTrieNode('\0', 0);
+		trieTo[0] = names.length;
+		for (int i = 0; i < names.length; i++) {
+			insert(i);
+		}
+		indexPairs();
+	}
+
+	private int addTrieNode(char character, int from) {
+		if (trieSize == trieCharacter.length) {
+			int capacity = trieSize * 2;
+			trieCharacter = Arrays.copyOf(trieCharacter, capacity);
+			trieFirstChild = Arrays.copyOf(trieFirstChild, capacity);
+			trieNextSibling = Arrays.copyOf(trieNextSibling, capacity);
+			trieFrom = Arrays.copyOf(trieFrom, capacity);
+			trieTo = Arrays.copyOf(trieTo, capacity);
+		}
+		trieCharacter[trieSize] = character;
+		trieFirstChild[trieSize] = -1;
+		trieNextSibling[trieSize] = -1;
+		trieFrom[trieSize] = from;
+		trieTo[trieSize] = from;
+		return trieSize++;
+	}
+
+	/**
+	 * Inserts the name of a gene. The names are inserted in order, so each node covers a range of genes.
+	 */
+	private void insert(int gene) {
+		int node = 0;
+		for (int i = 0; i < names[gene].length(); i++) {
+			char character = names[gene].charAt(i);
+			int child = findChild(node, character);
+			if (child < 0) {
+				child = addTrieNode(character, gene);
+				trieNextSibling[child] = trieFirstChild[node];
+				trieFirstChild[node] = child;
+			}
+			trieTo[child] = gene + 1;
+			node = child;
+		}
+	}
+
+	private int findChild(int node, char character) {
+		for (int child = trieFirstChild[node]; child >= 0; child = trieNextSibling[child]) {
+			if (trieCharacter[child] == character) {
+				return child;
+			}
+		}
+		return -1;
+	}
+
+	private void indexPairs() {
+		Map<Integer, List<Integer>> lists = new HashMap<>();
+		for (int gene = 0; gene < names.length; gene++) {
+			for (int i = 0; i + 1 < names[gene].length(); i++) {
+				List<Integer> list = lists.computeIfAbsent(pairKey(names[gene], i), key -> new ArrayList<>());
+				if (list.isEmpty() || list.get(list.size() - 1) != gene) {
+					list.add(gene);
+				}
+			}
+		}
+		for (Map.Entry<Integer, List<Integer>> entry : lists.entrySet()) {
+			pairs.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+		}
+	}
+
+	private static int pairKey(String name, int index) {
+		return name.charAt(index) << Character.SIZE | name.charAt(index + 1);
+	}
+
+	public int size() {
+		return genes.length;
+	}
+
+	/**
+	 * Gets a gene by its index in the order of the names.
+	 *
+	 * @return the gene at an index of the order of the index
+	 */
+	public Gene getGene(int index) {
+		return genes[index];
+	}
+
+	/**
+	 * Finds the genes matching a query, ignoring case. The genes starting with the query come first, then the genes
+	 * containing it, and then the genes with a name close to it. Each group is in the order of the names, and the
+	 * close names are sorted on their number of typos first.
+	 *
+	 * @param query
+	 *            the text typed by the user
+	 * @return the indices of the matching genes, see {@link #getGene(int)}, or all genes when the query is empty
+	 */
+	public int[] search(String query) {
+		String text = query.trim().toLowerCase(Locale.ROOT);
+		if (text.isEmpty()) {
+			int[] all = new int[genes.length];
+			for (int i = 0; i < all.length; i++) {
+				all[i] = i;
+			}
+			return all;
+		}
+		boolean[] found = new boolean[genes.length];
+		int[] result = new int[genes.length];
+		int count = 0;
+		int node = findPrefix(text);
+		if (node >= 0) {
+			for (int gene = trieFrom[node]; gene < trieTo[node]; gene++) {
+				found[gene] = true;
+				result[count++] = gene;
+			}
+		}
+		for (int gene : getSubstringCandidates(text)) {
+			if (!found[gene] && names[gene].contains(text)) {
+				found[gene] = true;
+				result[count++] = gene;
+			}
+		}
+		if (count < FUZZY_THRESHOLD && text.length() > 2) {
+			count = addCloseNames(text, found, result, count);
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Finds the node of the trie of a prefix.
+	 *
+	 * @return the trie node of a prefix, or -1 if no name starts with it
+	 */
+	private int findPrefix(String prefix) {
+		int node = 0;
+		for (int i = 0; i < prefix.length() && node >= 0; i++) {
+			node = findChild(node, prefix.charAt(i));
+		}
+		return node;
+	}
+
+	/**
+	 * Finds the genes which may contain the text.
+	 *
+	 * @return the genes containing all pairs of characters of the text, or all genes for a single character
+	 */
+	private int[] getSubstringCandidates(String text) {
+		if (text.length() < 2) {
+			return search("");
+		}
+		int[] candidates = null;
+		for (int i = 0; i + 1 < text.length(); i++) {
+			int[] list = pairs.get(pairKey(text, i));
+			if (list == null) {
+				return new int[0];
+			}
+			candidates = candidates == null ? list : intersect(candidates, list);
+		}
+		return candidates;
+	}
+
+	private static int[] intersect(int[] a, int[] b) {
+		int[] result = new int[Math.min(a.length, b.length)];
+		int count = 0;
+		for (int i = 0, j = 0; i < a.length && j < b.length;) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[count++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Adds the genes which contain the text with a few typos, sorted on the number of typos. When the typos can remove
+	 * all pairs of the text, the pairs don't rule out any gene and the edit distance of all names is computed.
+	 */
+	private int addCloseNames(String text, boolean[] found, int[] result, int count) {
+		if (text.length() > Long.SIZE) {
+			return count;
+		}
+		int maxTypos = text.length() < LONG_QUERY ? 1 : 2;
+		int textPairs = text.length() - 1;
+		int minShared = textPairs - 2 * maxTypos;
+		int[] shared = new int[genes.length];
+		for (int i = 0; i < textPairs && minShared > 0; i++) {
+			if (text.indexOf(text.substring(i, i + 2)) < i) {
+				continue;
+			}
+			int[] list = pairs.get(pairKey(text, i));
+			if (list != null) {
+				for (int gene : list) {
+					shared[gene]++;
+				}
+			}
+		}
+		long[] masks = getMasks(text);
+		int[][] byTypos = new int[maxTypos + 1][];
+		int[] sizes = new int[maxTypos + 1];
+		for (int gene = 0; gene < genes.length; gene++) {
+			if (!found[gene] && shared[gene] >= minShared) {
+				int typos = getTypos(text, masks, names[gene]);
+				if (typos <= maxTypos) {
+					if (byTypos[typos] == null) {
+						byTypos[typos] = new int[genes.length];
+					}
+					byTypos[typos][sizes[typos]++] = gene;
+				}
+			}
+		}
+		for (int typos = 0; typos <= maxTypos; typos++) {
+			for (int i = 0; i < sizes[typos]; i++) {
+				result[count++] = byTypos[typos][i];
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Computes the masks of the characters of a text.
+	 *
+	 * @return for each ASCII character, the bits of the positions of the text with that character
+	 */
+	static long[] getMasks(String text) {
+		long[] masks = new long[128];
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) < masks.length) {
+				masks[text.charAt(i)] |= 1L << i;
+			}
+		}
+		return masks;
+	}
+
+	private static long getMask(String text, long[] masks, char character) {
+		if (character < masks.length) {
+			return masks[character];
+		}
+		long mask = 0;
+		for (int i = text.indexOf(character); i >= 0; i = text.indexOf(character, i + 1)) {
+			mask |= 1L << i;
+		}
+		return mask;
+	}
+
+	/**
+	 * Computes the smallest edit distance between the text and any part of the name, with the bit-parallel algorithm
+	 * of Myers: the column of the edit distance matrix of each character of the name is kept as the bits of the
+	 * positions of the text where the distance goes up or down.
+	 *
+	 * @param text
+	 *            the text, of at most 64 characters
+	 * @param masks
+	 *            the masks of the text, see {@link #getMasks(String)}
+	 * @return the number of typos
+	 */
+	static int getTypos(String text, long[] masks, String name) {
+		long last = 1L << (text.length() - 1);
+		long up = -1L;
+		long down = 0;
+		int score = text.length();
+		int best = score;
+		for (int j = 0; j < name.length(); j++) {
+			long equal = getMask(text, masks, name.charAt(j));
+			final long verticalChange = equal | down;
+			long horizontalChange = (((equal & up) + up) ^ up) | equal;
+			long horizontalUp = down | ~(horizontalChange | up);
+			long horizontalDown = up & horizontalChange;
+			if ((horizontalUp & last) != 0) {
+				score++;
+			} else if ((horizontalDown & last) != 0) {
+				score--;
+			}
+			horizontalUp <<= 1;
+			horizontalDown <<= 1;
+			up = horizontalDown | ~(verticalChange | horizontalUp);
+			down = horizontalUp & verticalChange;
+			best = Math.min(best, score);
+		}
+		return best;
+	}
+}
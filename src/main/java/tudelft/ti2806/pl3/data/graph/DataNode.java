@@ -4,10 +4,10 @@ import tudelft.ti2806.pl3.data.BasePair;
 import tudelft.ti2806.pl3.data.Genome;
 import tudelft.ti2806.pl3.data.label.Label;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * The SingleNode is a node parsed from the original data. No changes should or
@@ -24,7 +24,10 @@ public class DataNode {
 	private final int refStartPoint;
 	private final int refEndPoint;
 	private final String content;
-	private final List<Label> labelList = new ArrayList<>();
+	/**
+	 * The labels, which are copied when one is added, so the wrappers and views can read them while labels are added.
+	 */
+	private final List<Label> labelList = new CopyOnWriteArrayList<>();
 
 	private int nCounter;
 
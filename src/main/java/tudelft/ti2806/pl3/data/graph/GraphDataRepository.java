@@ -3,6 +3,7 @@ package tudelft.ti2806.pl3.data.graph;
 import tudelft.ti2806.pl3.data.Genome;
 import tudelft.ti2806.pl3.data.gene.Gene;
 import tudelft.ti2806.pl3.data.gene.GeneData;
+import tudelft.ti2806.pl3.data.gene.GeneNameIndex;
 import tudelft.ti2806.pl3.data.meta.MetaParser;
 import tudelft.ti2806.pl3.util.observable.LoadingObservable;
 import tudelft.ti2806.pl3.util.observers.LoadingObserver;
@@ -26,6 +27,7 @@ public class GraphDataRepository extends AbstractGraphData implements LoadingObs
 
 	private final ArrayList<LoadingObserver> observers = new ArrayList<>();
 	private final List<GraphParsedObserver> graphParsedObserver = new ArrayList<>();
+	private GeneNameIndex geneIndex = new GeneNameIndex(new ArrayList<>());
 
 	/**
 	 * Construct a empty {@code GraphDataRepository}.
@@ -78,6 +80,15 @@ public class GraphDataRepository extends AbstractGraphData implements LoadingObs
 		return this.genes;
 	}
 
+	/**
+	 * Gets the index of the gene names.
+	 *
+	 * @return the index of the names of the genes of the graph, built when the graph is parsed
+	 */
+	public GeneNameIndex getGeneIndex() {
+		return geneIndex;
+	}
+
 	@Override
 	public List<Genome> getGenomes() {
 		return this.getGenomeClone();
@@ -123,6 +134,7 @@ public class GraphDataRepository extends AbstractGraphData implements LoadingObs
 		Map<String, Genome> genomeMap = new HashMap<>();
 		Map<Integer, DataNode> nodeMap = parseNodes(nodesFile, genomeMap, geneData);
 		genes.sort(Comparator.<Gene>naturalOrder());
+		geneIndex = new GeneNameIndex(genes);
 		List<DataNode> nodeList = new ArrayList<>();
 		nodeList.addAll(nodeMap.values());
 		List<Genome> genomeList = new ArrayList<>();
@@ -0,0 +1,52 @@
+package tudelft.ti2806.pl3.data.label;
+
+import tudelft.ti2806.pl3.data.variant.CodonChange;
+
+/**
+ * A label of a node of an allele which changes an amino acid of a gene. Its text is the name of the gene, so it is
+ * grouped with the other labels of the gene.
+ */
+public class ImpactLabel extends Label {
+
+	private final CodonChange change;
+
+	public ImpactLabel(CodonChange change) {
+		super(change.getGene().getName());
+		this.change = change;
+	}
+
+	public CodonChange getChange() {
+		return change;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		if (!super.equals(o)) {
+			return false;
+		}
+		ImpactLabel that = (ImpactLabel) o;
+
+		return change.toString().equals(that.change.toString());
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + super.hashCode();
+		result = prime * result + change.toString().hashCode();
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return change.toString();
+	}
+}
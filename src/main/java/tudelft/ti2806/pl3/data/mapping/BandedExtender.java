@@ -0,0 +1,224 @@
+package tudelft.ti2806.pl3.data.mapping;
+
+import java.util.Arrays;
+
+/**
+ * Aligns a part of a read to the graph, starting from a position in a node and following the edges in one direction.
+ * All paths are tried depth first, and the path with the fewest edits is kept.
+ *
+ * <p>
+ * The read is aligned with a banded edit distance: only alignments with at most the given number of edits are
+ * computed, so each base pair of the graph costs one row of {@code 2 * maxEdits + 1} cells. A path is left as soon
+ * as every cell of its row has more edits than the best alignment found, or than allowed. The read has to be
+ * aligned completely, but may end anywhere in the graph.
+ * </p>
+ *
+ * <p>
+ * An extender keeps the path of its last alignment and is not thread safe, so each thread should use its own.
+ * </p>
+ */
+public class BandedExtender {
+	private static final int INFINITY = Integer.MAX_VALUE / 2;
+	/**
+	 * The number of nodes which may be entered for one alignment, which limits the search in regions with many
+	 * variants.
+	 */
+	static final int MAX_BRANCHES = 512;
+
+	private final byte[][] sequences;
+	private final int[][] successors;
+	private final int[][] predecessors;
+
+	private byte[] read;
+	private int from;
+	private int to;
+	private boolean forward;
+	private int length;
+	private int band;
+	private int best;
+	private int branches;
+
+	private int[] pathNodes = new int[16];
+	private int[] pathBases = new int[16];
+	private int[] bestNodes = new int[16];
+	private int[] bestBases = new int[16];
+	private int bestLength;
+
+	/**
+	 * Construct an extender on a graph.
+	 *
+	 * @param sequences
+	 *            the codes of the content of each node
+	 * @param successors
+	 *            the nodes after each node
+	 * @param predecessors
+	 *            the nodes before each node
+	 */
+	public BandedExtender(byte[][] sequences, int[][] successors, int[][] predecessors) {
+		this.sequences = sequences;
+		this.successors = successors;
+		this.predecessors = predecessors;
+	}
+
+	/**
+	 * Aligns a part of a read, starting at a position in a node. A position outside of the node starts in the
+	 * neighbours of the node.
+	 *
+	 * @param read
+	 *            the codes of the read
+	 * @param from
+	 *            the first base pair of the part of the read
+	 * @param to
+	 *            the base pair after the part of the read
+	 * @param forward
+	 *            if the part is aligned from its first base pair along the edges, or from its last base pair against
+	 *            the edges
+	 * @param node
+	 *            the node to start in
+	 * @param position
+	 *            the position in the node of the first base pair to align to
+	 * @param maxEdits
+	 *            the number of edits allowed
+	 * @return the number of edits of the best alignment, or -1 if it needs more than maxEdits
+	 */
+	public int extend(byte[] read, int from, int to, boolean forward, int node, int position, int maxEdits) {
+		this.read = read;
+		this.from = from;
+		this.to = to;
+		this.forward = forward;
+		this.length = to - from;
+		this.band = maxEdits;
+		this.best = maxEdits + 1;
+		this.branches = 0;
+		bestLength = 0;
+		if (length == 0) {
+			return 0;
+		}
+		int width = 2 * band + 1;
+		int[] row = new int[width];
+		for (int c = 0; c < width; c++) {
+			int i = c - band;
+			row[c] = i >= 0 && i <= length ? i : INFINITY;
+		}
+		walk(node, position, row, 0, 0);
+		return best <= maxEdits ? best : -1;
+	}
+
+	/**
+	 * Aligns the read along a node, and continues in its neighbours when the node ends.
+	 *
+	 * @param row
+	 *            the cells of the last row, which are not changed
+	 * @param j
+	 *            the number of base pairs of the graph aligned so far
+	 * @param depth
+	 *            the number of nodes on the path before this node
+	 */
+	private void walk(int node, int position, int[] row, int j, int depth) {
+		if (depth == pathNodes.length) {
+			pathNodes = Arrays.copyOf(pathNodes, depth * 2);
+			pathBases = Arrays.copyOf(pathBases, depth * 2);
+		}
+		pathNodes[depth] = node;
+		pathBases[depth] = 0;
+		byte[] sequence = sequences[node];
+		int width = row.length;
+		int[] previous = row.clone();
+		int[] current = new int[width];
+		int step = forward ? 1 : -1;
+		for (; position >= 0 && position < sequence.length; position += step) {
+			j++;
+			byte code = sequence[position];
+			int min = INFINITY;
+			for (int c = 0; c < width; c++) {
+				int i = j - band + c;
+				int value;
+				if (i < 0 || i > length) {
+					value = INFINITY;
+				} else if (i == 0) {
+					value = j;
+				} else {
+					value = previous[c] + (code == readCode(i - 1) && code < MinimizerIndex.UNKNOWN ? 0 : 1);
+					if (c + 1 < width) {
+						value = Math.min(value, previous[c + 1] + 1);
+					}
+					if (c > 0) {
+						value = Math.min(value, current[c - 1] + 1);
+					}
+				}
+				current[c] = value;
+				min = Math.min(min, value);
+			}
+			pathBases[depth]++;
+			int end = length - j + band;
+			if (end >= 0 && end < width && current[end] < best) {
+				keepPath(current[end], depth);
+			}
+			if (min >= best) {
+				return;
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		int[] next = forward ? successors[node] : predecessors[node];
+		if (next.length == 0) {
+			// The graph ends, so the rest of the read is inserted.
+			for (int c = 0; c < width; c++) {
+				int i = j - band + c;
+				if (i >= 0 && i <= length && previous[c] < INFINITY && previous[c] + length - i < best) {
+					keepPath(previous[c] + length - i, depth);
+				}
+			}
+			return;
+		}
+		for (int neighbour : next) {
+			if (++branches > MAX_BRANCHES) {
+				return;
+			}
+			walk(neighbour, forward ? 0 : sequences[neighbour].length - 1, previous, j, depth + 1);
+		}
+	}
+
+	private int readCode(int i) {
+		return forward ? read[from + i] : read[to - 1 - i];
+	}
+
+	private void keepPath(int edits, int depth) {
+		best = edits;
+		bestLength = depth + 1;
+		if (bestNodes.length < bestLength) {
+			bestNodes = new int[pathNodes.length];
+			bestBases = new int[pathNodes.length];
+		}
+		System.arraycopy(pathNodes, 0, bestNodes, 0, bestLength);
+		System.arraycopy(pathBases, 0, bestBases, 0, bestLength);
+	}
+
+	/**
+	 * Gets the length of the path of the last alignment.
+	 *
+	 * @return the number of nodes on the path of the last alignment
+	 */
+	public int getPathLength() {
+		return bestLength;
+	}
+
+	/**
+	 * Gets a node of the path of the last alignment.
+	 *
+	 * @return the node at an index of the path of the last alignment
+	 */
+	public int getPathNode(int index) {
+		return bestNodes[index];
+	}
+
+	/**
+	 * Gets the aligned base pairs of a node of the path of the last alignment.
+	 *
+	 * @return the number of base pairs of a node of the path which were aligned to the read
+	 */
+	public int getPathBases(int index) {
+		return bestBases[index];
+	}
+}
@@ -0,0 +1,67 @@
+package tudelft.ti2806.pl3.data.mapping;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+
+/**
+ * The coverage of the nodes of a graph by mapped reads, given as the mean depth of each node: the number of aligned
+ * base pairs divided by the length of the node. The depths are kept in one array indexed on the id of the node.
+ */
+public class Coverage {
+	private final float[] depthById;
+	private final float maxDepth;
+	private final long mappedReads;
+	private final long unmappedReads;
+
+	/**
+	 * Construct the coverage of a list of nodes.
+	 *
+	 * @param nodes
+	 *            the nodes
+	 * @param bases
+	 *            the number of aligned base pairs of each node, at the index of the node in the list
+	 * @param mappedReads
+	 *            the number of reads which were mapped
+	 * @param unmappedReads
+	 *            the number of reads which could not be mapped
+	 */
+	public Coverage(DataNode[] nodes, long[] bases, long mappedReads, long unmappedReads) {
+		int maxId = -1;
+		for (DataNode node : nodes) {
+			maxId = Math.max(maxId, node.getId());
+		}
+		depthById = new float[maxId + 1];
+		float max = 0;
+		for (int i = 0; i < nodes.length; i++) {
+			int length = nodes[i].getContent().length();
+			if (nodes[i].getId() >= 0 && length > 0) {
+				depthById[nodes[i].getId()] = (float) bases[i] / length;
+				max = Math.max(max, depthById[nodes[i].getId()]);
+			}
+		}
+		this.maxDepth = max;
+		this.mappedReads = mappedReads;
+		this.unmappedReads = unmappedReads;
+	}
+
+	/**
+	 * Gets the mean depth of a node.
+	 *
+	 * @return the mean depth of a node, or 0 if the node wasn't part of the mapped graph
+	 */
+	public float getDepth(DataNode node) {
+		int id = node.getId();
+		return id >= 0 && id < depthById.length ? depthById[id] : 0;
+	}
+
+	public float getMaxDepth() {
+		return maxDepth;
+	}
+
+	public long getMappedReads() {
+		return mappedReads;
+	}
+
+	public long getUnmappedReads() {
+		return unmappedReads;
+	}
+}
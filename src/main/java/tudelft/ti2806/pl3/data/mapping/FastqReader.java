@@ -0,0 +1,70 @@
+package tudelft.ti2806.pl3.data.mapping;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the sequences of the reads in a FASTQ file, one record of four lines at a time. Files ending with
+ * {@code .gz} are decompressed while reading.
+ */
+public class FastqReader implements Closeable {
+	private final BufferedReader reader;
+	private long line = 0;
+
+	/**
+	 * Opens a FASTQ file.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @throws IOException
+	 *             if the file can't be opened
+	 */
+	public FastqReader(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		if (file.getName().endsWith(".gz")) {
+			in = new GZIPInputStream(in);
+		}
+		reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Reads the next record.
+	 *
+	 * @return the sequence of the read, or {@code null} at the end of the file
+	 * @throws IOException
+	 *             if the file can't be read or isn't a FASTQ file
+	 */
+	public String next() throws IOException {
+		String header = readLine();
+		while (header != null && header.isEmpty()) {
+			header = readLine();
+		}
+		if (header == null) {
+			return null;
+		}
+		String sequence = readLine();
+		String separator = readLine();
+		String quality = readLine();
+		if (!header.startsWith("@") || separator == null || !separator.startsWith("+") || quality == null) {
+			throw new IOException("The record before line " + line + " is not a FASTQ record");
+		}
+		return sequence;
+	}
+
+	private String readLine() throws IOException {
+		line++;
+		return reader.readLine();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
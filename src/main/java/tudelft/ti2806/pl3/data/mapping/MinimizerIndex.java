@@ -0,0 +1,253 @@
+package tudelft.ti2806.pl3.data.mapping;
+
+import java.util.Arrays;
+
+/**
+ * An index of the minimizers of a set of sequences, to find where a read may come from.
+ *
+ * <p>
+ * A minimizer is the k-mer with the smallest hash among {@value #W} consecutive k-mers. Two sequences sharing a part
+ * of at least {@value #K} + {@value #W} - 1 base pairs share a minimizer in that part, while only about one in
+ * {@value #W} / 2 k-mers is a minimizer. The k-mers are hashed with an invertible function, so equal hashes mean
+ * equal k-mers. K-mers containing anything other than A, C, G or T are skipped.
+ * </p>
+ *
+ * <p>
+ * The sequences are given as codes, where A, C, G and T are 0 up to 3 and all other base pairs are 4. The
+ * minimizers are kept in two arrays sorted on their hash, and are looked up with a binary search in the bucket of
+ * their hash.
+ * </p>
+ */
+public class MinimizerIndex {
+	/**
+	 * The length of the k-mers.
+	 */
+	public static final int K = 15;
+	/**
+	 * The number of consecutive k-mers a minimizer is chosen from.
+	 */
+	public static final int W = 10;
+	private static final long MASK = (1L << (2 * K)) - 1;
+	static final byte UNKNOWN = 4;
+
+	private final int[] hashes;
+	/**
+	 * The index of the first minimizer of each bucket of hashes with the same high bits, so a lookup only searches
+	 * one bucket.
+	 */
+	private final int[] buckets;
+	private final int bucketShift;
+	/**
+	 * The index of the sequence and the offset in the sequence of each minimizer, as {@code sequence << 32 | offset}.
+	 */
+	private final long[] positions;
+
+	/**
+	 * Construct the index of the minimizers of a set of sequences.
+	 *
+	 * @param sequences
+	 *            the codes of the sequences
+	 */
+	public MinimizerIndex(byte[][] sequences) {
+		int[] foundHashes = new int[64];
+		int[] foundOffsets = new int[64];
+		int[] allHashes = new int[1024];
+		long[] allPositions = new long[1024];
+		int size = 0;
+		for (int sequence = 0; sequence < sequences.length; sequence++) {
+			int length = sequences[sequence].length;
+			if (foundHashes.length < length) {
+				foundHashes = new int[length];
+				foundOffsets = new int[length];
+			}
+			int count = findMinimizers(sequences[sequence], length, foundHashes, foundOffsets);
+			if (size + count > allHashes.length) {
+				int capacity = Math.max(allHashes.length * 2, size + count);
+				allHashes = Arrays.copyOf(allHashes, capacity);
+				allPositions = Arrays.copyOf(allPositions, capacity);
+			}
+			for (int i = 0; i < count; i++) {
+				allHashes[size] = foundHashes[i];
+				allPositions[size] = (long) sequence << Integer.SIZE | foundOffsets[i];
+				size++;
+			}
+		}
+		// Sort on the hash, keeping the order of the minimizers with the same hash.
+		long[] order = new long[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = (long) allHashes[i] << Integer.SIZE | i;
+		}
+		Arrays.sort(order);
+		hashes = new int[size];
+		positions = new long[size];
+		for (int i = 0; i < size; i++) {
+			int entry = (int) order[i];
+			hashes[i] = allHashes[entry];
+			positions[i] = allPositions[entry];
+		}
+		int bucketBits = Math.max(1, Math.min(2 * K, 32 - Integer.numberOfLeadingZeros(size)));
+		bucketShift = 2 * K - bucketBits;
+		buckets = new int[(1 << bucketBits) + 1];
+		for (int i = 0, bucket = 0; bucket < buckets.length; bucket++) {
+			while (i < size && hashes[i] >>> bucketShift < bucket) {
+				i++;
+			}
+			buckets[bucket] = i;
+		}
+	}
+
+	/**
+	 * Finds the minimizers of a sequence. A sequence too short to fill a window still gives the smallest of its
+	 * k-mers, so short nodes can be found as well.
+	 *
+	 * @param sequence
+	 *            the codes of the sequence
+	 * @param length
+	 *            the number of codes to read from the sequence
+	 * @param hashes
+	 *            the array to write the hash of each minimizer to, which should have room for length values
+	 * @param offsets
+	 *            the array to write the offset of the first base pair of each minimizer to
+	 * @return the number of minimizers found
+	 */
+	public static int findMinimizers(byte[] sequence, int length, int[] hashes, int[] offsets) {
+		int[] windowHashes = new int[W];
+		int[] windowOffsets = new int[W];
+		int count = 0;
+		int filled = 0;
+		int valid = 0;
+		long kmer = 0;
+		int lastOffset = -1;
+		for (int i = 0; i < length; i++) {
+			int code = sequence[i];
+			if (code >= UNKNOWN) {
+				count = flushPartialWindow(windowHashes, windowOffsets, filled, lastOffset, hashes, offsets, count);
+				valid = 0;
+				filled = 0;
+				continue;
+			}
+			kmer = (kmer << 2 | code) & MASK;
+			if (++valid < K) {
+				continue;
+			}
+			windowHashes[filled % W] = hash(kmer);
+			windowOffsets[filled % W] = i - K + 1;
+			filled++;
+			if (filled >= W) {
+				int min = findMin(windowHashes, windowOffsets, W);
+				if (windowOffsets[min] != lastOffset) {
+					lastOffset = windowOffsets[min];
+					hashes[count] = windowHashes[min];
+					offsets[count++] = lastOffset;
+				}
+			}
+		}
+		return flushPartialWindow(windowHashes, windowOffsets, filled, lastOffset, hashes, offsets, count);
+	}
+
+	/**
+	 * Adds the smallest k-mer of a run of k-mers which was too short to fill a window.
+	 */
+	private static int flushPartialWindow(int[] windowHashes, int[] windowOffsets, int filled, int lastOffset,
+			int[] hashes, int[] offsets, int count) {
+		if (filled == 0 || filled >= W) {
+			return count;
+		}
+		int min = findMin(windowHashes, windowOffsets, filled);
+		if (windowOffsets[min] != lastOffset) {
+			hashes[count] = windowHashes[min];
+			offsets[count++] = windowOffsets[min];
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the smallest hash in a window of k-mers.
+	 *
+	 * @return the slot of the smallest hash in the window, taking the first k-mer when hashes are equal
+	 */
+	private static int findMin(int[] windowHashes, int[] windowOffsets, int filled) {
+		int min = 0;
+		for (int i = 1; i < filled; i++) {
+			if (windowHashes[i] < windowHashes[min]
+					|| windowHashes[i] == windowHashes[min] && windowOffsets[i] < windowOffsets[min]) {
+				min = i;
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * An invertible hash of a k-mer, so consecutive k-mers don't have ordered hashes.
+	 */
+	static int hash(long kmer) {
+		long key = (~kmer + (kmer << 21)) & MASK;
+		key ^= key >>> 24;
+		key = (key + (key << 3) + (key << 8)) & MASK;
+		key ^= key >>> 14;
+		key = (key + (key << 2) + (key << 4)) & MASK;
+		key ^= key >>> 28;
+		key = (key + (key << 31)) & MASK;
+		return (int) key;
+	}
+
+	/**
+	 * Finds the first minimizer with a hash.
+	 *
+	 * @return the index of the first minimizer with the hash, or of the next hash when there is none
+	 */
+	public int first(int hash) {
+		int low = buckets[hash >>> bucketShift];
+		int high = buckets[(hash >>> bucketShift) + 1];
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (hashes[mid] < hash) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Finds the end of the minimizers with a hash.
+	 *
+	 * @return the index after the last minimizer with the hash
+	 */
+	public int end(int hash) {
+		int low = buckets[hash >>> bucketShift];
+		int high = buckets[(hash >>> bucketShift) + 1];
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (hashes[mid] <= hash) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Gets the sequence of a minimizer.
+	 *
+	 * @return the sequence of the minimizer at an index of the index
+	 */
+	public int getSequence(int index) {
+		return (int) (positions[index] >>> Integer.SIZE);
+	}
+
+	/**
+	 * Gets the offset of a minimizer in its sequence.
+	 *
+	 * @return the offset in its sequence of the minimizer at an index of the index
+	 */
+	public int getOffset(int index) {
+		return (int) positions[index];
+	}
+
+	public int size() {
+		return hashes.length;
+	}
+}
@@ -0,0 +1,388 @@
+package tudelft.ti2806.pl3.data.mapping;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.Edge;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps sequencing reads to the nodes of a graph, to see which parts of the graph a new sample supports.
+ *
+ * <p>
+ * The minimizers of each read and its reverse complement are looked up in a {@link MinimizerIndex} of the content
+ * of the nodes. The hits vote for a node and a diagonal, the offset in the node minus the offset in the read. From
+ * a hit of the diagonal with the most votes, the read is aligned to both sides along the edges with a
+ * {@link BandedExtender}. A read is mapped when the whole read aligns with at most {@value #MAX_ERROR_RATE} edits
+ * per base pair, and then the aligned base pairs of each node on its path are counted in the {@link Coverage}.
+ * </p>
+ *
+ * <p>
+ * A file of reads is read on the calling thread in batches, which are mapped by a pool of threads. Each thread counts
+ * the base pairs in its own array, and the arrays are added up at the end.
+ * </p>
+ */
+public class ReadMapper {
+	static final float MAX_ERROR_RATE = 0.1f;
+	/**
+	 * Minimizers occurring more often than this in the graph are repeats, which are not used as seeds.
+	 */
+	static final int MAX_OCCURRENCES = 64;
+	private static final int BATCH_SIZE = 1024;
+	private static final byte[] CODES = new byte[128];
+	private static final List<String> END_OF_READS = Collections.emptyList();
+
+	static {
+		Arrays.fill(CODES, MinimizerIndex.UNKNOWN);
+		CODES['A'] = 0;
+		CODES['a'] = 0;
+		CODES['C'] = 1;
+		CODES['c'] = 1;
+		CODES['G'] = 2;
+		CODES['g'] = 2;
+		CODES['T'] = 3;
+		CODES['t'] = 3;
+	}
+
+	private final DataNode[] nodes;
+	private final byte[][] sequences;
+	private final int[][] successors;
+	private final int[][] predecessors;
+	private final MinimizerIndex index;
+
+	/**
+	 * Indexes the content of a graph.
+	 *
+	 * @param nodes
+	 *            the nodes of the graph
+	 * @param edges
+	 *            the edges of the graph
+	 */
+	public ReadMapper(List<DataNode> nodes, List<Edge> edges) {
+		this.nodes = nodes.toArray(new DataNode[nodes.size()]);
+		sequences = new byte[this.nodes.length][];
+		Map<Integer, Integer> indices = new HashMap<>();
+		for (int i = 0; i < this.nodes.length; i++) {
+			sequences[i] = encode(this.nodes[i].getContent());
+			indices.put(this.nodes[i].getId(), i);
+		}
+		int[] outgoing = new int[this.nodes.length];
+		int[] incoming = new int[this.nodes.length];
+		List<int[]> pairs = new ArrayList<>(edges.size());
+		for (Edge edge : edges) {
+			Integer from = indices.get(edge.getFrom().getId());
+			Integer to = indices.get(edge.getTo().getId());
+			if (from != null && to != null) {
+				pairs.add(new int[] { from, to });
+				outgoing[from]++;
+				incoming[to]++;
+			}
+		}
+		successors = new int[this.nodes.length][];
+		predecessors = new int[this.nodes.length][];
+		for (int i = 0; i < this.nodes.length; i++) {
+			successors[i] = new int[outgoing[i]];
+			predecessors[i] = new int[incoming[i]];
+		}
+		for (int[] pair : pairs) {
+			successors[pair[0]][--outgoing[pair[0]]] = pair[1];
+			predecessors[pair[1]][--incoming[pair[1]]] = pair[0];
+		}
+		index = new MinimizerIndex(sequences);
+	}
+
+	/**
+	 * Converts base pairs to the codes of the {@link MinimizerIndex}.
+	 */
+	static byte[] encode(String sequence) {
+		byte[] codes = new byte[sequence.length()];
+		for (int i = 0; i < codes.length; i++) {
+			char basePair = sequence.charAt(i);
+			codes[i] = basePair < CODES.length ? CODES[basePair] : MinimizerIndex.UNKNOWN;
+		}
+		return codes;
+	}
+
+	/**
+	 * Maps all reads of a FASTQ file.
+	 *
+	 * @param readFile
+	 *            the FASTQ file
+	 * @param threads
+	 *            the number of threads mapping reads at the same time
+	 * @return the coverage of the nodes
+	 * @throws IOException
+	 *             if the file can't be read
+	 */
+	public Coverage map(File readFile, int threads) throws IOException {
+		int workers = Math.max(1, threads);
+		BlockingQueue<List<String>> queue = new ArrayBlockingQueue<>(workers * 2);
+		ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+				Thread thread = new Thread(runnable, "read-mapper");
+				thread.setDaemon(true);
+				return thread;
+			}
+		);
+		List<Future<Worker>> futures = new ArrayList<>(workers);
+		try {
+			for (int i = 0; i < workers; i++) {
+				futures.add(executor.submit(() -> {
+						Worker worker = new Worker();
+						for (List<String> batch = queue.take(); batch != END_OF_READS; batch = queue.take()) {
+							batch.forEach(worker::map);
+						}
+						return worker;
+					}
+				));
+			}
+			try (FastqReader reader = new FastqReader(readFile)) {
+				List<String> batch = new ArrayList<>(BATCH_SIZE);
+				for (String read = reader.next(); read != null; read = reader.next()) {
+					batch.add(read);
+					if (batch.size() == BATCH_SIZE) {
+						put(queue, batch, futures);
+						batch = new ArrayList<>(BATCH_SIZE);
+					}
+				}
+				if (!batch.isEmpty()) {
+					put(queue, batch, futures);
+				}
+			}
+			for (int i = 0; i < workers; i++) {
+				put(queue, END_OF_READS, futures);
+			}
+			long[] bases = new long[nodes.length];
+			long mapped = 0;
+			long unmapped = 0;
+			for (Future<Worker> future : futures) {
+				Worker worker = future.get();
+				for (int i = 0; i < bases.length; i++) {
+					bases[i] += worker.getBases()[i];
+				}
+				mapped += worker.getMapped();
+				unmapped += worker.getUnmapped();
+			}
+			return new Coverage(nodes, bases, mapped, unmapped);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Mapping the reads was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Could not map the reads", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Adds a batch to the queue, and stops waiting for room when a worker failed.
+	 */
+	private static void put(BlockingQueue<List<String>> queue, List<String> batch, List<Future<Worker>> workers)
+			throws InterruptedException, ExecutionException {
+		while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+			for (Future<Worker> worker : workers) {
+				if (worker.isDone()) {
+					worker.get();
+					throw new ExecutionException("A worker stopped before all reads were mapped", null);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Maps reads on one thread, and counts the aligned base pairs of each node.
+	 */
+	final class Worker {
+		private static final int READ_OFFSET = 0;
+		private static final int NODE = 1;
+		private static final int NODE_OFFSET = 2;
+		private static final int VOTES = 3;
+
+		private final BandedExtender extender = new BandedExtender(sequences, successors, predecessors);
+		private final long[] bases = new long[nodes.length];
+		private long mapped;
+		private long unmapped;
+
+		private final int[] forwardSeed = new int[4];
+		private final int[] reverseSeed = new int[4];
+		private byte[] reverse = new byte[0];
+		private int[] hashes = new int[0];
+		private int[] offsets = new int[0];
+		private long[] anchors = new long[0];
+
+		/**
+		 * Maps a read and adds its alignment to the coverage. The strand with the most votes is aligned first.
+		 *
+		 * @param read
+		 *            the base pairs of the read
+		 * @return if the read was mapped
+		 */
+		boolean map(String read) {
+			byte[] codes = encode(read);
+			int length = codes.length;
+			if (reverse.length < length) {
+				reverse = new byte[length];
+				hashes = new int[length];
+				offsets = new int[length];
+			}
+			for (int i = 0; i < length; i++) {
+				byte code = codes[length - 1 - i];
+				reverse[i] = code < MinimizerIndex.UNKNOWN ? (byte) (3 - code) : code;
+			}
+			boolean forwardFound = findSeed(codes, length, forwardSeed);
+			boolean reverseFound = findSeed(reverse, length, reverseSeed);
+			boolean mappedRead;
+			if (forwardSeed[VOTES] >= reverseSeed[VOTES]) {
+				mappedRead = forwardFound && align(codes, length, forwardSeed)
+						|| reverseFound && align(reverse, length, reverseSeed);
+			} else {
+				mappedRead = reverseFound && align(reverse, length, reverseSeed)
+						|| forwardFound && align(codes, length, forwardSeed);
+			}
+			if (mappedRead) {
+				mapped++;
+			} else {
+				unmapped++;
+			}
+			return mappedRead;
+		}
+
+		/**
+		 * Finds the node and diagonal with the most minimizer hits, and a k-mer of the read on that diagonal.
+		 *
+		 * @param seed
+		 *            the array to write the offset in the read, the node, the offset in the node and the number of
+		 *            votes to
+		 * @return if a seed was found
+		 */
+		private boolean findSeed(byte[] read, int length, int[] seed) {
+			seed[VOTES] = 0;
+			int count = MinimizerIndex.findMinimizers(read, length, hashes, offsets);
+			int anchorCount = 0;
+			for (int m = 0; m < count; m++) {
+				int first = index.first(hashes[m]);
+				int end = index.end(hashes[m]);
+				if (end - first > MAX_OCCURRENCES) {
+					continue;
+				}
+				if (anchorCount + end - first > anchors.length) {
+					anchors = Arrays.copyOf(anchors, Math.max(anchors.length * 2, anchorCount + end - first));
+				}
+				for (int hit = first; hit < end; hit++) {
+					long diagonal = (long) index.getOffset(hit) - offsets[m] + Integer.MAX_VALUE;
+					anchors[anchorCount++] = (long) index.getSequence(hit) << Integer.SIZE | diagonal;
+				}
+			}
+			if (anchorCount == 0) {
+				return false;
+			}
+			Arrays.sort(anchors, 0, anchorCount);
+			long bestAnchor = anchors[0];
+			for (int i = 0; i < anchorCount;) {
+				int run = i;
+				while (run < anchorCount && anchors[run] == anchors[i]) {
+					run++;
+				}
+				if (run - i > seed[VOTES]) {
+					seed[VOTES] = run - i;
+					bestAnchor = anchors[i];
+				}
+				i = run;
+			}
+			int node = (int) (bestAnchor >>> Integer.SIZE);
+			long diagonal = (bestAnchor & 0xffffffffL) - Integer.MAX_VALUE;
+			for (int m = 0; m < count; m++) {
+				long offset = offsets[m] + diagonal;
+				if (offset >= 0 && offset + MinimizerIndex.K <= sequences[node].length
+						&& matches(read, offsets[m], sequences[node], (int) offset)) {
+					seed[READ_OFFSET] = offsets[m];
+					seed[NODE] = node;
+					seed[NODE_OFFSET] = (int) offset;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Aligns a read to both sides of a seed, and counts the aligned base pairs when the read is mapped.
+		 */
+		private boolean align(byte[] read, int length, int[] seed) {
+			int node = seed[NODE];
+			int maxEdits = (int) (length * MAX_ERROR_RATE);
+			int forwardEdits = extender.extend(read, seed[READ_OFFSET] + MinimizerIndex.K, length, true, node,
+					seed[NODE_OFFSET] + MinimizerIndex.K, maxEdits);
+			if (forwardEdits < 0) {
+				return false;
+			}
+			int[] forwardPath = copyPath();
+			int backwardEdits = extender.extend(read, 0, seed[READ_OFFSET], false, node, seed[NODE_OFFSET] - 1,
+					maxEdits - forwardEdits);
+			if (backwardEdits < 0) {
+				return false;
+			}
+			bases[node] += MinimizerIndex.K;
+			addPath(forwardPath);
+			addPath(copyPath());
+			return true;
+		}
+
+		/**
+		 * Copies the path of the last alignment.
+		 *
+		 * @return the nodes of the last alignment, each followed by its number of aligned base pairs
+		 */
+		private int[] copyPath() {
+			int[] path = new int[extender.getPathLength() * 2];
+			for (int i = 0; i < extender.getPathLength(); i++) {
+				path[2 * i] = extender.getPathNode(i);
+				path[2 * i + 1] = extender.getPathBases(i);
+			}
+			return path;
+		}
+
+		private void addPath(int[] path) {
+			for (int i = 0; i < path.length; i += 2) {
+				bases[path[i]] += path[i + 1];
+			}
+		}
+
+		long[] getBases() {
+			return bases;
+		}
+
+		long getMapped() {
+			return mapped;
+		}
+
+		long getUnmapped() {
+			return unmapped;
+		}
+	}
+
+	/**
+	 * Compares a k-mer of a read with a k-mer of a sequence.
+	 *
+	 * @return if the k-mers at the two offsets are equal
+	 */
+	static boolean matches(byte[] read, int readOffset, byte[] sequence, int offset) {
+		for (int i = 0; i < MinimizerIndex.K; i++) {
+			if (read[readOffset + i] != sequence[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
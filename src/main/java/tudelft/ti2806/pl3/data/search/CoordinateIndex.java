@@ -0,0 +1,129 @@
+package tudelft.ti2806.pl3.data.search;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An index of the nodes on their interval of the reference, to find the nodes at a position or range of the
+ * reference.
+ *
+ * <p>
+ * The nodes are sorted on the start of their interval, and the sorted array is used as a balanced interval tree: the
+ * middle of each range of the array is the root of the tree of that range, and keeps the largest end of the
+ * intervals of its tree. A query skips each tree whose intervals all end before the range, and stops at the first
+ * root starting after it, so it takes O(log n) steps plus one for each node found.
+ * </p>
+ */
+public class CoordinateIndex {
+	private final DataNode[] nodes;
+	private final int[] starts;
+	private final int[] ends;
+	/**
+	 * The largest end of the tree of which the node at each index is the root.
+	 */
+	private final int[] maxEnds;
+
+	/**
+	 * Construct the index of the nodes. Nodes ending before they start have no interval and are left out.
+	 *
+	 * @param nodes
+	 *            the nodes of the graph
+	 */
+	public CoordinateIndex(List<DataNode> nodes) {
+		List<DataNode> sorted = new ArrayList<>(nodes.size());
+		for (DataNode node : nodes) {
+			if (node.getRefStartPoint() <= node.getRefEndPoint()) {
+				sorted.add(node);
+			}
+		}
+		sorted.sort(Comparator.comparingInt(DataNode::getRefStartPoint).thenComparingInt(DataNode::getRefEndPoint)
+				.thenComparingInt(DataNode::getId));
+		this.nodes = sorted.toArray(new DataNode[sorted.size()]);
+		starts = new int[this.nodes.length];
+		ends = new int[this.nodes.length];
+		for (int i = 0; i < this.nodes.length; i++) {
+			starts[i] = this.nodes[i].getRefStartPoint();
+			ends[i] = this.nodes[i].getRefEndPoint();
+		}
+		maxEnds = new int[this.nodes.length];
+		computeMaxEnd(0, this.nodes.length);
+	}
+
+	private int computeMaxEnd(int from, int to) {
+		if (from >= to) {
+			return Integer.MIN_VALUE;
+		}
+		int root = (from + to) >>> 1;
+		maxEnds[root] = Math.max(ends[root], Math.max(computeMaxEnd(from, root), computeMaxEnd(root + 1, to)));
+		return maxEnds[root];
+	}
+
+	/**
+	 * Finds the nodes of which the interval overlaps with a range of the reference.
+	 *
+	 * @param from
+	 *            the first position of the range
+	 * @param to
+	 *            the last position of the range
+	 * @return the nodes, sorted on the start of their interval
+	 */
+	public List<DataNode> findOverlapping(int from, int to) {
+		List<DataNode> result = new ArrayList<>();
+		findOverlapping(0, nodes.length, from, to, result);
+		return result;
+	}
+
+	private void findOverlapping(int low, int high, int from, int to, List<DataNode> result) {
+		if (low >= high) {
+			return;
+		}
+		int root = (low + high) >>> 1;
+		if (maxEnds[root] < from) {
+			return;
+		}
+		findOverlapping(low, root, from, to, result);
+		if (starts[root] > to) {
+			return;
+		}
+		if (ends[root] >= from) {
+			result.add(nodes[root]);
+		}
+		findOverlapping(root + 1, high, from, to, result);
+	}
+
+	/**
+	 * Finds the nodes of which the interval contains a position of the reference.
+	 *
+	 * @param position
+	 *            the position
+	 * @return the nodes, sorted on the start of their interval
+	 */
+	public List<DataNode> findCovering(int position) {
+		return findOverlapping(position, position);
+	}
+
+	/**
+	 * Gets the start of the part of the reference covered by the nodes.
+	 *
+	 * @return the first position of the reference covered by a node, or 0 if there are no nodes
+	 */
+	public int getFirstPosition() {
+		return starts.length == 0 ? 0 : starts[0];
+	}
+
+	/**
+	 * Gets the end of the part of the reference covered by the nodes.
+	 *
+	 * @return the last position of the reference covered by a node, or -1 if there are no nodes
+	 */
+	public int getLastPosition() {
+		return maxEnds.length == 0 ? -1 : maxEnds[maxEnds.length >>> 1];
+	}
+
+	public int size() {
+		return nodes.length;
+	}
+}
@@ -0,0 +1,320 @@
+package tudelft.ti2806.pl3.data.search;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * An FM-index of a text over a small alphabet, to find all occurrences of a pattern in time depending on the length
+ * of the pattern and the number of occurrences, not on the length of the text.
+ *
+ * <p>
+ * The index keeps the Burrows-Wheeler transform of the text, the number of each symbol before every
+ * {@value #OCC_INTERVAL}th row of it, and the suffix array only at text positions which are a multiple of
+ * {@value #SA_INTERVAL}. The position of any other row is found by stepping back through the text until a sampled
+ * row is reached. Only the transform and the samples are written by {@link #write(DataOutput)}, the counts are
+ * computed again when the index is read.
+ * </p>
+ *
+ * <p>
+ * The text consists of symbols from 0 up to {@link #SIGMA}. The symbol 0 marks the end of the text, should only be
+ * used as the last symbol and is never searched for.
+ * </p>
+ */
+public class FmIndex {
+	/**
+	 * The number of symbols in the alphabet.
+	 */
+	public static final int SIGMA = 7;
+	static final int OCC_INTERVAL = 64;
+	static final int SA_INTERVAL = 32;
+
+	private final byte[] bwt;
+	/**
+	 * The suffix array of the marked rows, in the order of the rows.
+	 */
+	private final int[] samples;
+	/**
+	 * A bit for each row which is sampled.
+	 */
+	private final long[] marked;
+
+	/**
+	 * The number of symbols smaller than each symbol in the text.
+	 */
+	private final int[] counts = new int[SIGMA + 1];
+	private int[][] occurrences;
+	/**
+	 * The number of marked rows before each word of {@link #marked}.
+	 */
+	private int[] markedBefore;
+
+	private FmIndex(byte[] bwt, int[] samples, long[] marked) {
+		this.bwt = bwt;
+		this.samples = samples;
+		this.marked = marked;
+		initCounts();
+	}
+
+	/**
+	 * Construct the index of a text.
+	 *
+	 * @param text
+	 *            the text, ending with the symbol 0 which is not used anywhere else
+	 * @return the index
+	 */
+	public static FmIndex build(byte[] text) {
+		int[] suffixArray = buildSuffixArray(text);
+		int length = text.length;
+		byte[] bwt = new byte[length];
+		long[] marked = new long[(length + Long.SIZE - 1) / Long.SIZE];
+		int[] samples = new int[(length + SA_INTERVAL - 1) / SA_INTERVAL];
+		int sampled = 0;
+		for (int row = 0; row < length; row++) {
+			int position = suffixArray[row];
+			bwt[row] = text[position == 0 ? length - 1 : position - 1];
+			if (position % SA_INTERVAL == 0) {
+				marked[row / Long.SIZE] |= 1L << (row % Long.SIZE);
+				samples[sampled++] = position;
+			}
+		}
+		return new FmIndex(bwt, samples, marked);
+	}
+
+	/**
+	 * Sorts the suffixes of a text by doubling the length of the compared prefixes, with a radix sort on the ranks of
+	 * both halves.
+	 *
+	 * @param text
+	 *            the text, ending with a unique smallest symbol
+	 * @return the start of each suffix, in sorted order
+	 */
+	static int[] buildSuffixArray(byte[] text) {
+		int length = text.length;
+		int[] suffixes = new int[length];
+		int[] rank = new int[length];
+		int[] order = new int[length];
+		int[] bucket = new int[Math.max(length, SIGMA) + 2];
+		for (int i = 0; i < length; i++) {
+			rank[i] = text[i];
+			bucket[rank[i] + 1]++;
+		}
+		for (int i = 1; i < bucket.length; i++) {
+			bucket[i] += bucket[i - 1];
+		}
+		for (int i = 0; i < length; i++) {
+			suffixes[bucket[rank[i]]++] = i;
+		}
+		int maxRank = SIGMA;
+		for (int step = 1; step < length; step <<= 1) {
+			// Order on the rank of the second half, where suffixes without a second half come first.
+			int next = 0;
+			for (int i = length - step; i < length; i++) {
+				order[next++] = i;
+			}
+			for (int i = 0; i < length; i++) {
+				if (suffixes[i] >= step) {
+					order[next++] = suffixes[i] - step;
+				}
+			}
+			// A stable sort on the rank of the first half.
+			Arrays.fill(bucket, 0, maxRank + 2, 0);
+			for (int i = 0; i < length; i++) {
+				bucket[rank[i] + 1]++;
+			}
+			for (int i = 1; i < maxRank + 2; i++) {
+				bucket[i] += bucket[i - 1];
+			}
+			for (int i = 0; i < length; i++) {
+				suffixes[bucket[rank[order[i]]]++] = order[i];
+			}
+			// The rank of the doubled prefixes, reusing order for the new ranks.
+			int[] newRank = order;
+			newRank[suffixes[0]] = 0;
+			for (int i = 1; i < length; i++) {
+				int a = suffixes[i - 1];
+				int b = suffixes[i];
+				boolean same = rank[a] == rank[b] && a + step < length && b + step < length
+						&& rank[a + step] == rank[b + step];
+				newRank[b] = newRank[a] + (same ? 0 : 1);
+			}
+			order = rank;
+			rank = newRank;
+			maxRank = rank[suffixes[length - 1]];
+			if (maxRank == length - 1) {
+				break;
+			}
+		}
+		return suffixes;
+	}
+
+	private void initCounts() {
+		int blocks = bwt.length / OCC_INTERVAL + 1;
+		occurrences = new int[SIGMA][blocks];
+		int[] running = new int[SIGMA];
+		for (int row = 0; row < bwt.length; row++) {
+			if (row % OCC_INTERVAL == 0) {
+				for (int symbol = 0; symbol < SIGMA; symbol++) {
+					occurrences[symbol][row / OCC_INTERVAL] = running[symbol];
+				}
+			}
+			running[bwt[row]]++;
+		}
+		if (bwt.length % OCC_INTERVAL == 0) {
+			for (int symbol = 0; symbol < SIGMA; symbol++) {
+				occurrences[symbol][blocks - 1] = running[symbol];
+			}
+		}
+		for (int symbol = 0; symbol < SIGMA; symbol++) {
+			counts[symbol + 1] = counts[symbol] + running[symbol];
+		}
+		markedBefore = new int[marked.length];
+		for (int i = 1; i < marked.length; i++) {
+			markedBefore[i] = markedBefore[i - 1] + Long.bitCount(marked[i - 1]);
+		}
+	}
+
+	/**
+	 * Gets the length of the indexed text.
+	 *
+	 * @return the length of the text, including the end symbol
+	 */
+	public int length() {
+		return bwt.length;
+	}
+
+	/**
+	 * Gets the first row of the sorted suffixes which start with a symbol.
+	 *
+	 * @return the first row of the suffixes starting with a symbol
+	 */
+	public int getFirstRow(int symbol) {
+		return counts[symbol];
+	}
+
+	/**
+	 * Counts a symbol in the transform before a row.
+	 */
+	private int occ(int symbol, int row) {
+		int block = row / OCC_INTERVAL;
+		int count = occurrences[symbol][block];
+		for (int i = block * OCC_INTERVAL; i < row; i++) {
+			if (bwt[i] == symbol) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the rows of the suffixes starting with a pattern, by extending the pattern to the left one symbol at a
+	 * time.
+	 *
+	 * @param pattern
+	 *            the symbols of the pattern
+	 * @return the first row and the row after the last row, which are equal when the pattern doesn't occur
+	 */
+	public int[] findRange(byte[] pattern) {
+		int from = 0;
+		int to = bwt.length;
+		for (int i = pattern.length - 1; i >= 0 && from < to; i--) {
+			int symbol = pattern[i];
+			from = counts[symbol] + occ(symbol, from);
+			to = counts[symbol] + occ(symbol, to);
+		}
+		return new int[] { from, Math.max(from, to) };
+	}
+
+	/**
+	 * Counts the occurrences of a pattern in the text.
+	 *
+	 * @param pattern
+	 *            the symbols of the pattern
+	 * @return the number of occurrences
+	 */
+	public int count(byte[] pattern) {
+		int[] range = findRange(pattern);
+		return range[1] - range[0];
+	}
+
+	/**
+	 * Finds the positions of all occurrences of a pattern in the text.
+	 *
+	 * @param pattern
+	 *            the symbols of the pattern
+	 * @return the start of each occurrence, in no particular order
+	 */
+	public int[] find(byte[] pattern) {
+		int[] range = findRange(pattern);
+		int[] positions = new int[range[1] - range[0]];
+		for (int row = range[0]; row < range[1]; row++) {
+			positions[row - range[0]] = locate(row);
+		}
+		return positions;
+	}
+
+	/**
+	 * Finds the text position of a row, by stepping back through the text until a sampled row is reached.
+	 */
+	int locate(int row) {
+		int steps = 0;
+		while ((marked[row / Long.SIZE] & (1L << (row % Long.SIZE))) == 0) {
+			int symbol = bwt[row];
+			row = counts[symbol] + occ(symbol, row);
+			steps++;
+		}
+		int word = row / Long.SIZE;
+		int sample = markedBefore[word] + Long.bitCount(marked[word] & ((1L << (row % Long.SIZE)) - 1));
+		return samples[sample] + steps;
+	}
+
+	/**
+	 * Writes the transform and the sampled suffix array.
+	 *
+	 * @param out
+	 *            the output to write to
+	 * @throws IOException
+	 *             if the output can't be written
+	 */
+	public void write(DataOutput out) throws IOException {
+		out.writeInt(bwt.length);
+		out.write(bwt);
+		out.writeInt(samples.length);
+		for (int sample : samples) {
+			out.writeInt(sample);
+		}
+		out.writeInt(marked.length);
+		for (long word : marked) {
+			out.writeLong(word);
+		}
+	}
+
+	/**
+	 * Reads an index written by {@link #write(DataOutput)}.
+	 *
+	 * @param in
+	 *            the input to read from
+	 * @return the index
+	 * @throws IOException
+	 *             if the input can't be read
+	 */
+	public static FmIndex read(DataInput in) throws IOException {
+		byte[] bwt = new byte[in.readInt()];
+		in.readFully(bwt);
+		int[] samples = new int[in.readInt()];
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = in.readInt();
+		}
+		long[] marked = new long[in.readInt()];
+		for (int i = 0; i < marked.length; i++) {
+			marked[i] = in.readLong();
+		}
+		for (byte symbol : bwt) {
+			if (symbol < 0 || symbol >= SIGMA) {
+				throw new IOException("The index contains an unknown symbol " + symbol);
+			}
+		}
+		return new FmIndex(bwt, samples, marked);
+	}
+}
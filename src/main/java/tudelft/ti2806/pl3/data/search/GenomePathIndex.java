@@ -0,0 +1,575 @@
+package tudelft.ti2806.pl3.data.search;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.Edge;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * The coordinates of each genome of a graph, to find the node at a position of a genome and the position of a node
+ * in a genome.
+ *
+ * <p>
+ * The nodes are numbered in a topological order, and the path of a genome is the ordered list of the numbers of the
+ * nodes it passes, with the offset of each node in the genome. The paths of all genomes are built in one pass over
+ * the nodes in this order. Both lists only increase, so they are stored as the differences between consecutive
+ * values, in as few bytes as each difference needs. Every {@value #SAMPLE}th value is kept as is, so a query is a
+ * binary search on these values followed by reading at most {@value #SAMPLE} differences.
+ * </p>
+ *
+ * <p>
+ * Like the {@link SequenceIndex}, the index can be written next to the node file of the graph, and is only read
+ * again while the node and edge files have the same size and modification time.
+ * </p>
+ */
+public class GenomePathIndex {
+	/**
+	 * The extension added to the name of the node file for the file of the index.
+	 */
+	public static final String FILE_EXTENSION = ".gpi";
+	private static final int MAGIC = 0x47504932;
+	/**
+	 * The number of nodes of a path between two values which are not stored as a difference.
+	 */
+	static final int SAMPLE = 32;
+
+	private final DataNode[] nodes;
+	private final Map<Integer, Integer> ordinals;
+	private final Map<Genome, Path> paths;
+
+	private GenomePathIndex(DataNode[] nodes, Map<Genome, Path> paths) {
+		this.nodes = nodes;
+		this.paths = paths;
+		ordinals = new HashMap<>(nodes.length * 2);
+		for (int i = 0; i < nodes.length; i++) {
+			ordinals.put(nodes[i].getId(), i);
+		}
+	}
+
+	/**
+	 * Construct the index of the paths of the genomes through a graph.
+	 *
+	 * @param nodes
+	 *            the nodes of the graph
+	 * @param edges
+	 *            the edges of the graph
+	 * @param genomes
+	 *            the genomes of the graph
+	 * @return the index
+	 */
+	public static GenomePathIndex build(List<DataNode> nodes, List<Edge> edges, List<Genome> genomes) {
+		DataNode[] order = sortTopologically(nodes, edges);
+		Map<Genome, PathBuilder> builders = new HashMap<>();
+		for (Genome genome : genomes) {
+			builders.put(genome, new PathBuilder());
+		}
+		for (int ordinal = 0; ordinal < order.length; ordinal++) {
+			int length = order[ordinal].getContent().length();
+			for (Genome genome : order[ordinal].getSource()) {
+				PathBuilder builder = builders.get(genome);
+				if (builder != null) {
+					builder.add(ordinal, length);
+				}
+			}
+		}
+		Map<Genome, Path> paths = new HashMap<>();
+		for (Map.Entry<Genome, PathBuilder> entry : builders.entrySet()) {
+			paths.put(entry.getKey(), entry.getValue().build());
+		}
+		return new GenomePathIndex(order, paths);
+	}
+
+	/**
+	 * Orders the nodes so each node comes after its predecessors. The nodes without predecessors and the successors of
+	 * each node are taken in the order of their id, so the order is the same each time the graph is loaded. A node on
+	 * a cycle is taken when no other node is left.
+	 */
+	static DataNode[] sortTopologically(List<DataNode> nodes, List<Edge> edges) {
+		List<DataNode> byId = new ArrayList<>(nodes);
+		byId.sort(Comparator.comparingInt(DataNode::getId));
+		Map<Integer, Integer> indices = new HashMap<>(byId.size() * 2);
+		for (int i = 0; i < byId.size(); i++) {
+			indices.put(byId.get(i).getId(), i);
+		}
+		int[] inDegree = new int[byId.size()];
+		List<List<Integer>> successors = new ArrayList<>(byId.size());
+		for (int i = 0; i < byId.size(); i++) {
+			successors.add(new ArrayList<>());
+		}
+		for (Edge edge : edges) {
+			Integer from = indices.get(edge.getFromId());
+			Integer to = indices.get(edge.getToId());
+			if (from != null && to != null) {
+				successors.get(from).add(to);
+				inDegree[to]++;
+			}
+		}
+		DataNode[] order = new DataNode[byId.size()];
+		boolean[] added = new boolean[byId.size()];
+		int size = 0;
+		int next = 0;
+		Deque<Integer> ready = new ArrayDeque<>();
+		while (size < order.length) {
+			if (ready.isEmpty()) {
+				// Take the next node without predecessors, or the next node of a cycle when there is none.
+				while (added[next]) {
+					next++;
+				}
+				int start = next;
+				while (start < order.length && (added[start] || inDegree[start] > 0)) {
+					start++;
+				}
+				ready.add(start < order.length ? start : next);
+				added[ready.peek()] = true;
+			}
+			int node = ready.poll();
+			order[size++] = byId.get(node);
+			List<Integer> nodeSuccessors = successors.get(node);
+			Collections.sort(nodeSuccessors);
+			for (int successor : nodeSuccessors) {
+				if (--inDegree[successor] == 0 && !added[successor]) {
+					added[successor] = true;
+					ready.add(successor);
+				}
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Reads the index of a graph from the file next to its node file, or builds the index and writes it to that file
+	 * when there is no file for the current node and edge files. The index is still returned when it can't be written.
+	 *
+	 * @param nodeFile
+	 *            the file the nodes were parsed from
+	 * @param edgeFile
+	 *            the file the edges were parsed from
+	 * @param nodes
+	 *            the nodes of the graph
+	 * @param edges
+	 *            the edges of the graph
+	 * @param genomes
+	 *            the genomes of the graph
+	 * @return the index
+	 */
+	public static GenomePathIndex open(File nodeFile, File edgeFile, List<DataNode> nodes, List<Edge> edges,
+			List<Genome> genomes) {
+		File file = getIndexFile(nodeFile);
+		if (file.isFile()) {
+			try {
+				GenomePathIndex index = read(file, nodeFile, edgeFile, nodes, genomes);
+				if (index != null) {
+					return index;
+				}
+			} catch (IOException e) {
+				// The file is damaged, so it is written again.
+			}
+		}
+		GenomePathIndex index = build(nodes, edges, genomes);
+		try {
+			index.write(file, nodeFile, edgeFile);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return index;
+	}
+
+	/**
+	 * Gets the file the index of a graph is written to.
+	 *
+	 * @return the file of the index of a node file
+	 */
+	public static File getIndexFile(File nodeFile) {
+		return new File(nodeFile.getPath() + FILE_EXTENSION);
+	}
+
+	/**
+	 * Writes the index with the size and modification time of the node and edge files it belongs to.
+	 *
+	 * @param file
+	 *            the file to write to
+	 * @param nodeFile
+	 *            the file the nodes were parsed from
+	 * @param edgeFile
+	 *            the file the edges were parsed from
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	public void write(File file, File nodeFile, File edgeFile) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeLong(nodeFile.length());
+			out.writeLong(nodeFile.lastModified());
+			out.writeLong(edgeFile.length());
+			out.writeLong(edgeFile.lastModified());
+			out.writeInt(nodes.length);
+			for (DataNode node : nodes) {
+				out.writeInt(node.getId());
+			}
+			out.writeInt(paths.size());
+			for (Map.Entry<Genome, Path> entry : paths.entrySet()) {
+				out.writeUTF(entry.getKey().getIdentifier());
+				entry.getValue().write(out);
+			}
+		}
+	}
+
+	/**
+	 * Reads an index written by {@link #write(File, File, File)}.
+	 *
+	 * @return the index, or {@code null} if it was written for another version of the graph files, other nodes or
+	 *         other genomes
+	 * @throws IOException
+	 *             if the file can't be read
+	 */
+	static GenomePathIndex read(File file, File nodeFile, File edgeFile, List<DataNode> nodes, List<Genome> genomes)
+			throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readLong() != nodeFile.length()
+					|| in.readLong() != nodeFile.lastModified() || in.readLong() != edgeFile.length()
+					|| in.readLong() != edgeFile.lastModified() || in.readInt() != nodes.size()) {
+				return null;
+			}
+			Map<Integer, DataNode> nodesById = new HashMap<>();
+			for (DataNode node : nodes) {
+				nodesById.put(node.getId(), node);
+			}
+			DataNode[] order = new DataNode[nodes.size()];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = nodesById.get(in.readInt());
+				if (order[i] == null) {
+					return null;
+				}
+			}
+			Map<String, Genome> genomesById = new HashMap<>();
+			for (Genome genome : genomes) {
+				genomesById.put(genome.getIdentifier(), genome);
+			}
+			int count = in.readInt();
+			if (count != genomes.size()) {
+				return null;
+			}
+			Map<Genome, Path> paths = new HashMap<>();
+			for (int i = 0; i < count; i++) {
+				Genome genome = genomesById.get(in.readUTF());
+				Path path = Path.read(in);
+				if (genome == null) {
+					return null;
+				}
+				paths.put(genome, path);
+			}
+			return new GenomePathIndex(order, paths);
+		}
+	}
+
+	/**
+	 * Gets the genomes of the index.
+	 *
+	 * @return the genomes of the index
+	 */
+	public List<Genome> getGenomes() {
+		return new ArrayList<>(paths.keySet());
+	}
+
+	/**
+	 * Gets the length of a genome.
+	 *
+	 * @return the number of base pairs of a genome, or -1 if the genome is not in the index
+	 */
+	public int getLength(Genome genome) {
+		Path path = paths.get(genome);
+		return path == null ? -1 : path.length;
+	}
+
+	/**
+	 * Gets the number of nodes on the path of a genome.
+	 *
+	 * @return the number of nodes a genome passes, or -1 if the genome is not in the index
+	 */
+	public int getNodeCount(Genome genome) {
+		Path path = paths.get(genome);
+		return path == null ? -1 : path.size;
+	}
+
+	/**
+	 * Finds the node containing a position of a genome.
+	 *
+	 * @param genome
+	 *            the genome
+	 * @param position
+	 *            the position in the genome, from 0
+	 * @return the node containing the base pair at the position, or {@code null} if the genome is not in the index or
+	 *         the position is outside of the genome
+	 */
+	public DataNode getNodeAt(Genome genome, int position) {
+		Path path = paths.get(genome);
+		if (path == null || position < 0 || position >= path.length) {
+			return null;
+		}
+		return nodes[path.findOrdinalAt(position)];
+	}
+
+	/**
+	 * Finds the position of a node in a genome.
+	 *
+	 * @param genome
+	 *            the genome
+	 * @param node
+	 *            the node
+	 * @return the position in the genome of the first base pair of the node, or -1 if the genome doesn't pass the
+	 *         node
+	 */
+	public int getPosition(Genome genome, DataNode node) {
+		Path path = paths.get(genome);
+		Integer ordinal = ordinals.get(node.getId());
+		if (path == null || ordinal == null) {
+			return -1;
+		}
+		return path.findOffsetOf(ordinal);
+	}
+
+	/**
+	 * Walks the path of a genome, reading the differences one after the other.
+	 *
+	 * @param genome
+	 *            the genome
+	 * @param action
+	 *            the action to perform on each node the genome passes, in order
+	 * @throws IllegalArgumentException
+	 *             if the genome is not in the index
+	 */
+	public void forEachNode(Genome genome, Consumer<DataNode> action) {
+		Path path = paths.get(genome);
+		if (path == null) {
+			throw new IllegalArgumentException("There is no genome named " + genome);
+		}
+		path.forEachOrdinal(ordinal -> action.accept(nodes[ordinal]));
+	}
+
+	/**
+	 * The nodes a genome passes, as the differences between the numbers of consecutive nodes and between their
+	 * offsets, with every {@value #SAMPLE}th number and offset kept as is.
+	 */
+	private static final class Path {
+		private final int size;
+		private final int length;
+		private final int[] sampleOrdinals;
+		private final int[] sampleOffsets;
+		/**
+		 * The index in the differences of the node after each sample.
+		 */
+		private final int[] samplePointers;
+		private final byte[] deltas;
+
+		private Path(int size, int length, int[] sampleOrdinals, int[] sampleOffsets, int[] samplePointers,
+				byte[] deltas) {
+			this.size = size;
+			this.length = length;
+			this.sampleOrdinals = sampleOrdinals;
+			this.sampleOffsets = sampleOffsets;
+			this.samplePointers = samplePointers;
+			this.deltas = deltas;
+		}
+
+		/**
+		 * Finds the node of the path at an offset.
+		 *
+		 * @return the number of the last node starting at or before the offset
+		 */
+		private int findOrdinalAt(int offset) {
+			int sample = lastAtMost(sampleOffsets, offset);
+			int ordinal = sampleOrdinals[sample];
+			int current = sampleOffsets[sample];
+			int pointer = samplePointers[sample];
+			int end = Math.min(size, (sample + 1) * SAMPLE);
+			for (int i = sample * SAMPLE + 1; i < end; i++) {
+				final int ordinalDelta = readVarint(pointer);
+				pointer = skipVarint(pointer);
+				int offsetDelta = readVarint(pointer);
+				pointer = skipVarint(pointer);
+				if (current + offsetDelta > offset) {
+					break;
+				}
+				ordinal += ordinalDelta;
+				current += offsetDelta;
+			}
+			return ordinal;
+		}
+
+		/**
+		 * Finds the offset of a node of the path.
+		 *
+		 * @return the offset of the node with a number, or -1 if the path doesn't pass it
+		 */
+		private int findOffsetOf(int ordinal) {
+			if (size == 0 || ordinal < sampleOrdinals[0]) {
+				return -1;
+			}
+			int sample = lastAtMost(sampleOrdinals, ordinal);
+			int current = sampleOrdinals[sample];
+			int offset = sampleOffsets[sample];
+			int pointer = samplePointers[sample];
+			int end = Math.min(size, (sample + 1) * SAMPLE);
+			for (int i = sample * SAMPLE + 1; i < end && current < ordinal; i++) {
+				current += readVarint(pointer);
+				pointer = skipVarint(pointer);
+				offset += readVarint(pointer);
+				pointer = skipVarint(pointer);
+			}
+			return current == ordinal ? offset : -1;
+		}
+
+		private void forEachOrdinal(IntConsumer action) {
+			int ordinal = 0;
+			int pointer = 0;
+			for (int i = 0; i < size; i++) {
+				if (i % SAMPLE == 0) {
+					ordinal = sampleOrdinals[i / SAMPLE];
+				} else {
+					ordinal += readVarint(pointer);
+					pointer = skipVarint(skipVarint(pointer));
+				}
+				action.accept(ordinal);
+			}
+		}
+
+		/**
+		 * Searches a sorted array for the last value which is not larger than the key.
+		 *
+		 * @return the index of the last value at most the key, or 0 if there is none
+		 */
+		private static int lastAtMost(int[] values, int key) {
+			int low = 0;
+			int high = values.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (values[mid] <= key) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return Math.max(0, low - 1);
+		}
+
+		private int readVarint(int pointer) {
+			int value = 0;
+			for (int shift = 0;; shift += 7) {
+				byte part = deltas[pointer++];
+				value |= (part & 0x7f) << shift;
+				if (part >= 0) {
+					return value;
+				}
+			}
+		}
+
+		private int skipVarint(int pointer) {
+			while (deltas[pointer++] < 0) {
+				continue;
+			}
+			return pointer;
+		}
+
+		private void write(DataOutputStream out) throws IOException {
+			out.writeInt(size);
+			out.writeInt(length);
+			for (int i = 0; i < sampleOrdinals.length; i++) {
+				out.writeInt(sampleOrdinals[i]);
+				out.writeInt(sampleOffsets[i]);
+				out.writeInt(samplePointers[i]);
+			}
+			out.writeInt(deltas.length);
+			out.write(deltas);
+		}
+
+		private static Path read(DataInputStream in) throws IOException {
+			int size = in.readInt();
+			int length = in.readInt();
+			int samples = (size + SAMPLE - 1) / SAMPLE;
+			int[] sampleOrdinals = new int[samples];
+			int[] sampleOffsets = new int[samples];
+			int[] samplePointers = new int[samples];
+			for (int i = 0; i < samples; i++) {
+				sampleOrdinals[i] = in.readInt();
+				sampleOffsets[i] = in.readInt();
+				samplePointers[i] = in.readInt();
+			}
+			byte[] deltas = new byte[in.readInt()];
+			in.readFully(deltas);
+			return new Path(size, length, sampleOrdinals, sampleOffsets, samplePointers, deltas);
+		}
+	}
+
+	/**
+	 * Collects the nodes of a path in order.
+	 */
+	private static final class PathBuilder {
+		private int size;
+		private int length;
+		private int lastOrdinal;
+		private int lastOffset;
+		private int[] sampleOrdinals = new int[4];
+		private int[] sampleOffsets = new int[4];
+		private int[] samplePointers = new int[4];
+		private byte[] deltas = new byte[64];
+		private int pointer;
+
+		private void add(int ordinal, int nodeLength) {
+			if (size % SAMPLE == 0) {
+				int sample = size / SAMPLE;
+				if (sample == sampleOrdinals.length) {
+					sampleOrdinals = Arrays.copyOf(sampleOrdinals, sample * 2);
+					sampleOffsets = Arrays.copyOf(sampleOffsets, sample * 2);
+					samplePointers = Arrays.copyOf(samplePointers, sample * 2);
+				}
+				sampleOrdinals[sample] = ordinal;
+				sampleOffsets[sample] = length;
+				samplePointers[sample] = pointer;
+			} else {
+				writeVarint(ordinal - lastOrdinal);
+				writeVarint(length - lastOffset);
+			}
+			lastOrdinal = ordinal;
+			lastOffset = length;
+			length += nodeLength;
+			size++;
+		}
+
+		private void writeVarint(int value) {
+			if (pointer + 5 > deltas.length) {
+				deltas = Arrays.copyOf(deltas, deltas.length * 2);
+			}
+			while ((value & ~0x7f) != 0) {
+				deltas[pointer++] = (byte) (value & 0x7f | 0x80);
+				value >>>= 7;
+			}
+			deltas[pointer++] = (byte) value;
+		}
+
+		private Path build() {
+			int samples = (size + SAMPLE - 1) / SAMPLE;
+			return new Path(size, length, Arrays.copyOf(sampleOrdinals, samples),
+					Arrays.copyOf(sampleOffsets, samples), Arrays.copyOf(samplePointers, samples),
+					Arrays.copyOf(deltas, pointer));
+		}
+	}
+}
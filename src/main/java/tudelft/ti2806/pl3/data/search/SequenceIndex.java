@@ -0,0 +1,389 @@
+package tudelft.ti2806.pl3.data.search;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.Edge;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds a sequence of base pairs in the content of all nodes of a graph, also where the sequence continues from one
+ * node into the next along an edge.
+ *
+ * <p>
+ * The content of the nodes is concatenated to one text, with a separator before each node, and searched with an
+ * {@link FmIndex}. Occurrences within a node are found directly. An occurrence which crosses nodes ends with a
+ * prefix of the last node it passes, which is found by searching for the separator followed by that prefix. Each
+ * separator row of the index is linked to the node after it, so these nodes are found without locating the rows in
+ * the text. The rest of the sequence is then matched backwards through the predecessors of these nodes.
+ * </p>
+ *
+ * <p>
+ * The index can be written next to the node file of the graph, and is only read again while the node and edge files
+ * have the same size and modification time.
+ * </p>
+ */
+public class SequenceIndex {
+	/**
+	 * The extension added to the name of the node file for the file of the index.
+	 */
+	public static final String FILE_EXTENSION = ".fmi";
+	private static final int MAGIC = 0x464d4932;
+
+	static final byte END = 0;
+	static final byte SEPARATOR = 1;
+	private static final byte UNKNOWN = 6;
+
+	private final FmIndex fmIndex;
+	private final DataNode[] nodes;
+	/**
+	 * The position of the separator before each node in the text.
+	 */
+	private final int[] starts;
+	/**
+	 * The node after the separator of each separator row, where the last separator is followed by no node.
+	 */
+	private final int[] separatorNodes;
+	private int[][] predecessors;
+
+	private SequenceIndex(FmIndex fmIndex, DataNode[] nodes, int[] starts, int[] separatorNodes, List<Edge> edges) {
+		this.fmIndex = fmIndex;
+		this.nodes = nodes;
+		this.starts = starts;
+		this.separatorNodes = separatorNodes;
+		initPredecessors(edges);
+	}
+
+	/**
+	 * Construct the index of the content of a graph.
+	 *
+	 * @param nodes
+	 *            the nodes of the graph
+	 * @param edges
+	 *            the edges of the graph
+	 * @return the index
+	 */
+	public static SequenceIndex build(List<DataNode> nodes, List<Edge> edges) {
+		DataNode[] nodeArray = nodes.toArray(new DataNode[nodes.size()]);
+		int[] starts = new int[nodeArray.length + 1];
+		int length = 0;
+		for (int i = 0; i < nodeArray.length; i++) {
+			starts[i] = length;
+			length += nodeArray[i].getContent().length() + 1;
+		}
+		starts[nodeArray.length] = length;
+		byte[] text = new byte[length + 2];
+		for (int i = 0; i < nodeArray.length; i++) {
+			text[starts[i]] = SEPARATOR;
+			String content = nodeArray[i].getContent();
+			for (int j = 0; j < content.length(); j++) {
+				text[starts[i] + 1 + j] = toSymbol(content.charAt(j));
+			}
+		}
+		text[length] = SEPARATOR;
+		text[length + 1] = END;
+		FmIndex fmIndex = FmIndex.build(text);
+
+		int[] separatorNodes = new int[nodeArray.length + 1];
+		int firstRow = fmIndex.getFirstRow(SEPARATOR);
+		for (int row = firstRow; row < firstRow + separatorNodes.length; row++) {
+			separatorNodes[row - firstRow] = lowerBound(starts, fmIndex.locate(row));
+		}
+		return new SequenceIndex(fmIndex, nodeArray, starts, separatorNodes, edges);
+	}
+
+	/**
+	 * Reads the index of a graph from the file next to its node file, or builds the index and writes it to that file
+	 * when there is no file for the current node and edge files. The index is still returned when it can't be written.
+	 *
+	 * @param nodeFile
+	 *            the file the nodes were parsed from
+	 * @param edgeFile
+	 *            the file the edges were parsed from
+	 * @param nodes
+	 *            the nodes of the graph
+	 * @param edges
+	 *            the edges of the graph
+	 * @return the index
+	 */
+	public static SequenceIndex open(File nodeFile, File edgeFile, List<DataNode> nodes, List<Edge> edges) {
+		File file = getIndexFile(nodeFile);
+		if (file.isFile()) {
+			try {
+				SequenceIndex index = read(file, nodeFile, edgeFile, nodes, edges);
+				if (index != null) {
+					return index;
+				}
+			} catch (IOException e) {
+				// The file is damaged, so it is written again.
+			}
+		}
+		SequenceIndex index = build(nodes, edges);
+		try {
+			index.write(file, nodeFile, edgeFile);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return index;
+	}
+
+	/**
+	 * Gets the file the index of a graph is written to.
+	 *
+	 * @return the file of the index of a node file
+	 */
+	public static File getIndexFile(File nodeFile) {
+		return new File(nodeFile.getPath() + FILE_EXTENSION);
+	}
+
+	/**
+	 * Writes the index with the size and modification time of the node and edge files it belongs to.
+	 *
+	 * @param file
+	 *            the file to write to
+	 * @param nodeFile
+	 *            the file the nodes were parsed from
+	 * @param edgeFile
+	 *            the file the edges were parsed from
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	public void write(File file, File nodeFile, File edgeFile) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeLong(nodeFile.length());
+			out.writeLong(nodeFile.lastModified());
+			out.writeLong(edgeFile.length());
+			out.writeLong(edgeFile.lastModified());
+			out.writeInt(nodes.length);
+			for (int i = 0; i < nodes.length; i++) {
+				out.writeInt(nodes[i].getId());
+				out.writeInt(starts[i]);
+			}
+			out.writeInt(starts[nodes.length]);
+			for (int node : separatorNodes) {
+				out.writeInt(node);
+			}
+			fmIndex.write(out);
+		}
+	}
+
+	/**
+	 * Reads an index written by {@link #write(File, File, File)}.
+	 *
+	 * @return the index, or {@code null} if it was written for another version of the graph files or other nodes
+	 * @throws IOException
+	 *             if the file can't be read
+	 */
+	static SequenceIndex read(File file, File nodeFile, File edgeFile, List<DataNode> nodes, List<Edge> edges)
+			throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readLong() != nodeFile.length()
+					|| in.readLong() != nodeFile.lastModified() || in.readLong() != edgeFile.length()
+					|| in.readLong() != edgeFile.lastModified() || in.readInt() != nodes.size()) {
+				return null;
+			}
+			Map<Integer, DataNode> nodesById = new HashMap<>();
+			for (DataNode node : nodes) {
+				nodesById.put(node.getId(), node);
+			}
+			DataNode[] nodeArray = new DataNode[nodes.size()];
+			int[] starts = new int[nodeArray.length + 1];
+			for (int i = 0; i < nodeArray.length; i++) {
+				nodeArray[i] = nodesById.get(in.readInt());
+				starts[i] = in.readInt();
+				if (nodeArray[i] == null) {
+					return null;
+				}
+			}
+			starts[nodeArray.length] = in.readInt();
+			int[] separatorNodes = new int[nodeArray.length + 1];
+			for (int i = 0; i < separatorNodes.length; i++) {
+				separatorNodes[i] = in.readInt();
+			}
+			return new SequenceIndex(FmIndex.read(in), nodeArray, starts, separatorNodes, edges);
+		}
+	}
+
+	private void initPredecessors(List<Edge> edges) {
+		Map<Integer, Integer> indices = new HashMap<>();
+		for (int i = 0; i < nodes.length; i++) {
+			indices.put(nodes[i].getId(), i);
+		}
+		int[] counts = new int[nodes.length];
+		int[][] pairs = new int[edges.size()][];
+		for (int i = 0; i < pairs.length; i++) {
+			Integer from = indices.get(edges.get(i).getFrom().getId());
+			Integer to = indices.get(edges.get(i).getTo().getId());
+			if (from != null && to != null) {
+				pairs[i] = new int[] { from, to };
+				counts[to]++;
+			}
+		}
+		predecessors = new int[nodes.length][];
+		for (int i = 0; i < nodes.length; i++) {
+			predecessors[i] = new int[counts[i]];
+		}
+		for (int[] pair : pairs) {
+			if (pair != null) {
+				predecessors[pair[1]][--counts[pair[1]]] = pair[0];
+			}
+		}
+	}
+
+	/**
+	 * Converts a base pair to a symbol of the index. All characters other than A, C, G and T are seen as N.
+	 */
+	static byte toSymbol(char basePair) {
+		switch (Character.toUpperCase(basePair)) {
+			case 'A':
+				return 2;
+			case 'C':
+				return 3;
+			case 'G':
+				return 4;
+			case 'T':
+				return 5;
+			default:
+				return UNKNOWN;
+		}
+	}
+
+	/**
+	 * Finds all occurrences of a sequence, ignoring case.
+	 *
+	 * @param sequence
+	 *            the base pairs to find
+	 * @return the start of each occurrence, sorted on the order of the nodes and the offset in the node
+	 */
+	public List<SequenceMatch> find(String sequence) {
+		if (sequence.isEmpty()) {
+			return new ArrayList<>();
+		}
+		byte[] pattern = new byte[sequence.length()];
+		for (int i = 0; i < pattern.length; i++) {
+			pattern[i] = toSymbol(sequence.charAt(i));
+		}
+		Set<Long> matches = new HashSet<>();
+		for (int position : fmIndex.find(pattern)) {
+			int node = lowerBound(starts, position + 1) - 1;
+			matches.add(toKey(node, position - starts[node] - 1));
+		}
+		findCrossingMatches(pattern, matches);
+
+		long[] keys = new long[matches.size()];
+		int i = 0;
+		for (long key : matches) {
+			keys[i++] = key;
+		}
+		Arrays.sort(keys);
+		List<SequenceMatch> result = new ArrayList<>(keys.length);
+		for (long key : keys) {
+			result.add(new SequenceMatch(nodes[(int) (key >>> Integer.SIZE)], (int) key));
+		}
+		return result;
+	}
+
+	/**
+	 * Combines the index of a node and an offset in the node, so matches sort on the node first.
+	 */
+	private static long toKey(int node, int offset) {
+		return ((long) node << Integer.SIZE) | offset;
+	}
+
+	/**
+	 * Finds the occurrences which cross nodes, by their last boundary. For each split of the pattern, the nodes
+	 * starting with the end of the pattern are found with the index, and the start of the pattern is matched
+	 * backwards from each of their predecessors.
+	 */
+	private void findCrossingMatches(byte[] pattern, Set<Long> matches) {
+		int firstRow = fmIndex.getFirstRow(SEPARATOR);
+		for (int split = 1; split < pattern.length; split++) {
+			byte[] end = new byte[pattern.length - split + 1];
+			end[0] = SEPARATOR;
+			System.arraycopy(pattern, split, end, 1, pattern.length - split);
+			int[] range = fmIndex.findRange(end);
+			for (int row = range[0]; row < range[1]; row++) {
+				int node = separatorNodes[row - firstRow];
+				if (node < nodes.length) {
+					for (int predecessor : predecessors[node]) {
+						matchEnd(predecessor, pattern, split, matches, 0);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Matches the first part of a pattern against the end of a node, and continues into the predecessors of the node
+	 * when the node is shorter than that part.
+	 *
+	 * @param node
+	 *            the node to match the end of
+	 * @param pattern
+	 *            the pattern
+	 * @param length
+	 *            the length of the part of the pattern to match
+	 * @param matches
+	 *            the set to add the start of each match to
+	 * @param depth
+	 *            the number of nodes passed, which limits the search when empty nodes form a cycle
+	 */
+	private void matchEnd(int node, byte[] pattern, int length, Set<Long> matches, int depth) {
+		String content = nodes[node].getContent();
+		int i = content.length() - 1;
+		int remaining = length;
+		while (remaining > 0 && i >= 0) {
+			if (toSymbol(content.charAt(i)) != pattern[remaining - 1]) {
+				return;
+			}
+			i--;
+			remaining--;
+		}
+		if (remaining == 0) {
+			matches.add(toKey(node, i + 1));
+		} else if (depth < pattern.length) {
+			for (int predecessor : predecessors[node]) {
+				matchEnd(predecessor, pattern, remaining, matches, depth + 1);
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of nodes in the index.
+	 *
+	 * @return the number of nodes in the index
+	 */
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * Searches a sorted array for the first value which is not smaller than the key.
+	 *
+	 * @return the index of the first value which is at least the key
+	 */
+	private static int lowerBound(int[] values, int key) {
+		int index = Arrays.binarySearch(values, key);
+		if (index < 0) {
+			return -index - 1;
+		}
+		while (index > 0 && values[index - 1] == key) {
+			index--;
+		}
+		return index;
+	}
+}
@@ -0,0 +1,55 @@
+package tudelft.ti2806.pl3.data.search;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+
+/**
+ * The start of an occurrence of a sequence in the graph. The occurrence may continue in the nodes after the node it
+ * starts in.
+ */
+public final class SequenceMatch {
+	private final DataNode node;
+	private final int offset;
+
+	/**
+	 * Construct a match.
+	 *
+	 * @param node
+	 *            the node the occurrence starts in
+	 * @param offset
+	 *            the index of the first base pair of the occurrence in the content of the node
+	 */
+	public SequenceMatch(DataNode node, int offset) {
+		this.node = node;
+		this.offset = offset;
+	}
+
+	public DataNode getNode() {
+		return node;
+	}
+
+	public int getOffset() {
+		return offset;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * node.getId() + offset;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || getClass() != obj.getClass()) {
+			return false;
+		}
+		SequenceMatch other = (SequenceMatch) obj;
+		return node.getId() == other.node.getId() && offset == other.offset;
+	}
+
+	@Override
+	public String toString() {
+		return "SequenceMatch[node=" + node.getId() + ", offset=" + offset + "]";
+	}
+}
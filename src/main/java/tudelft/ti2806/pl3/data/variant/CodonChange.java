@@ -0,0 +1,72 @@
+package tudelft.ti2806.pl3.data.variant;
+
+import tudelft.ti2806.pl3.data.AminoAcid;
+import tudelft.ti2806.pl3.data.gene.Gene;
+
+/**
+ * The change of an amino acid of the protein of a gene by an allele.
+ */
+public class CodonChange {
+	private final Gene gene;
+	private final int codon;
+	private final AminoAcid reference;
+	private final AminoAcid allele;
+	private final Impact impact;
+
+	/**
+	 * Construct a change of an amino acid.
+	 *
+	 * @param gene
+	 *            the gene of the changed codon
+	 * @param codon
+	 *            the number of the codon in the gene, starting at 1
+	 * @param reference
+	 *            the amino acid of the codon in the reference
+	 * @param allele
+	 *            the amino acid of the codon in the allele
+	 * @param impact
+	 *            the impact of the change
+	 */
+	public CodonChange(Gene gene, int codon, AminoAcid reference, AminoAcid allele, Impact impact) {
+		this.gene = gene;
+		this.codon = codon;
+		this.reference = reference;
+		this.allele = allele;
+		this.impact = impact;
+	}
+
+	public Gene getGene() {
+		return gene;
+	}
+
+	public int getCodon() {
+		return codon;
+	}
+
+	public AminoAcid getReference() {
+		return reference;
+	}
+
+	public AminoAcid getAllele() {
+		return allele;
+	}
+
+	public Impact getImpact() {
+		return impact;
+	}
+
+	/**
+	 * Describes the change in HGVS notation.
+	 *
+	 * @return the change written as the amino acid of the reference, the number of the codon and the amino acid of
+	 *         the allele, like Ser450Leu
+	 */
+	public String getDescription() {
+		return reference.name() + codon + allele.name();
+	}
+
+	@Override
+	public String toString() {
+		return gene.getName() + " " + getDescription() + " (" + impact.getCode() + ")";
+	}
+}
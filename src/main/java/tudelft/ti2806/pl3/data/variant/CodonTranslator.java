@@ -0,0 +1,197 @@
+package tudelft.ti2806.pl3.data.variant;
+
+import tudelft.ti2806.pl3.data.AminoAcid;
+import tudelft.ti2806.pl3.data.BasePair;
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.search.GenomePathIndex;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Translates the codons of the genes of a reference genome, and of alleles replacing base pairs of the reference,
+ * into amino acids.
+ *
+ * <p>
+ * The reference is packed with two bits for each base pair, in the encoding of {@link BasePair}, so a codon is read
+ * as a six bit number which is the index in the translation table of {@link AminoAcid}. The codon of the reverse
+ * strand is found by complementing each base pair, which flips the second bit, and reversing their order. Codons are
+ * only kept as numbers, so translating allocates nothing and one translator can be used by any number of threads.
+ * </p>
+ */
+public final class CodonTranslator {
+	private static final int BASES_PER_WORD = Long.SIZE / 2;
+	private static final int COMPLEMENT = 2;
+	private static final int[] CODES = new int[128];
+
+	static {
+		Arrays.fill(CODES, -1);
+		for (BasePair basePair : BasePair.values()) {
+			if (basePair != BasePair.N && basePair != BasePair.U) {
+				CODES[basePair.name().charAt(0)] = basePair.getValue();
+				CODES[Character.toLowerCase(basePair.name().charAt(0))] = basePair.getValue();
+			}
+		}
+	}
+
+	private final long[] words;
+	/**
+	 * The positions of base pairs which are not A, C, G or T.
+	 */
+	private final BitSet unknown;
+	private final int length;
+
+	private CodonTranslator(int length) {
+		this.length = length;
+		words = new long[(length + BASES_PER_WORD - 1) / BASES_PER_WORD];
+		unknown = new BitSet(length);
+	}
+
+	/**
+	 * Packs the sequence of a genome by following its path through the graph.
+	 *
+	 * @param pathIndex
+	 *            the paths of the genomes through the graph
+	 * @param genome
+	 *            the genome to translate the genes of
+	 * @return the translator of the genome
+	 */
+	public static CodonTranslator of(GenomePathIndex pathIndex, Genome genome) {
+		CodonTranslator translator = new CodonTranslator(pathIndex.getLength(genome));
+		int[] position = new int[1];
+		pathIndex.forEachNode(genome, node -> position[0] = translator.set(position[0], node.getContent()));
+		return translator;
+	}
+
+	/**
+	 * Packs a sequence.
+	 *
+	 * @param sequence
+	 *            the base pairs of the reference
+	 * @return the translator of the sequence
+	 */
+	public static CodonTranslator of(CharSequence sequence) {
+		CodonTranslator translator = new CodonTranslator(sequence.length());
+		translator.set(0, sequence);
+		return translator;
+	}
+
+	private static int getCode(char character) {
+		return character < CODES.length ? CODES[character] : -1;
+	}
+
+	private int set(int position, CharSequence sequence) {
+		for (int i = 0; i < sequence.length(); i++, position++) {
+			int code = getCode(sequence.charAt(i));
+			if (code < 0) {
+				unknown.set(position);
+			} else {
+				words[position / BASES_PER_WORD] |= (long) code << (2 * (position % BASES_PER_WORD));
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Gives the base pair of the reference at a position.
+	 *
+	 * @return the code of the base pair at a position of the reference, or -1 if it is unknown
+	 */
+	int getBase(int position) {
+		if (unknown.get(position)) {
+			return -1;
+		}
+		return (int) (words[position / BASES_PER_WORD] >>> (2 * (position % BASES_PER_WORD))) & 3;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Finds the most severe change of an amino acid of the protein of a gene, when base pairs of the reference are
+	 * replaced by as many base pairs of an allele. Codons which are not completely in the gene, or which contain an
+	 * unknown base pair, are not translated.
+	 *
+	 * @param gene
+	 *            the gene, with its start and end as positions of the reference starting at 1
+	 * @param position
+	 *            the position of the first replaced base pair of the reference, starting at 0
+	 * @param allele
+	 *            the base pairs replacing the base pairs of the reference
+	 * @return the most severe change, or the first of the most severe changes<br>
+	 *         {@code null} if the allele does not change a codon of the gene
+	 */
+	public CodonChange translate(Gene gene, int position, CharSequence allele) {
+		int geneStart = gene.getStart() - 1;
+		int geneEnd = Math.min(gene.getEnd(), length);
+		int from = Math.max(position, geneStart);
+		int to = Math.min(position + allele.length(), geneEnd);
+		if (from >= to) {
+			return null;
+		}
+		int firstCodon;
+		int lastCodon;
+		if (gene.isReverse()) {
+			firstCodon = (geneEnd - to) / 3;
+			lastCodon = (geneEnd - 1 - from) / 3;
+		} else {
+			firstCodon = (from - geneStart) / 3;
+			lastCodon = (to - 1 - geneStart) / 3;
+		}
+		int worstCodon = -1;
+		int worstReference = -1;
+		int worstAllele = -1;
+		Impact worst = null;
+		for (int codon = firstCodon; codon <= lastCodon; codon++) {
+			int start = gene.isReverse() ? geneEnd - 3 * (codon + 1) : geneStart + 3 * codon;
+			if (start < geneStart || start + 3 > geneEnd) {
+				continue;
+			}
+			int referenceCodon = 0;
+			int alleleCodon = 0;
+			for (int i = 0; i < 3; i++) {
+				int referenceBase = getBase(start + i);
+				int offset = start + i - position;
+				int alleleBase = offset >= 0 && offset < allele.length() ? getCode(allele.charAt(offset))
+						: referenceBase;
+				if (referenceBase < 0 || alleleBase < 0) {
+					referenceCodon = -1;
+					break;
+				}
+				if (gene.isReverse()) {
+					referenceCodon |= (referenceBase ^ COMPLEMENT) << (2 * i);
+					alleleCodon |= (alleleBase ^ COMPLEMENT) << (2 * i);
+				} else {
+					referenceCodon = referenceCodon << 2 | referenceBase;
+					alleleCodon = alleleCodon << 2 | alleleBase;
+				}
+			}
+			if (referenceCodon < 0 || referenceCodon == alleleCodon) {
+				continue;
+			}
+			Impact impact = getImpact(AminoAcid.get(referenceCodon), AminoAcid.get(alleleCodon));
+			if (worst == null || impact.compareTo(worst) > 0) {
+				worst = impact;
+				worstCodon = codon;
+				worstReference = referenceCodon;
+				worstAllele = alleleCodon;
+			}
+		}
+		if (worst == null) {
+			return null;
+		}
+		return new CodonChange(gene, worstCodon + 1, AminoAcid.get(worstReference), AminoAcid.get(worstAllele),
+				worst);
+	}
+
+	private static Impact getImpact(AminoAcid reference, AminoAcid allele) {
+		if (reference == allele) {
+			return Impact.SYNONYMOUS;
+		} else if (allele.isStop() && !reference.isStop()) {
+			return Impact.NONSENSE;
+		}
+		return Impact.MISSENSE;
+	}
+}
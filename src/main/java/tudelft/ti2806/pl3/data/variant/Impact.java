@@ -0,0 +1,23 @@
+package tudelft.ti2806.pl3.data.variant;
+
+/**
+ * The effect of a change of a codon on the amino acid it codes for, from the least to the most severe.
+ */
+public enum Impact {
+	SYNONYMOUS("synonymous"), MISSENSE("missense"), NONSENSE("nonsense");
+
+	private final String code;
+
+	Impact(String code) {
+		this.code = code;
+	}
+
+	/**
+	 * Gives the code of the impact.
+	 *
+	 * @return the name of the impact in the IMPACT field of a VCF file
+	 */
+	public String getCode() {
+		return code;
+	}
+}
@@ -0,0 +1,664 @@
+package tudelft.ti2806.pl3.data.variant;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.filter.GenomeMask;
+import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.Edge;
+import tudelft.ti2806.pl3.data.label.ImpactLabel;
+import tudelft.ti2806.pl3.data.label.Label;
+import tudelft.ti2806.pl3.data.search.GenomePathIndex;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Lists the variants of a set of genomes against a reference genome, found as the bubbles of the graph along the
+ * path of the reference, and writes them with the genotype of each genome to a VCF file.
+ *
+ * <p>
+ * A site starts at a node of the reference where a branch leaves the reference, and ends at the furthest node of the
+ * reference where such a branch joins it again. Branches leaving the reference between these nodes extend the site,
+ * so sites don't overlap. The sites are found in one walk along the reference.
+ * </p>
+ *
+ * <p>
+ * The alleles of a site are the paths between its two nodes. A path is only followed while some genome passes all of
+ * its nodes, so only paths which genomes take are listed. The genomes of a path are the intersection of the genomes
+ * of its nodes, kept as bits over the genomes. A genome which passes all nodes of two paths takes the path with the
+ * most nodes, as it passes all of those. The genotype of each genome is read from these bits while its line is
+ * written, so no genotypes are kept per genome.
+ * </p>
+ *
+ * <p>
+ * The sites are handled in batches on a number of threads, and the lines of each batch are written in the order of
+ * the reference as soon as the batches before it are written.
+ * </p>
+ *
+ * <p>
+ * When the catalogue is annotated with the genes of the reference, the codons changed by each allele are translated
+ * with a {@link CodonTranslator}, and the impact on the amino acid is written with the variant and can be added as a
+ * label to the nodes of the allele.
+ * </p>
+ */
+public class VariantCatalogue {
+	/**
+	 * The identifier of the reference genome of the graphs of the tuberculosis data.
+	 */
+	public static final String DEFAULT_REFERENCE = "TKK_REF";
+	/**
+	 * The characters which can't be in the value of an INFO field.
+	 */
+	private static final Pattern INFO_RESERVED = Pattern.compile("[\\s;=,|]");
+	/**
+	 * The number of sites handled as one task.
+	 */
+	static final int BATCH_SIZE = 256;
+
+	private final DataNode[] nodes;
+	private final int[][] successors;
+	private final Genome reference;
+	private final int referenceLength;
+	/**
+	 * The nodes on the path of the reference, in order, and their position in the reference.
+	 */
+	private final int[] referenceNodes;
+	private final int[] referencePositions;
+	/**
+	 * The index on the path of the reference of each node, or -1 for nodes not on the path.
+	 */
+	private final int[] referenceIndices;
+	private final GenomeMask samples;
+	private final List<String> skippedSamples = new ArrayList<>();
+	private final int[] siteStarts;
+	private final int[] siteEnds;
+	private final GenomePathIndex pathIndex;
+	/**
+	 * The most severe change of a codon by each alternative allele of each site, found by {@link #annotate(List)}.
+	 */
+	private CodonChange[][] changes;
+	private List<Annotation> annotations;
+
+	/**
+	 * Construct the catalogue of the variants of a graph, and find its sites.
+	 *
+	 * @param nodes
+	 *            the nodes of the graph
+	 * @param edges
+	 *            the edges of the graph
+	 * @param pathIndex
+	 *            the paths of the genomes through the graph
+	 * @param reference
+	 *            the identifier of the reference genome
+	 * @param samples
+	 *            the identifiers of the genomes to write the genotypes of, of which those not in the graph are skipped
+	 * @throws IllegalArgumentException
+	 *             if the reference is not in the graph
+	 */
+	public VariantCatalogue(List<DataNode> nodes, List<Edge> edges, GenomePathIndex pathIndex, String reference,
+			List<String> samples) {
+		this.nodes = nodes.toArray(new DataNode[nodes.size()]);
+		this.pathIndex = pathIndex;
+		Map<Integer, Integer> indices = new HashMap<>(this.nodes.length * 2);
+		for (int i = 0; i < this.nodes.length; i++) {
+			indices.put(this.nodes[i].getId(), i);
+		}
+		successors = getSuccessors(edges, indices);
+
+		Map<String, Genome> genomes = new HashMap<>();
+		for (Genome genome : pathIndex.getGenomes()) {
+			genomes.put(genome.getIdentifier(), genome);
+		}
+		this.reference = genomes.get(reference);
+		if (this.reference == null) {
+			throw new IllegalArgumentException("There is no reference genome named " + reference);
+		}
+		List<Genome> sampleGenomes = new ArrayList<>(samples.size());
+		for (String sample : samples) {
+			if (genomes.containsKey(sample)) {
+				sampleGenomes.add(genomes.get(sample));
+			} else {
+				skippedSamples.add(sample);
+			}
+		}
+		this.samples = GenomeMask.all(sampleGenomes);
+
+		referenceNodes = new int[pathIndex.getNodeCount(this.reference)];
+		referencePositions = new int[referenceNodes.length];
+		referenceIndices = new int[this.nodes.length];
+		Arrays.fill(referenceIndices, -1);
+		int[] size = new int[1];
+		pathIndex.forEachNode(this.reference, node -> {
+				int index = indices.get(node.getId());
+				referenceNodes[size[0]] = index;
+				referencePositions[size[0]] = size[0] == 0 ? 0 : referencePositions[size[0] - 1]
+						+ this.nodes[referenceNodes[size[0] - 1]].getContent().length();
+				referenceIndices[index] = size[0]++;
+			}
+		);
+		referenceLength = pathIndex.getLength(this.reference);
+
+		List<int[]> sites = findSites();
+		siteStarts = new int[sites.size()];
+		siteEnds = new int[sites.size()];
+		for (int i = 0; i < siteStarts.length; i++) {
+			siteStarts[i] = sites.get(i)[0];
+			siteEnds[i] = sites.get(i)[1];
+		}
+	}
+
+	private int[][] getSuccessors(List<Edge> edges, Map<Integer, Integer> indices) {
+		int[] counts = new int[nodes.length];
+		for (Edge edge : edges) {
+			Integer from = indices.get(edge.getFromId());
+			if (from != null && indices.containsKey(edge.getToId())) {
+				counts[from]++;
+			}
+		}
+		int[][] result = new int[nodes.length][];
+		for (int i = 0; i < nodes.length; i++) {
+			result[i] = new int[counts[i]];
+		}
+		Arrays.fill(counts, 0);
+		for (Edge edge : edges) {
+			Integer from = indices.get(edge.getFromId());
+			Integer to = indices.get(edge.getToId());
+			if (from != null && to != null) {
+				result[from][counts[from]++] = to;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Walks along the reference and finds the start and end index on the reference of each site.
+	 */
+	private List<int[]> findSites() {
+		List<int[]> sites = new ArrayList<>();
+		int[] visited = new int[nodes.length];
+		for (int start = 0; start < referenceNodes.length - 1;) {
+			int end = findRejoin(start, visited);
+			if (end < 0) {
+				start++;
+				continue;
+			}
+			for (int inner = start + 1; inner < end; inner++) {
+				end = Math.max(end, findRejoin(inner, visited));
+			}
+			sites.add(new int[] { start, end });
+			start = end;
+		}
+		return sites;
+	}
+
+	/**
+	 * Follows the branches leaving the reference at a node until they join the reference again.
+	 *
+	 * @param index
+	 *            the index on the reference of the node
+	 * @param visited
+	 *            the mark of each node, which is set to the index to visit each node once
+	 * @return the furthest index on the reference where a branch joins it, or -1 if no branch leaves the reference
+	 */
+	private int findRejoin(int index, int[] visited) {
+		int furthest = -1;
+		Deque<Integer> stack = new ArrayDeque<>();
+		for (int successor : successors[referenceNodes[index]]) {
+			if (referenceIndices[successor] < 0) {
+				stack.push(successor);
+			} else if (referenceIndices[successor] > index + 1) {
+				furthest = Math.max(furthest, referenceIndices[successor]);
+			}
+		}
+		if (stack.isEmpty()) {
+			return furthest;
+		}
+		furthest = Math.max(furthest, index + 1);
+		while (!stack.isEmpty()) {
+			int node = stack.pop();
+			if (visited[node] == index + 1) {
+				continue;
+			}
+			visited[node] = index + 1;
+			for (int successor : successors[node]) {
+				if (referenceIndices[successor] < 0) {
+					stack.push(successor);
+				} else {
+					furthest = Math.max(furthest, referenceIndices[successor]);
+				}
+			}
+		}
+		return furthest;
+	}
+
+	/**
+	 * Gives the number of sites of the graph.
+	 *
+	 * @return the number of sites, which is at least the number of variants written
+	 */
+	public int getSiteCount() {
+		return siteStarts.length;
+	}
+
+	/**
+	 * Gives the samples which were skipped, because they are not in the graph.
+	 *
+	 * @return the identifiers of the skipped samples, in the order they were given
+	 */
+	public List<String> getSkippedSamples() {
+		return skippedSamples;
+	}
+
+	/**
+	 * Writes the variants in VCF, with a genotype column for each sample.
+	 *
+	 * @param out
+	 *            the writer to write to
+	 * @param threads
+	 *            the number of batches of sites handled at the same time
+	 * @return the number of variants written
+	 * @throws IOException
+	 *             if the writer can't be written to
+	 */
+	public int write(Writer out, int threads) throws IOException {
+		writeHeader(out);
+		AtomicInteger written = new AtomicInteger();
+		int workers = Math.max(1, threads);
+		ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+				Thread thread = new Thread(runnable, "variant-catalogue");
+				thread.setDaemon(true);
+				return thread;
+			}
+		);
+		try {
+			Deque<Future<String>> pending = new ArrayDeque<>();
+			for (int batch = 0; batch < siteStarts.length; batch += BATCH_SIZE) {
+				int from = batch;
+				int to = Math.min(siteStarts.length, batch + BATCH_SIZE);
+				pending.add(executor.submit(() -> formatSites(from, to, written)));
+				if (pending.size() >= 2 * workers) {
+					out.write(pending.poll().get());
+				}
+			}
+			while (!pending.isEmpty()) {
+				out.write(pending.poll().get());
+			}
+			out.flush();
+			return written.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Writing the variants was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Could not list the variants", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void writeHeader(Writer out) throws IOException {
+		out.write("##fileformat=VCFv4.2\n");
+		out.write("##contig=<ID=" + reference.getIdentifier() + ",length=" + referenceLength + ">\n");
+		out.write("##INFO=<ID=TYPE,Number=A,Type=String,Description=\"The type of each alternative allele: "
+				+ "snp, mnp, ins, del or complex\">\n");
+		out.write("##INFO=<ID=NS,Number=1,Type=Integer,Description=\"Number of samples passing the site\">\n");
+		out.write("##INFO=<ID=IMPACT,Number=A,Type=String,Description=\"The most severe change of a codon by each "
+				+ "alternative allele in a gene: synonymous, missense or nonsense|gene|amino acid change\">\n");
+		out.write("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n");
+		out.write("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT");
+		for (String sample : samples.getIdentifiers()) {
+			out.write('\t');
+			out.write(sample);
+		}
+		out.write('\n');
+	}
+
+	private String formatSites(int from, int to, AtomicInteger written) {
+		StringBuilder builder = new StringBuilder();
+		for (int site = from; site < to; site++) {
+			Alleles alleles = findAlleles(site);
+			if (alleles != null) {
+				appendLine(site, alleles, builder);
+				written.incrementAndGet();
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Translates the codons changed by the alleles of the sites in the genes of the reference, for each gene in
+	 * parallel. Only alleles with as many base pairs as the reference are translated, as other alleles shift the codons
+	 * after them. The most severe change of each allele is written in the IMPACT field of its variant.
+	 *
+	 * @param genes
+	 *            the genes of the reference
+	 * @return the number of alleles which change a codon
+	 */
+	public int annotate(List<Gene> genes) {
+		CodonTranslator translator = CodonTranslator.of(pathIndex, reference);
+		IntStream indices = IntStream.range(0, genes.size());
+		if (genes.size() > 1) {
+			indices = indices.parallel();
+		}
+		List<List<Annotation>> found = indices.mapToObj(gene -> findChanges(translator, genes.get(gene)))
+				.collect(Collectors.toList());
+		CodonChange[][] result = new CodonChange[siteStarts.length][];
+		int changed = 0;
+		annotations = new ArrayList<>();
+		for (List<Annotation> list : found) {
+			for (Annotation annotation : list) {
+				if (result[annotation.site] == null) {
+					result[annotation.site] = new CodonChange[annotation.alleles];
+				}
+				CodonChange[] site = result[annotation.site];
+				CodonChange previous = site[annotation.allele - 1];
+				if (previous == null) {
+					changed++;
+				}
+				if (previous == null || annotation.change.getImpact().compareTo(previous.getImpact()) > 0) {
+					site[annotation.allele - 1] = annotation.change;
+				}
+				annotations.add(annotation);
+			}
+		}
+		changes = result;
+		return changed;
+	}
+
+	/**
+	 * Finds the changes of the codons of a gene by the alleles of the sites in the gene.
+	 */
+	private List<Annotation> findChanges(CodonTranslator translator, Gene gene) {
+		List<Annotation> result = new ArrayList<>();
+		int geneEnd = gene.getEnd();
+		for (int site = findFirstSite(gene.getStart() - 1); site < siteStarts.length
+				&& getRegionStart(site) < geneEnd; site++) {
+			Alleles alleles = findAlleles(site);
+			if (alleles == null) {
+				continue;
+			}
+			int position = getRegionStart(site);
+			String referenceAllele = alleles.sequences.get(0);
+			for (int allele = 1; allele < alleles.sequences.size(); allele++) {
+				String sequence = alleles.sequences.get(allele);
+				if (sequence.length() != referenceAllele.length()) {
+					continue;
+				}
+				CodonChange change = translator.translate(gene, position, sequence);
+				if (change != null) {
+					result.add(new Annotation(site, allele, alleles.sequences.size() - 1, change,
+							alleles.paths.get(allele)));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the first site which ends after a position with a binary search.
+	 *
+	 * @return the first site which ends after a position of the reference
+	 */
+	private int findFirstSite(int position) {
+		int low = 0;
+		int high = siteStarts.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (referencePositions[siteEnds[middle]] > position) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Finds where the region of a site starts in the reference.
+	 *
+	 * @return the position in the reference of the first base pair after the node where a site starts
+	 */
+	private int getRegionStart(int site) {
+		int start = siteStarts[site];
+		return referencePositions[start] + nodes[referenceNodes[start]].getContent().length();
+	}
+
+	/**
+	 * Adds an {@link ImpactLabel} for each change found by {@link #annotate(List)} to the nodes of the allele, which
+	 * are not on the path of the reference. Labels which a node already has are not added again.
+	 */
+	public void addImpactLabels() {
+		if (annotations == null) {
+			return;
+		}
+		for (Annotation annotation : annotations) {
+			Label label = new ImpactLabel(annotation.change);
+			for (int[] path : annotation.paths) {
+				for (int node : path) {
+					if (referenceIndices[node] < 0 && !nodes[node].getLabelList().contains(label)) {
+						nodes[node].addLabel(label);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the alleles of a site and the samples taking each of them.
+	 *
+	 * @return the alleles of the site<br>
+	 *         {@code null} if no sample takes another allele than the reference
+	 */
+	private Alleles findAlleles(int site) {
+		int start = siteStarts[site];
+		int end = siteEnds[site];
+		Map<Integer, BitSet> genomesOfNodes = new HashMap<>();
+		List<int[]> paths = new ArrayList<>();
+		List<BitSet> pathGenomes = new ArrayList<>();
+		int startNode = referenceNodes[start];
+		BitSet startGenomes = getGenomes(startNode, genomesOfNodes);
+		findPaths(startNode, start, end, new int[0], startGenomes, genomesOfNodes, paths, pathGenomes);
+
+		// Genomes passing the nodes of several paths take the path with the most nodes.
+		Integer[] order = new Integer[paths.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Integer.compare(paths.get(b).length, paths.get(a).length));
+		Alleles alleles = new Alleles(getReferenceAllele(start, end));
+		for (int path : order) {
+			BitSet own = (BitSet) pathGenomes.get(path).clone();
+			own.andNot(alleles.passing);
+			if (!own.isEmpty()) {
+				alleles.add(getSequence(paths.get(path)), paths.get(path), own);
+			}
+		}
+		return alleles.sequences.size() == 1 ? null : alleles;
+	}
+
+	/**
+	 * Follows all paths from a node to the end of the site which some genome takes.
+	 */
+	private void findPaths(int node, int start, int end, int[] path, BitSet genomes, Map<Integer, BitSet> cache,
+			List<int[]> paths, List<BitSet> pathGenomes) {
+		for (int successor : successors[node]) {
+			int index = referenceIndices[successor];
+			if (index >= 0 && (index <= start || index > end)) {
+				continue;
+			}
+			BitSet next = (BitSet) genomes.clone();
+			next.and(getGenomes(successor, cache));
+			if (next.isEmpty()) {
+				continue;
+			}
+			if (index == end) {
+				paths.add(path);
+				pathGenomes.add(next);
+			} else {
+				int[] longer = Arrays.copyOf(path, path.length + 1);
+				longer[path.length] = successor;
+				findPaths(successor, start, end, longer, next, cache, paths, pathGenomes);
+			}
+		}
+	}
+
+	/**
+	 * Gives the samples passing a node, cached per node.
+	 *
+	 * @return the samples passing a node, as bits over the samples
+	 */
+	private BitSet getGenomes(int node, Map<Integer, BitSet> cache) {
+		return cache.computeIfAbsent(node, key -> {
+				BitSet bits = new BitSet(samples.capacity());
+				for (Genome genome : nodes[node].getSource()) {
+					int ordinal = samples.ordinal(genome);
+					if (ordinal >= 0) {
+						bits.set(ordinal);
+					}
+				}
+				return bits;
+			}
+		);
+	}
+
+	private String getReferenceAllele(int start, int end) {
+		StringBuilder sequence = new StringBuilder();
+		for (int i = start + 1; i < end; i++) {
+			sequence.append(nodes[referenceNodes[i]].getContent());
+		}
+		return sequence.toString();
+	}
+
+	private String getSequence(int[] path) {
+		StringBuilder sequence = new StringBuilder();
+		for (int node : path) {
+			sequence.append(nodes[node].getContent());
+		}
+		return sequence.toString();
+	}
+
+	/**
+	 * Appends the line of a site. Alleles are written with the base pair before the site when one of them is empty,
+	 * as VCF has no empty alleles.
+	 */
+	private void appendLine(int site, Alleles alleles, StringBuilder builder) {
+		int start = siteStarts[site];
+		String startContent = nodes[referenceNodes[start]].getContent();
+		String referenceAllele = alleles.sequences.get(0);
+		boolean padded = alleles.indices.containsKey("");
+		String padding = "";
+		int position = referencePositions[start] + startContent.length() + 1;
+		if (padded) {
+			padding = startContent.isEmpty() ? "N" : startContent.substring(startContent.length() - 1);
+			position = Math.max(1, position - 1);
+		}
+		builder.append(reference.getIdentifier()).append('\t').append(position).append("\t.\t").append(padding)
+				.append(referenceAllele).append('\t');
+		StringBuilder types = new StringBuilder();
+		for (int allele = 1; allele < alleles.sequences.size(); allele++) {
+			if (allele > 1) {
+				builder.append(',');
+				types.append(',');
+			}
+			builder.append(padding).append(alleles.sequences.get(allele));
+			types.append(VariantType.classify(referenceAllele, alleles.sequences.get(allele)).getCode());
+		}
+		builder.append("\t.\tPASS\tTYPE=").append(types).append(";NS=").append(alleles.passing.cardinality());
+		CodonChange[] siteChanges = changes == null ? null : changes[site];
+		if (siteChanges != null) {
+			builder.append(";IMPACT=");
+			for (int allele = 0; allele < siteChanges.length; allele++) {
+				if (allele > 0) {
+					builder.append(',');
+				}
+				CodonChange change = siteChanges[allele];
+				if (change == null) {
+					builder.append('.');
+				} else {
+					builder.append(change.getImpact().getCode()).append('|')
+							.append(INFO_RESERVED.matcher(change.getGene().getName()).replaceAll("_")).append('|')
+							.append(change.getDescription());
+				}
+			}
+		}
+		builder.append("\tGT");
+		for (int sample = 0; sample < samples.capacity(); sample++) {
+			builder.append('\t');
+			if (!alleles.passing.get(sample)) {
+				builder.append('.');
+				continue;
+			}
+			for (int allele = 0; allele < alleles.genotypes.size(); allele++) {
+				if (alleles.genotypes.get(allele).get(sample)) {
+					builder.append(allele);
+					break;
+				}
+			}
+		}
+		builder.append('\n');
+	}
+
+	/**
+	 * The alleles of a site, with the reference first, and the samples and paths taking each of them.
+	 */
+	private static final class Alleles {
+		private final Map<String, Integer> indices = new HashMap<>();
+		private final List<String> sequences = new ArrayList<>();
+		private final List<BitSet> genotypes = new ArrayList<>();
+		private final List<List<int[]>> paths = new ArrayList<>();
+		private final BitSet passing = new BitSet();
+
+		private Alleles(String reference) {
+			add(reference, null, new BitSet());
+		}
+
+		private void add(String sequence, int[] path, BitSet genomes) {
+			int index = indices.computeIfAbsent(sequence, key -> {
+					sequences.add(key);
+					genotypes.add(new BitSet());
+					paths.add(new ArrayList<>());
+					return sequences.size() - 1;
+				}
+			);
+			genotypes.get(index).or(genomes);
+			if (path != null) {
+				paths.get(index).add(path);
+			}
+			passing.or(genomes);
+		}
+	}
+
+	/**
+	 * The change of a codon of a gene by an allele of a site.
+	 */
+	private static final class Annotation {
+		private final int site;
+		private final int allele;
+		private final int alleles;
+		private final CodonChange change;
+		private final List<int[]> paths;
+
+		private Annotation(int site, int allele, int alleles, CodonChange change, List<int[]> paths) {
+			this.site = site;
+			this.allele = allele;
+			this.alleles = alleles;
+			this.change = change;
+			this.paths = paths;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package tudelft.ti2806.pl3.data.variant;
+
+/**
+ * The kind of difference between an allele and the reference.
+ */
+public enum VariantType {
+	SNP("snp"), MNP("mnp"), INSERTION("ins"), DELETION("del"), COMPLEX("complex");
+
+	private final String code;
+
+	VariantType(String code) {
+		this.code = code;
+	}
+
+	/**
+	 * Gives the code of the type.
+	 *
+	 * @return the name of the type in the TYPE field of a VCF file
+	 */
+	public String getCode() {
+		return code;
+	}
+
+	/**
+	 * Classifies an allele, after removing the base pairs it has in common with the reference at its start and end.
+	 *
+	 * @param reference
+	 *            the base pairs of the reference
+	 * @param allele
+	 *            the base pairs of the allele
+	 * @return the type of the allele, or {@code null} if it is the same as the reference
+	 */
+	public static VariantType classify(String reference, String allele) {
+		int prefix = 0;
+		int shortest = Math.min(reference.length(), allele.length());
+		while (prefix < shortest && reference.charAt(prefix) == allele.charAt(prefix)) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < shortest - prefix && reference.charAt(reference.length() - 1 - suffix) == allele
+				.charAt(allele.length() - 1 - suffix)) {
+			suffix++;
+		}
+		int referenceLength = reference.length() - prefix - suffix;
+		int alleleLength = allele.length() - prefix - suffix;
+		if (referenceLength == 0 && alleleLength == 0) {
+			return null;
+		} else if (referenceLength == 0) {
+			return INSERTION;
+		} else if (alleleLength == 0) {
+			return DELETION;
+		} else if (referenceLength == 1 && alleleLength == 1) {
+			return SNP;
+		} else if (referenceLength == alleleLength) {
+			return MNP;
+		}
+		return COMPLEX;
+	}
+}
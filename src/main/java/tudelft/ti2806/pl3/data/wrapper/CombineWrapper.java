@@ -10,6 +10,8 @@ public abstract class CombineWrapper extends Wrapper {
 	final List<Wrapper> nodeList;
 	
 	private float collapse = 0;
+	private float minX = Float.NaN;
+	private float maxX = Float.NaN;
 	
 	public float getCollapse() {
 		return this.collapse;
@@ -82,6 +84,37 @@ public abstract class CombineWrapper extends Wrapper {
 		this.setX(x);
 	}
 
+	/**
+	 * The range is calculated on the first call and cached, because the positions within a wrapper don't change
+	 * after the graph is wrapped.
+	 */
+	@Override
+	public float getMinX() {
+		if (Float.isNaN(minX)) {
+			calculateXRange();
+		}
+		return minX;
+	}
+
+	@Override
+	public float getMaxX() {
+		if (Float.isNaN(maxX)) {
+			calculateXRange();
+		}
+		return maxX;
+	}
+
+	private void calculateXRange() {
+		float min = Float.MAX_VALUE;
+		float max = -Float.MAX_VALUE;
+		for (Wrapper node : nodeList) {
+			min = Math.min(min, node.getMinX());
+			max = Math.max(max, node.getMaxX());
+		}
+		minX = min;
+		maxX = max;
+	}
+
 	@Override
 	public boolean canUnwrap() {
 		return true;
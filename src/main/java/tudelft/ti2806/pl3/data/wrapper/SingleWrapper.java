@@ -80,6 +80,16 @@ public class SingleWrapper extends Wrapper {
 		this.setX(this.getNode().getX());
 	}
 	
+	@Override
+	public float getMinX() {
+		return this.getNode().getMinX();
+	}
+
+	@Override
+	public float getMaxX() {
+		return this.getNode().getMaxX();
+	}
+
 	@Override
 	public int getWidth() {
 		return this.getNode().getWidth();
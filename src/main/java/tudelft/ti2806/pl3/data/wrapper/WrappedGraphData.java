@@ -4,7 +4,7 @@ import tudelft.ti2806.pl3.data.graph.AbstractGraphData;
 import tudelft.ti2806.pl3.data.graph.DataNode;
 import tudelft.ti2806.pl3.data.graph.Edge;
 import tudelft.ti2806.pl3.data.graph.GraphData;
-import tudelft.ti2806.pl3.data.wrapper.util.interest.ComputeInterest;
+import tudelft.ti2806.pl3.data.wrapper.util.interest.InterestEngine;
 
 import java.util.List;
 
@@ -21,6 +21,7 @@ public class WrappedGraphData {
 	private final List<Wrapper> nodeWrappers;
 	private final int longestNodePath;
 	private int genomeSize;
+	private InterestEngine interestEngine;
 	
 	/**
 	 * Initialises an instance of {@link WrappedGraphData}.
@@ -41,7 +42,8 @@ public class WrappedGraphData {
 		for (Wrapper wrapper : nodeWrappers) {
 			wrapper.calculateX();
 		}
-		ComputeInterest.compute(nodeWrappers, genomeSize);
+		interestEngine = InterestEngine.createDefault(nodeWrappers, genomeSize);
+		interestEngine.apply();
 	}
 	
 	public WrappedGraphData(List<DataNode> nodes, List<Edge> edges, int genomeSize) {
@@ -64,4 +66,8 @@ public class WrappedGraphData {
 		return genomeSize;
 	}
 	
+	public InterestEngine getInterestEngine() {
+		return interestEngine;
+	}
+	
 }
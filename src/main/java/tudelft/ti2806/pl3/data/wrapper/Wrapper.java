@@ -18,16 +18,17 @@ import java.util.Set;
  */
 @SuppressWarnings("EQ_COMPARETO_USE_OBJECT_EQUALS")
 public abstract class Wrapper implements Comparable<Wrapper> {
+	private static final int[] NO_WEIGHTS = new int[0];
 
 	private float y;
 	private float x;
 
 	private List<Wrapper> incoming = new ArrayList<>();
 	private List<Wrapper> outgoing = new ArrayList<>();
-	private List<Integer> outgoingWeight = new ArrayList<>();
+	private int[] outgoingWeight = NO_WEIGHTS;
 
 	private Set<Label> labels;
-	private Set<DataNode> dataNodeList;
+	private volatile Set<DataNode> dataNodeList;
 
 	private int previousNodesCount = -1;
 	private float interest = 1f;
@@ -66,6 +67,24 @@ public abstract class Wrapper implements Comparable<Wrapper> {
 	}
 
 	public abstract void calculateX();
+
+	/**
+	 * Gets the start of the range on the x axis covered by this node.
+	 *
+	 * @return the smallest x position of this node and all nodes wrapped within it
+	 */
+	public float getMinX() {
+		return getX();
+	}
+
+	/**
+	 * Gets the end of the range on the x axis covered by this node.
+	 *
+	 * @return the largest x position of this node and all nodes wrapped within it
+	 */
+	public float getMaxX() {
+		return getX();
+	}
 	
 	public List<Wrapper> getIncoming() {
 		return incoming;
@@ -83,10 +102,37 @@ public abstract class Wrapper implements Comparable<Wrapper> {
 		this.outgoing = outgoing;
 	}
 	
-	public List<Integer> getOutgoingWeight() {
+	/**
+	 * Gets the weights of the outgoing edges.
+	 *
+	 * @return the number of genomes flowing through each outgoing edge, in the order of {@link #getOutgoing()}
+	 */
+	public int[] getOutgoingWeights() {
 		return outgoingWeight;
 	}
 
+	/**
+	 * Gets the weight of an outgoing edge.
+	 *
+	 * @param index
+	 *            the index of the edge in {@link #getOutgoing()}
+	 * @return the number of genomes flowing through the outgoing edge
+	 */
+	public int getOutgoingWeight(int index) {
+		return outgoingWeight[index];
+	}
+
+	public void setOutgoingWeights(int[] outgoingWeight) {
+		this.outgoingWeight = outgoingWeight;
+	}
+
+	/**
+	 * Removes the weights of the outgoing edges.
+	 */
+	public void clearOutgoingWeights() {
+		this.outgoingWeight = NO_WEIGHTS;
+	}
+
 	public abstract String getIdString();
 	
 	public abstract int getId();
@@ -114,14 +160,20 @@ public abstract class Wrapper implements Comparable<Wrapper> {
 	/**
 	 * Get all {@link DataNode}s in this node and its children.
 	 *
+	 * <p>
+	 * The set is only published after it is complete, because the wrapped graph is unwrapped from multiple threads.
+	 * </p>
+	 *
 	 * @return set of {@link DataNode}s
 	 */
 	public Set<DataNode> getDataNodes() {
-		if (dataNodeList == null) {
-			dataNodeList = new HashSet<>();
-			collectDataNodes(dataNodeList);
+		Set<DataNode> result = dataNodeList;
+		if (result == null) {
+			result = new HashSet<>();
+			collectDataNodes(result);
+			dataNodeList = result;
 		}
-		return dataNodeList;
+		return result;
 	}
 	
 	public abstract void collectLabels(Set<Label> labels);
@@ -143,6 +195,10 @@ public abstract class Wrapper implements Comparable<Wrapper> {
 		return interest;
 	}
 	
+	public void setInterest(float interest) {
+		this.interest = interest;
+	}
+	
 	public void addInterest(float interest) {
 		this.interest += interest;
 	}
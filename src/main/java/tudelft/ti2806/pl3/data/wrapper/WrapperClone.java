@@ -13,7 +13,7 @@ import java.util.Set;
  */
 public class WrapperClone extends Wrapper {
 
-	private final Set<DataNode> dataNodes;
+	private Set<DataNode> dataNodes;
 	private Set<Label> labels;
 	private final Wrapper originalNode;
 
@@ -22,14 +22,27 @@ public class WrapperClone extends Wrapper {
 		this.originalNode = originalNode;
 	}
 
+	/**
+	 * Construct a clone which collects the {@link DataNode}s of the original node only when they are requested.
+	 *
+	 * @param originalNode
+	 *            the node this is a clone of
+	 */
+	public WrapperClone(Wrapper originalNode) {
+		this(null, originalNode);
+	}
+
 	@Override
     public Set<DataNode> getDataNodes() {
+		if (dataNodes == null) {
+			dataNodes = originalNode.getDataNodes();
+		}
 		return dataNodes;
 	}
 
 	@Override
 	public void collectLabels(Set<Label> labels) {
-		dataNodes.forEach(n -> labels.addAll(n.getLabelList()));
+		getDataNodes().forEach(n -> labels.addAll(n.getLabelList()));
 	}
 
 	public Wrapper getOriginalNode() {
@@ -64,7 +77,7 @@ public class WrapperClone extends Wrapper {
 	public Set<Label> getLabels() {
 		if (labels == null) {
 			labels = new HashSet<>();
-			for (DataNode node : dataNodes) {
+			for (DataNode node : getDataNodes()) {
 				labels.addAll(node.getLabelList());
 			}
 		}
@@ -78,7 +91,7 @@ public class WrapperClone extends Wrapper {
 
 	@Override
 	public void collectDataNodes(Set<DataNode> set) {
-		set.addAll(dataNodes);
+		set.addAll(getDataNodes());
 	}
 
 	@Override
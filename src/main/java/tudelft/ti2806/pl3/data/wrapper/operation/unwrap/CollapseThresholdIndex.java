@@ -0,0 +1,186 @@
+package tudelft.ti2806.pl3.data.wrapper.operation.unwrap;
+
+import tudelft.ti2806.pl3.data.wrapper.CombineWrapper;
+import tudelft.ti2806.pl3.data.wrapper.HorizontalWrapper;
+import tudelft.ti2806.pl3.data.wrapper.SpaceWrapper;
+import tudelft.ti2806.pl3.data.wrapper.VerticalWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+import tudelft.ti2806.pl3.data.wrapper.operation.WrapperOperation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of all {@link CombineWrapper}s in a wrapped graph, sorted on the condition at which they are unwrapped.
+ *
+ * <p>
+ * A {@link CombineWrapper} is unwrapped by {@link UnwrapOnCollapse} when its collapse value and the collapse values
+ * of all wrappers containing it are at least the condition, and when none of these wrappers is marked as not
+ * unwrappable. The lowest of these collapse values is the threshold of the wrapper. Sorting the wrappers on this
+ * threshold makes the unwrapped wrappers for any condition a prefix of the sorted list, which is found with a binary
+ * search.
+ * </p>
+ */
+public class CollapseThresholdIndex {
+
+	private final Map<CombineWrapper, Integer> ranks = new IdentityHashMap<>();
+	private final List<CombineWrapper> wrappers;
+	private final float[] thresholds;
+
+	/**
+	 * Construct the index for the given wrapped graph.
+	 *
+	 * @param root
+	 *            the node containing the entire graph
+	 */
+	public CollapseThresholdIndex(Wrapper root) {
+		CollectThresholds collect = new CollectThresholds();
+		collect.calculate(root, null);
+		Integer[] order = new Integer[collect.wrappers.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		// The sort is stable, so a wrapper always comes after the wrappers containing it.
+		Arrays.sort(order, (a, b) -> Float.compare(collect.thresholds.get(b), collect.thresholds.get(a)));
+		List<CombineWrapper> sorted = new ArrayList<>(order.length);
+		thresholds = new float[order.length];
+		for (int rank = 0; rank < order.length; rank++) {
+			CombineWrapper wrapper = collect.wrappers.get(order[rank]);
+			sorted.add(wrapper);
+			thresholds[rank] = collect.thresholds.get(order[rank]);
+			ranks.put(wrapper, rank);
+		}
+		wrappers = Collections.unmodifiableList(sorted);
+	}
+
+	/**
+	 * The position of the wrapper in the sorted list.
+	 *
+	 * @param node
+	 *            the wrapper
+	 * @return the position of the wrapper, or -1 if the wrapper is not part of this index
+	 */
+	public int getRank(CombineWrapper node) {
+		Integer rank = ranks.get(node);
+		return rank == null ? -1 : rank;
+	}
+
+	/**
+	 * The lowest condition at which the wrapper is unwrapped.
+	 *
+	 * @param node
+	 *            the wrapper
+	 * @return the threshold of the wrapper, or {@link Float#NEGATIVE_INFINITY} if it is never unwrapped
+	 */
+	public float getThreshold(CombineWrapper node) {
+		int rank = getRank(node);
+		return rank < 0 ? Float.NEGATIVE_INFINITY : thresholds[rank];
+	}
+
+	public boolean isUnwrapped(CombineWrapper node, float condition) {
+		return getThreshold(node) >= condition;
+	}
+
+	/**
+	 * Counts the wrappers unwrapped with the given condition.
+	 *
+	 * @param condition
+	 *            the minimal collapse value
+	 * @return the amount of unwrapped wrappers, which is also the length of the prefix of the sorted list which is
+	 *         unwrapped
+	 */
+	public int getUnwrappedCount(float condition) {
+		int low = 0;
+		int high = thresholds.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (thresholds[mid] >= condition) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Gets all wrappers unwrapped with the given condition.
+	 *
+	 * @param condition
+	 *            the minimal collapse value
+	 * @return the unwrapped wrappers, each after the wrappers containing it
+	 */
+	public List<CombineWrapper> getUnwrapped(float condition) {
+		return wrappers.subList(0, getUnwrappedCount(condition));
+	}
+
+	/**
+	 * Gets the wrappers which are unwrapped with one of both conditions, but not with the other.
+	 *
+	 * @param from
+	 *            the first condition
+	 * @param to
+	 *            the second condition
+	 * @return the wrappers which differ between both conditions
+	 */
+	public List<CombineWrapper> getChanged(float from, float to) {
+		int fromCount = getUnwrappedCount(from);
+		int toCount = getUnwrappedCount(to);
+		return wrappers.subList(Math.min(fromCount, toCount), Math.max(fromCount, toCount));
+	}
+
+	public int size() {
+		return thresholds.length;
+	}
+
+	/**
+	 * Computes the threshold of each {@link CombineWrapper} from the threshold of the wrapper containing it.
+	 */
+	private static class CollectThresholds extends WrapperOperation {
+		private final List<CombineWrapper> wrappers = new ArrayList<>();
+		private final List<Float> thresholds = new ArrayList<>();
+		private float parentThreshold = Float.POSITIVE_INFINITY;
+
+		@Override
+		public void calculate(HorizontalWrapper wrapper, Wrapper container) {
+			float previous = collect(wrapper);
+			super.calculate(wrapper, container);
+			parentThreshold = previous;
+		}
+
+		@Override
+		public void calculate(VerticalWrapper wrapper, Wrapper container) {
+			float previous = collect(wrapper);
+			super.calculate(wrapper, container);
+			parentThreshold = previous;
+		}
+
+		@Override
+		public void calculate(SpaceWrapper wrapper, Wrapper container) {
+			float previous = collect(wrapper);
+			super.calculate(wrapper, container);
+			parentThreshold = previous;
+		}
+
+		/**
+		 * Stores the threshold of the wrapper and makes it the threshold of the wrappers visited next.
+		 *
+		 * @return the threshold of the wrapper containing this wrapper
+		 */
+		private float collect(CombineWrapper wrapper) {
+			final float previous = parentThreshold;
+			if (wrapper.canUnwrap()) {
+				parentThreshold = Math.min(parentThreshold, wrapper.getCollapse());
+			} else {
+				parentThreshold = Float.NEGATIVE_INFINITY;
+			}
+			wrappers.add(wrapper);
+			thresholds.add(parentThreshold);
+			return previous;
+		}
+	}
+}
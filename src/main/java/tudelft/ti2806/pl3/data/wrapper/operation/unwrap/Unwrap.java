@@ -10,13 +10,14 @@ import tudelft.ti2806.pl3.data.wrapper.Wrapper;
 import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
 import tudelft.ti2806.pl3.data.wrapper.WrapperPlaceholder;
 import tudelft.ti2806.pl3.data.wrapper.operation.WrapperOperation;
-import tudelft.ti2806.pl3.util.Pair;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 
 /**
  * A {@link WrapperOperation} that unwraps the wrapped root node.
@@ -39,19 +40,55 @@ import java.util.Stack;
  * <p>
  * In the end a new graph is constructed containing only {@link WrapperClone}s
  * </p>
+ * <p>
+ * When a {@link WrapperClonePool} is set, the clones and placeholders are taken from the pool, so repeatedly
+ * unwrapping the same graph reuses the objects of results which are released to the pool. The wrappers combining
+ * the nodes out of range are kept in the pool as well. This gives fewer allocations for each zoom step, not none:
+ * the list of clones of the result is still allocated, and the lists of edges grow when needed.
+ * </p>
  * Created by Boris Mattijssen on 18-05-15.
  */
 public abstract class Unwrap extends WrapperOperation {
 	
 	private Wrapper result;
 	private List<WrapperClone> wrapperClones;
-	private Stack<Pair<WrapperPlaceholder, Wrapper>> stack;
+	private final ArrayDeque<WrapperPlaceholder> placeholderStack = new ArrayDeque<>();
+	private final ArrayDeque<Wrapper> wrapperStack = new ArrayDeque<>();
+	private final Map<Wrapper, Wrapper> referencePlaceholderMapper = new IdentityHashMap<>();
+	/**
+	 * The nodes of the {@link HorizontalWrapper} being unwrapped, with the runs of nodes out of range combined.
+	 */
+	private final List<Wrapper> rangeNodes = new ArrayList<>();
+	private BooleanSupplier cancelled = () -> false;
+	private WrapperClonePool pool;
+
+	/**
+	 * Sets the pool to take clones and placeholders from. Only the clones released to the pool are changed by this
+	 * operation.
+	 *
+	 * @param pool
+	 *            the pool, or {@code null} to always create new clones
+	 */
+	public void setPool(WrapperClonePool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Sets the check used to stop the operation when its result is no longer needed. The check is done before each
+	 * node is unwrapped.
+	 *
+	 * @param cancelled
+	 *            returns {@code true} when the operation should stop
+	 */
+	public void setCancelled(BooleanSupplier cancelled) {
+		this.cancelled = cancelled;
+	}
 	
 	/**
 	 * Construct the Unwrap operation.
 	 *
 	 * <p>
-	 * A Stack is constructed and the given start node is inserted. Then it
+	 * The stack is cleared and the given start node is inserted. Then it
 	 * keeps looping until the stack is empty. Each item of the stack will be
 	 * evaluated using one of the calculate methods.
 	 * </p>
@@ -61,15 +98,108 @@ public abstract class Unwrap extends WrapperOperation {
 	 */
 	public void compute(Wrapper start) {
 		wrapperClones = new ArrayList<>();
-		stack = new Stack<>();
+		clearStack();
 		result = createNewNode(start);
-		while (!stack.empty()) {
-			Pair<WrapperPlaceholder, Wrapper> pair = stack.pop();
-			pair.getSecond().calculate(this, pair.getFirst());
+		unwrapStack();
+	}
+
+	/**
+	 * Unwraps the result of a previous unwrap further, instead of unwrapping the root node again.
+	 *
+	 * <p>
+	 * The previous result is copied first, so it isn't changed and can still be shown while this operation runs.
+	 * Each {@link WrapperClone} of which the original node should be unwrapped by this operation is copied as a
+	 * placeholder, which is unwrapped in the same way as in {@link #compute(Wrapper)}. All other clones are copied
+	 * as a new clone of the same node. This only gives the same result as {@link #compute(Wrapper)} when this
+	 * operation unwraps at least every node the previous operation unwrapped.
+	 * </p>
+	 *
+	 * @param previousResult
+	 *            the result of the previous unwrap
+	 * @param previousClones
+	 *            the {@link WrapperClone}s of the previous unwrap
+	 */
+	public void expand(Wrapper previousResult, List<WrapperClone> previousClones) {
+		wrapperClones = new ArrayList<>(previousClones.size());
+		clearStack();
+		Map<Wrapper, Wrapper> copies = new IdentityHashMap<>(previousClones.size());
+		for (WrapperClone clone : previousClones) {
+			Wrapper original = clone.getOriginalNode();
+			if (original instanceof CombineWrapper && shouldUnwrap((CombineWrapper) original)) {
+				WrapperPlaceholder placeholder = newPlaceholder();
+				push(placeholder, original);
+				copies.put(clone, placeholder);
+			} else {
+				copies.put(clone, newClone(original, clone.getY()));
+			}
+		}
+		for (WrapperClone clone : previousClones) {
+			Wrapper copy = copies.get(clone);
+			for (Wrapper incoming : clone.getIncoming()) {
+				copy.getIncoming().add(copies.get(incoming));
+			}
+			for (Wrapper outgoing : clone.getOutgoing()) {
+				copy.getOutgoing().add(copies.get(outgoing));
+			}
+		}
+		result = copies.get(previousResult);
+		unwrapStack();
+	}
+
+	/**
+	 * Unwraps the nodes on the stack until it is empty.
+	 *
+	 * @throws CancellationException
+	 *             when the operation is cancelled, the result is incomplete in that case
+	 */
+	private void unwrapStack() {
+		while (!placeholderStack.isEmpty()) {
+			if (cancelled.getAsBoolean()) {
+				throw new CancellationException("The unwrap operation was cancelled.");
+			}
+			WrapperPlaceholder placeholder = placeholderStack.pop();
+			wrapperStack.pop().calculate(this, placeholder);
+			if (pool != null) {
+				pool.releasePlaceholder(placeholder);
+			}
 		}
 		Wrapper.computeLongestPaths(new ArrayList<>(wrapperClones));
 		wrapperClones.forEach(Wrapper::calculateX);
 	}
+
+	/**
+	 * Puts a placeholder and the node it replaces on the stack. Both are kept in their own stack to prevent
+	 * allocating a pair for each node.
+	 */
+	private void push(WrapperPlaceholder placeholder, Wrapper node) {
+		placeholderStack.push(placeholder);
+		wrapperStack.push(node);
+	}
+
+	private void clearStack() {
+		placeholderStack.clear();
+		wrapperStack.clear();
+	}
+
+	private WrapperPlaceholder newPlaceholder() {
+		return pool == null ? new WrapperPlaceholder() : pool.obtainPlaceholder();
+	}
+
+	/**
+	 * Creates a clone in the new graph.
+	 *
+	 * @param node
+	 *            the node from the original graph
+	 * @param y
+	 *            the y position of the clone
+	 * @return the clone, without any edges
+	 */
+	private WrapperClone newClone(Wrapper node, float y) {
+		WrapperClone wrapperClone = pool == null ? new WrapperClone(node) : pool.obtainClone(node);
+		wrapperClone.setY(y);
+		wrapperClones.add(wrapperClone);
+		return wrapperClone;
+	}
 	
 	public Wrapper getResult() {
 		return result;
@@ -105,13 +235,9 @@ public abstract class Unwrap extends WrapperOperation {
 	 */
 	@Override
 	public void calculate(HorizontalWrapper node, Wrapper placeholder) {
-		List<Wrapper> nodeWrapperList = node.getNodeList();
+		List<Wrapper> nodeWrapperList = combineOutOfRange(node.getNodeList());
 		Wrapper start = createNewNode(nodeWrapperList.get(0));
-		for (Wrapper incoming : placeholder.getIncoming()) {
-			incoming.getOutgoing().remove(placeholder);
-			incoming.getOutgoing().add(start);
-			start.getIncoming().add(incoming);
-		}
+		connectIncoming(placeholder, start);
 		if (placeholder == result) {
 			result = start;
 		}
@@ -123,11 +249,7 @@ public abstract class Unwrap extends WrapperOperation {
 			curr.getIncoming().add(prev);
 			prev = curr;
 		}
-		for (Wrapper outgoing : placeholder.getOutgoing()) {
-			outgoing.getIncoming().remove(placeholder);
-			outgoing.getIncoming().add(curr);
-			curr.getOutgoing().add(outgoing);
-		}
+		connectOutgoing(placeholder, curr);
 	}
 	
 	/**
@@ -154,16 +276,8 @@ public abstract class Unwrap extends WrapperOperation {
 		List<Wrapper> nodeWrapperList = node.getNodeList();
 		for (Wrapper aNodeWrapperList : nodeWrapperList) {
 			Wrapper curr = createNewNode(aNodeWrapperList);
-			for (Wrapper incoming : placeholder.getIncoming()) {
-				incoming.getOutgoing().remove(placeholder);
-				incoming.getOutgoing().add(curr);
-				curr.getIncoming().add(incoming);
-			}
-			for (Wrapper outgoing : placeholder.getOutgoing()) {
-				outgoing.getIncoming().remove(placeholder);
-				outgoing.getIncoming().add(curr);
-				curr.getOutgoing().add(outgoing);
-			}
+			connectIncoming(placeholder, curr);
+			connectOutgoing(placeholder, curr);
 		}
 	}
 	
@@ -193,15 +307,11 @@ public abstract class Unwrap extends WrapperOperation {
 	 */
 	@Override
 	public void calculate(SpaceWrapper node, Wrapper placeholder) {
-		Map<Wrapper, Wrapper> referencePlaceholderMapper = new HashMap<>();
+		referencePlaceholderMapper.clear();
 		List<Wrapper> nodeWrapperList = node.getNodeList();
 		Wrapper start = createNewNode(nodeWrapperList.get(0));
 		referencePlaceholderMapper.put(nodeWrapperList.get(0), start);
-		for (Wrapper incoming : placeholder.getIncoming()) {
-			incoming.getOutgoing().remove(placeholder);
-			incoming.getOutgoing().add(start);
-			start.getIncoming().add(incoming);
-		}
+		connectIncoming(placeholder, start);
 		if (placeholder == result) {
 			result = start;
 		}
@@ -223,11 +333,7 @@ public abstract class Unwrap extends WrapperOperation {
 					.forEach(incoming -> referencePlaceholderMap.getValue().getIncoming()
 							.add(referencePlaceholderMapper.get(incoming)));
 		}
-		for (Wrapper outgoing : placeholder.getOutgoing()) {
-			outgoing.getIncoming().remove(placeholder);
-			outgoing.getIncoming().add(curr);
-			curr.getOutgoing().add(outgoing);
-		}
+		connectOutgoing(placeholder, curr);
 	}
 	
 	/**
@@ -251,21 +357,95 @@ public abstract class Unwrap extends WrapperOperation {
 	@Override
 	public void calculate(SingleWrapper node, Wrapper placeholder) {
 		Wrapper newNode = createNewNode(node.getNode());
-		for (Wrapper incoming : placeholder.getIncoming()) {
-			incoming.getOutgoing().remove(placeholder);
-			incoming.getOutgoing().add(newNode);
-			newNode.getIncoming().add(incoming);
-		}
+		connectIncoming(placeholder, newNode);
 		if (placeholder == result) {
 			result = newNode;
 		}
+		connectOutgoing(placeholder, newNode);
+	}
+	
+	/**
+	 * Connects the incoming nodes of a placeholder to a node which replaces it. The placeholder is replaced in the
+	 * outgoing edges of each incoming node at the same index, or the node is added when the placeholder was replaced
+	 * by another node before.
+	 */
+	private static void connectIncoming(Wrapper placeholder, Wrapper node) {
+		for (Wrapper incoming : placeholder.getIncoming()) {
+			replaceEdge(incoming.getOutgoing(), placeholder, node);
+			node.getIncoming().add(incoming);
+		}
+	}
+
+	/**
+	 * Connects the outgoing nodes of a placeholder to a node which replaces it, like
+	 * {@link #connectIncoming(Wrapper, Wrapper)}.
+	 */
+	private static void connectOutgoing(Wrapper placeholder, Wrapper node) {
 		for (Wrapper outgoing : placeholder.getOutgoing()) {
-			outgoing.getIncoming().remove(placeholder);
-			outgoing.getIncoming().add(newNode);
-			newNode.getOutgoing().add(outgoing);
+			replaceEdge(outgoing.getIncoming(), placeholder, node);
+			node.getOutgoing().add(outgoing);
 		}
 	}
-	
+
+	private static void replaceEdge(List<Wrapper> edges, Wrapper placeholder, Wrapper node) {
+		int index = edges.indexOf(placeholder);
+		if (index >= 0) {
+			edges.set(index, node);
+		} else {
+			edges.add(node);
+		}
+	}
+
+	/**
+	 * Combines each run of consecutive nodes which are not in range into a single {@link HorizontalWrapper}, so the
+	 * part of the graph outside of the range is represented by as few nodes as possible. The combined wrappers are
+	 * taken from the pool when it is set.
+	 *
+	 * @param nodeWrapperList
+	 *            the nodes of a {@link HorizontalWrapper}
+	 * @return the nodes with each run of nodes out of range replaced by a single node, which is the given list when
+	 *         no run is combined and otherwise a list which is reused by the next call
+	 */
+	private List<Wrapper> combineOutOfRange(List<Wrapper> nodeWrapperList) {
+		rangeNodes.clear();
+		boolean combined = false;
+		int i = 0;
+		while (i < nodeWrapperList.size()) {
+			int end = i;
+			while (end < nodeWrapperList.size() && !isInRange(nodeWrapperList.get(end))) {
+				end++;
+			}
+			if (end - i > 1) {
+				rangeNodes.add(combineRun(nodeWrapperList, i, end));
+				combined = true;
+			} else if (end - i == 1) {
+				rangeNodes.add(nodeWrapperList.get(i));
+			}
+			if (end < nodeWrapperList.size()) {
+				rangeNodes.add(nodeWrapperList.get(end));
+			}
+			i = end + 1;
+		}
+		return combined ? rangeNodes : nodeWrapperList;
+	}
+
+	private HorizontalWrapper combineRun(List<Wrapper> nodeWrapperList, int from, int to) {
+		if (pool != null) {
+			HorizontalWrapper kept = pool.getCombined(nodeWrapperList.get(from), nodeWrapperList.get(to - 1));
+			if (kept != null) {
+				return kept;
+			}
+		}
+		List<Wrapper> run = new ArrayList<>(nodeWrapperList.subList(from, to));
+		HorizontalWrapper combined = new HorizontalWrapper(run, true);
+		combined.calculateX();
+		combined.setY(run.get(0).getY());
+		if (pool != null) {
+			pool.keepCombined(combined);
+		}
+		return combined;
+	}
+
 	/**
 	 * This method creates a new node that will be part of the newly created
 	 * graph.
@@ -291,19 +471,30 @@ public abstract class Unwrap extends WrapperOperation {
 	 */
 	private Wrapper createNewNode(Wrapper node) {
 		if (node instanceof SingleWrapper || node instanceof CombineWrapper
-				&& isConditionMet((CombineWrapper) node)
-				&& ((CombineWrapper) node).canUnwrap()) {
-			WrapperPlaceholder placeholder = new WrapperPlaceholder();
-			stack.add(new Pair<>(placeholder, node));
+				&& shouldUnwrap((CombineWrapper) node)) {
+			WrapperPlaceholder placeholder = newPlaceholder();
+			push(placeholder, node);
 			return placeholder;
 		} else {
-			WrapperClone wrapperClone = new WrapperClone(node.getDataNodes(),
-					node);
-			wrapperClone.setY(node.getY());
-			wrapperClones.add(wrapperClone);
-			return wrapperClone;
+			return newClone(node, node.getY());
 		}
 	}
 	
+	private boolean shouldUnwrap(CombineWrapper node) {
+		return isConditionMet(node) && node.canUnwrap() && isInRange(node);
+	}
+
 	protected abstract boolean isConditionMet(CombineWrapper node);
+
+	/**
+	 * Checks if a node lies in the part of the graph which should be unwrapped. Nodes out of range are never
+	 * unwrapped, regardless of {@link #isConditionMet(CombineWrapper)}.
+	 *
+	 * @param node
+	 *            the node to check
+	 * @return {@code true} if the node may be unwrapped
+	 */
+	protected boolean isInRange(Wrapper node) {
+		return true;
+	}
 }
@@ -1,22 +1,50 @@
 package tudelft.ti2806.pl3.data.wrapper.operation.unwrap;
 
 import tudelft.ti2806.pl3.data.wrapper.CombineWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
 
 /**
  * Unwraps the wrappers when the collapse value is higher then the given value.
+ *
+ * <p>
+ * When a range is given, only the wrappers overlapping with the range on the x axis are unwrapped. Everything
+ * outside of the range is left as wrapped as possible.
  * 
  * @author Sam Smulders
  */
 public class UnwrapOnCollapse extends Unwrap {
 	
 	private final float spaceCondition;
+	private final float minX;
+	private final float maxX;
 	
 	public UnwrapOnCollapse(float spaceCondition) {
+		this(spaceCondition, -Float.MAX_VALUE, Float.MAX_VALUE);
+	}
+
+	/**
+	 * Construct an unwrap operation which only unwraps the given range.
+	 *
+	 * @param spaceCondition
+	 *            the minimal collapse value of a wrapper to unwrap it
+	 * @param minX
+	 *            the start of the range to unwrap
+	 * @param maxX
+	 *            the end of the range to unwrap
+	 */
+	public UnwrapOnCollapse(float spaceCondition, float minX, float maxX) {
 		this.spaceCondition = spaceCondition;
+		this.minX = minX;
+		this.maxX = maxX;
 	}
 	
 	@Override
 	protected boolean isConditionMet(CombineWrapper node) {
 		return node.getCollapse() >= spaceCondition;
 	}
+
+	@Override
+	protected boolean isInRange(Wrapper node) {
+		return node.getMaxX() >= minX && node.getMinX() <= maxX;
+	}
 }
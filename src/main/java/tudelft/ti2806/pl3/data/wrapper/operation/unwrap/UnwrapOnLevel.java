@@ -0,0 +1,49 @@
+package tudelft.ti2806.pl3.data.wrapper.operation.unwrap;
+
+import tudelft.ti2806.pl3.data.wrapper.CombineWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+/**
+ * Unwraps the wrappers which are unwrapped at a level of an {@link UnwrapPyramid}.
+ *
+ * <p>
+ * The result is the same as using {@link UnwrapOnCollapse} with the condition of that level, but without evaluating
+ * the condition again. Only the wrappers overlapping with the given range on the x axis are unwrapped.
+ * </p>
+ */
+public class UnwrapOnLevel extends Unwrap {
+
+	private final UnwrapPyramid pyramid;
+	private final int level;
+	private final float minX;
+	private final float maxX;
+
+	/**
+	 * Construct an unwrap operation for a level of the pyramid.
+	 *
+	 * @param pyramid
+	 *            the pyramid computed for the graph to unwrap
+	 * @param level
+	 *            the level of the pyramid to unwrap to
+	 * @param minX
+	 *            the start of the range to unwrap
+	 * @param maxX
+	 *            the end of the range to unwrap
+	 */
+	public UnwrapOnLevel(UnwrapPyramid pyramid, int level, float minX, float maxX) {
+		this.pyramid = pyramid;
+		this.level = level;
+		this.minX = minX;
+		this.maxX = maxX;
+	}
+
+	@Override
+	protected boolean isConditionMet(CombineWrapper node) {
+		return pyramid.isUnwrapped(level, node);
+	}
+
+	@Override
+	protected boolean isInRange(Wrapper node) {
+		return node.getMaxX() >= minX && node.getMinX() <= maxX;
+	}
+}
@@ -0,0 +1,115 @@
+package tudelft.ti2806.pl3.data.wrapper.operation.unwrap;
+
+import tudelft.ti2806.pl3.data.wrapper.CombineWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A level of detail pyramid over the wrapped graph.
+ *
+ * <p>
+ * For each given collapse condition a bitmap is stored with a bit set for each {@link CombineWrapper} which is
+ * unwrapped by {@link UnwrapOnCollapse} with that condition. The bits are ordered by the
+ * {@link CollapseThresholdIndex}, so the bitmap of each level is a prefix and is stored as its length.
+ * </p>
+ * <p>
+ * The conditions should be given in decreasing order, so each level unwraps at least the wrappers unwrapped by the
+ * level before it.
+ * </p>
+ */
+public class UnwrapPyramid {
+
+	private final CollapseThresholdIndex index;
+	private final float[] conditions;
+	private final int[] levels;
+
+	/**
+	 * Construct the pyramid for the given wrapped graph.
+	 *
+	 * @param root
+	 *            the node containing the entire graph
+	 * @param conditions
+	 *            the collapse condition of each level
+	 */
+	public UnwrapPyramid(Wrapper root, float[] conditions) {
+		this(new CollapseThresholdIndex(root), conditions);
+	}
+
+	/**
+	 * Construct the pyramid from an index of the wrapped graph.
+	 *
+	 * @param index
+	 *            the index of the wrapped graph
+	 * @param conditions
+	 *            the collapse condition of each level
+	 */
+	public UnwrapPyramid(CollapseThresholdIndex index, float[] conditions) {
+		this.index = index;
+		this.conditions = conditions.clone();
+		levels = new int[conditions.length];
+		for (int level = 0; level < conditions.length; level++) {
+			levels[level] = index.getUnwrappedCount(conditions[level]);
+		}
+	}
+
+	/**
+	 * Gets a pyramid over the same wrapped graph with other conditions. The index doesn't depend on the conditions,
+	 * so only the levels are computed again, which is used when the screen is resized.
+	 *
+	 * @param conditions
+	 *            the collapse condition of each level
+	 * @return this pyramid if its conditions are equal to the given conditions, otherwise a new pyramid sharing the
+	 *         index of this pyramid
+	 */
+	public UnwrapPyramid withConditions(float[] conditions) {
+		if (Arrays.equals(this.conditions, conditions)) {
+			return this;
+		}
+		return new UnwrapPyramid(index, conditions);
+	}
+
+	public CollapseThresholdIndex getIndex() {
+		return index;
+	}
+
+	public int getLevelCount() {
+		return levels.length;
+	}
+
+	public float getCondition(int level) {
+		return conditions[level];
+	}
+
+	/**
+	 * Checks if a wrapper is unwrapped at the given level.
+	 *
+	 * @param level
+	 *            the level of the pyramid
+	 * @param node
+	 *            the wrapper to check
+	 * @return {@code true} if the wrapper is unwrapped at this level, {@code false} if it isn't or if the wrapper
+	 *         is not part of the graph this pyramid was computed for
+	 */
+	public boolean isUnwrapped(int level, CombineWrapper node) {
+		int rank = index.getRank(node);
+		return rank >= 0 && rank < levels[level];
+	}
+
+	/**
+	 * Computes which wrappers are unwrapped at one of both levels, but not at the other.
+	 *
+	 * @param from
+	 *            the first level
+	 * @param to
+	 *            the second level
+	 * @return a bitmap over the ranks of the {@link CollapseThresholdIndex} with a bit set for each wrapper that
+	 *         differs between the levels
+	 */
+	public BitSet getChanged(int from, int to) {
+		BitSet result = new BitSet(index.size());
+		result.set(Math.min(levels[from], levels[to]), Math.max(levels[from], levels[to]));
+		return result;
+	}
+}
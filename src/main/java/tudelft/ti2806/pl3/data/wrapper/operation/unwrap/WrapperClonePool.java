@@ -0,0 +1,127 @@
+package tudelft.ti2806.pl3.data.wrapper.operation.unwrap;
+
+import tudelft.ti2806.pl3.data.wrapper.HorizontalWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+import tudelft.ti2806.pl3.data.wrapper.WrapperPlaceholder;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the {@link WrapperClone}s and {@link WrapperPlaceholder}s of {@link Unwrap} operations, so the next
+ * operation on the same wrapped graph can reuse them instead of allocating new ones.
+ *
+ * <p>
+ * A clone is only reused after its result is released, which should be done when the result is no longer used by
+ * anything, for example after another result replaced it on the screen. A released clone is reused for the same
+ * original node, with its edges removed, and is handed out only once. Only the clones of the last released result
+ * are kept. The clones can be released from another thread than the one running the operations, but the
+ * placeholders should only be used by one operation at a time.
+ * </p>
+ *
+ * <p>
+ * The {@link HorizontalWrapper}s which combine a run of nodes out of range are kept until the wrapped graph changes,
+ * so unwrapping the same part of the graph again gives the same wrapper, and its clone can be reused as well.
+ * </p>
+ */
+public class WrapperClonePool {
+
+	private final Map<Wrapper, WrapperClone> clones = new IdentityHashMap<>();
+	private final ArrayDeque<WrapperPlaceholder> placeholders = new ArrayDeque<>();
+	/**
+	 * The wrappers combining a run of nodes out of range, on the first node of the run.
+	 */
+	private final Map<Wrapper, HorizontalWrapper> combined = new IdentityHashMap<>();
+
+	/**
+	 * Gets a clone of the given node, without any edges.
+	 *
+	 * @param original
+	 *            the node to clone
+	 * @return the clone of the released result when there is one, otherwise a new clone
+	 */
+	public synchronized WrapperClone obtainClone(Wrapper original) {
+		WrapperClone clone = clones.remove(original);
+		if (clone == null) {
+			return new WrapperClone(original);
+		}
+		clearEdges(clone);
+		return clone;
+	}
+
+	/**
+	 * Gets a placeholder without any edges.
+	 *
+	 * @return a released placeholder when there is one, otherwise a new placeholder
+	 */
+	public WrapperPlaceholder obtainPlaceholder() {
+		WrapperPlaceholder placeholder = placeholders.poll();
+		return placeholder == null ? new WrapperPlaceholder() : placeholder;
+	}
+
+	/**
+	 * Returns a placeholder which is replaced in the graph, so it can be used again.
+	 *
+	 * @param placeholder
+	 *            the placeholder which is no longer used
+	 */
+	public void releasePlaceholder(WrapperPlaceholder placeholder) {
+		clearEdges(placeholder);
+		placeholders.push(placeholder);
+	}
+
+	/**
+	 * Releases the clones of a result which is no longer used, so the next operations can reuse them. The clones
+	 * released before are dropped.
+	 *
+	 * @param result
+	 *            the clones of the result
+	 */
+	public synchronized void release(List<WrapperClone> result) {
+		clones.clear();
+		for (WrapperClone clone : result) {
+			clones.put(clone.getOriginalNode(), clone);
+		}
+	}
+
+	/**
+	 * Gets the kept wrapper combining a run of nodes.
+	 *
+	 * @param first
+	 *            the first node of the run
+	 * @param last
+	 *            the last node of the run
+	 * @return the wrapper combining exactly these nodes, or {@code null} if it isn't kept
+	 */
+	public synchronized HorizontalWrapper getCombined(Wrapper first, Wrapper last) {
+		HorizontalWrapper wrapper = combined.get(first);
+		return wrapper != null && wrapper.getLast() == last ? wrapper : null;
+	}
+
+	/**
+	 * Keeps a wrapper combining a run of nodes, replacing a kept wrapper of a run with the same first node.
+	 *
+	 * @param wrapper
+	 *            the wrapper
+	 */
+	public synchronized void keepCombined(HorizontalWrapper wrapper) {
+		combined.put(wrapper.getFirst(), wrapper);
+	}
+
+	/**
+	 * Removes all clones and combined wrappers, used when the wrapped graph changes.
+	 */
+	public synchronized void clear() {
+		clones.clear();
+		combined.clear();
+	}
+
+	private static void clearEdges(Wrapper wrapper) {
+		wrapper.getIncoming().clear();
+		wrapper.getOutgoing().clear();
+		wrapper.clearOutgoingWeights();
+	}
+}
@@ -31,14 +31,20 @@ public class CollectInterest {
 	 *            the list of wrappers
 	 */
 	public void calculate(List<Wrapper> wrappers) {
-		double width = wrappers.stream().mapToDouble(Wrapper::getX).max().getAsDouble();
-		for (Wrapper wrapper : wrappers) {
-			int index = (int) Math.min(this.domain - 1, (wrapper.getX() / width) * this.domain);
-			this.interest[index] += wrapper.getInterest();
-		}
-		for (int i = 0; i < this.interest.length; i++) {
-			this.interest[i] = this.interest[i];
-			this.maxInterest = Math.max(this.maxInterest, this.interest[i]);
+		calculate(new InterestIndex(wrappers));
+	}
+	
+	/**
+	 * Projects the interest in an {@link InterestIndex} on an array with a given size, without checking all wrappers.
+	 *
+	 * @param index
+	 *            the index of the interest of the wrappers
+	 */
+	public void calculate(InterestIndex index) {
+		float[] projected = index.project(this.domain, false);
+		System.arraycopy(projected, 0, this.interest, 0, this.domain);
+		for (float value : this.interest) {
+			this.maxInterest = Math.max(this.maxInterest, value);
 		}
 	}
 	
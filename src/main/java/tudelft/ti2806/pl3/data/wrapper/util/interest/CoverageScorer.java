@@ -0,0 +1,58 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.mapping.Coverage;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+/**
+ * Scores the nodes on their coverage by mapped reads, relative to the node with the highest coverage, times the square
+ * root of their base pairs times their genomes. So the node with the highest coverage scores as much as the
+ * {@link SequenceInterestScorer} gives a variant of the same size, and the coverage isn't lost next to the sequence
+ * scores. A node combining other nodes scores the mean depth of its nodes, weighted by their number of base pairs.
+ */
+public class CoverageScorer implements InterestScorer {
+	public static final String NAME = "coverage";
+
+	private final Coverage coverage;
+
+	/**
+	 * Construct a scorer for the coverage of a set of reads.
+	 *
+	 * @param coverage
+	 *            the coverage of the nodes
+	 */
+	public CoverageScorer(Coverage coverage) {
+		this.coverage = coverage;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public void score(NodeAggregates nodes, int from, int to, float[] scores) {
+		float maxDepth = coverage.getMaxDepth();
+		if (maxDepth == 0) {
+			return;
+		}
+		for (int i = from; i < to; i++) {
+			Wrapper wrapper = nodes.getWrapper(i);
+			float depth;
+			if (wrapper instanceof DataNodeWrapper) {
+				depth = coverage.getDepth(((DataNodeWrapper) wrapper).getNode());
+			} else {
+				double bases = 0;
+				long length = 0;
+				for (DataNode node : wrapper.getDataNodes()) {
+					bases += coverage.getDepth(node) * node.getBasePairCount();
+					length += node.getBasePairCount();
+				}
+				depth = length == 0 ? 0 : (float) (bases / length);
+			}
+			scores[i] = (float) (depth / maxDepth
+					* Math.sqrt(nodes.getBasePairCount(i) * nodes.getNodeGenomeCount(i)));
+		}
+	}
+}
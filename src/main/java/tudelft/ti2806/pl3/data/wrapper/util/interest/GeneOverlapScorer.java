@@ -0,0 +1,20 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+/**
+ * Scores the nodes on the number of annotated genes they overlap.
+ */
+public class GeneOverlapScorer implements InterestScorer {
+	public static final String NAME = "geneOverlap";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public void score(NodeAggregates nodes, int from, int to, float[] scores) {
+		for (int i = from; i < to; i++) {
+			scores[i] = nodes.getGeneCount(i);
+		}
+	}
+}
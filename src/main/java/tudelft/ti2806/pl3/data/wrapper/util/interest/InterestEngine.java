@@ -0,0 +1,155 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the interest of the nodes of a graph with a set of {@link InterestScorer}s, combined with a weight for
+ * each scorer. The interest of a node is 1 plus the weighted sum of its scores.
+ *
+ * <p>
+ * The values of the nodes are collected once in {@link NodeAggregates}, and the scores of each scorer are kept. So
+ * changing a weight only combines the kept scores again. Scorers with a weight of 0 are not computed until their
+ * weight changes. The nodes are scored in ranges, in parallel when there are many nodes.
+ * </p>
+ */
+public class InterestEngine {
+	static final int RANGE_SIZE = 4096;
+
+	private final List<Wrapper> wrappers;
+	private final NodeAggregates aggregates;
+	private final Map<String, ScorerEntry> scorers = new LinkedHashMap<>();
+
+	/**
+	 * Construct an engine without scorers.
+	 *
+	 * @param wrappers
+	 *            the wrappers to compute the interest of, with their x position calculated
+	 * @param genomeCount
+	 *            the number of genomes in the graph
+	 */
+	public InterestEngine(List<Wrapper> wrappers, int genomeCount) {
+		this.wrappers = wrappers;
+		this.aggregates = new NodeAggregates(wrappers, genomeCount);
+	}
+
+	/**
+	 * Construct an engine with the built in scorers. Only the {@link SequenceInterestScorer} has a weight, of 1.
+	 *
+	 * @param wrappers
+	 *            the wrappers to compute the interest of, with their x position calculated
+	 * @param genomeCount
+	 *            the number of genomes in the graph
+	 * @return the engine
+	 */
+	public static InterestEngine createDefault(List<Wrapper> wrappers, int genomeCount) {
+		InterestEngine engine = new InterestEngine(wrappers, genomeCount);
+		engine.addScorer(new SequenceInterestScorer(), 1);
+		engine.addScorer(new VariantDensityScorer(), 0);
+		engine.addScorer(new GeneOverlapScorer(), 0);
+		return engine;
+	}
+
+	/**
+	 * Adds a scorer, or replaces the scorer with the same name.
+	 *
+	 * @param scorer
+	 *            the scorer to add
+	 * @param weight
+	 *            the weight of its scores
+	 */
+	public void addScorer(InterestScorer scorer, float weight) {
+		scorers.put(scorer.getName(), new ScorerEntry(scorer, weight));
+	}
+
+	/**
+	 * Changes the weight of a scorer. Call {@link #apply()} to update the interest of the nodes.
+	 *
+	 * @param name
+	 *            the name of the scorer
+	 * @param weight
+	 *            the new weight
+	 */
+	public void setWeight(String name, float weight) {
+		getEntry(name).weight = weight;
+	}
+
+	public float getWeight(String name) {
+		return getEntry(name).weight;
+	}
+
+	public Set<String> getScorerNames() {
+		return Collections.unmodifiableSet(scorers.keySet());
+	}
+
+	public NodeAggregates getAggregates() {
+		return aggregates;
+	}
+
+	private ScorerEntry getEntry(String name) {
+		ScorerEntry entry = scorers.get(name);
+		if (entry == null) {
+			throw new IllegalArgumentException("There is no interest scorer named " + name);
+		}
+		return entry;
+	}
+
+	/**
+	 * Sets the interest of each node to 1 plus the weighted sum of its scores. Scorers which are used for the first
+	 * time score all nodes first.
+	 */
+	public void apply() {
+		List<ScorerEntry> active = new ArrayList<>();
+		List<ScorerEntry> missing = new ArrayList<>();
+		for (ScorerEntry entry : scorers.values()) {
+			if (entry.weight != 0) {
+				active.add(entry);
+				if (entry.scores == null) {
+					entry.scores = new float[aggregates.size()];
+					missing.add(entry);
+				}
+			}
+		}
+		int ranges = (aggregates.size() + RANGE_SIZE - 1) / RANGE_SIZE;
+		IntStream indices = IntStream.range(0, ranges);
+		if (ranges > 1) {
+			indices = indices.parallel();
+		}
+		indices.forEach(range -> {
+				int from = range * RANGE_SIZE;
+				int to = Math.min(aggregates.size(), from + RANGE_SIZE);
+				for (ScorerEntry entry : missing) {
+					entry.scorer.score(aggregates, from, to, entry.scores);
+				}
+				for (int i = from; i < to; i++) {
+					float interest = 1f;
+					for (ScorerEntry entry : active) {
+						interest += entry.weight * entry.scores[i];
+					}
+					wrappers.get(i).setInterest(interest);
+				}
+			}
+		);
+	}
+
+	/**
+	 * A scorer with its weight and its kept scores.
+	 */
+	private static final class ScorerEntry {
+		private final InterestScorer scorer;
+		private float weight;
+		private float[] scores;
+
+		private ScorerEntry(InterestScorer scorer, float weight) {
+			this.scorer = scorer;
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of the interest of a list of {@link Wrapper}s on the x axis, to project the interest on arrays of any size
+ * and any part of the graph without checking all wrappers again.
+ *
+ * <p>
+ * The wrappers are sorted on their x position, with the sum of the interest of all wrappers before each wrapper. The
+ * interest of a range on the x axis is then the difference of two of these sums, found with a binary search. A
+ * pyramid of maxima gives the largest interest of a single wrapper in a range, where each level holds the maximum of
+ * two neighbours of the level below.
+ * </p>
+ */
+public class InterestIndex {
+	private final Wrapper[] wrappers;
+	private final float[] positions;
+	/**
+	 * The sum of the interest of the first i wrappers is at index i.
+	 */
+	private final double[] prefixSums;
+	/**
+	 * Level 0 holds the interest of each wrapper, and level k the maximum of 2^k wrappers.
+	 */
+	private float[][] maxPyramid;
+
+	/**
+	 * Construct the index of a list of wrappers.
+	 *
+	 * @param wrappers
+	 *            the wrappers with their x position and interest calculated
+	 */
+	public InterestIndex(List<Wrapper> wrappers) {
+		this.wrappers = wrappers.toArray(new Wrapper[wrappers.size()]);
+		Arrays.sort(this.wrappers, (a, b) -> Float.compare(a.getX(), b.getX()));
+		positions = new float[this.wrappers.length];
+		prefixSums = new double[this.wrappers.length + 1];
+		for (int i = 0; i < this.wrappers.length; i++) {
+			positions[i] = this.wrappers[i].getX();
+		}
+		refresh();
+	}
+
+	/**
+	 * Reads the interest of the wrappers again, after it changed. The wrappers keep their order, so this doesn't sort
+	 * them again.
+	 */
+	public void refresh() {
+		float[] interest = new float[wrappers.length];
+		for (int i = 0; i < wrappers.length; i++) {
+			interest[i] = wrappers[i].getInterest();
+			prefixSums[i + 1] = prefixSums[i] + interest[i];
+		}
+		int levels = 1;
+		while ((1 << (levels - 1)) < wrappers.length) {
+			levels++;
+		}
+		float[][] pyramid = new float[levels][];
+		pyramid[0] = interest;
+		for (int level = 1; level < levels; level++) {
+			float[] below = pyramid[level - 1];
+			float[] current = new float[(below.length + 1) / 2];
+			for (int i = 0; i < current.length; i++) {
+				current[i] = 2 * i + 1 < below.length ? Math.max(below[2 * i], below[2 * i + 1]) : below[2 * i];
+			}
+			pyramid[level] = current;
+		}
+		maxPyramid = pyramid;
+	}
+
+	public int size() {
+		return positions.length;
+	}
+
+	/**
+	 * Gets the end of the indexed part of the graph.
+	 *
+	 * @return the largest x position of the wrappers, or 0 if there are no wrappers
+	 */
+	public float getMaxX() {
+		return positions.length == 0 ? 0 : positions[positions.length - 1];
+	}
+
+	/**
+	 * Projects the interest of the whole graph, from 0 to the last wrapper, on an array.
+	 *
+	 * @param domain
+	 *            the size of the array
+	 * @param logarithmic
+	 *            if the interest of each element is given on a logarithmic scale
+	 * @return the interest of each part of the graph
+	 */
+	public float[] project(int domain, boolean logarithmic) {
+		return project(domain, 0, getMaxX(), logarithmic);
+	}
+
+	/**
+	 * Projects the interest of a part of the graph on an array. Element i holds the interest of the wrappers from
+	 * {@code fromX + i * (toX - fromX) / domain} up to the start of element i + 1, where the last element also holds
+	 * the wrappers at toX.
+	 *
+	 * @param domain
+	 *            the size of the array
+	 * @param fromX
+	 *            the first x position
+	 * @param toX
+	 *            the last x position
+	 * @param logarithmic
+	 *            if the interest of each element is given as {@code ln(1 + interest)}
+	 * @return the interest of each part of the range
+	 */
+	public float[] project(int domain, float fromX, float toX, boolean logarithmic) {
+		float[] result = new float[domain];
+		if (domain == 0) {
+			return result;
+		}
+		double width = toX - fromX;
+		int start = lowerBound(fromX);
+		for (int i = 0; i < domain; i++) {
+			int end;
+			if (i == domain - 1 || width <= 0) {
+				end = upperBound(toX);
+			} else {
+				end = lowerBound((float) (fromX + (i + 1) * width / domain));
+			}
+			end = Math.max(start, end);
+			double sum = prefixSums[end] - prefixSums[start];
+			result[i] = (float) (logarithmic ? Math.log1p(Math.max(0, sum)) : sum);
+			start = end;
+			if (width <= 0) {
+				break;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the largest interest of a single wrapper in a range.
+	 *
+	 * @param fromX
+	 *            the first x position
+	 * @param toX
+	 *            the last x position
+	 * @return the largest interest of a wrapper from fromX up to and including toX, or 0 if there is none
+	 */
+	public float getPeakInterest(float fromX, float toX) {
+		int from = lowerBound(fromX);
+		int to = upperBound(toX);
+		if (from >= to) {
+			return 0;
+		}
+		float peak = -Float.MAX_VALUE;
+		int level = 0;
+		while (from < to) {
+			if ((from & 1) == 1) {
+				peak = Math.max(peak, maxPyramid[level][from++]);
+			}
+			if ((to & 1) == 1) {
+				peak = Math.max(peak, maxPyramid[level][--to]);
+			}
+			from >>= 1;
+			to >>= 1;
+			level++;
+		}
+		return peak;
+	}
+
+	/**
+	 * Searches the first wrapper which is not before a position.
+	 *
+	 * @return the index of the first wrapper at or after x
+	 */
+	private int lowerBound(float x) {
+		int low = 0;
+		int high = positions.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (positions[mid] < x) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Searches the first wrapper which is after a position.
+	 *
+	 * @return the index of the first wrapper after x
+	 */
+	private int upperBound(float x) {
+		int low = 0;
+		int high = positions.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (positions[mid] <= x) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
@@ -0,0 +1,34 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+/**
+ * Scores how interesting the nodes of a graph are, for one aspect of the nodes. The scores of all scorers in an
+ * {@link InterestEngine} are combined with the weights chosen by the user.
+ *
+ * <p>
+ * The nodes are scored in ranges on several threads at once, so a scorer should only read the
+ * {@link NodeAggregates} and write the scores of its own range.
+ * </p>
+ */
+public interface InterestScorer {
+
+	/**
+	 * Gets the name of the scorer.
+	 *
+	 * @return the name of the scorer, used to change its weight
+	 */
+	String getName();
+
+	/**
+	 * Scores the nodes from index from up to index to.
+	 *
+	 * @param nodes
+	 *            the values of the nodes
+	 * @param from
+	 *            the index of the first node to score
+	 * @param to
+	 *            the index after the last node to score
+	 * @param scores
+	 *            the array to write the score of each node to, at the index of the node
+	 */
+	void score(NodeAggregates nodes, int from, int to, float[] scores);
+}
@@ -0,0 +1,58 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+import tudelft.ti2806.pl3.data.Genome;
+
+import java.util.function.Predicate;
+
+/**
+ * Scores the nodes on how strongly passing through them is associated with a group of genomes, for example the
+ * genomes with a given location or HIV status in the metadata.
+ *
+ * <p>
+ * The score is the difference between the part of the group passing through the node and the part of the other
+ * genomes passing through it, between 0.0 and 1.0. A node all genomes of the group pass through and none of the
+ * others scores 1.0, the same as the other way round.
+ * </p>
+ */
+public class MetadataAssociationScorer implements InterestScorer {
+	public static final String NAME = "metadata";
+
+	private final Predicate<Genome> group;
+
+	/**
+	 * Construct a scorer for a group of genomes.
+	 *
+	 * @param group
+	 *            the predicate the genomes of the group match
+	 */
+	public MetadataAssociationScorer(Predicate<Genome> group) {
+		this.group = group;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public void score(NodeAggregates nodes, int from, int to, float[] scores) {
+		long[] groupMask = nodes.getGenomeMask(group);
+		int groupSize = 0;
+		for (long word : groupMask) {
+			groupSize += Long.bitCount(word);
+		}
+		int otherSize = nodes.getGenomeIndex().size() - groupSize;
+		for (int i = from; i < to; i++) {
+			long[] mask = nodes.getGenomeMask(i);
+			int inGroup = 0;
+			int total = 0;
+			for (int word = 0; word < mask.length; word++) {
+				inGroup += Long.bitCount(mask[word] & groupMask[word]);
+				total += Long.bitCount(mask[word]);
+			}
+			float groupPart = groupSize == 0 ? 0 : (float) inGroup / groupSize;
+			float otherPart = otherSize == 0 ? 0 : (float) (total - inGroup) / otherSize;
+			scores[i] = Math.abs(groupPart - otherPart);
+		}
+	}
+}
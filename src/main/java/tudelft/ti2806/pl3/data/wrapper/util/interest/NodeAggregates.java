@@ -0,0 +1,308 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.label.Label;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The values of a list of {@link Wrapper}s needed by the {@link InterestScorer}s, collected once in primitive arrays.
+ * A node is given by its index in the list.
+ *
+ * <p>
+ * The values are collected without building the sets of {@link Wrapper#getLabels()} and
+ * {@link Wrapper#getDataNodes()} for {@link DataNodeWrapper}s. The labels of other wrappers are collected from their
+ * data nodes. The bit masks of the genomes of the nodes are only collected when a scorer asks for them.
+ * </p>
+ */
+public final class NodeAggregates {
+	private final List<Wrapper> wrappers;
+	private final int genomeCount;
+	private final float[] x;
+	private final long[] basePairs;
+	private final float[] nonNRatio;
+	private final int[] nodeGenomeCount;
+	private final int[] labelCount;
+	private final int[] geneCount;
+
+	/**
+	 * The x positions of the variant nodes, sorted, to count the variants in a range with a binary search.
+	 */
+	private final float[] variantX;
+
+	private Map<Genome, Integer> genomeIndex;
+	private long[][] genomeMasks;
+
+	/**
+	 * Collects the values of the wrappers.
+	 *
+	 * @param wrappers
+	 *            the wrappers, with their x position calculated
+	 * @param genomeCount
+	 *            the number of genomes in the graph
+	 */
+	public NodeAggregates(List<Wrapper> wrappers, int genomeCount) {
+		this.wrappers = wrappers;
+		this.genomeCount = genomeCount;
+		int size = wrappers.size();
+		x = new float[size];
+		basePairs = new long[size];
+		nonNRatio = new float[size];
+		nodeGenomeCount = new int[size];
+		labelCount = new int[size];
+		geneCount = new int[size];
+		int variants = 0;
+		for (int i = 0; i < size; i++) {
+			Wrapper wrapper = wrappers.get(i);
+			x[i] = wrapper.getX();
+			basePairs[i] = wrapper.getBasePairCount();
+			nodeGenomeCount[i] = wrapper.getGenome().size();
+			if (wrapper instanceof DataNodeWrapper) {
+				DataNode node = ((DataNodeWrapper) wrapper).getNode();
+				nonNRatio[i] = computeNonNRatio(node.getBasePairCount(), node.getNCount());
+				labelCount[i] = countDistinct(node.getLabelList(), false);
+				geneCount[i] = countDistinct(node.getLabelList(), true);
+			} else {
+				long total = 0;
+				long nCount = 0;
+				Set<Label> labels = new HashSet<>();
+				for (DataNode node : wrapper.getDataNodes()) {
+					total += node.getBasePairCount();
+					nCount += node.getNCount();
+					labels.addAll(node.getLabelList());
+				}
+				nonNRatio[i] = computeNonNRatio(total, nCount);
+				labelCount[i] = labels.size();
+				geneCount[i] = (int) labels.stream().map(Label::getText).distinct().count();
+			}
+			if (isVariant(i)) {
+				variants++;
+			}
+		}
+		variantX = new float[variants];
+		for (int i = 0, v = 0; i < size; i++) {
+			if (isVariant(i)) {
+				variantX[v++] = x[i];
+			}
+		}
+		Arrays.sort(variantX);
+	}
+
+	private static float computeNonNRatio(long total, long nCount) {
+		if (total == 0) {
+			return 1;
+		}
+		return ((float) total - nCount) / total;
+	}
+
+	/**
+	 * Counts the distinct labels of a node, or the distinct gene names when byName is set. Nodes have few labels, so
+	 * each label is compared with the labels before it.
+	 */
+	private static int countDistinct(List<Label> labels, boolean byName) {
+		int count = 0;
+		for (int i = 0; i < labels.size(); i++) {
+			boolean seen = false;
+			for (int j = 0; j < i && !seen; j++) {
+				seen = byName ? labels.get(i).getText().equals(labels.get(j).getText())
+						: labels.get(i).equals(labels.get(j));
+			}
+			if (!seen) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	public int size() {
+		return x.length;
+	}
+
+	/**
+	 * Gets the number of genomes in the graph.
+	 *
+	 * @return the number of genomes in the graph
+	 */
+	public int getGenomeCount() {
+		return genomeCount;
+	}
+
+	/**
+	 * Gets the wrapper of a node.
+	 *
+	 * @return the wrapper of a node, for scorers which need more than the collected values
+	 */
+	Wrapper getWrapper(int node) {
+		return wrappers.get(node);
+	}
+
+	public float getX(int node) {
+		return x[node];
+	}
+
+	public long getBasePairCount(int node) {
+		return basePairs[node];
+	}
+
+	/**
+	 * @return the ratio of base pairs which are not N, between 0.0 and 1.0
+	 */
+	public float getNonNRatio(int node) {
+		return nonNRatio[node];
+	}
+
+	/**
+	 * Gets the number of genomes passing through a node.
+	 *
+	 * @return the number of genomes passing through the node
+	 */
+	public int getNodeGenomeCount(int node) {
+		return nodeGenomeCount[node];
+	}
+
+	/**
+	 * Gets the number of distinct labels on a node, or on the data nodes of a combined node.
+	 *
+	 * @return the number of distinct labels of the node
+	 */
+	public int getLabelCount(int node) {
+		return labelCount[node];
+	}
+
+	/**
+	 * Gets the number of distinct genes with a label on a node.
+	 *
+	 * @return the number of distinct genes with a label on the node
+	 */
+	public int getGeneCount(int node) {
+		return geneCount[node];
+	}
+
+	/**
+	 * A node is a variant when not all genomes pass through it.
+	 *
+	 * @return if the node is a variant
+	 */
+	public boolean isVariant(int node) {
+		return nodeGenomeCount[node] != genomeCount;
+	}
+
+	/**
+	 * Counts the variant nodes from fromX up to and including toX.
+	 *
+	 * @param fromX
+	 *            the first x position
+	 * @param toX
+	 *            the last x position
+	 * @return the number of variants in the range
+	 */
+	public int countVariants(float fromX, float toX) {
+		return upperBound(variantX, toX) - lowerBound(variantX, fromX);
+	}
+
+	/**
+	 * Gets the bit mask of the genomes of a node. The masks of all nodes are collected the first time this is called.
+	 *
+	 * @param node
+	 *            the node
+	 * @return the mask, where the bit of each genome is given by its index in {@link #getGenomeIndex()}
+	 */
+	public long[] getGenomeMask(int node) {
+		return getGenomeMasks()[node];
+	}
+
+	/**
+	 * Constructs the bit mask of the genomes which match a predicate.
+	 *
+	 * @param predicate
+	 *            the predicate the genomes should match
+	 * @return the mask of the matching genomes
+	 */
+	public long[] getGenomeMask(Predicate<Genome> predicate) {
+		Map<Genome, Integer> index = getGenomeIndex();
+		long[] mask = new long[getWords()];
+		for (Map.Entry<Genome, Integer> entry : index.entrySet()) {
+			if (predicate.test(entry.getKey())) {
+				mask[entry.getValue() / Long.SIZE] |= 1L << (entry.getValue() % Long.SIZE);
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Gets the index of each genome in the genome masks, which is built the first time this is called.
+	 *
+	 * @return the index of each genome of the nodes in the genome masks
+	 */
+	public synchronized Map<Genome, Integer> getGenomeIndex() {
+		if (genomeIndex == null) {
+			Map<Genome, Integer> index = new HashMap<>();
+			for (Wrapper wrapper : wrappers) {
+				for (Genome genome : wrapper.getGenome()) {
+					index.putIfAbsent(genome, index.size());
+				}
+			}
+			genomeIndex = Collections.unmodifiableMap(index);
+		}
+		return genomeIndex;
+	}
+
+	private int getWords() {
+		return (getGenomeIndex().size() + Long.SIZE - 1) / Long.SIZE;
+	}
+
+	private synchronized long[][] getGenomeMasks() {
+		if (genomeMasks == null) {
+			Map<Genome, Integer> index = getGenomeIndex();
+			int words = getWords();
+			long[][] masks = new long[wrappers.size()][];
+			for (int i = 0; i < masks.length; i++) {
+				masks[i] = new long[words];
+				for (Genome genome : wrappers.get(i).getGenome()) {
+					int bit = index.get(genome);
+					masks[i][bit / Long.SIZE] |= 1L << (bit % Long.SIZE);
+				}
+			}
+			genomeMasks = masks;
+		}
+		return genomeMasks;
+	}
+
+	private static int lowerBound(float[] values, float value) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (values[mid] < value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static int upperBound(float[] values, float value) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (values[mid] <= value) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
@@ -0,0 +1,26 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+/**
+ * Scores the nodes which not all genomes pass through on the square root of their base pairs times their genomes,
+ * times the ratio of base pairs which are not N. Nodes shared by all genomes score 0.
+ */
+public class SequenceInterestScorer implements InterestScorer {
+	public static final String NAME = "sequence";
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public void score(NodeAggregates nodes, int from, int to, float[] scores) {
+		for (int i = from; i < to; i++) {
+			if (!nodes.isVariant(i)) {
+				scores[i] = 0;
+				continue;
+			}
+			scores[i] = (float) (Math.sqrt(nodes.getBasePairCount(i) * nodes.getNodeGenomeCount(i))
+					* nodes.getNonNRatio(i));
+		}
+	}
+}
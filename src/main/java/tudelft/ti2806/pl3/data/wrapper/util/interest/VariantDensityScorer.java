@@ -0,0 +1,41 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+/**
+ * Scores the nodes on the number of variant nodes around them, so regions with many variations stand out. A node is
+ * a variant when not all genomes pass through it.
+ */
+public class VariantDensityScorer implements InterestScorer {
+	public static final String NAME = "variantDensity";
+	private static final float DEFAULT_RADIUS = 10;
+
+	private final float radius;
+
+	/**
+	 * Construct a scorer which counts the variants within 10 positions on the x axis.
+	 */
+	public VariantDensityScorer() {
+		this(DEFAULT_RADIUS);
+	}
+
+	/**
+	 * Construct a scorer.
+	 *
+	 * @param radius
+	 *            the largest distance on the x axis between a node and the variants counted for it
+	 */
+	public VariantDensityScorer(float radius) {
+		this.radius = radius;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public void score(NodeAggregates nodes, int from, int to, float[] scores) {
+		for (int i = from; i < to; i++) {
+			scores[i] = nodes.countVariants(nodes.getX(i) - radius, nodes.getX(i) + radius);
+		}
+	}
+}
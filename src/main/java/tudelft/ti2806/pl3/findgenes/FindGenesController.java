@@ -3,7 +3,6 @@ package tudelft.ti2806.pl3.findgenes;
 import tudelft.ti2806.pl3.Constants;
 import tudelft.ti2806.pl3.ControllerContainer;
 import tudelft.ti2806.pl3.data.gene.Gene;
-import tudelft.ti2806.pl3.data.graph.AbstractGraphData;
 import tudelft.ti2806.pl3.data.graph.DataNode;
 import tudelft.ti2806.pl3.data.graph.GraphDataRepository;
 import tudelft.ti2806.pl3.exception.NodeNotFoundException;
@@ -16,9 +15,10 @@ import tudelft.ti2806.pl3.visualization.GraphController;
  */
 public class FindGenesController {
 
-	private final AbstractGraphData graphData;
+	private final GraphDataRepository graphData;
 	private final ControllerContainer cc;
 	private Object previousSelected;
+	private FindGenesView findGenesView;
 
 	/**
 	 * Construct the controller and instantiate the view.
@@ -37,26 +37,28 @@ public class FindGenesController {
 	/**
 	 * Opens the dialog which lets the user select a gene.<br>
 	 * After a gene is selected, it will do a call to the {@link GraphController} to navigate to the start of that
-	 * gene.
+	 * gene.<br>
+	 * The view is kept between openings, and only made again when another graph is loaded.
 	 */
 	public void openDialog() {
-		FindGenesView findGenesView = new FindGenesView(
-				graphData.getGenes().toArray(new Gene[graphData.getGenes().size()]));
+		if (findGenesView == null || findGenesView.getIndex() != graphData.getGeneIndex()) {
+			findGenesView = new FindGenesView(graphData.getGeneIndex());
+		}
 		DialogUtil.displayQuestionMessageWithView(findGenesView,"Select a gene:");
 
 		if (previousSelected != findGenesView.getSelectedItem()) {
 			boolean tryAgain = false;
 			previousSelected = findGenesView.getSelectedItem();
 			try {
-				Gene selected = (Gene) findGenesView.getSelectedItem();
+				Gene selected = findGenesView.getSelectedItem();
 				DataNode node = graphData.getGeneToStartNodeMap().get(selected);
-				if (node == null) {
+				if (selected == null) {
+					tryAgain = DialogUtil.confirm(Constants.DIALOG_TITLE_ERROR, "Please select an existing gene.");
+				} else if (node == null) {
 					tryAgain = DialogUtil.confirm("Error!", "Couldn't find the selected gene. Please try again");
 				} else {
 					cc.getGraphController().centerOnNode(node, selected);
 				}
-			} catch (ClassCastException e) {
-				tryAgain = DialogUtil.confirm(Constants.DIALOG_TITLE_ERROR, "Please select an existing gene.");
 			} catch (NodeNotFoundException e) {
 				tryAgain = DialogUtil.confirm(Constants.DIALOG_TITLE_ERROR,
 						"Couldn't find the node on the graph. Please try again.");
@@ -1,26 +1,144 @@
 package tudelft.ti2806.pl3.findgenes;
 
-import org.jdesktop.swingx.autocomplete.AutoCompleteDecorator;
 import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.gene.GeneNameIndex;
 
-import javax.swing.JComboBox;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import javax.swing.AbstractListModel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 /**
- * The view for selecting a gene to navigate to.
+ * The view for selecting a gene to navigate to. The genes matching the typed text are searched in a
+ * {@link GeneNameIndex} on each keystroke, and shown in a list which only draws the visible rows.
  * Created by Boris Mattijssen on 30-05-15.
  */
-class FindGenesView extends JComboBox<Gene> {
+class FindGenesView extends JPanel {
+	private static final int CELL_HEIGHT = 18;
+	private static final int VISIBLE_ROWS = 16;
+	private static final int COLUMNS = 24;
+
+	private final JTextField query = new JTextField(COLUMNS);
+	private final GeneListModel model;
+	private final JList<Gene> list;
 
 	/**
-	 * Construct the {@link JComboBox} and make it autocompletable.
+	 * Construct the view on the genes of an index.
 	 *
-	 * @param genes
-	 * 		The genes to select
+	 * @param index
+	 * 		the index of the genes to select
 	 */
-	public FindGenesView(Gene[] genes) {
-		super(genes);
-		setEditable(true);
-		AutoCompleteDecorator.decorate(this);
+	public FindGenesView(GeneNameIndex index) {
+		super(new BorderLayout());
+		model = new GeneListModel(index);
+		list = new JList<>(model);
+		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		list.setFixedCellHeight(CELL_HEIGHT);
+		list.setVisibleRowCount(VISIBLE_ROWS);
+		JScrollPane scrollPane = new JScrollPane(list);
+		scrollPane.setPreferredSize(new Dimension(query.getPreferredSize().width, CELL_HEIGHT * VISIBLE_ROWS));
+		add(query, BorderLayout.NORTH);
+		add(scrollPane, BorderLayout.CENTER);
+		query.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				search();
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				search();
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				search();
+			}
+		});
+		query.addAncestorListener(new AncestorListener() {
+			@Override
+			public void ancestorAdded(AncestorEvent event) {
+				query.selectAll();
+				query.requestFocusInWindow();
+			}
+
+			@Override
+			public void ancestorRemoved(AncestorEvent event) {
+			}
+
+			@Override
+			public void ancestorMoved(AncestorEvent event) {
+			}
+		});
+	}
+
+	private void search() {
+		model.setResults(model.index.search(query.getText()));
+		if (model.getSize() > 0) {
+			list.setSelectedIndex(0);
+			list.ensureIndexIsVisible(0);
+		}
 	}
 
+	/**
+	 * Gets the index the shown genes are searched in.
+	 *
+	 * @return the index of the genes shown
+	 */
+	GeneNameIndex getIndex() {
+		return model.index;
+	}
+
+	/**
+	 * Gets the gene selected in the list.
+	 *
+	 * @return the selected gene, or null if no gene matches the typed text
+	 */
+	public Gene getSelectedItem() {
+		return list.getSelectedValue();
+	}
+
+	/**
+	 * A list of the results of a search, which reads the genes from the index when they are drawn.
+	 */
+	static class GeneListModel extends AbstractListModel<Gene> {
+		private static final long serialVersionUID = 1L;
+
+		private final GeneNameIndex index;
+		private int[] results;
+
+		GeneListModel(GeneNameIndex index) {
+			this.index = index;
+			this.results = index.search("");
+		}
+
+		void setResults(int[] results) {
+			int oldSize = this.results.length;
+			this.results = results;
+			if (oldSize > 0) {
+				fireIntervalRemoved(this, 0, oldSize - 1);
+			}
+			if (results.length > 0) {
+				fireIntervalAdded(this, 0, results.length - 1);
+			}
+		}
+
+		@Override
+		public int getSize() {
+			return results.length;
+		}
+
+		@Override
+		public Gene getElementAt(int index) {
+			return this.index.getGene(results[index]);
+		}
+	}
 }
@@ -3,7 +3,11 @@ package tudelft.ti2806.pl3.menubar;
 import tudelft.ti2806.pl3.Application;
 import tudelft.ti2806.pl3.Constants;
 import tudelft.ti2806.pl3.Controller;
+import tudelft.ti2806.pl3.data.search.SequenceMatch;
+import tudelft.ti2806.pl3.exception.NodeNotFoundException;
+import tudelft.ti2806.pl3.ui.util.BackgroundTask;
 import tudelft.ti2806.pl3.ui.util.DialogUtil;
+import tudelft.ti2806.pl3.visualization.GraphController;
 
 import java.awt.Color;
 import java.awt.Component;
@@ -17,6 +21,7 @@ import java.awt.event.MouseEvent;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.List;
 import javax.swing.JLabel;
 import javax.swing.JMenuBar;
 import javax.swing.JScrollPane;
@@ -76,6 +81,18 @@ public class MenuBarController implements ActionListener, Controller {
 		application.loadMetaData();
 	}
 
+	private void mapReads() {
+		application.mapReads();
+	}
+
+	private void exportFasta() {
+		application.exportFasta();
+	}
+
+	private void exportVariants() {
+		application.exportVariants();
+	}
+
 	private void zoomIn() {
 		application.getGraphController().zoomLevelUp();
 	}
@@ -100,6 +117,85 @@ public class MenuBarController implements ActionListener, Controller {
 		application.getFindGenesController().openDialog();
 	}
 
+	/**
+	 * Asks the user for a sequence and centers the graph on its first occurrence. The sequence is searched in the
+	 * background, because the index of the graph is built the first time it is searched.
+	 */
+	private void findSequence() {
+		String sequence = DialogUtil.input(Constants.MENU_VIEW_FIND_SEQUENCE, "Enter the base pairs to find:");
+		if (sequence == null || sequence.trim().isEmpty()) {
+			return;
+		}
+		GraphController graphController = application.getGraphController();
+		BackgroundTask.start("find-sequence", () -> graphController.findSequence(sequence.trim()),
+				matches -> centerOnMatch(graphController, matches));
+	}
+
+	/**
+	 * Centers the graph on the first found occurrence of a sequence which isn't filtered out.
+	 */
+	private void centerOnMatch(GraphController graphController, List<SequenceMatch> matches) {
+		if (matches.isEmpty()) {
+			DialogUtil.displayMessage(Constants.MENU_VIEW_FIND_SEQUENCE, "The sequence was not found in the graph.");
+			return;
+		}
+		for (SequenceMatch match : matches) {
+			try {
+				// No gene is passed, so the highlight of a gene found before is removed.
+				graphController.centerOnNode(match.getNode(), null);
+				return;
+			} catch (NodeNotFoundException e) {
+				// The node is filtered out, so the next occurrence is tried.
+			}
+		}
+		DialogUtil.displayError("The sequence was only found in nodes which are filtered out.",
+				Constants.DIALOG_TITLE_ERROR);
+	}
+
+	/**
+	 * Asks the user for a position or range of the reference and centers the graph on the nodes covering it.
+	 */
+	private void goToPosition() {
+		String text = DialogUtil.input(Constants.MENU_VIEW_GO_TO_POSITION,
+				"Enter a position or range (from-to) of the reference:");
+		if (text == null || text.trim().isEmpty()) {
+			return;
+		}
+		int[] range = parseRange(text);
+		if (range == null) {
+			DialogUtil.displayError("Please enter a position, or two positions separated by a dash.",
+					Constants.DIALOG_TITLE_ERROR);
+			return;
+		}
+		try {
+			application.getGraphController().centerOnPosition(range[0], range[1]);
+		} catch (NodeNotFoundException e) {
+			DialogUtil.displayError("No drawn node covers this part of the reference.", Constants.DIALOG_TITLE_ERROR);
+		}
+	}
+
+	/**
+	 * Reads a position, or a range of two positions separated by a dash. Spaces and commas are ignored, so 1,000
+	 * reads as 1000.
+	 *
+	 * @param text
+	 * 		the text entered by the user
+	 * @return the first and last position of the range, or null when the text is not a position or range
+	 */
+	static int[] parseRange(String text) {
+		String[] parts = text.replaceAll("[\\s,]", "").split("-", -1);
+		if (parts.length > 2) {
+			return null;
+		}
+		try {
+			int from = Integer.parseInt(parts[0]);
+			int to = parts.length == 2 ? Integer.parseInt(parts[1]) : from;
+			return new int[] { Math.min(from, to), Math.max(from, to) };
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
 	private void toggleSideBar() {
 		application.getSideBarController().toggleSideBar();
 	}
@@ -224,6 +320,15 @@ public class MenuBarController implements ActionListener, Controller {
 			case Constants.MENU_FILE_OPEN_META_FILE:
 				readMetaFile();
 				break;
+			case Constants.MENU_FILE_MAP_READS:
+				mapReads();
+				break;
+			case Constants.MENU_FILE_EXPORT_FASTA:
+				exportFasta();
+				break;
+			case Constants.MENU_FILE_EXPORT_VCF:
+				exportVariants();
+				break;
 			case Constants.MENU_FILE_EXIT:
 				stop();
 				break;
@@ -245,6 +350,12 @@ public class MenuBarController implements ActionListener, Controller {
 			case Constants.MENU_VIEW_NAVIGATE_TO_GENE:
 				showFindGenes();
 				break;
+			case Constants.MENU_VIEW_FIND_SEQUENCE:
+				findSequence();
+				break;
+			case Constants.MENU_VIEW_GO_TO_POSITION:
+				goToPosition();
+				break;
 			case Constants.MENU_VIEW_METADATA:
 				filterMetadata();
 				break;
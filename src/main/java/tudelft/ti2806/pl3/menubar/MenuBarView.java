@@ -50,6 +50,12 @@ public class MenuBarView extends JMenuBar implements View {
 		openNwk.setMnemonic(KeyEvent.VK_W);
 		JMenuItem openMeta = new JMenuItem(Constants.MENU_FILE_OPEN_META_FILE);
 		openMeta.setMnemonic(KeyEvent.VK_M);
+		JMenuItem mapReads = new JMenuItem(Constants.MENU_FILE_MAP_READS);
+		mapReads.setMnemonic(KeyEvent.VK_R);
+		JMenuItem exportFasta = new JMenuItem(Constants.MENU_FILE_EXPORT_FASTA);
+		exportFasta.setMnemonic(KeyEvent.VK_E);
+		JMenuItem exportVcf = new JMenuItem(Constants.MENU_FILE_EXPORT_VCF);
+		exportVcf.setMnemonic(KeyEvent.VK_V);
 		JMenuItem exit = new JMenuItem(Constants.MENU_FILE_EXIT);
 		exit.setMnemonic(KeyEvent.VK_X);
 
@@ -57,6 +63,9 @@ public class MenuBarView extends JMenuBar implements View {
 		fileMenu.add(openNode);
 		fileMenu.add(openNwk);
 		fileMenu.add(openMeta);
+		fileMenu.add(mapReads);
+		fileMenu.add(exportFasta);
+		fileMenu.add(exportVcf);
 		fileMenu.addSeparator();
 		fileMenu.add(exit);
 
@@ -92,6 +101,12 @@ public class MenuBarView extends JMenuBar implements View {
 		JMenuItem findGenes = new JMenuItem(Constants.MENU_VIEW_NAVIGATE_TO_GENE);
 		findGenes.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_G,0));
 		findGenes.setMnemonic(KeyEvent.VK_G);
+		JMenuItem findSequence = new JMenuItem(Constants.MENU_VIEW_FIND_SEQUENCE);
+		findSequence.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_S, 0));
+		findSequence.setMnemonic(KeyEvent.VK_Q);
+		JMenuItem goToPosition = new JMenuItem(Constants.MENU_VIEW_GO_TO_POSITION);
+		goToPosition.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_P, 0));
+		goToPosition.setMnemonic(KeyEvent.VK_O);
 		JMenuItem phylo = new JMenuItem(Constants.MENU_VIEW_PYLO);
 		phylo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_SPACE, 0));
 		phylo.setMnemonic(KeyEvent.VK_P);
@@ -105,6 +120,8 @@ public class MenuBarView extends JMenuBar implements View {
 		viewMenu.add(moveRight);
 		viewMenu.add(reset);
 		viewMenu.add(findGenes);
+		viewMenu.add(findSequence);
+		viewMenu.add(goToPosition);
 		viewMenu.add(filterMetadata);
 		viewMenu.add(phylo);
 
@@ -0,0 +1,68 @@
+package tudelft.ti2806.pl3.ui.util;
+
+import tudelft.ti2806.pl3.Constants;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs slow work, like reading or writing files, on a daemon thread, so the user interface keeps responding. The
+ * result is handed to the event dispatch thread, and when the work fails its message is shown in an error dialog.
+ */
+public class BackgroundTask {
+
+	private BackgroundTask() {
+	}
+
+	/**
+	 * Work which gives a result, and which may fail with a message for the user.
+	 *
+	 * @param <T>
+	 * 		the type of the result
+	 */
+	@FunctionalInterface
+	public interface Work<T> {
+		/**
+		 * Does the work.
+		 *
+		 * @return the result
+		 * @throws IOException
+		 * 		if a file can't be read or written
+		 */
+		T run() throws IOException;
+	}
+
+	/**
+	 * Starts work on a new daemon thread.
+	 *
+	 * @param name
+	 * 		the name of the thread
+	 * @param work
+	 * 		the work to do
+	 * @param done
+	 * 		called with the result on the event dispatch thread, unless the work failed
+	 * @param <T>
+	 * 		the type of the result
+	 * @return the started thread
+	 */
+	public static <T> Thread start(String name, Work<T> work, Consumer<T> done) {
+		Thread thread = new Thread(() -> run(work, done), name);
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Does the work, and hands the result or the message of the failure to the event dispatch thread.
+	 */
+	private static <T> void run(Work<T> work, Consumer<T> done) {
+		try {
+			T result = work.run();
+			SwingUtilities.invokeLater(() -> done.accept(result));
+		} catch (IOException | IllegalArgumentException exception) {
+			SwingUtilities.invokeLater(() -> DialogUtil.displayError(exception.getMessage(),
+					Constants.DIALOG_TITLE_ERROR));
+		}
+	}
+}
@@ -62,6 +62,19 @@ public class DialogUtil {
 		JOptionPane.showMessageDialog(null, message, title, JOptionPane.PLAIN_MESSAGE);
 	}
 
+	/**
+	 * Asks the user to enter a text.
+	 *
+	 * @param title
+	 * 		of the pop-up
+	 * @param message
+	 * 		to display
+	 * @return the entered text, or {@code null} when the pop-up was cancelled
+	 */
+	public static String input(String title, String message) {
+		return JOptionPane.showInputDialog(null, message, title, JOptionPane.QUESTION_MESSAGE);
+	}
+
 	/**
 	 * Displays the user a error message.
 	 *
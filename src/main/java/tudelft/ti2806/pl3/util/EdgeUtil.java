@@ -9,14 +9,15 @@ import tudelft.ti2806.pl3.data.wrapper.Wrapper;
 import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * An utility class to find and/or remove dead edges from a {@link GraphData}
@@ -26,6 +27,11 @@ import java.util.stream.Collectors;
  * @author Boris Mattijssen
  */
 public class EdgeUtil {
+	/**
+	 * The number of wrappers from which the edge weights are computed in parallel.
+	 */
+	static final int PARALLEL_THRESHOLD = 512;
+
 	private EdgeUtil() {
 	}
 
@@ -101,27 +107,77 @@ public class EdgeUtil {
 	 * Sets weight based on the number of genomes that flow through the edges.
 	 * <p/>
 	 * It will calculate how many genomes flow to its outgoing node and it will
-	 * store this weight on the node itself.
+	 * store this weight on the node itself. The genomes of each node are
+	 * stored as a bit mask, so the genomes flowing through an edge are found
+	 * with a bitwise and, and counted with a popcount. Each genome is only
+	 * counted for the first outgoing node in order which contains it. When
+	 * there are many nodes, the weights are computed in parallel.
 	 *
 	 * @param wrapperClones
 	 * 		The list of all wrappers that are currently on the screen
 	 */
 	public static void setEdgeWeight(List<WrapperClone> wrapperClones) {
+		Map<Genome, Integer> genomeIndex = new HashMap<>();
 		for (WrapperClone wrapperClone : wrapperClones) {
-			if (wrapperClone.getOutgoing().size() == 0) {
-				continue;
+			for (Genome genome : wrapperClone.getGenome()) {
+				genomeIndex.putIfAbsent(genome, genomeIndex.size());
+			}
+		}
+		int words = (genomeIndex.size() + Long.SIZE - 1) / Long.SIZE;
+		Map<Wrapper, long[]> masks = new IdentityHashMap<>(wrapperClones.size());
+		for (WrapperClone wrapperClone : wrapperClones) {
+			masks.put(wrapperClone, getGenomeMask(wrapperClone, genomeIndex, words));
+		}
+		IntStream indices = IntStream.range(0, wrapperClones.size());
+		if (wrapperClones.size() >= PARALLEL_THRESHOLD) {
+			indices = indices.parallel();
+		}
+		indices.forEach(i -> setEdgeWeight(wrapperClones.get(i), masks, genomeIndex, words));
+	}
+
+	private static void setEdgeWeight(WrapperClone wrapperClone, Map<Wrapper, long[]> masks,
+			Map<Genome, Integer> genomeIndex, int words) {
+		List<Wrapper> outgoingList = wrapperClone.getOutgoing();
+		if (outgoingList.size() == 0) {
+			wrapperClone.clearOutgoingWeights();
+			return;
+		}
+		if (outgoingList.size() == 1) {
+			wrapperClone.setOutgoingWeights(new int[] { wrapperClone.getGenome().size() });
+			return;
+		}
+		Collections.sort(outgoingList);
+		long[] genomes = masks.get(wrapperClone).clone();
+		int[] weights = new int[outgoingList.size()];
+		for (int i = 0; i < weights.length; i++) {
+			Wrapper outgoing = outgoingList.get(i);
+			long[] outgoingGenomes = masks.get(outgoing);
+			if (outgoingGenomes == null) {
+				outgoingGenomes = getGenomeMask(outgoing, genomeIndex, words);
 			}
-			if (wrapperClone.getOutgoing().size() == 1) {
-				wrapperClone.getOutgoingWeight().add(wrapperClone.getGenome().size());
+			int weight = 0;
+			for (int word = 0; word < words; word++) {
+				long intersection = genomes[word] & outgoingGenomes[word];
+				weight += Long.bitCount(intersection);
+				genomes[word] &= ~intersection;
 			}
-			Set<Genome> genomes = new HashSet<>(wrapperClone.getGenome());
-			Collections.sort(wrapperClone.getOutgoing());
-			for (Wrapper outgoing : wrapperClone.getOutgoing()) {
-				Collection<Genome> intersection = CollectionUtil.intersection(
-						outgoing.getGenome(), genomes);
-				wrapperClone.getOutgoingWeight().add(intersection.size());
-				genomes.removeAll(intersection);
+			weights[i] = weight;
+		}
+		wrapperClone.setOutgoingWeights(weights);
+	}
+
+	/**
+	 * Constructs a bit mask of the genomes of a wrapper. Genomes which are not
+	 * in the index are left out.
+	 */
+	private static long[] getGenomeMask(Wrapper wrapper, Map<Genome, Integer> genomeIndex, int words) {
+		long[] mask = new long[words];
+		for (Genome genome : wrapper.getGenome()) {
+			Integer index = genomeIndex.get(genome);
+			if (index != null) {
+				mask[index / Long.SIZE] |= 1L << index;
 			}
 		}
+		return mask;
 	}
 }
@@ -0,0 +1,211 @@
+package tudelft.ti2806.pl3.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid of points, to find the point closest to a position without checking all points.
+ *
+ * <p>
+ * Each point is stored in the cell containing its position. Points can be added, moved and removed one at a time, so
+ * the grid can be kept up to date with small changes. When the cells are much too small or too large for the points,
+ * {@link #setCellSize(float, float)} divides all points over new cells.
+ * </p>
+ *
+ * @param <T>
+ * 		the type of elements to store
+ */
+public class SpatialGrid<T> {
+	private final Map<Long, List<T>> cells = new HashMap<>();
+	private final Map<T, float[]> positions = new IdentityHashMap<>();
+	private float cellWidth;
+	private float cellHeight;
+
+	/**
+	 * Construct an empty grid.
+	 *
+	 * @param cellWidth
+	 * 		the width of a cell
+	 * @param cellHeight
+	 * 		the height of a cell
+	 */
+	public SpatialGrid(float cellWidth, float cellHeight) {
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+	}
+
+	/**
+	 * Adds an element to the grid, or moves it when it is already on the grid.
+	 *
+	 * @param element
+	 * 		the element to add
+	 * @param x
+	 * 		the x position of the element
+	 * @param y
+	 * 		the y position of the element
+	 */
+	public void put(T element, float x, float y) {
+		float[] position = positions.get(element);
+		if (position != null) {
+			if (getCell(position[0], position[1]) == getCell(x, y)) {
+				position[0] = x;
+				position[1] = y;
+				return;
+			}
+			removeFromCell(element, position);
+		}
+		positions.put(element, new float[] { x, y });
+		cells.computeIfAbsent(getCell(x, y), cell -> new ArrayList<>(2)).add(element);
+	}
+
+	/**
+	 * Removes an element from the grid.
+	 *
+	 * @param element
+	 * 		the element to remove
+	 */
+	public void remove(T element) {
+		float[] position = positions.remove(element);
+		if (position != null) {
+			removeFromCell(element, position);
+		}
+	}
+
+	/**
+	 * Removes all elements.
+	 */
+	public void clear() {
+		cells.clear();
+		positions.clear();
+	}
+
+	public int size() {
+		return positions.size();
+	}
+
+	public float getCellWidth() {
+		return cellWidth;
+	}
+
+	public float getCellHeight() {
+		return cellHeight;
+	}
+
+	/**
+	 * Changes the size of the cells, and puts all elements in the new cells.
+	 *
+	 * @param cellWidth
+	 * 		the new width of a cell
+	 * @param cellHeight
+	 * 		the new height of a cell
+	 */
+	public void setCellSize(float cellWidth, float cellHeight) {
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+		cells.clear();
+		for (Map.Entry<T, float[]> entry : positions.entrySet()) {
+			float[] position = entry.getValue();
+			cells.computeIfAbsent(getCell(position[0], position[1]), cell -> new ArrayList<>(2)).add(entry.getKey());
+		}
+	}
+
+	/**
+	 * Finds the element closest to a position, within a distance on both axes. Only the cells overlapping this area
+	 * are checked.
+	 *
+	 * @param x
+	 * 		the x position
+	 * @param y
+	 * 		the y position
+	 * @param reachX
+	 * 		the largest distance on the x axis
+	 * @param reachY
+	 * 		the largest distance on the y axis
+	 * @return the closest element, or {@code null} if there is no element in reach
+	 */
+	public T findNearest(float x, float y, float reachX, float reachY) {
+		double columns = Math.floor((x + reachX) / cellWidth) - Math.floor((x - reachX) / cellWidth) + 1;
+		double rows = Math.floor((y + reachY) / cellHeight) - Math.floor((y - reachY) / cellHeight) + 1;
+		if (!(columns * rows <= cells.size())) {
+			// The area covers more cells than there are filled cells, so checking all elements is faster.
+			return findNearest(positions.keySet(), x, y, reachX, reachY);
+		}
+		long firstColumn = getColumn(x - reachX);
+		long firstRow = getRow(y - reachY);
+		T nearest = null;
+		for (long column = firstColumn; column < firstColumn + (long) columns; column++) {
+			for (long row = firstRow; row < firstRow + (long) rows; row++) {
+				List<T> cell = cells.get(getCell(column, row));
+				if (cell != null) {
+					T cellNearest = findNearest(cell, x, y, reachX, reachY);
+					if (cellNearest != null && (nearest == null
+							|| getDistance(cellNearest, x, y) < getDistance(nearest, x, y))) {
+						nearest = cellNearest;
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+
+	private T findNearest(Iterable<T> elements, float x, float y, float reachX, float reachY) {
+		T nearest = null;
+		float nearestDistance = Float.MAX_VALUE;
+		for (T element : elements) {
+			float[] position = positions.get(element);
+			if (Math.abs(position[0] - x) <= reachX && Math.abs(position[1] - y) <= reachY) {
+				float distance = getDistance(element, x, y);
+				if (distance < nearestDistance) {
+					nearest = element;
+					nearestDistance = distance;
+				}
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Measures how far an element is from a position.
+	 *
+	 * @return the squared distance between the element and the position
+	 */
+	private float getDistance(T element, float x, float y) {
+		float[] position = positions.get(element);
+		float dx = position[0] - x;
+		float dy = position[1] - y;
+		return dx * dx + dy * dy;
+	}
+
+	private void removeFromCell(T element, float[] position) {
+		long key = getCell(position[0], position[1]);
+		List<T> cell = cells.get(key);
+		for (int i = 0; i < cell.size(); i++) {
+			if (cell.get(i) == element) {
+				cell.remove(i);
+				break;
+			}
+		}
+		if (cell.isEmpty()) {
+			cells.remove(key);
+		}
+	}
+
+	private long getColumn(float x) {
+		return (long) Math.floor(x / cellWidth);
+	}
+
+	private long getRow(float y) {
+		return (long) Math.floor(y / cellHeight);
+	}
+
+	private long getCell(float x, float y) {
+		return getCell(getColumn(x), getRow(y));
+	}
+
+	private static long getCell(long column, long row) {
+		return (column << 32) ^ (row & 0xffffffffL);
+	}
+}
@@ -0,0 +1,359 @@
+package tudelft.ti2806.pl3.visualization;
+
+import tudelft.ti2806.pl3.data.filter.Filter;
+import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.GraphDataRepository;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+
+/**
+ * Renders parts of a graph to image files without a display, for example one figure for each gene of interest.
+ *
+ * <p>
+ * The graph is filtered and wrapped once, when the renderer is constructed. Each window is then unwrapped at the zoom
+ * level which fits the window in the width of the image, drawn with the same {@link SceneRenderer} as the
+ * {@link Java2DGraphView} and written as PNG or SVG. The windows are drawn by a pool of threads, each with its own
+ * renderer. The graph is unwrapped for one window at a time, because the wrappers of the model are shared.
+ * </p>
+ */
+public class BatchRenderer {
+	/**
+	 * The part of the graph width added on both sides of a window.
+	 */
+	private static final float WINDOW_PADDING = 0.1f;
+
+	/**
+	 * The file formats a window can be written as.
+	 */
+	public enum Format {
+		PNG, SVG;
+
+		String getExtension() {
+			return name().toLowerCase();
+		}
+	}
+
+	private final FilteredGraphModel filteredGraphModel;
+	private final ZoomedGraphModel zoomedGraphModel;
+	private final int width;
+	private final int height;
+	private final ThreadLocal<SceneRenderer> renderers = ThreadLocal.withInitial(SceneRenderer::new);
+
+	/**
+	 * The positioned nodes sorted on the start of their reference coordinates.
+	 */
+	private final DataNodeWrapper[] nodesByReference;
+	private final int[] referenceStarts;
+	private int longestReferenceSpan = 0;
+
+	/**
+	 * Filters and wraps the graph.
+	 *
+	 * @param graphData
+	 *            the parsed graph
+	 * @param filters
+	 *            the filters to apply to the graph
+	 * @param width
+	 *            the width of the images
+	 * @param height
+	 *            the height of the images
+	 */
+	public BatchRenderer(GraphDataRepository graphData, List<Filter<DataNode>> filters, int width, int height) {
+		this.width = width;
+		this.height = height;
+		// The images, not the screen, decide how far the graph is unwrapped.
+		filteredGraphModel = new FilteredGraphModel(graphData, () -> width);
+		zoomedGraphModel = new ZoomedGraphModel(filteredGraphModel, () -> width);
+		filteredGraphModel.addObserver(zoomedGraphModel);
+		filteredGraphModel.setFilters(filters);
+		filteredGraphModel.graphParsed();
+
+		List<DataNodeWrapper> nodes = new ArrayList<>();
+		for (Wrapper wrapper : filteredGraphModel.getPositionedNodes()) {
+			if (wrapper instanceof DataNodeWrapper) {
+				DataNode node = ((DataNodeWrapper) wrapper).getNode();
+				nodes.add((DataNodeWrapper) wrapper);
+				longestReferenceSpan = Math.max(longestReferenceSpan,
+						node.getRefEndPoint() - node.getRefStartPoint());
+			}
+		}
+		nodes.sort(Comparator.comparingInt(wrapper -> wrapper.getNode().getRefStartPoint()));
+		nodesByReference = nodes.toArray(new DataNodeWrapper[nodes.size()]);
+		referenceStarts = new int[nodesByReference.length];
+		for (int i = 0; i < referenceStarts.length; i++) {
+			referenceStarts[i] = nodesByReference[i].getNode().getRefStartPoint();
+		}
+	}
+
+	/**
+	 * Renders each window to a file named after the window in the output directory. When the names of several windows
+	 * give the same file name, a number is added to the names of the later windows.
+	 *
+	 * @param windows
+	 *            the windows to render
+	 * @param directory
+	 *            the directory to write the files to
+	 * @param format
+	 *            the format of the files
+	 * @param threads
+	 *            the number of windows rendered at the same time
+	 * @return the written files, in the order of the windows, with {@code null} for windows without nodes
+	 * @throws IOException
+	 *             if a file can't be written
+	 */
+	public List<File> render(List<Window> windows, File directory, Format format, int threads) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+				Thread thread = new Thread(runnable, "batch-render");
+				thread.setDaemon(true);
+				return thread;
+			}
+		);
+		try {
+			List<Future<File>> futures = new ArrayList<>(windows.size());
+			Set<String> used = new HashSet<>();
+			for (Window window : windows) {
+				String fileName = getUniqueFileName(window.getFileName(), format, used);
+				futures.add(executor.submit(() -> renderToFile(window, new File(directory, fileName), format)));
+			}
+			List<File> files = new ArrayList<>(windows.size());
+			for (Future<File> future : futures) {
+				files.add(future.get());
+			}
+			return files;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Rendering was interrupted", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Could not render a window", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Renders a window to a file.
+	 *
+	 * @param window
+	 *            the window to render
+	 * @param directory
+	 *            the directory to write the file to
+	 * @param format
+	 *            the format of the file
+	 * @return the written file, or {@code null} if the window has no nodes
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	public File render(Window window, File directory, Format format) throws IOException {
+		return renderToFile(window, new File(directory, window.getFileName() + "." + format.getExtension()), format);
+	}
+
+	private File renderToFile(Window window, File file, Format format) throws IOException {
+		float[] range = getGraphRange(window);
+		if (range == null) {
+			return null;
+		}
+		float padding = (range[1] - range[0]) * WINDOW_PADDING + 1;
+		float viewFrom = range[0] - padding;
+		float viewTo = range[1] + padding;
+		float zoomLevel = ZoomedGraphModel.restrictZoomLevel(
+				zoomedGraphModel.getWrappedCollapsedNode().getWidth() / (viewTo - viewFrom));
+		float center = (viewFrom + viewTo) / 2;
+		float visibleWidth = zoomedGraphModel.getVisibleWidth(zoomLevel);
+		viewFrom = center - visibleWidth / 2;
+		viewTo = center + visibleWidth / 2;
+		UnwrapCache.Entry entry = unwrap(zoomLevel, center);
+		Java2DGraphView.Scene scene = new Java2DGraphView.Scene(entry.getWrapperClones(),
+				zoomedGraphModel.getGenomesCount());
+		scene.select(window.getGene());
+		float scale = width / (viewTo - viewFrom);
+		float originX = viewFrom * scale;
+
+		if (format == Format.SVG) {
+			try (Writer writer = new OutputStreamWriter(Files.newOutputStream(file.toPath()), StandardCharsets.UTF_8)) {
+				SceneRenderer.writeSvg(writer, scene, scale, originX, width, height, viewFrom, viewTo);
+			}
+		} else {
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = image.createGraphics();
+			g.setColor(SceneRenderer.BACKGROUND_COLOR);
+			g.fillRect(0, 0, width, height);
+			renderers.get().render(g, scene, scale, originX, height, viewFrom, viewTo, false);
+			g.dispose();
+			ImageIO.write(image, "png", file);
+		}
+		return file;
+	}
+
+	/**
+	 * Gives a window a file name which isn't used yet. File names are compared without case, because not all file
+	 * systems distinguish them.
+	 *
+	 * @param name
+	 *            the file name of the window, without extension
+	 * @param format
+	 *            the format of the file
+	 * @param used
+	 *            the file names used so far in lower case, to which the new file name is added
+	 * @return the file name with extension
+	 */
+	static String getUniqueFileName(String name, Format format, Set<String> used) {
+		String fileName = name + "." + format.getExtension();
+		for (int i = 2; !used.add(fileName.toLowerCase()); i++) {
+			fileName = name + "-" + i + "." + format.getExtension();
+		}
+		return fileName;
+	}
+
+	/**
+	 * Unwraps the graph around a window. The model cancels an unwrap when its own data is computed in the meantime,
+	 * in which case the graph is unwrapped again.
+	 *
+	 * @throws IOException
+	 *             if the model has no graph to unwrap
+	 */
+	private UnwrapCache.Entry unwrap(float zoomLevel, float center) throws IOException {
+		UnwrapCache.Entry entry = zoomedGraphModel.unwrap(zoomLevel, center, () -> false);
+		while (entry == null) {
+			if (zoomedGraphModel.getWrappedCollapsedNode() == null) {
+				throw new IOException("There is no graph to render");
+			}
+			entry = zoomedGraphModel.unwrap(zoomLevel, center, () -> false);
+		}
+		return entry;
+	}
+
+	/**
+	 * Finds the part of the graph containing the nodes which overlap the reference coordinates of a window.
+	 *
+	 * @return the first and last x position of these nodes, or {@code null} if there are none
+	 */
+	float[] getGraphRange(Window window) {
+		int first = lowerBound(window.getFrom() - longestReferenceSpan);
+		float from = Float.MAX_VALUE;
+		float to = -Float.MAX_VALUE;
+		for (int i = first; i < nodesByReference.length && referenceStarts[i] <= window.getTo(); i++) {
+			DataNode node = nodesByReference[i].getNode();
+			if (node.getRefEndPoint() >= window.getFrom()) {
+				from = Math.min(from, nodesByReference[i].getX());
+				to = Math.max(to, nodesByReference[i].getX());
+			}
+		}
+		if (from > to) {
+			return null;
+		}
+		return new float[] { from, to };
+	}
+
+	private int lowerBound(long key) {
+		int low = 0;
+		int high = referenceStarts.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (referenceStarts[mid] < key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * A part of the reference genome to render, optionally with a gene to highlight.
+	 */
+	public static final class Window {
+		private static final char[] SAFE_CHARACTERS = { '-', '.', '_' };
+
+		private final String name;
+		private final int from;
+		private final int to;
+		private final Gene gene;
+
+		/**
+		 * Construct a window between two reference coordinates.
+		 *
+		 * @param name
+		 *            the name of the window, used for the file name
+		 * @param from
+		 *            the first reference coordinate
+		 * @param to
+		 *            the last reference coordinate
+		 */
+		public Window(String name, int from, int to) {
+			this(name, from, to, null);
+		}
+
+		private Window(String name, int from, int to, Gene gene) {
+			this.name = name;
+			this.from = from;
+			this.to = to;
+			this.gene = gene;
+		}
+
+		/**
+		 * Construct a window covering a gene, which is highlighted.
+		 *
+		 * @param gene
+		 *            the gene
+		 * @return the window
+		 */
+		public static Window of(Gene gene) {
+			return new Window(gene.getName(), gene.getStart(), gene.getEnd(), gene);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getFrom() {
+			return from;
+		}
+
+		public int getTo() {
+			return to;
+		}
+
+		public Gene getGene() {
+			return gene;
+		}
+
+		/**
+		 * Gets the name to use in a file name.
+		 *
+		 * @return the name with all characters which aren't safe in a file name replaced by an underscore
+		 */
+		String getFileName() {
+			char[] chars = name.toCharArray();
+			for (int i = 0; i < chars.length; i++) {
+				if (!Character.isLetterOrDigit(chars[i]) && Arrays.binarySearch(SAFE_CHARACTERS, chars[i]) < 0) {
+					chars[i] = '_';
+				}
+			}
+			return new String(chars);
+		}
+	}
+}
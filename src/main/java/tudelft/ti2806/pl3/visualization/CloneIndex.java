@@ -0,0 +1,92 @@
+package tudelft.ti2806.pl3.visualization;
+
+import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.label.Label;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A reverse index of a list of {@link WrapperClone}s, to find the clone containing a {@link DataNode} and the clones
+ * with a label of a gene without checking all clones.
+ *
+ * <p>
+ * The index is only valid for the list it is built from, so a view builds a new index for every list of clones
+ * published by the {@link ZoomedGraphModel}. The clones are indexed on the id of their {@link DataNode}s, and on the
+ * gene names of the labels of these {@link DataNode}s. Clones with a negative id are not drawn, so they are skipped.
+ * </p>
+ */
+public class CloneIndex {
+	private final WrapperClone[] cloneByNodeId;
+	private final Map<String, List<WrapperClone>> clonesByGene = new HashMap<>();
+
+	/**
+	 * Construct the index of a list of clones.
+	 *
+	 * @param clones
+	 *            the clones to index
+	 */
+	public CloneIndex(List<WrapperClone> clones) {
+		int maxId = -1;
+		for (WrapperClone clone : clones) {
+			if (clone.getId() >= 0) {
+				for (DataNode node : clone.getDataNodes()) {
+					maxId = Math.max(maxId, node.getId());
+				}
+			}
+		}
+		cloneByNodeId = new WrapperClone[maxId + 1];
+		for (WrapperClone clone : clones) {
+			if (clone.getId() < 0) {
+				continue;
+			}
+			for (DataNode node : clone.getDataNodes()) {
+				if (node.getId() >= 0) {
+					cloneByNodeId[node.getId()] = clone;
+				}
+				for (Label label : node.getLabelList()) {
+					List<WrapperClone> list = clonesByGene.computeIfAbsent(label.getText(),
+							name -> new ArrayList<>(1));
+					// The data nodes of a clone are visited one after another, so a duplicate is always the last.
+					if (list.isEmpty() || list.get(list.size() - 1) != clone) {
+						list.add(clone);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the clone containing a {@link DataNode}.
+	 *
+	 * @param node
+	 *            the node to look for
+	 * @return the clone containing the node, or {@code null} if none of the clones contains it
+	 */
+	public WrapperClone getClone(DataNode node) {
+		int id = node.getId();
+		if (id < 0 || id >= cloneByNodeId.length) {
+			return null;
+		}
+		return cloneByNodeId[id];
+	}
+
+	/**
+	 * Gets the clones containing a {@link DataNode} with a label of a gene.
+	 *
+	 * @param gene
+	 *            the gene to look for
+	 * @return the clones with a label of the gene, or an empty list if there are none
+	 */
+	public List<WrapperClone> getClones(Gene gene) {
+		if (gene == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(clonesByGene.getOrDefault(gene.getName(), Collections.emptyList()));
+	}
+}
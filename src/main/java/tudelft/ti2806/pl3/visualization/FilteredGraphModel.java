@@ -2,29 +2,30 @@ package tudelft.ti2806.pl3.visualization;
 
 import tudelft.ti2806.pl3.ScreenSize;
 import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.filter.CompiledFilter;
 import tudelft.ti2806.pl3.data.filter.Filter;
 import tudelft.ti2806.pl3.data.graph.DataNode;
 import tudelft.ti2806.pl3.data.graph.Edge;
 import tudelft.ti2806.pl3.data.graph.GraphDataRepository;
 import tudelft.ti2806.pl3.data.graph.GraphParsedObserver;
+import tudelft.ti2806.pl3.data.mapping.Coverage;
 import tudelft.ti2806.pl3.data.wrapper.WrappedGraphData;
 import tudelft.ti2806.pl3.data.wrapper.Wrapper;
 import tudelft.ti2806.pl3.data.wrapper.operation.collapse.CalculateCollapseOnSpace;
 import tudelft.ti2806.pl3.data.wrapper.operation.yposition.PositionNodeYOnGenomeSpace;
 import tudelft.ti2806.pl3.data.wrapper.util.WrapUtil;
 import tudelft.ti2806.pl3.data.wrapper.util.interest.CollectInterest;
-import tudelft.ti2806.pl3.util.CollectionUtil;
+import tudelft.ti2806.pl3.data.wrapper.util.interest.CoverageScorer;
+import tudelft.ti2806.pl3.data.wrapper.util.interest.InterestIndex;
 import tudelft.ti2806.pl3.util.EdgeUtil;
 import tudelft.ti2806.pl3.util.observable.LoadingObservable;
 import tudelft.ti2806.pl3.util.observers.LoadingObserver;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Observable;
-import java.util.Set;
+import java.util.function.IntSupplier;
 
 /**
  * This model filters the original graph data, based on the filter selections.
@@ -43,13 +44,16 @@ public class FilteredGraphModel extends Observable implements LoadingObservable,
 	private final PositionNodeYOnGenomeSpace positionNodeYOnGenomeSpace;
 	private final ArrayList<LoadingObserver> loadingObservers;
 	private final CalculateCollapseOnSpace calculateCollapse;
-	private final Map<List<Filter<DataNode>>, Integer> filtersToGenomesCountMap;
+	private final IntSupplier viewWidth;
 
 	private WrappedGraphData wrappedGraphData;
 	private Wrapper collapsedNode;
+	private InterestIndex interestIndex;
 	private CollectInterest collectInterest;
 	private List<Genome> genomes;
 	private List<Filter<DataNode>> filters;
+	private CompiledFilter compiledFilter;
+	private Coverage coverage;
 
 	/**
 	 * Construct the model containing the filtered data.<br>
@@ -60,17 +64,30 @@ public class FilteredGraphModel extends Observable implements LoadingObservable,
 	 * 		The original graph data
 	 */
 	public FilteredGraphModel(GraphDataRepository originalGraphData) {
+		this(originalGraphData, () -> ScreenSize.getInstance().getWidth());
+	}
+
+	/**
+	 * Construct the model containing the filtered data, for a view of the given width instead of the screen.
+	 *
+	 * @param originalGraphData
+	 * 		The original graph data
+	 * @param viewWidth
+	 * 		Gives the width of the view in pixels
+	 */
+	public FilteredGraphModel(GraphDataRepository originalGraphData, IntSupplier viewWidth) {
 		this.originalGraphData = originalGraphData;
+		this.viewWidth = viewWidth;
 		this.filters = new ArrayList<>();
 		this.genomes = new ArrayList<>();
 		this.loadingObservers = new ArrayList<>();
-		this.filtersToGenomesCountMap = new HashMap<>();
 		this.positionNodeYOnGenomeSpace = new PositionNodeYOnGenomeSpace();
 		this.calculateCollapse = new CalculateCollapseOnSpace();
 	}
 
 	public void setFilters(List<Filter<DataNode>> filters) {
 		this.filters = filters;
+		this.compiledFilter = null;
 	}
 
 	public Wrapper getCollapsedNode() {
@@ -94,6 +111,11 @@ public class FilteredGraphModel extends Observable implements LoadingObservable,
 		positionNodeYOnGenomeSpace.calculate(collapsedNode, null);
 
 		calculateCollapse.calculate(collapsedNode, null);
+		if (coverage != null) {
+			wrappedGraphData.getInterestEngine().addScorer(new CoverageScorer(coverage), 1);
+			wrappedGraphData.getInterestEngine().apply();
+		}
+		interestIndex = new InterestIndex(wrappedGraphData.getPositionedNodes());
 		calculateCollectInterest();
 		setChanged();
 		notifyObservers();
@@ -101,23 +123,68 @@ public class FilteredGraphModel extends Observable implements LoadingObservable,
 	}
 
 	/**
-	 * Calculate the CollectInterest based on the current screensize width.
+	 * Calculate the CollectInterest based on the width of the view. The interest is read from the
+	 * {@link InterestIndex} of the filtered graph, so the wrappers aren't checked again.
 	 */
 	public void calculateCollectInterest() {
-		collectInterest = new CollectInterest(ScreenSize.getInstance().getWidth());
-		collectInterest.calculate(wrappedGraphData.getPositionedNodes());
+		collectInterest = new CollectInterest(viewWidth.getAsInt());
+		collectInterest.calculate(interestIndex);
+	}
+
+	/**
+	 * Changes the weight of an interest scorer and computes the interest of the filtered graph again. The graph isn't
+	 * wrapped again, only the interest shown in the zoom bar changes.
+	 *
+	 * @param scorer
+	 * 		the name of the {@link tudelft.ti2806.pl3.data.wrapper.util.interest.InterestScorer}
+	 * @param weight
+	 * 		the new weight of the scorer
+	 */
+	public void setInterestWeight(String scorer, float weight) {
+		wrappedGraphData.getInterestEngine().setWeight(scorer, weight);
+		wrappedGraphData.getInterestEngine().apply();
+		interestIndex.refresh();
+		calculateCollectInterest();
+	}
+
+	/**
+	 * Adds the coverage of mapped reads to the interest of the filtered graph, with a weight of 1. The coverage is
+	 * kept when the graph is filtered again, until another graph is parsed.
+	 *
+	 * @param coverage
+	 * 		the coverage of the nodes
+	 */
+	public void setCoverage(Coverage coverage) {
+		this.coverage = coverage;
+		if (wrappedGraphData != null) {
+			wrappedGraphData.getInterestEngine().addScorer(new CoverageScorer(coverage), 1);
+			wrappedGraphData.getInterestEngine().apply();
+			interestIndex.refresh();
+			calculateCollectInterest();
+		}
 	}
 
 	/**
-	 * Apply all filters.
+	 * Apply all filters. The filters are combined into a single {@link CompiledFilter}, so they are applied in one
+	 * pass over the nodes.
 	 *
 	 * @param list
 	 * 		the list of nodes to be filtered
 	 */
 	public void filter(List<DataNode> list) {
-		for (Filter<DataNode> filter : filters) {
-			filter.filter(list);
+		getCompiledFilter().apply(list);
+	}
+
+	/**
+	 * Combines the current filters, when they are changed since the last call.
+	 *
+	 * @return the current filters combined into one {@link CompiledFilter}
+	 */
+	private CompiledFilter getCompiledFilter() {
+		if (compiledFilter == null) {
+			compiledFilter = CompiledFilter.compile(filters, originalGraphData.getGenomes());
 		}
+		return compiledFilter;
 	}
 
 	@Override
@@ -150,14 +217,37 @@ public class FilteredGraphModel extends Observable implements LoadingObservable,
 		return collectInterest.getInterest();
 	}
 
+	/**
+	 * Gets the nodes of the filtered graph with their positions.
+	 *
+	 * @return the positioned nodes of the filtered graph, or an empty list if no graph is loaded
+	 */
+	public List<Wrapper> getPositionedNodes() {
+		if (wrappedGraphData == null) {
+			return Collections.emptyList();
+		}
+		return wrappedGraphData.getPositionedNodes();
+	}
+
 
 	public float getMaxInterest() {
 		return collectInterest.getMaxInterest();
 	}
 
+	/**
+	 * Gets the interest index of the filtered graph.
+	 *
+	 * @return the index of the interest of the filtered graph, to project the interest of any part of the graph
+	 */
+	public InterestIndex getInterestIndex() {
+		return interestIndex;
+	}
+
 	@Override
 	public void graphParsed() {
 		genomes = originalGraphData.getGenomes();
+		compiledFilter = null;
+		coverage = null;
 		produceWrappedGraphData();
 	}
 
@@ -169,25 +259,11 @@ public class FilteredGraphModel extends Observable implements LoadingObservable,
 	 * Count the genomes in the filtered data.
 	 *
 	 * @return returns the amount of genomes in the original data set when no filters are applied,
-	 *		otherwise it calculates the amount of genomes in the filtered data and returns it.
+	 *		otherwise it returns the amount of genomes kept by all filters together.
 	 */
 	public int getGenomesCount() {
 		if (filters.size() > 0) {
-			if (filtersToGenomesCountMap.get(filters) == null) {
-				if (filters.size() == 1) {
-					filtersToGenomesCountMap.put(filters,
-							filters.iterator().next().getGenomes().size());
-				} else if (filters.size() > 1) {
-					Set<String> filteredGenomes = new HashSet<>(
-							filters.iterator().next().getGenomes());
-					for (Filter<DataNode> filter : filters) {
-						filteredGenomes = CollectionUtil.intersectionListSet(
-								filter.getGenomes(), filteredGenomes);
-					}
-					filtersToGenomesCountMap.put(filters, filteredGenomes.size());
-				}
-			}
-			return filtersToGenomesCountMap.get(filters);
+			return getCompiledFilter().getGenomeCount();
 		} else {
 			return genomes.size();
 		}
@@ -2,41 +2,89 @@ package tudelft.ti2806.pl3.visualization;
 
 import tudelft.ti2806.pl3.Controller;
 import tudelft.ti2806.pl3.ScreenSize;
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.export.FastaExporter;
 import tudelft.ti2806.pl3.data.filter.Filter;
+import tudelft.ti2806.pl3.data.filter.GenomeFilter;
 import tudelft.ti2806.pl3.data.gene.Gene;
 import tudelft.ti2806.pl3.data.gene.GeneData;
 import tudelft.ti2806.pl3.data.graph.DataNode;
 import tudelft.ti2806.pl3.data.graph.GraphDataRepository;
+import tudelft.ti2806.pl3.data.mapping.Coverage;
+import tudelft.ti2806.pl3.data.mapping.ReadMapper;
+import tudelft.ti2806.pl3.data.search.CoordinateIndex;
+import tudelft.ti2806.pl3.data.search.GenomePathIndex;
+import tudelft.ti2806.pl3.data.search.SequenceIndex;
+import tudelft.ti2806.pl3.data.search.SequenceMatch;
+import tudelft.ti2806.pl3.data.variant.VariantCatalogue;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
 import tudelft.ti2806.pl3.exception.NodeNotFoundException;
+import tudelft.ti2806.pl3.ui.util.BackgroundTask;
 import tudelft.ti2806.pl3.ui.util.DialogUtil;
+import tudelft.ti2806.pl3.util.Pair;
 import tudelft.ti2806.pl3.util.observable.LoadingObservable;
 import tudelft.ti2806.pl3.util.observers.LoadingObserver;
 
 import java.awt.Component;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Observable;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class GraphController implements Controller {
+	/**
+	 * The system property which selects the renderer of the graph at startup.
+	 */
+	public static final String RENDERER_PROPERTY = "helix.renderer";
+	/**
+	 * The value of {@link #RENDERER_PROPERTY} to draw the graph with the {@link Java2DGraphView}.
+	 */
+	public static final String RENDERER_JAVA2D = "java2d";
 	private static final int DEFAULT_VIEW = 1;
 	private final GraphDataRepository graphDataRepository;
 	private final List<GraphMovedListener> graphMovedListenerList;
 	private final Map<String, Filter<DataNode>> filters = new HashMap<>();
 	private FilteredGraphModel filteredGraphModel;
 	private ZoomedGraphModel zoomedGraphModel;
-	private GraphView graphView;
+	private ZoomPipeline zoomPipeline;
+	private UnwrapCache unwrapCache;
+	private ZoomPrefetcher zoomPrefetcher;
+	private ViewInterface graphView;
 	private GeneData geneData;
+	private File nodeFile;
+	private File edgeFile;
+	/**
+	 * The files of the graph which is being parsed, which are kept when it is parsed.
+	 */
+	private File parsingNodeFile;
+	private File parsingEdgeFile;
+	/**
+	 * Counts the parsed graphs, so indices and results computed for a previous graph aren't kept.
+	 */
+	private int graphVersion;
+	private SequenceIndex sequenceIndex;
+	private CoordinateIndex coordinateIndex;
+	private GenomePathIndex pathIndex;
 
 	/**
 	 * Percentage of the screen that is moved.
 	 */
 	private static final double MOVE_FACTOR = 10.0;
-	private static final float ZOOM_STEP_SIZE = 1.5f;
+	private static final float ZOOM_STEP_SIZE = ZoomedGraphModel.ZOOM_STEP_SIZE;
 
 	/**
 	 * Initialise an instance of GraphControler.<br>
@@ -53,16 +101,36 @@ public class GraphController implements Controller {
 	private void initMvc() {
 		filteredGraphModel = new FilteredGraphModel(graphDataRepository);
 		zoomedGraphModel = new ZoomedGraphModel(filteredGraphModel);
-		graphView = new GraphView(zoomedGraphModel);
+		zoomPipeline = new ZoomPipeline(zoomedGraphModel);
+		unwrapCache = new UnwrapCache();
+		zoomPrefetcher = new ZoomPrefetcher(zoomedGraphModel, unwrapCache);
+		graphView = createGraphView(zoomedGraphModel);
+	}
+
+	/**
+	 * Creates the view selected with the {@link #RENDERER_PROPERTY} system property. The GraphStream view is used when
+	 * no other renderer is selected.
+	 *
+	 * @param zoomedGraphModel
+	 * 		the model to draw
+	 * @return the view
+	 */
+	private static ViewInterface createGraphView(ZoomedGraphModel zoomedGraphModel) {
+		if (RENDERER_JAVA2D.equals(System.getProperty(RENDERER_PROPERTY))) {
+			return new Java2DGraphView(zoomedGraphModel);
+		}
+		return new GraphView(zoomedGraphModel);
 	}
 
 	/**
 	 * Add Listeners to the correct models.
 	 */
 	private void addListeners() {
+		graphDataRepository.addGraphParsedObserver(this::graphParsed);
 		graphDataRepository.addGraphParsedObserver(filteredGraphModel);
 		filteredGraphModel.addObserver(zoomedGraphModel);
 		zoomedGraphModel.addObserver(graphView);
+		zoomedGraphModel.addObserver(zoomPrefetcher);
 	}
 
 	/**
@@ -91,6 +159,8 @@ public class GraphController implements Controller {
 	public void parseGraph(File nodeFile, File edgeFile) throws FileNotFoundException {
 		try {
 			geneData = GeneData.parseGenes("geneAnnotationsRef.gff");
+			parsingNodeFile = nodeFile;
+			parsingEdgeFile = edgeFile;
 			graphDataRepository.parseGraph(nodeFile, edgeFile, geneData);
 			graphView.getPanel().setVisible(false);
 			graphView.getPanel().setVisible(true);
@@ -118,6 +188,8 @@ public class GraphController implements Controller {
 	public void parseGraph(File nodeFile, File edgeFile, File metaFile) throws FileNotFoundException {
 		try {
 			GeneData geneData = GeneData.parseGenes("geneAnnotationsRef.gff");
+			parsingNodeFile = nodeFile;
+			parsingEdgeFile = edgeFile;
 			graphDataRepository.parseGraph(nodeFile, edgeFile, metaFile, geneData);
 			graphView.getPanel().setVisible(false);
 			graphView.getPanel().setVisible(true);
@@ -130,6 +202,188 @@ public class GraphController implements Controller {
 		}
 	}
 
+	/**
+	 * Called when the repository parsed a graph, before the {@link FilteredGraphModel} wraps it. The impact labels are
+	 * found in the background, because the index of the paths of the genomes may have to be built first.
+	 */
+	private void graphParsed() {
+		setGraphFiles(parsingNodeFile, parsingEdgeFile);
+		final int version = getGraphVersion();
+		BackgroundTask.start("impact-labels", this::findImpacts, catalogue -> addImpactLabels(catalogue, version));
+	}
+
+	/**
+	 * Remembers the files of a parsed graph, to find the files of its indices, and forgets the indices of the
+	 * previous graph.
+	 */
+	private synchronized void setGraphFiles(File nodeFile, File edgeFile) {
+		this.nodeFile = nodeFile;
+		this.edgeFile = edgeFile;
+		graphVersion++;
+		sequenceIndex = null;
+		coordinateIndex = null;
+		pathIndex = null;
+	}
+
+	/**
+	 * Finds the impact on the amino acids of the variants of all genomes in the genes of the reference, without
+	 * changing the graph. This takes a while, so it should not be called on the event dispatch thread.
+	 *
+	 * @return the annotated variants, or {@code null} when the graph has no reference genome
+	 */
+	private VariantCatalogue findImpacts() {
+		List<String> genomes = new ArrayList<>();
+		for (Genome genome : graphDataRepository.getGenomes()) {
+			genomes.add(genome.getIdentifier());
+		}
+		if (!genomes.contains(VariantCatalogue.DEFAULT_REFERENCE)) {
+			return null;
+		}
+		VariantCatalogue catalogue = new VariantCatalogue(graphDataRepository.getNodes(),
+				graphDataRepository.getEdges(), getPathIndex(), VariantCatalogue.DEFAULT_REFERENCE, genomes);
+		catalogue.annotate(graphDataRepository.getGenes());
+		return catalogue;
+	}
+
+	/**
+	 * Adds the impacts as labels to the nodes of the variants, and wraps the graph again so the wrappers, the interest
+	 * and the views see the labels. This should be called from the event dispatch thread. The labels are dropped when
+	 * another graph was parsed since they were found.
+	 */
+	private void addImpactLabels(VariantCatalogue catalogue, int version) {
+		if (catalogue == null || version != getGraphVersion()) {
+			return;
+		}
+		catalogue.addImpactLabels();
+		zoomPipeline.cancel();
+		filteredGraphModel.produceWrappedGraphData();
+	}
+
+	/**
+	 * Checks if a graph is parsed.
+	 *
+	 * @return if a graph is parsed
+	 */
+	public synchronized boolean isGraphParsed() {
+		return nodeFile != null;
+	}
+
+	/**
+	 * Gets the coordinates of the genomes of the parsed graph. The index is read from the file next to the node file,
+	 * or built and written there, the first time it is needed. This takes a while, so it should not be called on the
+	 * event dispatch thread.
+	 *
+	 * @return the coordinates of the genomes of the parsed graph
+	 */
+	public GenomePathIndex getPathIndex() {
+		return getGraphIndex(() -> pathIndex, (nodes, edges) -> nodes == null
+				? GenomePathIndex.build(graphDataRepository.getNodes(), graphDataRepository.getEdges(),
+						graphDataRepository.getGenomes())
+				: GenomePathIndex.open(nodes, edges, graphDataRepository.getNodes(), graphDataRepository.getEdges(),
+						graphDataRepository.getGenomes()), index -> pathIndex = index);
+	}
+
+	/**
+	 * Finds all occurrences of a sequence of base pairs in the graph, also where the sequence continues into the next
+	 * node. The index of the sequences is read or built the first time a graph is searched, and written next to the
+	 * node file. Building the index takes a while, so this should not be called on the event dispatch thread.
+	 *
+	 * @param sequence
+	 * 		the base pairs to find
+	 * @return the start of each occurrence
+	 */
+	public List<SequenceMatch> findSequence(String sequence) {
+		return getSequenceIndex().find(sequence);
+	}
+
+	private SequenceIndex getSequenceIndex() {
+		return getGraphIndex(() -> sequenceIndex, (nodes, edges) -> nodes == null
+				? SequenceIndex.build(graphDataRepository.getNodes(), graphDataRepository.getEdges())
+				: SequenceIndex.open(nodes, edges, graphDataRepository.getNodes(), graphDataRepository.getEdges()),
+				index -> sequenceIndex = index);
+	}
+
+	/**
+	 * Gets an index of the parsed graph, which is read or built the first time it is needed. The index is read or
+	 * built without holding the lock of the controller, so another graph can be parsed in the meantime, in which case
+	 * the index isn't kept.
+	 *
+	 * @param kept
+	 * 		gives the kept index, or {@code null} if there is none
+	 * @param open
+	 * 		reads or builds the index from the node and edge file, or builds it when these are {@code null}
+	 * @param keep
+	 * 		keeps the index
+	 * @return the index of the graph which was parsed when this was called
+	 */
+	private <T> T getGraphIndex(Supplier<T> kept, BiFunction<File, File, T> open, Consumer<T> keep) {
+		final int version;
+		final File nodes;
+		final File edges;
+		synchronized (this) {
+			T index = kept.get();
+			if (index != null) {
+				return index;
+			}
+			version = graphVersion;
+			nodes = nodeFile;
+			edges = edgeFile;
+		}
+		T index = open.apply(nodes, edges);
+		synchronized (this) {
+			if (version == graphVersion) {
+				keep.accept(index);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Finds the nodes covering a range of the reference. The index of the reference intervals of the nodes is built
+	 * the first time it is needed after a graph is parsed.
+	 *
+	 * @param from
+	 * 		the first position of the range
+	 * @param to
+	 * 		the last position of the range
+	 * @return the nodes overlapping with the range, sorted on the start of their interval
+	 */
+	public synchronized List<DataNode> findNodesAt(int from, int to) {
+		if (coordinateIndex == null) {
+			coordinateIndex = new CoordinateIndex(graphDataRepository.getNodes());
+		}
+		return coordinateIndex.findOverlapping(from, to);
+	}
+
+	/**
+	 * Centers the view on a range of the reference. The nodes covering the range are tried from the middle of the
+	 * range outwards, and the view is centered on the first of them which is drawn.
+	 *
+	 * @param from
+	 * 		the first position of the range
+	 * @param to
+	 * 		the last position of the range
+	 * @return the node the view is centered on
+	 * @throws NodeNotFoundException
+	 * 		when no node covers the range, or all of them are filtered out
+	 */
+	public DataNode centerOnPosition(int from, int to) throws NodeNotFoundException {
+		List<DataNode> nodes = findNodesAt(from, to);
+		long middle = ((long) from + to) / 2;
+		nodes.sort(Comparator.comparingLong(node -> Math.max(0, Math.max(node.getRefStartPoint() - middle,
+				middle - node.getRefEndPoint()))));
+		for (DataNode node : nodes) {
+			try {
+				centerOnNode(node, null);
+				return node;
+			} catch (NodeNotFoundException e) {
+				// The node is filtered out, so the next closest node is tried.
+			}
+		}
+		throw new NodeNotFoundException("No node covering the positions " + from + " to " + to
+				+ " can be found in the current graph.");
+	}
+
 	/**
 	 * Adds a node filter to the graph. The filters will be put in a HashMap, so
 	 * adding a filter with the same name will override the older one.
@@ -142,6 +396,7 @@ public class GraphController implements Controller {
 	public void addFilter(String name, Filter<DataNode> filter) {
 		filters.put(name, filter);
 		filteredGraphModel.setFilters(new ArrayList<>(filters.values()));
+		zoomPipeline.cancel();
 		filteredGraphModel.produceWrappedGraphData();
 		graphMoved();
 	}
@@ -161,17 +416,29 @@ public class GraphController implements Controller {
 	 * Zoom the graph one level up.
 	 */
 	public void zoomLevelUp() {
-		zoomedGraphModel.setZoomLevel(zoomedGraphModel.getZoomLevel() * ZOOM_STEP_SIZE);
-		zoomedGraphModel.produceDataNodeWrapperList();
-		graphMoved();
+		zoom(zoomedGraphModel.getZoomLevel() * ZOOM_STEP_SIZE);
 	}
 
 	/**
 	 * Zoom the graph one level down.
 	 */
 	public void zoomLevelDown() {
-		zoomedGraphModel.setZoomLevel(zoomedGraphModel.getZoomLevel() / ZOOM_STEP_SIZE);
-		zoomedGraphModel.produceDataNodeWrapperList();
+		zoom(zoomedGraphModel.getZoomLevel() / ZOOM_STEP_SIZE);
+	}
+
+	/**
+	 * Zooms the camera directly and computes the data for the new zoom level in the background, so a fast series of
+	 * zooms is handled as one. When the data was already computed by the {@link ZoomPrefetcher}, it is shown
+	 * directly.
+	 *
+	 * @param zoomLevel
+	 * 		the new zoom level
+	 */
+	private void zoom(float zoomLevel) {
+		zoomedGraphModel.setZoomLevel(zoomLevel);
+		zoomedGraphModel.setZoomCenter(graphView.getZoomCenter());
+		graphView.previewZoom(zoomedGraphModel.getZoomLevel());
+		updateData();
 		graphMoved();
 	}
 
@@ -179,6 +446,7 @@ public class GraphController implements Controller {
 	 * Reset the zoom level of graph.
 	 */
 	public void resetZoom() {
+		zoomPipeline.cancel();
 		zoomedGraphModel.setZoomLevel(DEFAULT_VIEW);
 		zoomedGraphModel.produceDataNodeWrapperList();
 		graphView.setZoomCenter(graphView.getOffsetToCenter());
@@ -218,6 +486,128 @@ public class GraphController implements Controller {
 		filteredGraphModel.calculateCollectInterest();
 	}
 
+	/**
+	 * Changes the weight of an interest scorer, and notifies the listeners so the zoom bar shows the new interest.
+	 *
+	 * @param scorer
+	 *            the name of the scorer
+	 * @param weight
+	 *            the new weight of the scorer
+	 */
+	public void setInterestWeight(String scorer, float weight) {
+		filteredGraphModel.setInterestWeight(scorer, weight);
+		graphMoved();
+	}
+
+	/**
+	 * Maps the reads of a FASTQ file to the graph. This can take minutes for large files, so it shouldn't be called
+	 * on the event dispatch thread.
+	 *
+	 * @param readFile
+	 * 		the FASTQ file
+	 * @return the coverage of the nodes by the mapped reads
+	 * @throws IOException
+	 * 		if the file can't be read
+	 */
+	public Coverage mapReads(File readFile) throws IOException {
+		ReadMapper mapper = new ReadMapper(graphDataRepository.getNodes(), graphDataRepository.getEdges());
+		return mapper.map(readFile, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Gets the genomes selected with a {@link GenomeFilter}, by selecting a clade in the phylogenetic tree or
+	 * filtering on metadata.
+	 *
+	 * @return the identifiers of the selected genomes, or of all genomes when none are selected
+	 */
+	public List<String> getSelectedGenomes() {
+		Filter<DataNode> filter = filters.get(GenomeFilter.NAME);
+		if (filter instanceof GenomeFilter && ((GenomeFilter) filter).getGenomes() != null) {
+			return new ArrayList<>(((GenomeFilter) filter).getGenomes());
+		}
+		List<String> genomes = new ArrayList<>();
+		for (Genome genome : graphDataRepository.getGenomes()) {
+			genomes.add(genome.getIdentifier());
+		}
+		return genomes;
+	}
+
+	/**
+	 * Writes the sequences of the selected genomes to FASTA files, one file for each genome. Selected genomes which
+	 * are not in the graph are skipped.
+	 *
+	 * @param directory
+	 * 		the directory to write the files to
+	 * @return the written file of each selected genome, or {@code null} for the skipped genomes
+	 * @throws IOException
+	 * 		if a file can't be written
+	 */
+	public Map<String, File> exportFasta(File directory) throws IOException {
+		FastaExporter exporter = new FastaExporter(getPathIndex());
+		List<String> genomes = getSelectedGenomes();
+		List<File> files = exporter.export(genomes, directory, Runtime.getRuntime().availableProcessors());
+		Map<String, File> result = new LinkedHashMap<>();
+		for (int i = 0; i < genomes.size(); i++) {
+			result.put(genomes.get(i), files.get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the variants of the selected genomes against the reference genome to a VCF file, with the impact of the
+	 * variants in genes on their amino acids. Selected genomes which are not in the graph are skipped.
+	 *
+	 * @param file
+	 * 		the file to write to
+	 * @return the number of written variants, and the identifiers of the skipped genomes
+	 * @throws IOException
+	 * 		if the file can't be written
+	 * @throws IllegalArgumentException
+	 * 		if the graph has no reference genome
+	 */
+	public Pair<Integer, List<String>> exportVariants(File file) throws IOException {
+		VariantCatalogue catalogue = new VariantCatalogue(graphDataRepository.getNodes(),
+				graphDataRepository.getEdges(), getPathIndex(), VariantCatalogue.DEFAULT_REFERENCE,
+				getSelectedGenomes());
+		catalogue.annotate(graphDataRepository.getGenes());
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+				StandardCharsets.US_ASCII))) {
+			return new Pair<>(catalogue.write(out, Runtime.getRuntime().availableProcessors()),
+					catalogue.getSkippedSamples());
+		}
+	}
+
+	/**
+	 * Shows the coverage of mapped reads as interest, and notifies the listeners so the zoom bar shows it. The
+	 * coverage is dropped when another graph was parsed since the reads were mapped.
+	 *
+	 * @param coverage
+	 * 		the coverage of the nodes
+	 * @param version
+	 * 		the {@link #getGraphVersion()} before the reads were mapped
+	 * @return if the coverage is shown
+	 */
+	public boolean setCoverage(Coverage coverage, int version) {
+		synchronized (this) {
+			if (version != graphVersion) {
+				return false;
+			}
+		}
+		filteredGraphModel.setCoverage(coverage);
+		graphMoved();
+		return true;
+	}
+
+	/**
+	 * Gets the version of the parsed graph, which changes each time a graph is parsed. Results computed in the
+	 * background are tagged with it, so they aren't shown for another graph.
+	 *
+	 * @return the version of the graph
+	 */
+	public synchronized int getGraphVersion() {
+		return graphVersion;
+	}
+
 	private double getCurrentZoomLevel() {
 		return zoomedGraphModel.getZoomLevel();
 	}
@@ -230,7 +620,7 @@ public class GraphController implements Controller {
 		return graphView.getGraphDimension();
 	}
 
-	public GraphView getGraphView() {
+	public ViewInterface getGraphView() {
 		return graphView;
 	}
 
@@ -242,6 +632,10 @@ public class GraphController implements Controller {
 		return filteredGraphModel.getInterest();
 	}
 
+	public List<Wrapper> getPositionedNodes() {
+		return filteredGraphModel.getPositionedNodes();
+	}
+
 	public Observable getFilteredObservable() {
 		return filteredGraphModel;
 	}
@@ -259,9 +653,30 @@ public class GraphController implements Controller {
 	 */
 	private void graphMoved() {
 		restrictViewCenter();
+		updateViewport();
 		graphMovedListenerList.forEach(GraphMovedListener::graphMoved);
 	}
 
+	/**
+	 * Unwraps the graph again when the view has moved outside of the unwrapped part of the graph.
+	 */
+	private void updateViewport() {
+		zoomedGraphModel.setZoomCenter(graphView.getZoomCenter());
+		if (zoomedGraphModel.isViewportOutdated()) {
+			updateData();
+		}
+	}
+
+	/**
+	 * Shows the data for the current view from the cache, or computes it in the background when it isn't cached.
+	 */
+	private void updateData() {
+		zoomPipeline.cancel();
+		if (!zoomedGraphModel.useCachedDataNodeWrapperList(unwrapCache)) {
+			zoomPipeline.request();
+		}
+	}
+
 	/**
 	 * Restrict the zoom center.
 	 */
@@ -0,0 +1,262 @@
+package tudelft.ti2806.pl3.visualization;
+
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import tudelft.ti2806.pl3.data.wrapper.FixWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+import tudelft.ti2806.pl3.exception.EdgeZeroWeightException;
+import tudelft.ti2806.pl3.util.SpatialGrid;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Updates a {@link Graph} to show a list of {@link WrapperClone}s, by only changing what differs from the list shown
+ * before.
+ *
+ * <p>
+ * Nodes and edges are identified by the id of the {@link WrapperClone}s. Nodes and edges which are no longer in the
+ * list are removed and new ones are added. The attributes of the remaining nodes and edges are only set when their
+ * value changes, so the viewer doesn't have to update the elements which stay the same.
+ * </p>
+ * <p>
+ * The positions of the nodes are kept in a {@link SpatialGrid} in the same way, to find the node at a position
+ * without checking all nodes.
+ * </p>
+ */
+public class GraphDelta {
+	public static final String NODE_ATTRIBUTE = "node";
+	private static final NumberFormat LABEL_FORMAT = NumberFormat.getNumberInstance(Locale.US);
+
+	/**
+	 * The average number of nodes in a column of cells of the {@link #getNodeGrid() node grid}.
+	 */
+	private static final int NODES_PER_COLUMN = 4;
+	/**
+	 * The number of rows of cells of the {@link #getNodeGrid() node grid}.
+	 */
+	private static final int ROWS = 8;
+
+	private final Graph graph;
+	private final float edgeThicknessScale;
+	private final SpatialGrid<Node> nodeGrid = new SpatialGrid<>(1, 1);
+	private int changeCount;
+
+	/**
+	 * Construct a GraphDelta which updates the given graph.
+	 *
+	 * @param graph
+	 *            the graph to update
+	 * @param edgeThicknessScale
+	 *            the thickness of an edge with all genomes on it
+	 */
+	public GraphDelta(Graph graph, float edgeThicknessScale) {
+		this.graph = graph;
+		this.edgeThicknessScale = edgeThicknessScale;
+	}
+
+	/**
+	 * Updates the graph to show the given nodes.
+	 *
+	 * @param clones
+	 *            the nodes to show
+	 * @param ySize
+	 *            the factor to multiply the y position of the nodes with
+	 * @param genomesCount
+	 *            the amount of genomes an edge can have
+	 */
+	public void apply(List<WrapperClone> clones, double ySize, int genomesCount) {
+		changeCount = 0;
+		removeVanishedNodes(clones);
+		for (WrapperClone clone : clones) {
+			updateNode(clone, ySize);
+		}
+		Set<String> edges = new HashSet<>();
+		for (WrapperClone clone : clones) {
+			int i = 0;
+			for (Wrapper to : clone.getOutgoing()) {
+				if (clone.getId() >= 0 && to.getId() >= 0) { // Exclude FixWrappers
+					try {
+						edges.add(updateEdge(clone, to, i, genomesCount));
+					} catch (EdgeZeroWeightException e) {
+						e.printStackTrace();
+					}
+				}
+				i++;
+			}
+		}
+		removeVanishedEdges(edges);
+		fitNodeGrid();
+	}
+
+	/**
+	 * A grid of the nodes in the graph, on their position in graph units. Nodes of {@link FixWrapper}s aren't on the
+	 * grid.
+	 *
+	 * @return the grid
+	 */
+	public SpatialGrid<Node> getNodeGrid() {
+		return nodeGrid;
+	}
+
+	/**
+	 * Changes the size of the cells of the node grid when the nodes are spread over a much larger or smaller area
+	 * than the cells were made for.
+	 */
+	private void fitNodeGrid() {
+		if (graph.getNodeCount() == 0) {
+			return;
+		}
+		double minX = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE;
+		double minY = Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		for (Node node : graph.getNodeSet()) {
+			Object[] xy = node.getAttribute("xy");
+			minX = Math.min(minX, ((Number) xy[0]).doubleValue());
+			maxX = Math.max(maxX, ((Number) xy[0]).doubleValue());
+			minY = Math.min(minY, ((Number) xy[1]).doubleValue());
+			maxY = Math.max(maxY, ((Number) xy[1]).doubleValue());
+		}
+		float width = getCellSize((maxX - minX) * NODES_PER_COLUMN / graph.getNodeCount());
+		float height = getCellSize((maxY - minY) / ROWS);
+		if (isOutOfProportion(nodeGrid.getCellWidth(), width) || isOutOfProportion(nodeGrid.getCellHeight(), height)) {
+			nodeGrid.setCellSize(width, height);
+		}
+	}
+
+	/**
+	 * Makes a size usable as the size of a cell.
+	 *
+	 * @return the size, or 1 when all nodes are on the same position
+	 */
+	private static float getCellSize(double size) {
+		return size > 0 ? (float) size : 1;
+	}
+
+	private static boolean isOutOfProportion(float size, float fit) {
+		return size < fit / 2 || size > fit * 2;
+	}
+
+	/**
+	 * The amount of nodes and edges added, removed or changed during the last {@link #apply(List, double, int)}.
+	 *
+	 * @return the amount of changes
+	 */
+	public int getChangeCount() {
+		return changeCount;
+	}
+
+	private void removeVanishedNodes(List<WrapperClone> clones) {
+		Set<String> ids = new HashSet<>(clones.size());
+		clones.forEach(clone -> ids.add(Integer.toString(clone.getId())));
+		List<Node> vanished = new ArrayList<>();
+		for (Node node : graph.getNodeSet()) {
+			if (!ids.contains(node.getId())) {
+				vanished.add(node);
+			}
+		}
+		for (Node node : vanished) {
+			graph.removeNode(node);
+			nodeGrid.remove(node);
+			changeCount++;
+		}
+	}
+
+	private void removeVanishedEdges(Set<String> ids) {
+		List<Edge> vanished = new ArrayList<>();
+		for (Edge edge : graph.getEdgeSet()) {
+			if (!ids.contains(edge.getId())) {
+				vanished.add(edge);
+			}
+		}
+		for (Edge edge : vanished) {
+			graph.removeEdge(edge);
+			changeCount++;
+		}
+	}
+
+	/**
+	 * Adds the node to the graph, or updates the node when it is already in the graph. The style and label are only
+	 * set again when the node now represents another wrapper.
+	 */
+	private void updateNode(WrapperClone clone, double ySize) {
+		String id = Integer.toString(clone.getId());
+		Node graphNode = graph.getNode(id);
+		WrapperClone previous = null;
+		boolean changed = false;
+		if (graphNode == null) {
+			graphNode = graph.addNode(id);
+			changed = true;
+		} else {
+			previous = graphNode.getAttribute(NODE_ATTRIBUTE, WrapperClone.class);
+		}
+		if (previous == null || previous.getOriginalNode() != clone.getOriginalNode()) {
+			setStyle(graphNode, clone);
+			changed = true;
+		}
+		Object[] xy = { clone.getX(), clone.getY() * ySize };
+		if (!Arrays.equals(xy, graphNode.getAttribute("xy"))) {
+			graphNode.setAttribute("xy", xy);
+			if (clone.getId() >= 0) {
+				nodeGrid.put(graphNode, clone.getX(), (float) (clone.getY() * ySize));
+			}
+			changed = true;
+		}
+		if (previous != clone) {
+			graphNode.setAttribute(NODE_ATTRIBUTE, clone);
+		}
+		if (changed) {
+			changeCount++;
+		}
+	}
+
+	private void setStyle(Node graphNode, WrapperClone clone) {
+		if (clone.canUnwrap()) {
+			graphNode.setAttribute("ui.style", "shape: box;");
+		} else if (graphNode.hasAttribute("ui.style")) {
+			graphNode.removeAttribute("ui.style");
+		}
+		graphNode.setAttribute("ui.class", clone.getOriginalNode().getClass().getSimpleName());
+		graphNode.setAttribute("ui.label", LABEL_FORMAT.format(clone.getOriginalNode().getBasePairCount()));
+	}
+
+	/**
+	 * Adds an edge between two nodes, or updates its thickness when it is already in the graph.
+	 *
+	 * @param from
+	 *            the node where the edge begins
+	 * @param to
+	 *            the node where the edge ends
+	 * @param i
+	 *            the index of the edge in the list of outgoing edges
+	 * @return the id of the edge
+	 */
+	private String updateEdge(Wrapper from, Wrapper to, int i, int genomesCount) throws EdgeZeroWeightException {
+		String id = from.getId() + "-" + to.getId();
+		Edge edge = graph.getEdge(id);
+		if (edge == null) {
+			edge = graph.addEdge(id, Integer.toString(from.getId()), Integer.toString(to.getId()), true);
+			changeCount++;
+		}
+		int weight = from.getOutgoingWeight(i);
+		if (weight == 0) {
+			edge.setAttribute("ui.label", "fix me!");
+			throw new EdgeZeroWeightException("The weight of the edge from " + from + " to " + to + " cannot be 0.");
+		}
+		float percent = ((float) weight) / ((float) genomesCount);
+		String style = "size: " + (percent * edgeThicknessScale) + "px;";
+		if (!style.equals(edge.getAttribute("ui.style"))) {
+			edge.setAttribute("ui.style", style);
+			changeCount++;
+		}
+		return id;
+	}
+}
@@ -1,6 +1,5 @@
 package tudelft.ti2806.pl3.visualization;
 
-import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 import org.graphstream.graph.implementations.SingleGraph;
@@ -12,23 +11,16 @@ import tudelft.ti2806.pl3.ScreenSize;
 import tudelft.ti2806.pl3.controls.MouseManager;
 import tudelft.ti2806.pl3.data.gene.Gene;
 import tudelft.ti2806.pl3.data.graph.DataNode;
-import tudelft.ti2806.pl3.data.wrapper.FixWrapper;
-import tudelft.ti2806.pl3.data.wrapper.Wrapper;
 import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
-import tudelft.ti2806.pl3.exception.EdgeZeroWeightException;
 import tudelft.ti2806.pl3.exception.NodeNotFoundException;
-import tudelft.ti2806.pl3.util.observable.LoadingObservable;
 import tudelft.ti2806.pl3.util.observers.LoadingObserver;
 
 import java.awt.Component;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
-import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Observable;
-import java.util.Observer;
 
 /**
  * The GraphView is responsible for adding the nodes and edges to the graph, keeping the nodes and edges on the right
@@ -37,7 +29,7 @@ import java.util.Observer;
  * @author Sam Smulders
  *
  */
-public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterface, LoadingObservable {
+public class GraphView implements ViewInterface {
 
 	private static final float EDGE_THICKNESS_SCALE = 10f;
 	
@@ -55,6 +47,7 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 	
 	private List<WrapperClone> graphData;
 	private final Graph graph = new SingleGraph("Graph");
+	private final GraphDelta graphDelta = new GraphDelta(graph, EDGE_THICKNESS_SCALE);
 	private Viewer viewer;
 	private View panel;
 	private final ArrayList<LoadingObserver> loadingObservers = new ArrayList<>();
@@ -67,6 +60,8 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 	private final ZoomedGraphModel zoomedGraphModel;
 
 	private Gene selectedGene = null;
+	private CloneIndex cloneIndex = null;
+	private final List<String> coloredNodes = new ArrayList<>();
 
 	/**
 	 * Construct a GraphView.
@@ -77,6 +72,7 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 	public GraphView(ZoomedGraphModel zoomedGraphModel) {
 		this.zoomedGraphModel = zoomedGraphModel;
 		graphData = new ArrayList<>();
+		setGraphPropertys();
 		generateViewer();
 	}
 	
@@ -87,7 +83,7 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 	private void generateViewer() {
 		viewer = new Viewer(graph, Viewer.ThreadingModel.GRAPH_IN_SWING_THREAD);
 		panel = viewer.addDefaultView(false);
-		mouseManager = new MouseManager();
+		mouseManager = new MouseManager(graphDelta.getNodeGrid());
 		viewer.getDefaultView().setMouseManager(mouseManager);
 		removeDefaultKeys();
 		panel.addComponentListener(new ComponentAdapter() {
@@ -121,74 +117,19 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 	}
 	
 	/**
-	 * Generates a Graph from the current graphData.
+	 * Updates the Graph to the current graphData. Only the nodes and edges which changed since the last update are
+	 * changed in the graph.
 	 */
 	public void generateGraph() {
 		notifyLoadingObservers(true);
-		graph.clear();
-		setGraphPropertys();
 		final double someSize = panel.getBounds().height
 			/ (panel.getBounds().width * zoomLevel / zoomedGraphModel.getWrappedCollapsedNode().getWidth())
 			/ zoomedGraphModel.getWrappedCollapsedNode().getGenome().size();
-		graphData.forEach(node -> {
-				Node graphNode = graph.addNode(Integer.toString(node.getId()));
-				double y = node.getY() * someSize;
-				graphNode.setAttribute("xy", node.getX(), y);
-				if (node.canUnwrap()) {
-					graphNode.addAttribute("ui.style", "shape: box;");
-				}
-				graphNode.addAttribute("ui.class", node.getOriginalNode().getClass().getSimpleName());
-				graphNode.addAttribute("ui.label",
-						NumberFormat.getNumberInstance(Locale.US)
-								.format(node.getOriginalNode().getBasePairCount()));
-				graphNode.setAttribute("node", node);
-			}
-		);
-
-		for (WrapperClone node : graphData) {
-			int i = 0;
-			for (Wrapper to : node.getOutgoing()) {
-				if (node.getId() >= 0 && to.getId() >= 0) { // Exclude FixWrappers
-					try {
-						addNormalEdge(graph, node, to, i);
-					} catch (EdgeZeroWeightException e) {
-						e.printStackTrace();
-					}
-				}
-				i++;
-			}
-		}
+		graphDelta.apply(graphData, someSize, zoomedGraphModel.getGenomesCount());
 		colorGene();
 		notifyLoadingObservers(false);
 	}
 	
-	/**
-	 * Adds an edge between two nodes.
-	 * 
-	 * @param graph
-	 *            the graph to add the edge to
-	 * @param from
-	 *            the node where the edge begins
-	 * @param to
-	 *            the node where the edge ends
-	 * @param i
-	 *            the index of the edge in the list of outgoing edges
-	 */
-	@SuppressWarnings("PMD.UnusedPrivateMethod")
-	private void addNormalEdge(Graph graph, Wrapper from, Wrapper to, int i) throws EdgeZeroWeightException {
-		Edge edge = graph.addEdge(from.getId() + "-" + to.getId(), Integer.toString(from.getId()),
-				Integer.toString(to.getId()), true);
-		int weight = from.getOutgoingWeight().get(i);
-		float percent = ((float) weight) / ((float) zoomedGraphModel.getGenomesCount());
-		
-		if (weight == 0) {
-			edge.addAttribute("ui.label", "fix me!");
-			throw new EdgeZeroWeightException("The weight of the edge from " + from + " to " + to + " cannot be 0.");
-		} else {
-			edge.addAttribute("ui.style", "size: " + (percent * EDGE_THICKNESS_SCALE) + "px;");
-		}
-	}
-	
 	@Override
 	public Component getPanel() {
 		return panel;
@@ -198,6 +139,7 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 	public void update(Observable o, Object arg) {
 		if (o == zoomedGraphModel) {
 			graphData = zoomedGraphModel.getDataNodeWrapperList();
+			cloneIndex = null;
 			zoomLevel = zoomedGraphModel.getZoomLevel();
 			generateGraph();
 			zoom();
@@ -217,11 +159,25 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 	private void zoom() {
 		viewer.getDefaultView().getCamera().setViewPercent(1 / zoomLevel);
 	}
+
+	/**
+	 * Zooms the camera to the given zoom level without changing the graph, to show the zoom while the data for the
+	 * new zoom level is computed.
+	 *
+	 * @param zoomLevel
+	 *            the new zoom level
+	 */
+	@Override
+	public void previewZoom(float zoomLevel) {
+		viewer.getDefaultView().getCamera().setViewPercent(1 / zoomLevel);
+	}
 	
+	@Override
 	public float getZoomCenter() {
 		return (float) viewer.getDefaultView().getCamera().getViewCenter().x;
 	}
 	
+	@Override
 	public double getViewPercent() {
 		return viewer.getDefaultView().getCamera().getViewPercent();
 	}
@@ -235,6 +191,7 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 		offsetToCenter = (float) point3.x * -1;
 	}
 	
+	@Override
 	public float getOffsetToCenter() {
 		return offsetToCenter;
 	}
@@ -245,14 +202,14 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 	 * @param zoomCenter
 	 *            the new center of view
 	 */
+	@Override
 	public void setZoomCenter(float zoomCenter) {
 		viewer.getDefaultView().getCamera().setViewCenter(zoomCenter, 0, 0);
 	}
 	
 	/**
-	 * Centers the graph on a specific node. It passes a {@link DataNode} and then looks in the list of currently
-	 * drawn  {@link WrapperClone}s, which one contains this {@link DataNode} and then sets the zoom center on this
-	 * {@link WrapperClone}.
+	 * Centers the graph on a specific node. It looks up which of the currently drawn {@link WrapperClone}s contains the
+	 * {@link DataNode} in the {@link CloneIndex} and then sets the zoom center on this {@link WrapperClone}.
 	 *
 	 * @param node
 	 *            The {@link DataNode} to move the view to
@@ -261,20 +218,15 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 	 * @throws NodeNotFoundException
 	 *             Thrown when the node cannot be found in all {@link WrapperClone}s
 	 */
+	@Override
 	public void centerOnNode(DataNode node, Gene selected) throws NodeNotFoundException {
 		notifyLoadingObservers(true);
-		float x = -1;
 		selectedGene = selected;
 		colorGene();
-		for (WrapperClone wrapperClone : graphData) {
-			if (wrapperClone.getDataNodes().contains(node)) {
-				x = wrapperClone.getX();
-				break;
-			}
-		}
+		WrapperClone wrapperClone = getCloneIndex().getClone(node);
 		notifyLoadingObservers(false);
-		if (x != -1) {
-			setZoomCenter(x);
+		if (wrapperClone != null) {
+			setZoomCenter(wrapperClone.getX());
 		} else {
 			throw new NodeNotFoundException("The node " + node
 					+ " you are looking for cannot be found in the current graph.");
@@ -282,24 +234,43 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 	}
 
 	/**
-	 * Color the selected gene on the graph.
+	 * Gets the index of the drawn clones, which is built the first time it is needed after the data changed.
+	 *
+	 * @return the index of the drawn clones
+	 */
+	private CloneIndex getCloneIndex() {
+		if (cloneIndex == null) {
+			cloneIndex = new CloneIndex(graphData);
+		}
+		return cloneIndex;
+	}
+
+	/**
+	 * Color the selected gene on the graph. Only the nodes colored before and the nodes of the selected gene are
+	 * changed.
 	 */
 	private void colorGene() {
-		if (selectedGene != null) {
-			String fixWrapper = FixWrapper.class.getSimpleName();
-			for (Node graphNode : graph.getNodeSet()) {
-				if (!fixWrapper.equals(graphNode.getAttribute("ui.class"))) {
-					graphNode.removeAttribute("ui.class");
-				}
-				WrapperClone wrapper = graphNode.getAttribute("node", WrapperClone.class);
-				wrapper.getLabels().stream()
-						.filter(label -> label.getText().equals(selectedGene.getName()))
-						.forEach(label -> graphNode.addAttribute("ui.class",
-								"SELECTED"));
+		for (String id : coloredNodes) {
+			Node graphNode = graph.getNode(id);
+			if (graphNode != null) {
+				WrapperClone wrapper = graphNode.getAttribute(GraphDelta.NODE_ATTRIBUTE, WrapperClone.class);
+				graphNode.setAttribute("ui.class", wrapper.getOriginalNode().getClass().getSimpleName());
+			}
+		}
+		coloredNodes.clear();
+		if (selectedGene == null) {
+			return;
+		}
+		for (WrapperClone wrapper : getCloneIndex().getClones(selectedGene)) {
+			Node graphNode = graph.getNode(Integer.toString(wrapper.getId()));
+			if (graphNode != null) {
+				graphNode.setAttribute("ui.class", "SELECTED");
+				coloredNodes.add(graphNode.getId());
 			}
 		}
 	}
 
+	@Override
 	public double getGraphDimension() {
 		return viewer.getDefaultView().getCamera().getGraphDimension();
 	}
@@ -326,10 +297,12 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 		}
 	}
 	
+	@Override
 	public void addGraphLoadedListener(GraphLoadedListener listener) {
 		graphLoadedListeners.add(listener);
 	}
 	
+	@Override
 	public void removeGraphLoadedListener(GraphLoadedListener listener) {
 		graphLoadedListeners.remove(listener);
 	}
@@ -338,6 +311,7 @@ public class GraphView implements Observer, tudelft.ti2806.pl3.View, ViewInterfa
 		graphLoadedListeners.forEach(GraphLoadedListener::graphLoaded);
 	}
 	
+	@Override
 	public void removeDetailView() {
 		mouseManager.removeDetailView();
 	}
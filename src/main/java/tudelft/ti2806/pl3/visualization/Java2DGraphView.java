@@ -0,0 +1,532 @@
+package tudelft.ti2806.pl3.visualization;
+
+import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+import tudelft.ti2806.pl3.detailview.DetailView;
+import tudelft.ti2806.pl3.exception.NodeNotFoundException;
+import tudelft.ti2806.pl3.util.observers.LoadingObserver;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.Area;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Observable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+/**
+ * A {@link ViewInterface} which draws the graph itself with Java2D, for graphs with too many visible nodes and edges
+ * for the GraphStream viewer.
+ *
+ * <p>
+ * When the model publishes new data, the positions of the nodes and the weights of the edges are copied to primitive
+ * arrays, sorted on the x axis. Only the nodes and edges in the visible part of the graph are drawn, found with a
+ * binary search. Edges are grouped by their thickness, so each group is drawn with a single stroke. The base pair
+ * labels are only drawn when few nodes are visible, and their glyphs are cached.
+ * </p>
+ * <p>
+ * The drawn graph is kept in a {@link TileCache}, so moving the view only draws the tiles which become visible. These
+ * tiles are rendered on a background thread, and are drawn directly until they are ready. All tiles are replaced
+ * when the data, the highlighted gene or the height of the panel changes.
+ * </p>
+ */
+public class Java2DGraphView implements ViewInterface {
+	/**
+	 * The system property to set the memory budget of the tile cache in bytes.
+	 */
+	public static final String TILE_MEMORY_PROPERTY = "helix.tileMemory";
+	private static final long DEFAULT_TILE_MEMORY = 64L * 1024 * 1024;
+	private static final int MARGIN = 5;
+	private static final int MAX_LABELS = 2000;
+
+	private final ZoomedGraphModel zoomedGraphModel;
+	private final GraphPanel panel = new GraphPanel();
+	private final TileCache tileCache = new TileCache(Long.getLong(TILE_MEMORY_PROPERTY, DEFAULT_TILE_MEMORY));
+	private final SceneRenderer tileRenderer = new SceneRenderer();
+	private final ExecutorService tileExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "graph-tiles");
+			thread.setDaemon(true);
+			return thread;
+		}
+	);
+	private final Set<TileCache.Key> pendingTiles = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger generation = new AtomicInteger();
+	private final DetailView detailView = new DetailView();
+	private final ArrayList<LoadingObserver> loadingObservers = new ArrayList<>();
+	private final ArrayList<GraphLoadedListener> graphLoadedListeners = new ArrayList<>();
+
+	private volatile Scene scene = new Scene(new ArrayList<>(), 1);
+	private float viewPercent = 1.0f;
+	private volatile float zoomCenter = 0;
+	private volatile float paintedScale = 1;
+	private boolean zoomCenterSet = false;
+	private boolean detailViewClicked = false;
+	private WrapperClone hoveredNode = null;
+	private Gene selectedGene = null;
+
+	/**
+	 * Construct a Java2DGraphView.
+	 *
+	 * @param zoomedGraphModel
+	 *            The zoomed graph model
+	 */
+	public Java2DGraphView(ZoomedGraphModel zoomedGraphModel) {
+		this.zoomedGraphModel = zoomedGraphModel;
+		panel.addComponentListener(new ComponentAdapter() {
+			@Override
+			public void componentShown(ComponentEvent e) {
+				setZoomCenter(getOffsetToCenter());
+				notifyGraphLoadedListeners();
+			}
+
+			@Override
+			public void componentResized(ComponentEvent e) {
+				// The y positions depend on the height of the panel.
+				generation.incrementAndGet();
+			}
+		});
+	}
+
+	@Override
+	public Component getPanel() {
+		return panel;
+	}
+
+	@Override
+	public void update(Observable o, Object arg) {
+		if (o == zoomedGraphModel) {
+			notifyLoadingObservers(true);
+			Scene newScene = new Scene(zoomedGraphModel.getDataNodeWrapperList(), zoomedGraphModel.getGenomesCount());
+			newScene.select(selectedGene);
+			scene = newScene;
+			generation.incrementAndGet();
+			viewPercent = 1 / zoomedGraphModel.getZoomLevel();
+			if (!zoomCenterSet) {
+				zoomCenter = getOffsetToCenter();
+				zoomCenterSet = true;
+			}
+			panel.repaint();
+			notifyLoadingObservers(false);
+		}
+	}
+
+	@Override
+	public void setZoomCenter(float zoomCenter) {
+		this.zoomCenter = zoomCenter;
+		panel.repaint();
+	}
+
+	@Override
+	public float getZoomCenter() {
+		return zoomCenter;
+	}
+
+	@Override
+	public void previewZoom(float zoomLevel) {
+		viewPercent = 1 / zoomLevel;
+		panel.repaint();
+	}
+
+	@Override
+	public double getViewPercent() {
+		return viewPercent;
+	}
+
+	@Override
+	public float getOffsetToCenter() {
+		return scene.minX + panel.getWidth() / (2 * getScale());
+	}
+
+	@Override
+	public double getGraphDimension() {
+		return scene.maxX - scene.minX;
+	}
+
+	@Override
+	public void centerOnNode(DataNode node, Gene selected) throws NodeNotFoundException {
+		notifyLoadingObservers(true);
+		selectedGene = selected;
+		Scene current = scene;
+		current.select(selected);
+		generation.incrementAndGet();
+		WrapperClone clone = current.getCloneIndex().getClone(node);
+		notifyLoadingObservers(false);
+		panel.repaint();
+		if (clone != null) {
+			setZoomCenter(clone.getX());
+		} else {
+			throw new NodeNotFoundException("The node " + node
+					+ " you are looking for cannot be found in the current graph.");
+		}
+	}
+
+	@Override
+	public void removeDetailView() {
+		detailViewClicked = false;
+		hoveredNode = null;
+		panel.remove(detailView);
+		panel.repaint();
+	}
+
+	private void showDetailView(WrapperClone node, int x, int y) {
+		hoveredNode = node;
+		panel.add(detailView);
+		detailView.setNode(node, x, y);
+		panel.revalidate();
+		panel.repaint();
+	}
+
+	/**
+	 * Computes the scale of the graph on the screen.
+	 *
+	 * @return the number of pixels per graph unit on the x axis
+	 */
+	private float getScale() {
+		double dimension = getGraphDimension();
+		if (dimension <= 0 || panel.getWidth() == 0) {
+			return 1;
+		}
+		return (float) (panel.getWidth() / (dimension * viewPercent));
+	}
+
+	/**
+	 * Finds the node drawn at the given position on the screen.
+	 *
+	 * @return the node, or {@code null} if there is no node at the position
+	 */
+	private WrapperClone getNodeAtPosition(int x, int y) {
+		Scene current = scene;
+		float scale = getScale();
+		float reach = MARGIN + SceneRenderer.NODE_SIZE / 2;
+		float from = zoomCenter + (x - reach - panel.getWidth() / 2f) / scale;
+		float to = zoomCenter + (x + reach - panel.getWidth() / 2f) / scale;
+		for (int i = lowerBound(current.nodeX, current.nodeX.length, from); i < current.nodeX.length
+				&& current.nodeX[i] <= to; i++) {
+			if (Math.abs(SceneRenderer.toScreenY(current, current.nodeY[i], panel.getHeight()) - y) <= reach) {
+				return current.nodes[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Searches the first value in a sorted array which is not smaller than the key.
+	 *
+	 * @return the index of the first value in the sorted array which is not smaller than the key
+	 */
+	static int lowerBound(float[] sorted, int length, float key) {
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (sorted[mid] < key) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	@Override
+	public void addLoadingObserver(LoadingObserver loadingObservable) {
+		loadingObservers.add(loadingObservable);
+	}
+
+	@Override
+	public void addLoadingObserversList(ArrayList<LoadingObserver> loadingObservers) {
+		loadingObservers.forEach(this::addLoadingObserver);
+	}
+
+	@Override
+	public void deleteLoadingObserver(LoadingObserver loadingObservable) {
+		loadingObservers.remove(loadingObservable);
+	}
+
+	@Override
+	public void notifyLoadingObservers(Object arguments) {
+		for (LoadingObserver loadingObserver : loadingObservers) {
+			loadingObserver.update(this, arguments);
+		}
+	}
+
+	@Override
+	public void addGraphLoadedListener(GraphLoadedListener listener) {
+		graphLoadedListeners.add(listener);
+	}
+
+	@Override
+	public void removeGraphLoadedListener(GraphLoadedListener listener) {
+		graphLoadedListeners.remove(listener);
+	}
+
+	private void notifyGraphLoadedListeners() {
+		graphLoadedListeners.forEach(GraphLoadedListener::graphLoaded);
+	}
+
+	/**
+	 * The nodes and edges to draw, sorted on the x axis. Nodes of {@link tudelft.ti2806.pl3.data.wrapper.FixWrapper}s
+	 * and their edges are left out.
+	 */
+	static final class Scene {
+		final WrapperClone[] nodes;
+		final float[] nodeX;
+		final float[] nodeY;
+		final boolean[] nodeBox;
+		final String[] labels;
+
+		/**
+		 * The edges are sorted on the x position of the node they start from.
+		 */
+		int edgeCount;
+		int[] edgeFrom;
+		int[] edgeTo;
+		float[] edgeFromX;
+		byte[] edgeBucket;
+		float maxEdgeSpan;
+
+		float minX;
+		float maxX;
+		float minY;
+		float maxY;
+
+		private final Map<WrapperClone, Integer> indices;
+		/**
+		 * The selected nodes, which is replaced as a whole by {@link #select(Gene)}. A tile rendered at the same time
+		 * uses either the old or the new selection.
+		 */
+		private volatile boolean[] nodeSelected;
+		private CloneIndex cloneIndex;
+
+		Scene(List<WrapperClone> clones, int genomesCount) {
+			List<WrapperClone> visible = new ArrayList<>(clones.size());
+			for (WrapperClone clone : clones) {
+				if (clone.getId() >= 0) {
+					visible.add(clone);
+				}
+			}
+			visible.sort((a, b) -> Float.compare(a.getX(), b.getX()));
+			int count = visible.size();
+			nodes = visible.toArray(new WrapperClone[count]);
+			nodeX = new float[count];
+			nodeY = new float[count];
+			nodeBox = new boolean[count];
+			labels = new String[count];
+			nodeSelected = new boolean[count];
+			indices = new IdentityHashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				nodeX[i] = nodes[i].getX();
+				nodeY[i] = nodes[i].getY();
+				nodeBox[i] = nodes[i].canUnwrap();
+				indices.put(nodes[i], i);
+			}
+			setBounds();
+			addEdges(Math.max(genomesCount, 1));
+		}
+
+		private void setBounds() {
+			if (nodes.length == 0) {
+				return;
+			}
+			minX = nodeX[0];
+			maxX = nodeX[nodes.length - 1];
+			minY = Float.MAX_VALUE;
+			maxY = -Float.MAX_VALUE;
+			for (float y : nodeY) {
+				minY = Math.min(minY, y);
+				maxY = Math.max(maxY, y);
+			}
+		}
+
+		private void addEdges(int genomesCount) {
+			int capacity = 0;
+			for (WrapperClone node : nodes) {
+				capacity += node.getOutgoing().size();
+			}
+			edgeFrom = new int[capacity];
+			edgeTo = new int[capacity];
+			edgeFromX = new float[capacity];
+			edgeBucket = new byte[capacity];
+			for (int from = 0; from < nodes.length; from++) {
+				int[] weights = nodes[from].getOutgoingWeights();
+				List<?> outgoing = nodes[from].getOutgoing();
+				for (int i = 0; i < outgoing.size(); i++) {
+					Integer to = indices.get(outgoing.get(i));
+					if (to == null) {
+						continue;
+					}
+					final int weight = i < weights.length ? weights[i] : 0;
+					edgeFrom[edgeCount] = from;
+					edgeTo[edgeCount] = to;
+					edgeFromX[edgeCount] = nodeX[from];
+					edgeBucket[edgeCount] = SceneRenderer.getEdgeBucket(weight, genomesCount);
+					maxEdgeSpan = Math.max(maxEdgeSpan, Math.abs(nodeX[to] - nodeX[from]));
+					edgeCount++;
+				}
+			}
+		}
+
+		/**
+		 * Gets the index of the nodes of the scene, which is built the first time it is needed.
+		 */
+		synchronized CloneIndex getCloneIndex() {
+			if (cloneIndex == null) {
+				cloneIndex = new CloneIndex(Arrays.asList(nodes));
+			}
+			return cloneIndex;
+		}
+
+		/**
+		 * Gets which nodes are selected. The array is not changed after it is returned.
+		 *
+		 * @return a flag for each node, in the order of {@link #nodes}
+		 */
+		boolean[] getSelection() {
+			return nodeSelected;
+		}
+
+		/**
+		 * Marks the nodes with a label of the given gene as selected. The selection is built on its own and then
+		 * replaces the previous selection at once, because tiles may be rendered from the scene at the same time.
+		 */
+		void select(Gene gene) {
+			boolean[] selection = new boolean[nodes.length];
+			if (gene != null) {
+				for (WrapperClone clone : getCloneIndex().getClones(gene)) {
+					selection[indices.get(clone)] = true;
+				}
+			}
+			nodeSelected = selection;
+		}
+	}
+
+	/**
+	 * Renders a tile on the background thread, when it isn't already being rendered. The tile is skipped when the
+	 * zoom or the data changed before it was its turn.
+	 */
+	private void requestTile(TileCache.Key key, Scene current, int height) {
+		if (!pendingTiles.add(key)) {
+			return;
+		}
+		tileExecutor.execute(() -> {
+				try {
+					if (key.getGeneration() != generation.get() || key.getScale() != paintedScale) {
+						return;
+					}
+					BufferedImage tile = new BufferedImage(TileCache.TILE_SIZE, TileCache.TILE_SIZE,
+							BufferedImage.TYPE_INT_ARGB);
+					Graphics2D g = tile.createGraphics();
+					float originX = key.getTileX() * TileCache.TILE_SIZE;
+					g.translate(0, -key.getTileY() * TileCache.TILE_SIZE);
+					tileRenderer.render(g, current, key.getScale(), originX, height, originX / key.getScale(),
+							(originX + TileCache.TILE_SIZE) / key.getScale(), key.hasLabels());
+					g.dispose();
+					if (key.getGeneration() == generation.get()) {
+						tileCache.put(key, tile);
+						SwingUtilities.invokeLater(panel::repaint);
+					}
+				} finally {
+					pendingTiles.remove(key);
+				}
+			}
+		);
+	}
+
+	/**
+	 * The panel on which the graph is drawn. The graph is drawn from the tiles in the {@link TileCache}, and only the
+	 * parts of which the tile isn't rendered yet are drawn directly.
+	 */
+	@SuppressWarnings("serial")
+	private final class GraphPanel extends JPanel {
+		private final SceneRenderer renderer = new SceneRenderer();
+
+		private GraphPanel() {
+			setLayout(null);
+			setBackground(SceneRenderer.BACKGROUND_COLOR);
+			setFocusable(true);
+			MouseAdapter mouseAdapter = new MouseAdapter() {
+				@Override
+				public void mouseClicked(MouseEvent e) {
+					WrapperClone node = getNodeAtPosition(e.getX(), e.getY());
+					if (node == null) {
+						removeDetailView();
+					} else {
+						detailViewClicked = true;
+						showDetailView(node, e.getX(), e.getY());
+					}
+				}
+
+				@Override
+				public void mouseMoved(MouseEvent e) {
+					WrapperClone node = getNodeAtPosition(e.getX(), e.getY());
+					if (detailViewClicked || node == hoveredNode) {
+						return;
+					}
+					if (node == null) {
+						removeDetailView();
+					} else {
+						showDetailView(node, e.getX(), e.getY());
+					}
+				}
+			};
+			addMouseListener(mouseAdapter);
+			addMouseMotionListener(mouseAdapter);
+		}
+
+		@Override
+		protected void paintComponent(Graphics graphics) {
+			super.paintComponent(graphics);
+			Graphics2D g = (Graphics2D) graphics;
+			Scene current = scene;
+			float scale = getScale();
+			paintedScale = scale;
+			float originX = zoomCenter * scale - getWidth() / 2f;
+			float viewFrom = originX / scale;
+			float viewTo = (originX + getWidth()) / scale;
+			boolean labels = lowerBound(current.nodeX, current.nodeX.length, viewTo)
+					- lowerBound(current.nodeX, current.nodeX.length, viewFrom) <= MAX_LABELS;
+			int currentGeneration = generation.get();
+			int firstColumn = Math.floorDiv((int) Math.floor(originX), TileCache.TILE_SIZE);
+			int lastColumn = Math.floorDiv((int) Math.floor(originX) + getWidth(), TileCache.TILE_SIZE);
+			int lastRow = getHeight() / TileCache.TILE_SIZE;
+			Area missing = new Area();
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				int x = Math.round(column * TileCache.TILE_SIZE - originX);
+				for (int row = 0; row <= lastRow; row++) {
+					TileCache.Key key = new TileCache.Key(currentGeneration, scale, labels, column, row);
+					BufferedImage tile = tileCache.get(key);
+					if (tile == null) {
+						missing.add(new Area(new Rectangle(x, row * TileCache.TILE_SIZE, TileCache.TILE_SIZE,
+								TileCache.TILE_SIZE)));
+						requestTile(key, current, getHeight());
+					} else {
+						g.drawImage(tile, x, row * TileCache.TILE_SIZE, null);
+					}
+				}
+			}
+			if (!missing.isEmpty()) {
+				Graphics2D direct = (Graphics2D) g.create();
+				direct.clip(missing);
+				renderer.render(direct, current, scale, originX, getHeight(), viewFrom, viewTo, labels);
+				direct.dispose();
+			}
+		}
+	}
+}
@@ -0,0 +1,296 @@
+package tudelft.ti2806.pl3.visualization;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.text.NumberFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Draws a {@link Java2DGraphView.Scene} on a {@link Graphics2D}. The paths and glyphs are reused between calls, so a
+ * renderer should only be used by one thread.
+ *
+ * <p>
+ * A position x in graph units is drawn at {@code x * scale - originX} pixels, so the same renderer can draw on the
+ * screen and on the tiles of a {@link TileCache}.
+ * </p>
+ */
+class SceneRenderer {
+	static final float EDGE_THICKNESS_SCALE = 10f;
+	static final float NODE_SIZE = 15f;
+	static final float SELECTED_NODE_SIZE = 25f;
+	/**
+	 * The space in pixels between the center of a node and the end of its label.
+	 */
+	static final int LABEL_REACH = 100;
+	private static final int EDGE_BUCKETS = (int) EDGE_THICKNESS_SCALE;
+	private static final int PADDING = 30;
+	private static final int GLYPH_CACHE_SIZE = 4096;
+	private static final int LABEL_PADDING = 4;
+	private static final int LABEL_OFFSET = 8;
+	private static final float LABEL_SIZE = 14f;
+
+	static final Color BACKGROUND_COLOR = new Color(0x3c3f41);
+	private static final Color NODE_COLOR = new Color(0xcc7832);
+	private static final Color SELECTED_COLOR = Color.RED;
+	private static final Color EDGE_COLOR = Color.BLACK;
+	private static final Color LABEL_COLOR = new Color(0xa9b7c6);
+	private static final Color LABEL_BACKGROUND_COLOR = new Color(0x2b2b2b);
+
+	private final NumberFormat labelFormat = NumberFormat.getNumberInstance(Locale.US);
+	private final Path2D.Float[] edgePaths = new Path2D.Float[EDGE_BUCKETS];
+	private final BasicStroke[] edgeStrokes = new BasicStroke[EDGE_BUCKETS];
+	private final Path2D.Float circlePath = new Path2D.Float();
+	private final Path2D.Float boxPath = new Path2D.Float();
+	private final Path2D.Float selectedPath = new Path2D.Float();
+	private final Ellipse2D.Float ellipse = new Ellipse2D.Float();
+	private final Rectangle2D.Float rectangle = new Rectangle2D.Float();
+	private final Map<String, GlyphVector> glyphCache = new LinkedHashMap<String, GlyphVector>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, GlyphVector> eldest) {
+			return size() > GLYPH_CACHE_SIZE;
+		}
+	};
+	private FontRenderContext glyphContext;
+	private Font font;
+
+	SceneRenderer() {
+		for (int i = 0; i < EDGE_BUCKETS; i++) {
+			edgePaths[i] = new Path2D.Float();
+			edgeStrokes[i] = new BasicStroke(i + 1);
+		}
+	}
+
+	/**
+	 * Gets the index of the thickness bucket of an edge.
+	 *
+	 * @param weight
+	 *            the number of genomes flowing through the edge
+	 * @param genomesCount
+	 *            the number of genomes in the graph
+	 * @return the bucket, where bucket i is drawn i + 1 pixels wide
+	 */
+	static byte getEdgeBucket(int weight, int genomesCount) {
+		int bucket = (int) Math.ceil(EDGE_THICKNESS_SCALE * weight / genomesCount) - 1;
+		return (byte) Math.max(0, Math.min(EDGE_BUCKETS - 1, bucket));
+	}
+
+	/**
+	 * Gets the y position of a node on the screen. The y axis isn't zoomed, so the whole height of the graph fits the
+	 * given height.
+	 *
+	 * @param scene
+	 *            the scene the node is in
+	 * @param y
+	 *            the y position of the node
+	 * @param height
+	 *            the height of the screen
+	 * @return the y position in pixels
+	 */
+	static float toScreenY(Java2DGraphView.Scene scene, float y, int height) {
+		float span = scene.maxY - scene.minY;
+		if (span <= 0) {
+			return height / 2f;
+		}
+		return PADDING + (y - scene.minY) / span * (height - 2 * PADDING);
+	}
+
+	/**
+	 * Draws the part of the scene between viewFrom and viewTo.
+	 *
+	 * @param g
+	 *            the graphics to draw on
+	 * @param scene
+	 *            the scene to draw
+	 * @param scale
+	 *            the number of pixels per graph unit
+	 * @param originX
+	 *            the pixel on the x axis drawn at 0 of the graphics
+	 * @param height
+	 *            the height of the screen
+	 * @param viewFrom
+	 *            the first x position in graph units to draw
+	 * @param viewTo
+	 *            the last x position in graph units to draw
+	 * @param labels
+	 *            if the base pair labels are drawn
+	 */
+	void render(Graphics2D g, Java2DGraphView.Scene scene, float scale, float originX, int height, float viewFrom,
+			float viewTo, boolean labels) {
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		drawEdges(g, scene, scale, originX, height, viewFrom, viewTo);
+		float reach = SELECTED_NODE_SIZE / (2 * scale);
+		int first = Java2DGraphView.lowerBound(scene.nodeX, scene.nodeX.length, viewFrom - reach);
+		int last = Java2DGraphView.lowerBound(scene.nodeX, scene.nodeX.length, viewTo + reach);
+		drawNodes(g, scene, scale, originX, height, first, last);
+		if (labels) {
+			first = Java2DGraphView.lowerBound(scene.nodeX, scene.nodeX.length, viewFrom - LABEL_REACH / scale);
+			last = Java2DGraphView.lowerBound(scene.nodeX, scene.nodeX.length, viewTo + LABEL_REACH / scale);
+			drawLabels(g, scene, scale, originX, height, first, last);
+		}
+	}
+
+	/**
+	 * Writes the part of the scene between viewFrom and viewTo as an SVG document, with the same positions, sizes and
+	 * colors as {@link #render}. The base pair labels are left out.
+	 *
+	 * @param out
+	 *            the output to write the document to
+	 * @param scene
+	 *            the scene to draw
+	 * @param scale
+	 *            the number of pixels per graph unit
+	 * @param originX
+	 *            the pixel on the x axis drawn at 0 of the document
+	 * @param width
+	 *            the width of the document
+	 * @param height
+	 *            the height of the document
+	 * @param viewFrom
+	 *            the first x position in graph units to draw
+	 * @param viewTo
+	 *            the last x position in graph units to draw
+	 * @throws IOException
+	 *             if the output can't be written
+	 */
+	static void writeSvg(Appendable out, Java2DGraphView.Scene scene, float scale, float originX, int width,
+			int height, float viewFrom, float viewTo) throws IOException {
+		out.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(Integer.toString(width))
+				.append("\" height=\"").append(Integer.toString(height)).append("\">\n");
+		out.append("<rect width=\"100%\" height=\"100%\" fill=\"").append(toHex(BACKGROUND_COLOR))
+				.append("\"/>\n");
+		out.append("<g stroke=\"").append(toHex(EDGE_COLOR)).append("\">\n");
+		int first = Java2DGraphView.lowerBound(scene.edgeFromX, scene.edgeCount, viewFrom - scene.maxEdgeSpan);
+		for (int i = first; i < scene.edgeCount && scene.edgeFromX[i] <= viewTo + scene.maxEdgeSpan; i++) {
+			float fromX = scene.nodeX[scene.edgeFrom[i]];
+			float toX = scene.nodeX[scene.edgeTo[i]];
+			if (Math.max(fromX, toX) < viewFrom || Math.min(fromX, toX) > viewTo) {
+				continue;
+			}
+			out.append(String.format(Locale.US, "<line x1=\"%.1f\" y1=\"%.1f\" x2=\"%.1f\" y2=\"%.1f\" "
+					+ "stroke-width=\"%d\"/>%n", fromX * scale - originX,
+					toScreenY(scene, scene.nodeY[scene.edgeFrom[i]], height), toX * scale - originX,
+					toScreenY(scene, scene.nodeY[scene.edgeTo[i]], height), scene.edgeBucket[i] + 1));
+		}
+		out.append("</g>\n");
+		float reach = SELECTED_NODE_SIZE / (2 * scale);
+		int last = Java2DGraphView.lowerBound(scene.nodeX, scene.nodeX.length, viewTo + reach);
+		boolean[] selection = scene.getSelection();
+		for (int i = Java2DGraphView.lowerBound(scene.nodeX, scene.nodeX.length, viewFrom - reach); i < last; i++) {
+			float x = scene.nodeX[i] * scale - originX;
+			float y = toScreenY(scene, scene.nodeY[i], height);
+			if (selection[i]) {
+				out.append(String.format(Locale.US, "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"%.1f\" fill=\"%s\"/>%n",
+						x, y, SELECTED_NODE_SIZE / 2, toHex(SELECTED_COLOR)));
+			} else if (scene.nodeBox[i]) {
+				out.append(String.format(Locale.US, "<rect x=\"%.1f\" y=\"%.1f\" width=\"%.1f\" height=\"%.1f\" "
+						+ "fill=\"%s\"/>%n", x - NODE_SIZE / 2, y - NODE_SIZE / 2, NODE_SIZE, NODE_SIZE,
+						toHex(NODE_COLOR)));
+			} else {
+				out.append(String.format(Locale.US, "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"%.1f\" fill=\"%s\"/>%n",
+						x, y, NODE_SIZE / 2, toHex(NODE_COLOR)));
+			}
+		}
+		out.append("</svg>\n");
+	}
+
+	private static String toHex(Color color) {
+		return String.format("#%06x", color.getRGB() & 0xffffff);
+	}
+
+	private void drawEdges(Graphics2D g, Java2DGraphView.Scene scene, float scale, float originX, int height,
+			float viewFrom, float viewTo) {
+		for (Path2D.Float path : edgePaths) {
+			path.reset();
+		}
+		int first = Java2DGraphView.lowerBound(scene.edgeFromX, scene.edgeCount, viewFrom - scene.maxEdgeSpan);
+		for (int i = first; i < scene.edgeCount && scene.edgeFromX[i] <= viewTo + scene.maxEdgeSpan; i++) {
+			float fromX = scene.nodeX[scene.edgeFrom[i]];
+			float toX = scene.nodeX[scene.edgeTo[i]];
+			if (Math.max(fromX, toX) < viewFrom || Math.min(fromX, toX) > viewTo) {
+				continue;
+			}
+			Path2D.Float path = edgePaths[scene.edgeBucket[i]];
+			path.moveTo(fromX * scale - originX, toScreenY(scene, scene.nodeY[scene.edgeFrom[i]], height));
+			path.lineTo(toX * scale - originX, toScreenY(scene, scene.nodeY[scene.edgeTo[i]], height));
+		}
+		g.setColor(EDGE_COLOR);
+		for (int i = 0; i < EDGE_BUCKETS; i++) {
+			g.setStroke(edgeStrokes[i]);
+			g.draw(edgePaths[i]);
+		}
+	}
+
+	private void drawNodes(Graphics2D g, Java2DGraphView.Scene scene, float scale, float originX, int height,
+			int first, int last) {
+		circlePath.reset();
+		boxPath.reset();
+		selectedPath.reset();
+		boolean[] selection = scene.getSelection();
+		for (int i = first; i < last; i++) {
+			float x = scene.nodeX[i] * scale - originX;
+			float y = toScreenY(scene, scene.nodeY[i], height);
+			if (selection[i]) {
+				ellipse.setFrame(x - SELECTED_NODE_SIZE / 2, y - SELECTED_NODE_SIZE / 2, SELECTED_NODE_SIZE,
+						SELECTED_NODE_SIZE);
+				selectedPath.append(ellipse, false);
+			} else if (scene.nodeBox[i]) {
+				rectangle.setFrame(x - NODE_SIZE / 2, y - NODE_SIZE / 2, NODE_SIZE, NODE_SIZE);
+				boxPath.append(rectangle, false);
+			} else {
+				ellipse.setFrame(x - NODE_SIZE / 2, y - NODE_SIZE / 2, NODE_SIZE, NODE_SIZE);
+				circlePath.append(ellipse, false);
+			}
+		}
+		g.setColor(NODE_COLOR);
+		g.fill(circlePath);
+		g.fill(boxPath);
+		g.setColor(SELECTED_COLOR);
+		g.fill(selectedPath);
+	}
+
+	private void drawLabels(Graphics2D g, Java2DGraphView.Scene scene, float scale, float originX, int height,
+			int first, int last) {
+		FontRenderContext context = g.getFontRenderContext();
+		if (font == null) {
+			font = g.getFont().deriveFont(LABEL_SIZE);
+		}
+		if (!context.equals(glyphContext)) {
+			glyphCache.clear();
+			glyphContext = context;
+		}
+		for (int i = first; i < last; i++) {
+			String label = scene.labels[i];
+			if (label == null) {
+				label = labelFormat.format(scene.nodes[i].getOriginalNode().getBasePairCount());
+				scene.labels[i] = label;
+			}
+			GlyphVector glyphs = glyphCache.get(label);
+			if (glyphs == null) {
+				glyphs = font.createGlyphVector(context, label);
+				glyphCache.put(label, glyphs);
+			}
+			Rectangle2D bounds = glyphs.getLogicalBounds();
+			float x = scene.nodeX[i] * scale - originX - (float) bounds.getWidth() / 2;
+			float y = toScreenY(scene, scene.nodeY[i], height) + NODE_SIZE / 2 + LABEL_OFFSET;
+			g.setColor(LABEL_BACKGROUND_COLOR);
+			g.fillRoundRect((int) x - LABEL_PADDING, (int) y - LABEL_PADDING,
+					(int) bounds.getWidth() + 2 * LABEL_PADDING, (int) bounds.getHeight() + 2 * LABEL_PADDING,
+					LABEL_PADDING * 2, LABEL_PADDING * 2);
+			g.setColor(LABEL_COLOR);
+			g.drawGlyphVector(glyphs, x, y - (float) bounds.getY());
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package tudelft.ti2806.pl3.visualization;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of rendered tiles of the graph, keyed by the generation of the drawn data, the zoom scale and the position
+ * of the tile.
+ *
+ * <p>
+ * The least recently used tiles are removed when the tiles together use more memory than the budget. Tiles of an
+ * older generation are never used again, so they are removed as soon as a tile of a newer generation is added.
+ * </p>
+ */
+public class TileCache {
+	/**
+	 * The width and height of a tile in pixels.
+	 */
+	public static final int TILE_SIZE = 256;
+	private static final int BYTES_PER_PIXEL = 4;
+
+	private final long memoryBudget;
+	private final Map<Key, BufferedImage> tiles = new LinkedHashMap<>(16, 0.75f, true);
+	private long memoryUsed = 0;
+
+	/**
+	 * Construct a tile cache.
+	 *
+	 * @param memoryBudget
+	 *            the maximum number of bytes used by the pixels of the tiles
+	 */
+	public TileCache(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
+	/**
+	 * Gets a tile from the cache.
+	 *
+	 * @param key
+	 *            the key of the tile
+	 * @return the tile, or {@code null} if it isn't in the cache
+	 */
+	public synchronized BufferedImage get(Key key) {
+		return tiles.get(key);
+	}
+
+	/**
+	 * Adds a tile to the cache, and removes the tiles of older generations and the least recently used tiles when the
+	 * cache uses more memory than its budget.
+	 *
+	 * @param key
+	 *            the key of the tile
+	 * @param tile
+	 *            the rendered tile
+	 */
+	public synchronized void put(Key key, BufferedImage tile) {
+		BufferedImage previous = tiles.put(key, tile);
+		if (previous != null) {
+			memoryUsed -= getSize(previous);
+		}
+		memoryUsed += getSize(tile);
+		Iterator<Map.Entry<Key, BufferedImage>> iterator = tiles.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Key, BufferedImage> entry = iterator.next();
+			if (entry.getKey().generation < key.generation || (memoryUsed > memoryBudget && entry.getKey() != key)) {
+				memoryUsed -= getSize(entry.getValue());
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all tiles.
+	 */
+	public synchronized void clear() {
+		tiles.clear();
+		memoryUsed = 0;
+	}
+
+	public synchronized int size() {
+		return tiles.size();
+	}
+
+	public synchronized long getMemoryUsed() {
+		return memoryUsed;
+	}
+
+	private static long getSize(BufferedImage tile) {
+		return (long) tile.getWidth() * tile.getHeight() * BYTES_PER_PIXEL;
+	}
+
+	/**
+	 * The generation of the drawn data, the zoom scale and the position of a tile.
+	 */
+	public static final class Key {
+		private final int generation;
+		private final float scale;
+		private final boolean labels;
+		private final int tileX;
+		private final int tileY;
+
+		/**
+		 * Construct a key.
+		 *
+		 * @param generation
+		 *            the generation of the drawn data, changed when the data or the highlighted gene changes
+		 * @param scale
+		 *            the number of pixels per graph unit
+		 * @param labels
+		 *            if the tile shows the base pair labels
+		 * @param tileX
+		 *            the column of the tile
+		 * @param tileY
+		 *            the row of the tile
+		 */
+		public Key(int generation, float scale, boolean labels, int tileX, int tileY) {
+			this.generation = generation;
+			this.scale = scale;
+			this.labels = labels;
+			this.tileX = tileX;
+			this.tileY = tileY;
+		}
+
+		public int getGeneration() {
+			return generation;
+		}
+
+		public float getScale() {
+			return scale;
+		}
+
+		public boolean hasLabels() {
+			return labels;
+		}
+
+		public int getTileX() {
+			return tileX;
+		}
+
+		public int getTileY() {
+			return tileY;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return generation == other.generation && scale == other.scale && labels == other.labels
+					&& tileX == other.tileX && tileY == other.tileY;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = generation;
+			result = 31 * result + Float.floatToIntBits(scale);
+			result = 31 * result + (labels ? 1 : 0);
+			result = 31 * result + tileX;
+			result = 31 * result + tileY;
+			return result;
+		}
+	}
+}
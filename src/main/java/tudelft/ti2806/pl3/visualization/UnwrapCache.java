@@ -0,0 +1,202 @@
+package tudelft.ti2806.pl3.visualization;
+
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of unwrapped graphs, keyed by the filtered data they were computed for, the zoom level and the
+ * window of the graph which is unwrapped.
+ *
+ * <p>
+ * The cache holds at most {@link #MAX_ENTRIES} entries and removes the least recently added entry when it is full.
+ * The entries are only softly referenced, so they are removed when memory runs low. An entry is removed when it is
+ * taken from the cache, because the {@link WrapperClone}s in it are changed once they are used.
+ * </p>
+ */
+public class UnwrapCache {
+	static final int MAX_ENTRIES = 8;
+
+	private final Map<Key, SoftReference<Entry>> entries = new LinkedHashMap<Key, SoftReference<Entry>>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, SoftReference<Entry>> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/**
+	 * Adds an entry to the cache.
+	 *
+	 * @param entry
+	 *            the entry to add
+	 */
+	public synchronized void put(Entry entry) {
+		entries.put(entry.key, new SoftReference<>(entry));
+	}
+
+	/**
+	 * Checks if the cache contains an entry which can show the given part of the graph.
+	 *
+	 * @param version
+	 *            the version of the filtered data
+	 * @param zoomLevel
+	 *            the zoom level
+	 * @param visibleFrom
+	 *            the start of the visible part of the graph
+	 * @param visibleTo
+	 *            the end of the visible part of the graph
+	 * @return {@code true} if there is such an entry
+	 */
+	public synchronized boolean contains(int version, float zoomLevel, float visibleFrom, float visibleTo) {
+		return find(version, zoomLevel, visibleFrom, visibleTo, false) != null;
+	}
+
+	/**
+	 * Removes an entry which can show the given part of the graph from the cache.
+	 *
+	 * @param version
+	 *            the version of the filtered data
+	 * @param zoomLevel
+	 *            the zoom level
+	 * @param visibleFrom
+	 *            the start of the visible part of the graph
+	 * @param visibleTo
+	 *            the end of the visible part of the graph
+	 * @return the entry, or {@code null} if there is no such entry
+	 */
+	public synchronized Entry take(int version, float zoomLevel, float visibleFrom, float visibleTo) {
+		return find(version, zoomLevel, visibleFrom, visibleTo, true);
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private Entry find(int version, float zoomLevel, float visibleFrom, float visibleTo, boolean remove) {
+		Iterator<SoftReference<Entry>> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			Entry entry = iterator.next().get();
+			if (entry == null) {
+				iterator.remove();
+			} else if (entry.key.covers(version, zoomLevel, visibleFrom, visibleTo)) {
+				if (remove) {
+					iterator.remove();
+				}
+				return entry;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The filtered data, zoom level and window of an entry.
+	 */
+	private static final class Key {
+		private final int version;
+		private final float zoomLevel;
+		private final float from;
+		private final float to;
+
+		private Key(int version, float zoomLevel, float from, float to) {
+			this.version = version;
+			this.zoomLevel = zoomLevel;
+			this.from = from;
+			this.to = to;
+		}
+
+		private boolean covers(int version, float zoomLevel, float visibleFrom, float visibleTo) {
+			return this.version == version && this.zoomLevel == zoomLevel && from <= visibleFrom && to >= visibleTo;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return version == other.version && zoomLevel == other.zoomLevel && from == other.from && to == other.to;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = version;
+			result = 31 * result + Float.floatToIntBits(zoomLevel);
+			result = 31 * result + Float.floatToIntBits(from);
+			result = 31 * result + Float.floatToIntBits(to);
+			return result;
+		}
+	}
+
+	/**
+	 * An unwrapped graph and the part of the graph which is unwrapped.
+	 */
+	public static final class Entry {
+		private final Key key;
+		private final float condition;
+		private final Wrapper result;
+		private final List<WrapperClone> wrapperClones;
+
+		/**
+		 * Construct an entry.
+		 *
+		 * @param version
+		 *            the version of the filtered data
+		 * @param zoomLevel
+		 *            the zoom level
+		 * @param from
+		 *            the start of the unwrapped window
+		 * @param to
+		 *            the end of the unwrapped window
+		 * @param condition
+		 *            the collapse condition used to unwrap
+		 * @param result
+		 *            the first node of the unwrapped graph
+		 * @param wrapperClones
+		 *            all nodes of the unwrapped graph
+		 */
+		public Entry(int version, float zoomLevel, float from, float to, float condition, Wrapper result,
+				List<WrapperClone> wrapperClones) {
+			this.key = new Key(version, zoomLevel, from, to);
+			this.condition = condition;
+			this.result = result;
+			this.wrapperClones = wrapperClones;
+		}
+
+		public float getFrom() {
+			return key.from;
+		}
+
+		public float getTo() {
+			return key.to;
+		}
+
+		public float getCondition() {
+			return condition;
+		}
+
+		public Wrapper getResult() {
+			return result;
+		}
+
+		public List<WrapperClone> getWrapperClones() {
+			return wrapperClones;
+		}
+	}
+}
@@ -1,7 +1,87 @@
 package tudelft.ti2806.pl3.visualization;
 
-import java.awt.Component;
+import tudelft.ti2806.pl3.View;
+import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.exception.NodeNotFoundException;
+import tudelft.ti2806.pl3.util.observable.LoadingObservable;
 
-interface ViewInterface {
-	Component getPanel();
+import java.util.Observer;
+
+/**
+ * A view which draws the data of the {@link ZoomedGraphModel}. The view observes the model and draws the graph again
+ * when the model notifies it.
+ *
+ * <p>
+ * Positions on the x axis are given in graph units, which are the x positions of the nodes in the graph.
+ * </p>
+ */
+public interface ViewInterface extends View, Observer, LoadingObservable {
+
+	/**
+	 * Moves the view to the given position on the x axis.
+	 *
+	 * @param zoomCenter
+	 *            the new center of view
+	 */
+	void setZoomCenter(float zoomCenter);
+
+	/**
+	 * Gets the center of the view.
+	 *
+	 * @return the position on the x axis at the center of the view
+	 */
+	float getZoomCenter();
+
+	/**
+	 * Zooms the view to the given zoom level without changing the graph, to show the zoom while the data for the new
+	 * zoom level is computed.
+	 *
+	 * @param zoomLevel
+	 *            the new zoom level
+	 */
+	void previewZoom(float zoomLevel);
+
+	/**
+	 * Gets the size of the visible part of the graph.
+	 *
+	 * @return the part of the graph which is visible, where 1 is the whole graph
+	 */
+	double getViewPercent();
+
+	/**
+	 * Gets the offset of the center of the view when the whole graph is shown.
+	 *
+	 * @return the distance between the left edge of the screen and the center of the view, when the whole graph is
+	 *         shown
+	 */
+	float getOffsetToCenter();
+
+	/**
+	 * Gets the size of the graph.
+	 *
+	 * @return the width of the graph
+	 */
+	double getGraphDimension();
+
+	/**
+	 * Centers the view on the node containing the given {@link DataNode} and highlights the given gene.
+	 *
+	 * @param node
+	 *            The {@link DataNode} to move the view to
+	 * @param selected
+	 *            The gene to highlight on the graph, or {@code null} to remove the highlight
+	 * @throws NodeNotFoundException
+	 *             Thrown when the node isn't in the graph which is drawn
+	 */
+	void centerOnNode(DataNode node, Gene selected) throws NodeNotFoundException;
+
+	/**
+	 * Removes the details of a node shown by the view.
+	 */
+	void removeDetailView();
+
+	void addGraphLoadedListener(GraphLoadedListener listener);
+
+	void removeGraphLoadedListener(GraphLoadedListener listener);
 }
@@ -0,0 +1,86 @@
+package tudelft.ti2806.pl3.visualization;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Computes the data of the {@link ZoomedGraphModel} in the background after the user zooms or moves the graph.
+ *
+ * <p>
+ * Each request gets a new generation number. The computation only starts when no new request was made for
+ * {@link #SETTLE_DELAY} milliseconds, so a burst of requests results in a single computation. A computation which is
+ * still running when a new request is made is cancelled, and only the result of the latest request is published to
+ * the view on the event dispatch thread.
+ * </p>
+ */
+public class ZoomPipeline {
+	/**
+	 * The time in milliseconds without new requests before the data is computed.
+	 */
+	static final long SETTLE_DELAY = 150;
+
+	private final ZoomedGraphModel zoomedGraphModel;
+	private final ScheduledExecutorService executor;
+	private final AtomicLong generation = new AtomicLong();
+	private ScheduledFuture<?> pending;
+
+	/**
+	 * Construct a pipeline for the given model.
+	 *
+	 * @param zoomedGraphModel
+	 *            the model to compute the data for
+	 */
+	public ZoomPipeline(ZoomedGraphModel zoomedGraphModel) {
+		this.zoomedGraphModel = zoomedGraphModel;
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "zoom-pipeline");
+				thread.setDaemon(true);
+				return thread;
+			}
+		);
+	}
+
+	/**
+	 * Requests the data to be computed for the current zoom level and zoom center of the model. Earlier requests
+	 * which aren't published yet are dropped.
+	 */
+	public synchronized void request() {
+		long current = generation.incrementAndGet();
+		if (pending != null) {
+			pending.cancel(false);
+		}
+		pending = executor.schedule(() -> compute(current), SETTLE_DELAY, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Drops all requests which aren't published yet. Used when the data is computed directly on the model.
+	 */
+	public synchronized void cancel() {
+		generation.incrementAndGet();
+		if (pending != null) {
+			pending.cancel(false);
+			pending = null;
+		}
+	}
+
+	public long getGeneration() {
+		return generation.get();
+	}
+
+	private void compute(long current) {
+		BooleanSupplier stale = () -> generation.get() != current;
+		if (!stale.getAsBoolean() && zoomedGraphModel.computeDataNodeWrapperList(stale)) {
+			SwingUtilities.invokeLater(() -> {
+					if (!stale.getAsBoolean()) {
+						zoomedGraphModel.publishDataNodeWrapperList();
+					}
+				}
+			);
+		}
+	}
+}
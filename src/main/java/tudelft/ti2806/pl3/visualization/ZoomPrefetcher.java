@@ -0,0 +1,109 @@
+package tudelft.ti2806.pl3.visualization;
+
+import java.util.Arrays;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Computes the data for the views the user is most likely to go to next, after the {@link ZoomedGraphModel} has
+ * published new data.
+ *
+ * <p>
+ * The neighbouring views are one zoom step in, one zoom step out, and one window to the left and to the right. A
+ * window is the distance at which the visible part of the graph leaves the unwrapped part. The results are stored in
+ * an {@link UnwrapCache}. When new data is published, the computations for the previous view are cancelled. Views
+ * which are the same as the current view, because the zoom level or the view can't go any further, are skipped.
+ * </p>
+ * <p>
+ * The views are computed one at a time, because the {@link ZoomedGraphModel} only unwraps the graph for one view at
+ * a time.
+ * </p>
+ */
+public class ZoomPrefetcher implements Observer {
+	private final ZoomedGraphModel zoomedGraphModel;
+	private final UnwrapCache cache;
+	private final ExecutorService executor;
+	private final AtomicLong generation = new AtomicLong();
+	private int dataVersion = -1;
+
+	/**
+	 * Construct a prefetcher for the given model.
+	 *
+	 * @param zoomedGraphModel
+	 *            the model to compute the data for
+	 * @param cache
+	 *            the cache to store the data in
+	 */
+	public ZoomPrefetcher(ZoomedGraphModel zoomedGraphModel, UnwrapCache cache) {
+		this.zoomedGraphModel = zoomedGraphModel;
+		this.cache = cache;
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "zoom-prefetcher");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}
+		);
+	}
+
+	@Override
+	public void update(Observable o, Object arg) {
+		if (o == zoomedGraphModel) {
+			prefetch(zoomedGraphModel.getZoomLevel(), zoomedGraphModel.getZoomCenter());
+		}
+	}
+
+	/**
+	 * Computes the data for the views next to the given view in the background.
+	 *
+	 * @param zoomLevel
+	 *            the current zoom level
+	 * @param zoomCenter
+	 *            the current center of the view
+	 */
+	public void prefetch(float zoomLevel, float zoomCenter) {
+		long current = generation.incrementAndGet();
+		int version = zoomedGraphModel.getDataVersion();
+		if (version != dataVersion) {
+			cache.clear();
+			dataVersion = version;
+		}
+		if (Float.isNaN(zoomCenter)) {
+			return;
+		}
+		BooleanSupplier stale = () -> generation.get() != current;
+		float zoomIn = ZoomedGraphModel.restrictZoomLevel(zoomLevel * ZoomedGraphModel.ZOOM_STEP_SIZE);
+		float zoomOut = ZoomedGraphModel.restrictZoomLevel(zoomLevel / ZoomedGraphModel.ZOOM_STEP_SIZE);
+		float window = zoomedGraphModel.getVisibleWidth(zoomLevel) * (0.5f + ZoomedGraphModel.getViewportMargin());
+		float[] visible = zoomedGraphModel.getVisibleRange(zoomLevel, zoomCenter);
+		submit(version, zoomIn, zoomCenter, zoomLevel, visible, stale);
+		submit(version, zoomOut, zoomCenter, zoomLevel, visible, stale);
+		submit(version, zoomLevel, zoomCenter - window, zoomLevel, visible, stale);
+		submit(version, zoomLevel, zoomCenter + window, zoomLevel, visible, stale);
+	}
+
+	/**
+	 * Computes the data for a view in the background, unless it is the same as the current view.
+	 */
+	private void submit(int version, float zoomLevel, float zoomCenter, float currentLevel, float[] currentVisible,
+			BooleanSupplier stale) {
+		final float[] visible = zoomedGraphModel.getVisibleRange(zoomLevel, zoomCenter);
+		if (zoomLevel == currentLevel && Arrays.equals(visible, currentVisible)) {
+			return;
+		}
+		executor.execute(() -> {
+				if (stale.getAsBoolean() || cache.contains(version, zoomLevel, visible[0], visible[1])) {
+					return;
+				}
+				UnwrapCache.Entry entry = zoomedGraphModel.unwrap(zoomLevel, zoomCenter, stale);
+				if (entry != null && !stale.getAsBoolean()) {
+					cache.put(entry);
+				}
+			}
+		);
+	}
+}
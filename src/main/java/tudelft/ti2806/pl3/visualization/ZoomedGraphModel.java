@@ -5,8 +5,12 @@ import tudelft.ti2806.pl3.data.Genome;
 import tudelft.ti2806.pl3.data.wrapper.Wrapper;
 import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
 import tudelft.ti2806.pl3.data.wrapper.operation.GetFirstCombineWrapper;
+import tudelft.ti2806.pl3.data.wrapper.operation.unwrap.CollapseThresholdIndex;
 import tudelft.ti2806.pl3.data.wrapper.operation.unwrap.Unwrap;
 import tudelft.ti2806.pl3.data.wrapper.operation.unwrap.UnwrapOnCollapse;
+import tudelft.ti2806.pl3.data.wrapper.operation.unwrap.UnwrapOnLevel;
+import tudelft.ti2806.pl3.data.wrapper.operation.unwrap.UnwrapPyramid;
+import tudelft.ti2806.pl3.data.wrapper.operation.unwrap.WrapperClonePool;
 import tudelft.ti2806.pl3.util.EdgeUtil;
 import tudelft.ti2806.pl3.util.observable.LoadingObservable;
 import tudelft.ti2806.pl3.util.observers.LoadingObserver;
@@ -15,6 +19,16 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
 
 /**
  * This Model contains the data after a zoom has been performed.
@@ -30,6 +44,19 @@ import java.util.Observer;
  * {@link tudelft.ti2806.pl3.visualization.FilteredGraphModel} and filters them based on the interest value. Then it
  * unwraps the collapsed node and notifies the view.
  * </p>
+ * <p>
+ * When the zoom center is known, only the part of the graph around the visible part is unwrapped. The rest of the
+ * graph is kept as wrapped as possible, so the amount of nodes to draw depends on the size of the screen instead of
+ * the size of the graph.
+ * </p>
+ * <p>
+ * After new data is received, an {@link UnwrapPyramid} is computed in the background for all zoom levels which can
+ * be reached with {@link #ZOOM_STEP_SIZE}. Once it is available, zooming in only unwraps the nodes which are
+ * unwrapped at the new zoom level but were not at the previous one. Its {@link CollapseThresholdIndex} tells
+ * without traversing the graph when a zoom doesn't unwrap anything new, in which case the previous data is kept.
+ * The levels of the pyramid depend on the width of the screen, so they are computed again from the same index when
+ * the screen is resized.
+ * </p>
  * Created by Boris Mattijssen on 20-05-15.
  */
 public class ZoomedGraphModel extends Observable implements Observer, LoadingObservable {
@@ -39,14 +66,60 @@ public class ZoomedGraphModel extends Observable implements Observer, LoadingObs
 	private static final float MIN_NODE_DISTANCE = 60f;
 	private static final float MIN_ZOOM_LEVEL = 1;
 	private static final float MAX_ZOOM_LEVEL = 1000;
+	/**
+	 * The factor by which the zoom level changes on each zoom step.
+	 */
+	public static final float ZOOM_STEP_SIZE = 1.5f;
+	/**
+	 * All zoom levels which can be reached by zooming in steps, in increasing order.
+	 */
+	private static final float[] ZOOM_STEPS = computeZoomSteps();
+	/**
+	 * The amount of screen widths unwrapped on each side of the visible part of the graph, so small moves don't
+	 * require the graph to be unwrapped again.
+	 */
+	private static final float VIEWPORT_MARGIN = 1f;
 	private FilteredGraphModel filteredGraphModel;
+	private final IntSupplier viewWidth;
 
-	private Wrapper collapsedNode;
-	private List<WrapperClone> dataNodeWrapperList;
+	private volatile Wrapper collapsedNode;
+	private final AtomicReference<UnwrapPyramid> pyramid = new AtomicReference<>();
+	/**
+	 * Computes the pyramids of all models, so a model which is no longer used, like the one of a batch export, doesn't
+	 * leave a thread behind.
+	 */
+	private static final ExecutorService PYRAMID_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "unwrap-pyramid");
+			thread.setDaemon(true);
+			return thread;
+		}
+	);
+	private Future<?> pyramidTask;
+	private final AtomicInteger dataVersion = new AtomicInteger();
+	/**
+	 * The amount of threads waiting for the lock of this model, for which unwrapping in advance is cancelled.
+	 */
+	private final AtomicInteger waitingComputations = new AtomicInteger();
+	private final WrapperClonePool clonePool = new WrapperClonePool();
+	/**
+	 * The data shown by the view, which is only replaced by {@link #publishDataNodeWrapperList()}.
+	 */
+	private volatile List<WrapperClone> dataNodeWrapperList;
+	private int publishedVersion = -1;
+	/**
+	 * The latest computed data, which becomes the shown data when it is published.
+	 */
+	private List<WrapperClone> computedWrapperList;
+	private Wrapper computedResult;
+	private float unwrappedCondition = Float.NaN;
+	private float maxCollapse;
 	private final ArrayList<LoadingObserver> loadingObservers = new ArrayList<>();
 	
-	private float zoomLevel = 1;
+	private volatile float zoomLevel = 1;
 	private int graphWidth;
+	private volatile float zoomCenter = Float.NaN;
+	private volatile float unwrappedFrom = -Float.MAX_VALUE;
+	private volatile float unwrappedTo = Float.MAX_VALUE;
 	
 	/**
 	 * Construct a new ZoomedGraphModel, with a reference to the {@link tudelft.ti2806.pl3.data.filter.Filter}.
@@ -55,7 +128,20 @@ public class ZoomedGraphModel extends Observable implements Observer, LoadingObs
 	 *            The {@link tudelft.ti2806.pl3.visualization.FilteredGraphModel}
 	 */
 	public ZoomedGraphModel(FilteredGraphModel filteredGraphModel) {
+		this(filteredGraphModel, () -> ScreenSize.getInstance().getWidth());
+	}
+
+	/**
+	 * Construct a new ZoomedGraphModel which shows the graph on a view of the given width instead of the screen.
+	 *
+	 * @param filteredGraphModel
+	 *            The {@link tudelft.ti2806.pl3.visualization.FilteredGraphModel}
+	 * @param viewWidth
+	 *            gives the width of the view in pixels
+	 */
+	public ZoomedGraphModel(FilteredGraphModel filteredGraphModel, IntSupplier viewWidth) {
 		this.filteredGraphModel = filteredGraphModel;
+		this.viewWidth = viewWidth;
 	}
 	
 	public List<WrapperClone> getDataNodeWrapperList() {
@@ -69,18 +155,100 @@ public class ZoomedGraphModel extends Observable implements Observer, LoadingObs
 	 *            the new zoom level
 	 */
 	public void setZoomLevel(float zoomLevel) {
-		this.zoomLevel = zoomLevel;
-		if (zoomLevel < MIN_ZOOM_LEVEL) {
-			this.zoomLevel = MIN_ZOOM_LEVEL;
-		}
-		if (zoomLevel > MAX_ZOOM_LEVEL) {
-			this.zoomLevel = MAX_ZOOM_LEVEL;
-		}
+		this.zoomLevel = restrictZoomLevel(zoomLevel);
+	}
+
+	/**
+	 * Restricts a zoom level to the zoom levels which can be used.
+	 *
+	 * @param zoomLevel
+	 *            the zoom level
+	 * @return the zoom level, or the nearest bound if it is out of bounds
+	 */
+	public static float restrictZoomLevel(float zoomLevel) {
+		return Math.max(MIN_ZOOM_LEVEL, Math.min(MAX_ZOOM_LEVEL, zoomLevel));
+	}
+
+	public float getZoomCenter() {
+		return zoomCenter;
+	}
+
+	public int getDataVersion() {
+		return dataVersion.get();
 	}
 	
 	public float getZoomLevel() {
 		return this.zoomLevel;
 	}
+
+	/**
+	 * Sets the center of the visible part of the graph, which is used to decide which part of the graph is unwrapped.
+	 *
+	 * @param zoomCenter
+	 *            the x coordinate of the center of the view
+	 */
+	public void setZoomCenter(float zoomCenter) {
+		this.zoomCenter = zoomCenter;
+	}
+
+	/**
+	 * Checks if the visible part of the graph has moved outside of the part which was unwrapped during the last
+	 * call to {@link #produceDataNodeWrapperList()}.
+	 *
+	 * @return {@code true} if the data should be produced again
+	 */
+	public boolean isViewportOutdated() {
+		if (Float.isNaN(zoomCenter) || collapsedNode == null) {
+			return false;
+		}
+		float[] visible = getVisibleRange(zoomLevel, zoomCenter);
+		return visible[0] < unwrappedFrom || visible[1] > unwrappedTo;
+	}
+
+	/**
+	 * Computes the part of the graph which is visible with the given zoom level and zoom center.
+	 *
+	 * @param zoomLevel
+	 *            the zoom level
+	 * @param zoomCenter
+	 *            the x coordinate of the center of the view
+	 * @return the start and end of the visible part of the graph
+	 */
+	public float[] getVisibleRange(float zoomLevel, float zoomCenter) {
+		return getRange(zoomLevel, zoomCenter, 1);
+	}
+
+	private float[] getUnwrapRange(float zoomLevel, float zoomCenter) {
+		return getRange(zoomLevel, zoomCenter, 1 + 2 * VIEWPORT_MARGIN);
+	}
+
+	private float[] getRange(float zoomLevel, float zoomCenter, float screens) {
+		if (Float.isNaN(zoomCenter) || zoomLevel <= MIN_ZOOM_LEVEL) {
+			return new float[] { -Float.MAX_VALUE, Float.MAX_VALUE };
+		}
+		float halfWidth = getVisibleWidth(zoomLevel) * screens / 2;
+		return new float[] { zoomCenter - halfWidth, zoomCenter + halfWidth };
+	}
+
+	/**
+	 * The width of the visible part of the graph at the given zoom level.
+	 *
+	 * @param zoomLevel
+	 *            the zoom level
+	 * @return the width on the x axis
+	 */
+	public float getVisibleWidth(float zoomLevel) {
+		return graphWidth / zoomLevel;
+	}
+
+	/**
+	 * The amount of screen widths the unwrapped part of the graph reaches beyond each side of the visible part.
+	 *
+	 * @return the margin in screen widths
+	 */
+	public static float getViewportMargin() {
+		return VIEWPORT_MARGIN;
+	}
 	
 	/**
 	 * Produces the data needed to display the graph.
@@ -92,31 +260,313 @@ public class ZoomedGraphModel extends Observable implements Observer, LoadingObs
 	 * then it will notify the view.
 	 */
 	public void produceDataNodeWrapperList() {
+		runLocked(this::produceDataNodeWrapperListLocked);
+	}
+
+	private void produceDataNodeWrapperListLocked() {
 		notifyLoadingObservers(true);
+		computeDataNodeWrapperListLocked(() -> false);
+		publishDataNodeWrapperListLocked();
+		notifyLoadingObservers(false);
+	}
+
+	/**
+	 * Runs an action holding the lock of this model. While it waits for the lock, a running
+	 * {@link #unwrap(float, float, BooleanSupplier)} is cancelled, so the data to show doesn't wait for data which
+	 * might be needed later.
+	 */
+	private void runLocked(Runnable action) {
+		waitingComputations.incrementAndGet();
+		synchronized (this) {
+			waitingComputations.decrementAndGet();
+			action.run();
+		}
+	}
+
+	/**
+	 * Tests a condition holding the lock of this model, like {@link #runLocked(Runnable)}.
+	 */
+	private boolean testLocked(BooleanSupplier action) {
+		waitingComputations.incrementAndGet();
+		synchronized (this) {
+			waitingComputations.decrementAndGet();
+			return action.getAsBoolean();
+		}
+	}
+
+	/**
+	 * Computes the data needed to display the graph, without notifying the view. This can be called from any thread.
+	 * The data shown by the view isn't changed until the computed data is published. A running
+	 * {@link #unwrap(float, float, BooleanSupplier)} is cancelled, so this doesn't wait for data which might be needed
+	 * later.
+	 *
+	 * @param cancelled
+	 *            returns {@code true} when the result is no longer needed
+	 * @return {@code true} if the data is computed, {@code false} if the computation was cancelled
+	 */
+	public boolean computeDataNodeWrapperList(BooleanSupplier cancelled) {
+		return testLocked(() -> computeDataNodeWrapperListLocked(cancelled));
+	}
+
+	private boolean computeDataNodeWrapperListLocked(BooleanSupplier cancelled) {
+		if (collapsedNode == null) {
+			return false;
+		}
+		float level = zoomLevel;
+		float[] range = getUnwrapRange(level, zoomCenter);
+		float condition = getCondition(level);
+		boolean refines = condition <= unwrappedCondition && range[0] >= unwrappedFrom && range[1] <= unwrappedTo;
+		UnwrapPyramid currentPyramid = pyramid.get();
+		if (!refines || currentPyramid == null
+				|| !currentPyramid.getIndex().getChanged(unwrappedCondition, condition).isEmpty()) {
+			Unwrap unwrap = createUnwrap(level, condition, range[0], range[1]);
+			unwrap.setCancelled(cancelled);
+			unwrap.setPool(clonePool);
+			try {
+				if (refines) {
+					unwrap.expand(computedResult, computedWrapperList);
+				} else {
+					unwrap.compute(collapsedNode);
+				}
+			} catch (CancellationException e) {
+				// The previous data isn't changed by a cancelled computation, so it can still be used.
+				return false;
+			}
+			computedResult = unwrap.getResult();
+			computedWrapperList = unwrap.getWrapperClones();
+			EdgeUtil.setEdgeWeight(computedWrapperList);
+		}
+		unwrappedCondition = condition;
+		unwrappedFrom = range[0];
+		unwrappedTo = range[1];
+		return true;
+	}
+
+	/**
+	 * Unwraps the graph for the given zoom level and zoom center without changing the data of this model, so the
+	 * data can be computed before it is needed. This can be called from any thread.
+	 *
+	 * <p>
+	 * The wrappers compute some of their values the first time they are used, so the wrapped graph is unwrapped by
+	 * one operation at a time. This operation is cancelled as soon as another thread waits for the lock of this
+	 * model, like the event dispatch thread when the view zooms or moves.
+	 * </p>
+	 *
+	 * @param zoomLevel
+	 *            the zoom level
+	 * @param zoomCenter
+	 *            the x coordinate of the center of the view
+	 * @param cancelled
+	 *            returns {@code true} when the result is no longer needed
+	 * @return the unwrapped graph, or {@code null} if there is no data or the computation was cancelled
+	 */
+	public synchronized UnwrapCache.Entry unwrap(float zoomLevel, float zoomCenter, BooleanSupplier cancelled) {
+		if (collapsedNode == null) {
+			return null;
+		}
+		float[] range = getUnwrapRange(zoomLevel, zoomCenter);
+		float condition = getCondition(zoomLevel);
+		Unwrap unwrap = createUnwrap(zoomLevel, condition, range[0], range[1]);
+		unwrap.setCancelled(() -> cancelled.getAsBoolean() || waitingComputations.get() > 0);
+		try {
+			unwrap.compute(collapsedNode);
+		} catch (CancellationException e) {
+			return null;
+		}
+		EdgeUtil.setEdgeWeight(unwrap.getWrapperClones());
+		return new UnwrapCache.Entry(dataVersion.get(), zoomLevel, range[0], range[1], condition,
+				unwrap.getResult(), unwrap.getWrapperClones());
+	}
 
-		float condition = Math.min((this.graphWidth * MIN_NODE_DISTANCE)
-				/ (ScreenSize.getInstance().getWidth() * this.zoomLevel),
-				new GetFirstCombineWrapper().compute(this.collapsedNode).getCollapse());
-		
-		Unwrap unwrap = new UnwrapOnCollapse(condition);
-		unwrap.compute(collapsedNode);
-		dataNodeWrapperList = unwrap.getWrapperClones();
-		EdgeUtil.setEdgeWeight(dataNodeWrapperList);
-		
+	/**
+	 * Takes the data for the current zoom level and zoom center from the cache, when it is available there, and
+	 * notifies the view. This should be called from the event dispatch thread.
+	 *
+	 * @param cache
+	 *            the cache to take the data from
+	 * @return {@code true} if the data was found in the cache
+	 */
+	public boolean useCachedDataNodeWrapperList(UnwrapCache cache) {
+		return testLocked(() -> useCachedDataNodeWrapperListLocked(cache));
+	}
+
+	private boolean useCachedDataNodeWrapperListLocked(UnwrapCache cache) {
+		float[] visible = getVisibleRange(zoomLevel, zoomCenter);
+		UnwrapCache.Entry entry = cache.take(dataVersion.get(), zoomLevel, visible[0], visible[1]);
+		if (entry == null || entry.getCondition() != getCondition(zoomLevel)) {
+			// An entry computed before the screen was resized unwraps too much or too little.
+			return false;
+		}
+		computedResult = entry.getResult();
+		computedWrapperList = entry.getWrapperClones();
+		unwrappedCondition = entry.getCondition();
+		unwrappedFrom = entry.getFrom();
+		unwrappedTo = entry.getTo();
+		publishDataNodeWrapperListLocked();
+		return true;
+	}
+
+	private Unwrap createUnwrap(float zoomLevel, float condition, float from, float to) {
+		UnwrapPyramid currentPyramid = getPyramid();
+		int step = getZoomStep(zoomLevel);
+		if (currentPyramid != null && step >= 0) {
+			return new UnwrapOnLevel(currentPyramid, step, from, to);
+		}
+		return new UnwrapOnCollapse(condition, from, to);
+	}
+
+	/**
+	 * Replaces the data shown by the view by the latest computed data at once, and notifies the view. This should be
+	 * called from the event dispatch thread.
+	 *
+	 * <p>
+	 * Once the view shows the new data, the clones of the replaced data are no longer used, so they are released to
+	 * the pool to be reused by the next computation.
+	 * </p>
+	 */
+	public void publishDataNodeWrapperList() {
+		runLocked(this::publishDataNodeWrapperListLocked);
+	}
+
+	private void publishDataNodeWrapperListLocked() {
+		final List<WrapperClone> previous = dataNodeWrapperList;
+		dataNodeWrapperList = computedWrapperList;
 		setChanged();
 		notifyObservers();
-		notifyLoadingObservers(false);
+		if (previous != null && previous != dataNodeWrapperList && publishedVersion == dataVersion.get()) {
+			clonePool.release(previous);
+		}
+		publishedVersion = dataVersion.get();
 	}
 	
+	/**
+	 * Computes the collapse condition a wrapper should meet to be unwrapped at the given zoom level.
+	 *
+	 * @param zoomLevel
+	 *            the zoom level
+	 * @return the minimal collapse value of an unwrapped wrapper
+	 */
+	private float getCondition(float zoomLevel) {
+		return Math.min((this.graphWidth * MIN_NODE_DISTANCE)
+				/ (viewWidth.getAsInt() * zoomLevel), maxCollapse);
+	}
+
+	/**
+	 * Computes the collapse condition of each zoom step for the current size of the screen.
+	 *
+	 * @return the conditions in the order of {@link #ZOOM_STEPS}
+	 */
+	private float[] getConditions() {
+		float[] conditions = new float[ZOOM_STEPS.length];
+		for (int i = 0; i < ZOOM_STEPS.length; i++) {
+			conditions[i] = getCondition(ZOOM_STEPS[i]);
+		}
+		return conditions;
+	}
+
+	/**
+	 * Gets the {@link UnwrapPyramid} of the current data for the current size of the screen. When the screen was
+	 * resized after the pyramid was computed, its levels are computed again from the same index.
+	 *
+	 * @return the pyramid, or {@code null} if it isn't computed yet
+	 */
+	private UnwrapPyramid getPyramid() {
+		UnwrapPyramid current = pyramid.get();
+		if (current == null) {
+			return null;
+		}
+		UnwrapPyramid result = current.withConditions(getConditions());
+		if (result != current) {
+			// Only replaces the pyramid when the data didn't change in the meantime.
+			pyramid.compareAndSet(current, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the zoom step of a zoom level.
+	 *
+	 * @param zoomLevel
+	 *            the zoom level
+	 * @return the index of the zoom level in {@link #ZOOM_STEPS}, or -1 if it isn't one of the steps
+	 */
+	static int getZoomStep(float zoomLevel) {
+		for (int i = 0; i < ZOOM_STEPS.length; i++) {
+			if (Math.abs(ZOOM_STEPS[i] - zoomLevel) <= ZOOM_STEPS[i] * 1e-4f) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Computes the zoom levels which can be reached by zooming in and out with {@link #ZOOM_STEP_SIZE}, starting
+	 * at the default zoom level and at both bounds.
+	 *
+	 * @return the zoom levels in increasing order
+	 */
+	private static float[] computeZoomSteps() {
+		SortedSet<Float> steps = new TreeSet<>();
+		for (float level = MIN_ZOOM_LEVEL; level < MAX_ZOOM_LEVEL; level *= ZOOM_STEP_SIZE) {
+			steps.add(level);
+		}
+		for (float level = MAX_ZOOM_LEVEL; level > MIN_ZOOM_LEVEL; level /= ZOOM_STEP_SIZE) {
+			steps.add(level);
+		}
+		steps.add(MAX_ZOOM_LEVEL);
+		float[] result = new float[steps.size()];
+		int i = 0;
+		for (float step : steps) {
+			result[i++] = step;
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the {@link UnwrapPyramid} for the current data in the background. The computation for the previous
+	 * data is cancelled, and the pyramid is only used when the data hasn't changed in the meantime.
+	 */
+	private synchronized void computePyramid() {
+		final Wrapper node = collapsedNode;
+		if (pyramidTask != null) {
+			pyramidTask.cancel(true);
+		}
+		pyramidTask = PYRAMID_EXECUTOR.submit(() -> {
+				CollapseThresholdIndex index = new CollapseThresholdIndex(node);
+				if (Thread.currentThread().isInterrupted()) {
+					return;
+				}
+				synchronized (this) {
+					if (node == collapsedNode) {
+						pyramid.set(new UnwrapPyramid(index, getConditions()));
+					}
+				}
+			}
+		);
+	}
+
 	@Override
 	public void update(Observable o, Object arg) {
 		if (o == this.filteredGraphModel) {
-			this.collapsedNode = this.filteredGraphModel.getCollapsedNode();
-			this.graphWidth = this.collapsedNode.getWidth();
-			produceDataNodeWrapperList();
+			runLocked(this::dataChanged);
 		}
 	}
 
+	/**
+	 * Takes the new data of the {@link FilteredGraphModel}, and shows it.
+	 */
+	private void dataChanged() {
+		this.collapsedNode = this.filteredGraphModel.getCollapsedNode();
+		this.graphWidth = this.collapsedNode.getWidth();
+		this.maxCollapse = new GetFirstCombineWrapper().compute(this.collapsedNode).getCollapse();
+		this.pyramid.set(null);
+		this.unwrappedCondition = Float.NaN;
+		this.dataVersion.incrementAndGet();
+		this.clonePool.clear();
+		computePyramid();
+		produceDataNodeWrapperListLocked();
+	}
+
 	public List<Genome> getGenomes() {
 		return filteredGraphModel.getGenomes();
 	}
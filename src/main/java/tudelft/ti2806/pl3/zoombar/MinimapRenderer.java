@@ -0,0 +1,114 @@
+package tudelft.ti2806.pl3.zoombar;
+
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Draws the minimap of the zoom bar: the outline of the graph and the interest of each part of the graph. The pixels
+ * are written directly into the image, so drawing costs one pass over the nodes and one over the pixels.
+ */
+final class MinimapRenderer {
+	private static final int INTEREST_RGB = 0xff0000;
+	private static final int OUTLINE_ARGB = 0x60a9b7c6;
+	private static final int PADDING = 2;
+
+	private MinimapRenderer() {
+	}
+
+	/**
+	 * Draws the minimap.
+	 *
+	 * @param width
+	 *            the width of the image
+	 * @param height
+	 *            the height of the image
+	 * @param interest
+	 *            the interest of each column of the image
+	 * @param maxInterest
+	 *            the largest value in interest
+	 * @param nodes
+	 *            the positioned nodes of the graph, drawn as the outline of the graph
+	 * @return the image of the minimap
+	 */
+	static BufferedImage render(int width, int height, float[] interest, float maxInterest, List<Wrapper> nodes) {
+		BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
+		int[] pixels = new int[image.getWidth() * image.getHeight()];
+		drawOutline(pixels, image.getWidth(), image.getHeight(), nodes);
+		drawInterest(pixels, image.getWidth(), image.getHeight(), interest, maxInterest);
+		image.setRGB(0, 0, image.getWidth(), image.getHeight(), pixels, 0, image.getWidth());
+		return image;
+	}
+
+	/**
+	 * Marks each pixel which contains a node. The x axis is divided in the same way as the interest, and the y axis
+	 * is scaled to fit the height of the image.
+	 */
+	private static void drawOutline(int[] pixels, int width, int height, List<Wrapper> nodes) {
+		if (nodes == null || nodes.isEmpty()) {
+			return;
+		}
+		float maxX = -Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE;
+		float maxY = -Float.MAX_VALUE;
+		for (Wrapper node : nodes) {
+			maxX = Math.max(maxX, node.getX());
+			minY = Math.min(minY, node.getY());
+			maxY = Math.max(maxY, node.getY());
+		}
+		int rows = Math.max(1, height - 2 * PADDING);
+		for (Wrapper node : nodes) {
+			int column = maxX > 0 ? (int) Math.min(width - 1, node.getX() / maxX * width) : 0;
+			int row = maxY > minY ? (int) ((node.getY() - minY) / (maxY - minY) * (rows - 1)) : rows / 2;
+			int y = Math.min(height - 1, PADDING + row);
+			if (column >= 0 && y >= 0) {
+				pixels[y * width + column] = OUTLINE_ARGB;
+			}
+		}
+	}
+
+	/**
+	 * Draws a vertical line for each column, centered on the image, with a height and opacity relative to the largest
+	 * interest. The line is drawn over the outline.
+	 */
+	private static void drawInterest(int[] pixels, int width, int height, float[] interest, float maxInterest) {
+		if (interest == null || maxInterest <= 0) {
+			return;
+		}
+		for (int column = 0; column < Math.min(width, interest.length); column++) {
+			float fraction = Math.max(0, Math.min(1, interest[column] / maxInterest));
+			int lineHeight = (int) (fraction * height);
+			int alpha = (int) (fraction * 255);
+			if (alpha == 0) {
+				continue;
+			}
+			int top = (height - lineHeight) / 2;
+			for (int y = top; y < Math.min(height, top + lineHeight + 1); y++) {
+				pixels[y * width + column] = over(alpha << 24 | INTEREST_RGB, pixels[y * width + column]);
+			}
+		}
+	}
+
+	/**
+	 * Blends two colors.
+	 *
+	 * @return the color of the top color drawn over the bottom color
+	 */
+	private static int over(int top, int bottom) {
+		int topAlpha = top >>> 24;
+		int bottomAlpha = bottom >>> 24;
+		int alpha = topAlpha + bottomAlpha * (255 - topAlpha) / 255;
+		if (alpha == 0) {
+			return 0;
+		}
+		int result = alpha << 24;
+		for (int shift = 0; shift < 24; shift += 8) {
+			int topChannel = top >> shift & 0xff;
+			int bottomChannel = bottom >> shift & 0xff;
+			int channel = (topChannel * topAlpha + bottomChannel * bottomAlpha * (255 - topAlpha) / 255) / alpha;
+			result |= channel << shift;
+		}
+		return result;
+	}
+}
@@ -58,6 +58,7 @@ public class ZoomBarController implements Controller, GraphMovedListener, GraphL
 	private void updateView() {
 		zoomBarView.setMaxInterest(cc.getGraphController().getMaxInterest());
 		zoomBarView.setInterest(cc.getGraphController().getInterest());
+		zoomBarView.setNodes(cc.getGraphController().getPositionedNodes());
 		zoomBarView.setZoomCenter(cc.getGraphController().getCurrentZoomCenter());
 		zoomBarView.setViewPercent(cc.getGraphController().getViewPercent());
 		zoomBarView.setGraphWidth((float) cc.getGraphController().getGraphDimension());
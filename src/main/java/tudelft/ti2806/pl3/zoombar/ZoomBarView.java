@@ -2,15 +2,18 @@ package tudelft.ti2806.pl3.zoombar;
 
 import tudelft.ti2806.pl3.ScreenSize;
 import tudelft.ti2806.pl3.View;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
 
 import java.awt.BasicStroke;
 import java.awt.BorderLayout;
-import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Stroke;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
 import javax.swing.JPanel;
@@ -18,6 +21,12 @@ import javax.swing.JPanel;
 /**
  * The view for the zoom bar. The zoom bar is used to navigate through and zoom
  * in on the graph. Created by Boris Mattijssen on 06-05-15.
+ *
+ * <p>
+ * The zoom bar shows a minimap of the graph, with the interest and the outline of the graph. The minimap is drawn
+ * once into an image, which is drawn again only when the interest, the nodes or the height change. Moving the graph
+ * only repaints the part of the zoom bar around the indicator.
+ * </p>
  */
 @SuppressWarnings("serial")
 public class ZoomBarView extends JPanel implements View, Observer {
@@ -33,6 +42,11 @@ public class ZoomBarView extends JPanel implements View, Observer {
 	private float viewPercent = 0;
 	private float graphWidth = 0;
 	private float offsetToCenter = 0;
+	private List<Wrapper> nodes = Collections.emptyList();
+
+	private BufferedImage minimap;
+	private float[] minimapInterest;
+	private List<Wrapper> minimapNodes;
 
 	/**
 	 * Construct a zoom bar view with a fixed height.
@@ -52,26 +66,25 @@ public class ZoomBarView extends JPanel implements View, Observer {
 	@Override
 	protected void paintComponent(Graphics g) {
 		super.paintComponent(g);
+		g.drawImage(getMinimap(), 0, 0, null);
 		drawIndicator(g);
-		drawInterest(g);
 	}
 
 	/**
-	 * Draw interest values on the zoombar.
+	 * Gets the image of the minimap, which is drawn again when the interest, the nodes or the height changed since it
+	 * was drawn.
 	 *
-	 * @param g
-	 * 		graphics
+	 * @return the image of the minimap
 	 */
-	private void drawInterest(Graphics g) {
+	BufferedImage getMinimap() {
 		int height = getPreferredSize().height;
-		int i = 0;
-		for (float v : interest) {
-			int lineHeight = (int) ((v / maxInterest) * height);
-			int alpha = (int) ((v / maxInterest) * 255);
-			g.setColor(new Color(255, 0, 0, alpha));
-			g.drawLine(i, (height - lineHeight) / 2, i, (height - lineHeight) / 2 + lineHeight);
-			i++;
+		if (minimap == null || minimapInterest != interest || minimapNodes != nodes
+				|| minimap.getWidth() != Math.max(1, interest.length) || minimap.getHeight() != Math.max(1, height)) {
+			minimap = MinimapRenderer.render(interest.length, height, interest, maxInterest, nodes);
+			minimapInterest = interest;
+			minimapNodes = nodes;
 		}
+		return minimap;
 	}
 
 	/**
@@ -99,11 +112,21 @@ public class ZoomBarView extends JPanel implements View, Observer {
 	 * When the graph was moved, the position of the square is recalculated.
 	 */
 	public void moved() {
+		repaintIndicator();
 		float zoomCenterWithOffset = zoomCenter	- offsetToCenter * viewPercent;
 		float fraction = zoomCenterWithOffset / graphWidth;
 		x = (int) (fraction * ScreenSize.getInstance().getWidth());
 		width = (int) (viewPercent * ScreenSize.getInstance().getWidth());
-		repaint();
+		repaintIndicator();
+	}
+
+	/**
+	 * Repaints the part of the zoom bar covered by the indicator, including the width of its border.
+	 */
+	private void repaintIndicator() {
+		if (width != -1) {
+			repaint(x - 2, 0, Math.max(width, INDICATOR_MIN_WIDTH) + 4, getPreferredSize().height + 1);
+		}
 	}
 
 	@Override
@@ -120,8 +143,31 @@ public class ZoomBarView extends JPanel implements View, Observer {
 		this.maxInterest = maxInterest;
 	}
 
+	/**
+	 * Sets the interest of each column of the zoom bar. The minimap is only drawn again when this is another array.
+	 *
+	 * @param interest
+	 * 		the interest of each column
+	 */
 	public void setInterest(float[] interest) {
-		this.interest = interest;
+		if (interest != this.interest) {
+			this.interest = interest;
+			repaint();
+		}
+	}
+
+	/**
+	 * Sets the positioned nodes of the graph, which are drawn as the outline of the graph. The minimap is only drawn
+	 * again when this is another list.
+	 *
+	 * @param nodes
+	 * 		the positioned nodes of the graph
+	 */
+	public void setNodes(List<Wrapper> nodes) {
+		if (nodes != this.nodes) {
+			this.nodes = nodes;
+			repaint();
+		}
 	}
 
 	public void setZoomCenter(float zoomCenter) {
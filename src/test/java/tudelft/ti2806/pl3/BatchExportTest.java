@@ -0,0 +1,26 @@
+package tudelft.ti2806.pl3;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.visualization.BatchRenderer;
+
+/**
+ * Test for {@link BatchExport}.
+ */
+public class BatchExportTest {
+
+	@Test
+	public void testParseWindow() {
+		BatchRenderer.Window window = BatchExport.parseWindow("region:a:10-20");
+		assertEquals("region:a", window.getName());
+		assertEquals(10, window.getFrom());
+		assertEquals(20, window.getTo());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseWindowWithoutRange() {
+		BatchExport.parseWindow("region");
+	}
+}
@@ -1,5 +1,6 @@
 package tudelft.ti2806.pl3.data;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static tudelft.ti2806.pl3.data.BasePair.G;
 
@@ -18,4 +19,11 @@ public class AminoAcidTest {
 				AminoAcid.getAcids(BasePair.toEnumString("NGG")),
 				new AminoAcid[] { null }));
 	}
+	
+	@Test
+	public void isStopTest() {
+		assertTrue(AminoAcid.get(BasePair.getCodon(BasePair.toEnumString("TAA"))).isStop());
+		assertTrue(AminoAcid.get(BasePair.getCodon(BasePair.toEnumString("TGA"))).isStop());
+		assertFalse(AminoAcid.get(BasePair.getCodon(BasePair.toEnumString("TGG"))).isStop());
+	}
 }
@@ -0,0 +1,96 @@
+package tudelft.ti2806.pl3.data.export;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.Edge;
+import tudelft.ti2806.pl3.data.search.GenomePathIndex;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test for {@link FastaExporter}, on a graph with a bubble:
+ * 
+ * <pre>
+ *            / 1 (C, genome a) \
+ * 0 (70 A)                      3 (TTGCA)
+ *            \ 2 (GG, genome b) /
+ * </pre>
+ */
+public class FastaExporterTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final String START = String.join("", Collections.nCopies(70, "A"));
+
+	private Genome first = new Genome("a");
+	private Genome second = new Genome("b/2");
+	private FastaExporter exporter;
+
+	@Before
+	public void setUp() {
+		Set<Genome> both = new HashSet<>(Arrays.asList(first, second));
+		List<DataNode> nodes = Arrays.asList(new DataNode(0, both, 0, 69, START),
+				new DataNode(1, Collections.singleton(first), 70, 70, "C"),
+				new DataNode(2, Collections.singleton(second), 70, 71, "GG"), new DataNode(3, both, 71, 75, "TTGCA"));
+		List<Edge> edges = Arrays.asList(new Edge(nodes.get(0), nodes.get(1)), new Edge(nodes.get(0), nodes.get(2)),
+				new Edge(nodes.get(1), nodes.get(3)), new Edge(nodes.get(2), nodes.get(3)));
+		exporter = new FastaExporter(GenomePathIndex.build(nodes, edges, Arrays.asList(first, second)));
+	}
+
+	private String write(Genome genome) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.write(genome, out);
+		return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+		assertEquals(">a\n" + START.substring(0, 60) + "\n" + START.substring(60) + "CTTGCA\n", write(first));
+		assertEquals(">b/2\n" + START.substring(0, 60) + "\n" + START.substring(60) + "GGTTGCA\n", write(second));
+	}
+
+	@Test
+	public void testExport() throws IOException {
+		List<File> files = exporter.export(Arrays.asList("b/2", "a"), folder.getRoot(), 2);
+		assertEquals(Arrays.asList(new File(folder.getRoot(), "b_2.fasta"), new File(folder.getRoot(), "a.fasta")),
+				files);
+		assertEquals(write(second), new String(Files.readAllBytes(files.get(0).toPath()), StandardCharsets.US_ASCII));
+		assertEquals(write(first), new String(Files.readAllBytes(files.get(1).toPath()), StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	public void testUnknownGenomeSkipped() throws IOException {
+		List<File> files = exporter.export(Arrays.asList("c", "a"), folder.getRoot(), 1);
+		assertEquals(Arrays.asList(null, new File(folder.getRoot(), "a.fasta")), files);
+	}
+
+	@Test
+	public void testSameFileName() {
+		Set<String> used = new HashSet<>();
+		assertEquals("a_b.fasta", FastaExporter.getUniqueFileName("a b", used));
+		assertEquals("a_b-2.fasta", FastaExporter.getUniqueFileName("a_b", used));
+		assertEquals("A_B-3.fasta", FastaExporter.getUniqueFileName("A B", used));
+	}
+
+	@Test
+	public void testFileName() {
+		assertEquals("TKK-01_0001.fasta", FastaExporter.getFileName("TKK-01_0001"));
+		assertEquals("a_b_c.fasta", FastaExporter.getFileName("a b:c"));
+	}
+}
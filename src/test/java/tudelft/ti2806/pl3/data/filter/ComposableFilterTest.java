@@ -0,0 +1,167 @@
+package tudelft.ti2806.pl3.data.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Tests the combination of {@link ComposableFilter}s into a {@link CompiledFilter}.
+ */
+public class ComposableFilterTest {
+	private final Genome genomeA = new Genome("A");
+	private final Genome genomeB = new Genome("B");
+	private final Genome genomeC = new Genome("C");
+	private List<Genome> genomes;
+	private DataNode nodeAbc;
+	private DataNode nodeAb;
+	private DataNode nodeC;
+	private List<DataNode> nodes;
+
+	/**
+	 * Construct three nodes with different genomes, sizes and reference positions.
+	 */
+	@Before
+	public void before() {
+		genomes = Arrays.asList(genomeA, genomeB, genomeC);
+		nodeAbc = new DataNode(1, new HashSet<>(genomes), 0, 9, "AAAAAAAAAA");
+		nodeAb = new DataNode(2, new HashSet<>(Arrays.asList(genomeA, genomeB)), 10, 12, "CCC");
+		nodeC = new DataNode(3, new HashSet<>(Collections.singletonList(genomeC)), 13, 20, "GGGGGGGG");
+		nodes = new ArrayList<>(Arrays.asList(nodeAbc, nodeAb, nodeC));
+	}
+
+	private void apply(Filter<DataNode> filter) {
+		CompiledFilter.compile(Collections.singletonList(filter), genomes).apply(nodes);
+	}
+
+	@Test
+	public void testGenomeMask() {
+		apply(new GenomeFilter(Collections.singletonList("C")));
+		assertEquals(Arrays.asList(nodeAbc, nodeC), nodes);
+		assertEquals(Collections.singleton(genomeC), nodeAbc.getCurrentGenomeSet());
+	}
+
+	@Test
+	public void testAndKeepsOrder() {
+		apply(new GenomeFilter(Arrays.asList("A", "C")).and(new MinimumNodeSizeFilter(5)));
+		assertEquals(Arrays.asList(nodeAbc, nodeC), nodes);
+	}
+
+	@Test
+	public void testMinimumGenomeCountAfterMask() {
+		apply(new GenomeFilter(Arrays.asList("A", "B")).and(new MinimumGenomeCountFilter(2)));
+		assertEquals(Arrays.asList(nodeAbc, nodeAb), nodes);
+		assertFalse(nodeAbc.getCurrentGenomeSet().contains(genomeC));
+	}
+
+	@Test
+	public void testOrRestrictsOperandToOwnGenomes() {
+		apply(new GenomeFilter(Collections.singletonList("A")).or(new ReferenceRangeFilter(15, 30)));
+		assertEquals(Arrays.asList(nodeAbc, nodeAb, nodeC), nodes);
+		before();
+		apply(new GenomeFilter(Collections.singletonList("C")).or(new MinimumNodeSizeFilter(100)));
+		assertEquals(Arrays.asList(nodeAbc, nodeC), nodes);
+	}
+
+	@Test
+	public void testNotGenomeRemovesNodesOfGenome() {
+		apply(new GenomeFilter(Collections.singletonList("C")).not());
+		assertEquals(Collections.singletonList(nodeAb), nodes);
+		assertEquals(new HashSet<>(Arrays.asList(genomeA, genomeB)), nodeAb.getCurrentGenomeSet());
+	}
+
+	@Test
+	public void testNotFullMaskRemovesAll() {
+		apply(new GenomeFilter(Arrays.asList("A", "B", "C")).not());
+		assertTrue(nodes.isEmpty());
+	}
+
+	@Test
+	public void testNotNot() {
+		apply(new GenomeFilter(Collections.singletonList("C")).not().not());
+		assertEquals(Arrays.asList(nodeAbc, nodeC), nodes);
+	}
+
+	@Test
+	public void testNotAnd() {
+		ComposableFilter genome = new GenomeFilter(Collections.singletonList("A"));
+		ComposableFilter size = new MinimumNodeSizeFilter(5);
+		apply(genome.and(size).not());
+		assertEquals(Arrays.asList(nodeAb, nodeC), nodes);
+		before();
+		apply(genome.not().or(size.not()));
+		assertEquals(Arrays.asList(nodeAb, nodeC), nodes);
+	}
+
+	@Test
+	public void testNotOr() {
+		ComposableFilter genome = new GenomeFilter(Collections.singletonList("C"));
+		ComposableFilter range = new ReferenceRangeFilter(10, 12);
+		apply(genome.or(range).not());
+		assertTrue(nodes.isEmpty());
+		before();
+		apply(genome.not().and(range.not()));
+		assertTrue(nodes.isEmpty());
+		before();
+		apply(new GenomeFilter(Collections.singletonList("A")).or(new MinimumNodeSizeFilter(5)).not());
+		assertTrue(nodes.isEmpty());
+		before();
+		apply(new ReferenceRangeFilter(0, 9).or(new MinimumGenomeCountFilter(3)).not());
+		assertEquals(Arrays.asList(nodeAb, nodeC), nodes);
+	}
+
+	@Test
+	public void testNotSeesGenomesClearedByMask() {
+		ComposableFilter genomeFilterA = new GenomeFilter(Collections.singletonList("A"));
+		apply(genomeFilterA.and(new GenomeFilter(Collections.singletonList("B")).not()));
+		assertTrue(nodes.isEmpty());
+		before();
+		List<Filter<DataNode>> filters = new ArrayList<>();
+		filters.add(new GenomeFilter(Collections.singletonList("A")));
+		filters.add(new GenomeFilter(Collections.singletonList("C")).not());
+		CompiledFilter.compile(filters, genomes).apply(nodes);
+		assertEquals(Collections.singletonList(nodeAb), nodes);
+		assertEquals(Collections.singleton(genomeA), nodeAb.getCurrentGenomeSet());
+	}
+
+	@Test
+	public void testMaskEquality() {
+		GenomeMask all = GenomeMask.all(genomes);
+		assertEquals(all.select(Arrays.asList("A", "B")), all.select(Arrays.asList("B", "A")));
+		assertFalse(all.select(Collections.singletonList("A")).equals(all.select(Collections.singletonList("B"))));
+	}
+
+	@Test
+	public void testNotPredicate() {
+		apply(new ReferenceRangeFilter(0, 10).not());
+		assertEquals(Collections.singletonList(nodeC), nodes);
+	}
+
+	@Test
+	public void testGenomeCount() {
+		List<Filter<DataNode>> filters = new ArrayList<>();
+		filters.add(new GenomeFilter(Arrays.asList("A", "B")));
+		filters.add(new GenomeFilter(Arrays.asList("B", "C")));
+		CompiledFilter compiled = CompiledFilter.compile(filters, genomes);
+		assertEquals(1, compiled.getGenomeCount());
+		compiled.apply(nodes);
+		assertEquals(Arrays.asList(nodeAbc, nodeAb), nodes);
+	}
+
+	@Test
+	public void testEmptyMaskRemovesAll() {
+		apply(new GenomeFilter(Collections.singletonList("D")));
+		assertTrue(nodes.isEmpty());
+	}
+}
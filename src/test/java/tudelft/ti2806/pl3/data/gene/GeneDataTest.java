@@ -72,6 +72,7 @@ public class GeneDataTest {
 
 		GeneData.parseGene(line, genes, geneStart, geneEnd, labelMap);
 		assertTrue(genes.get(0).equals(gene));
+		assertTrue(genes.get(0).isReverse());
 		assertTrue(geneStart.get(start).equals(gene));
 		assertTrue(geneEnd.get(end).equals(gene));
 	}
@@ -0,0 +1,94 @@
+package tudelft.ti2806.pl3.data.gene;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for {@link GeneNameIndex}.
+ */
+public class GeneNameIndexTest {
+	private GeneNameIndex index;
+
+	/**
+	 * Index a few genes, given out of order.
+	 */
+	@Before
+	public void before() {
+		index = new GeneNameIndex(Arrays.asList(new Gene("katG", 1, 2), new Gene("dnaA", 3, 4),
+				new Gene("dnaN", 5, 6), new Gene("rpoB", 7, 8), new Gene("Rv0001", 9, 10),
+				new Gene("embB", 11, 12), new Gene("gyrA", 13, 14)));
+	}
+
+	private List<String> search(String query) {
+		List<String> names = new ArrayList<>();
+		for (int gene : index.search(query)) {
+			names.add(index.getGene(gene).getName());
+		}
+		return names;
+	}
+
+	@Test
+	public void testEmptyQueryGivesAllGenesSorted() {
+		assertEquals(Arrays.asList("dnaA", "dnaN", "embB", "gyrA", "katG", "rpoB", "Rv0001"), search(" "));
+		assertEquals(7, index.size());
+	}
+
+	@Test
+	public void testPrefixIgnoresCase() {
+		assertEquals(Arrays.asList("dnaA", "dnaN"), search("DNA"));
+		assertEquals(Arrays.asList("rpoB", "Rv0001", "gyrA"), search("r"));
+	}
+
+	@Test
+	public void testPrefixBeforeSubstring() {
+		assertEquals(Arrays.asList("gyrA", "katG"), search("g"));
+		assertEquals(Arrays.asList("embB", "rpoB"), search("b"));
+	}
+
+	@Test
+	public void testSubstring() {
+		assertEquals(Arrays.asList("Rv0001"), search("0001"));
+		assertEquals(Arrays.asList("katG"), search("atg"));
+	}
+
+	@Test
+	public void testCloseNames() {
+		assertEquals(Arrays.asList("rpoB"), search("rpb"));
+		assertEquals(Arrays.asList("Rv0001"), search("rv0010"));
+	}
+
+	@Test
+	public void testCloseNameWithoutSharedPairs() {
+		assertEquals(Arrays.asList("dnaA", "dnaN"), search("dxa"));
+	}
+
+	@Test
+	public void testNoMatch() {
+		assertEquals(0, index.search("xyz").length);
+	}
+
+	@Test
+	public void testEmptyIndex() {
+		assertEquals(0, new GeneNameIndex(new ArrayList<>()).search("a").length);
+	}
+
+	private static int getTypos(String text, String name) {
+		return GeneNameIndex.getTypos(text, GeneNameIndex.getMasks(text), name);
+	}
+
+	@Test
+	public void testTypos() {
+		assertEquals(0, getTypos("dna", "xdnax"));
+		assertEquals(1, getTypos("dma", "xdnax"));
+		assertEquals(1, getTypos("dnba", "dna"));
+		assertEquals(1, getTypos("rv0010", "rv0001"));
+		assertEquals(3, getTypos("abc", ""));
+		assertEquals(1, getTypos("ab\u00e9", "xab\u00e8"));
+	}
+}
@@ -0,0 +1,61 @@
+package tudelft.ti2806.pl3.data.mapping;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link BandedExtender}, on a graph with a bubble: 0 (ACGTACGT) to 1 (A) or 2 (C), and then 3 (GGATCC).
+ */
+public class BandedExtenderTest {
+	private BandedExtender extender;
+
+	/**
+	 * Builds the graph.
+	 */
+	@Before
+	public void setUp() {
+		byte[][] sequences = { ReadMapper.encode("ACGTACGT"), ReadMapper.encode("A"), ReadMapper.encode("C"),
+				ReadMapper.encode("GGATCC") };
+		int[][] successors = { { 1, 2 }, { 3 }, { 3 }, {} };
+		int[][] predecessors = { {}, { 0 }, { 0 }, { 1, 2 } };
+		extender = new BandedExtender(sequences, successors, predecessors);
+	}
+
+	@Test
+	public void testForwardChoosesBestBranch() {
+		byte[] read = ReadMapper.encode("ACGTCGGAT");
+		assertEquals(0, extender.extend(read, 0, read.length, true, 0, 4, 2));
+		assertEquals(3, extender.getPathLength());
+		assertEquals(0, extender.getPathNode(0));
+		assertEquals(4, extender.getPathBases(0));
+		assertEquals(2, extender.getPathNode(1));
+		assertEquals(3, extender.getPathNode(2));
+		assertEquals(4, extender.getPathBases(2));
+	}
+
+	@Test
+	public void testForwardWithEdits() {
+		// A deleted G in the last node and a mismatch at the end.
+		byte[] read = ReadMapper.encode("CGTAGATG");
+		assertEquals(2, extender.extend(read, 0, read.length, true, 0, 5, 2));
+		assertEquals(-1, extender.extend(read, 0, read.length, true, 0, 5, 1));
+	}
+
+	@Test
+	public void testBackward() {
+		byte[] read = ReadMapper.encode("TACGTAGG");
+		// Align TACGTA backwards from the end of node 1, before GG.
+		assertEquals(0, extender.extend(read, 0, 6, false, 1, 0, 1));
+		assertEquals(2, extender.getPathLength());
+		assertEquals(5, extender.getPathBases(1));
+	}
+
+	@Test
+	public void testReadLongerThanGraph() {
+		byte[] read = ReadMapper.encode("CCAA");
+		assertEquals(2, extender.extend(read, 0, read.length, true, 3, 4, 2));
+		assertEquals(0, extender.extend(read, 0, 0, true, 3, 4, 2));
+	}
+}
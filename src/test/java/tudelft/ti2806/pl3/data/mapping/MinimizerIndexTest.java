@@ -0,0 +1,64 @@
+package tudelft.ti2806.pl3.data.mapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Test for {@link MinimizerIndex}.
+ */
+public class MinimizerIndexTest {
+	private static byte[] randomSequence(Random random, int length) {
+		byte[] sequence = new byte[length];
+		for (int i = 0; i < length; i++) {
+			sequence[i] = (byte) random.nextInt(4);
+		}
+		return sequence;
+	}
+
+	@Test
+	public void testMinimizersAreFoundInIndex() {
+		Random random = new Random(3);
+		byte[][] sequences = { randomSequence(random, 500), randomSequence(random, 300) };
+		MinimizerIndex index = new MinimizerIndex(sequences);
+		assertTrue(index.size() > 0);
+
+		// A part of the second sequence has the same minimizers at the same place.
+		byte[] read = new byte[100];
+		System.arraycopy(sequences[1], 50, read, 0, read.length);
+		int[] hashes = new int[read.length];
+		int[] offsets = new int[read.length];
+		int count = MinimizerIndex.findMinimizers(read, read.length, hashes, offsets);
+		assertTrue(count > 0);
+		for (int m = 0; m < count; m++) {
+			boolean found = false;
+			for (int hit = index.first(hashes[m]); hit < index.end(hashes[m]); hit++) {
+				found |= index.getSequence(hit) == 1 && index.getOffset(hit) == offsets[m] + 50;
+			}
+			assertTrue(found);
+		}
+	}
+
+	@Test
+	public void testShortSequence() {
+		byte[] sequence = randomSequence(new Random(5), MinimizerIndex.K + 2);
+		int[] hashes = new int[sequence.length];
+		int[] offsets = new int[sequence.length];
+		assertEquals(1, MinimizerIndex.findMinimizers(sequence, sequence.length, hashes, offsets));
+		assertEquals(0, MinimizerIndex.findMinimizers(sequence, MinimizerIndex.K - 1, hashes, offsets));
+	}
+
+	@Test
+	public void testUnknownBasePairsAreSkipped() {
+		byte[] sequence = randomSequence(new Random(8), 2 * MinimizerIndex.K);
+		for (int i = 0; i < sequence.length; i += MinimizerIndex.K - 1) {
+			sequence[i] = MinimizerIndex.UNKNOWN;
+		}
+		int[] hashes = new int[sequence.length];
+		int[] offsets = new int[sequence.length];
+		assertEquals(0, MinimizerIndex.findMinimizers(sequence, sequence.length, hashes, offsets));
+	}
+}
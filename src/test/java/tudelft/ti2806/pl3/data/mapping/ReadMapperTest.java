@@ -0,0 +1,124 @@
+package tudelft.ti2806.pl3.data.mapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.Edge;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test for {@link ReadMapper}, on a graph of two random sequences with a single nucleotide variant between them. The
+ * reads come from the sample with the C allele.
+ */
+public class ReadMapperTest {
+	private static final int READ_LENGTH = 100;
+	private static final char[] BASE_PAIRS = { 'A', 'C', 'G', 'T' };
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Random random;
+	private List<DataNode> nodes;
+	private List<Edge> edges;
+	private String sample;
+
+	private String randomSequence(int length) {
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append(BASE_PAIRS[random.nextInt(BASE_PAIRS.length)]);
+		}
+		return builder.toString();
+	}
+
+	private static String reverseComplement(String sequence) {
+		StringBuilder builder = new StringBuilder(sequence.length());
+		for (int i = sequence.length() - 1; i >= 0; i--) {
+			builder.append("TGCA".charAt("ACGT".indexOf(sequence.charAt(i))));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Builds the graph 0 - 1 (A) or 2 (C) - 3.
+	 */
+	@Before
+	public void setUp() {
+		random = new Random(11);
+		String before = randomSequence(300);
+		String after = randomSequence(300);
+		String[] contents = { before, "A", "C", after };
+		nodes = new ArrayList<>();
+		for (int i = 0; i < contents.length; i++) {
+			nodes.add(new DataNode(i, Collections.emptySet(), 0, 0, contents[i]));
+		}
+		edges = Arrays.asList(new Edge(nodes.get(0), nodes.get(1)), new Edge(nodes.get(0), nodes.get(2)),
+				new Edge(nodes.get(1), nodes.get(3)), new Edge(nodes.get(2), nodes.get(3)));
+		sample = before + "C" + after;
+	}
+
+	private File writeReads(List<String> reads) throws IOException {
+		StringBuilder fastq = new StringBuilder();
+		for (int i = 0; i < reads.size(); i++) {
+			char[] quality = new char[reads.get(i).length()];
+			Arrays.fill(quality, 'I');
+			fastq.append("@read").append(i).append('\n').append(reads.get(i)).append("\n+\n")
+					.append(quality).append('\n');
+		}
+		File file = folder.newFile("reads.fastq");
+		Files.write(file.toPath(), fastq.toString().getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+
+	@Test
+	public void testCoverage() throws IOException {
+		List<String> reads = new ArrayList<>();
+		for (int start = 0; start + READ_LENGTH <= sample.length(); start += 10) {
+			String read = sample.substring(start, start + READ_LENGTH);
+			// Every other read is sequenced from the other strand.
+			reads.add(reads.size() % 2 == 0 ? read : reverseComplement(read));
+		}
+		// A read with a sequencing error.
+		char[] error = sample.substring(250, 250 + READ_LENGTH).toCharArray();
+		error[60] = error[60] == 'A' ? 'T' : 'A';
+		reads.add(new String(error));
+		reads.add(randomSequence(READ_LENGTH));
+
+		Coverage coverage = new ReadMapper(nodes, edges).map(writeReads(reads), 2);
+		assertEquals(reads.size() - 1, coverage.getMappedReads());
+		assertEquals(1, coverage.getUnmappedReads());
+		assertTrue(coverage.getDepth(nodes.get(0)) > 1);
+		assertTrue(coverage.getDepth(nodes.get(3)) > 1);
+		assertEquals(0, coverage.getDepth(nodes.get(1)), 0);
+		assertTrue(coverage.getDepth(nodes.get(2)) >= 10);
+		assertTrue(coverage.getMaxDepth() >= coverage.getDepth(nodes.get(0)));
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException {
+		Coverage coverage = new ReadMapper(nodes, edges).map(writeReads(Collections.emptyList()), 4);
+		assertEquals(0, coverage.getMappedReads());
+		assertEquals(0, coverage.getDepth(nodes.get(0)), 0);
+	}
+
+	@Test(expected = IOException.class)
+	public void testNoFastqFile() throws IOException {
+		File file = folder.newFile("reads.fastq");
+		Files.write(file.toPath(), ">read\nACGT\n".getBytes(StandardCharsets.US_ASCII));
+		new ReadMapper(nodes, edges).map(file, 1);
+	}
+}
@@ -0,0 +1,106 @@
+package tudelft.ti2806.pl3.data.search;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test for {@link CoordinateIndex}, on nodes with the reference intervals:
+ *
+ * <pre>
+ * 0: [0, 9]   1: [10, 19]   2: [10, 10]   3: [20, 39]   4: [5, 30]   5: [50, 40] (no interval)
+ * </pre>
+ */
+public class CoordinateIndexTest {
+	private List<DataNode> nodes;
+	private CoordinateIndex index;
+
+	@Before
+	public void setUp() {
+		int[][] intervals = { { 0, 9 }, { 10, 19 }, { 10, 10 }, { 20, 39 }, { 5, 30 }, { 50, 40 } };
+		nodes = new ArrayList<>();
+		for (int i = 0; i < intervals.length; i++) {
+			nodes.add(new DataNode(i, Collections.emptySet(), intervals[i][0], intervals[i][1], ""));
+		}
+		index = new CoordinateIndex(nodes);
+	}
+
+	private List<DataNode> nodes(int... ids) {
+		List<DataNode> result = new ArrayList<>();
+		for (int id : ids) {
+			result.add(nodes.get(id));
+		}
+		return result;
+	}
+
+	@Test
+	public void testSize() {
+		assertEquals(5, index.size());
+		assertEquals(0, index.getFirstPosition());
+		assertEquals(39, index.getLastPosition());
+	}
+
+	@Test
+	public void testCovering() {
+		assertEquals(nodes(0), index.findCovering(0));
+		assertEquals(nodes(0, 4), index.findCovering(9));
+		assertEquals(nodes(4, 2, 1), index.findCovering(10));
+		assertEquals(nodes(3), index.findCovering(31));
+		assertEquals(nodes(), index.findCovering(45));
+		assertEquals(nodes(), index.findCovering(-1));
+	}
+
+	@Test
+	public void testOverlapping() {
+		assertEquals(nodes(0, 4, 2, 1, 3), index.findOverlapping(0, 100));
+		assertEquals(nodes(4, 1, 3), index.findOverlapping(15, 25));
+	}
+
+	@Test
+	public void testEmpty() {
+		CoordinateIndex empty = new CoordinateIndex(Collections.emptyList());
+		assertEquals(0, empty.size());
+		assertEquals(-1, empty.getLastPosition());
+		assertEquals(nodes(), empty.findCovering(0));
+	}
+
+	/**
+	 * Compares the index with checking each node on random intervals.
+	 */
+	@Test
+	public void testRandom() {
+		Random random = new Random(42);
+		List<DataNode> randomNodes = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			int start = random.nextInt(10000);
+			randomNodes.add(new DataNode(i, Collections.emptySet(), start, start + random.nextInt(200), ""));
+		}
+		CoordinateIndex randomIndex = new CoordinateIndex(randomNodes);
+		for (int query = 0; query < 200; query++) {
+			int from = random.nextInt(10500) - 250;
+			int to = from + random.nextInt(300);
+			List<DataNode> expected = new ArrayList<>();
+			for (DataNode node : randomNodes) {
+				if (node.getRefStartPoint() <= to && node.getRefEndPoint() >= from) {
+					expected.add(node);
+				}
+			}
+			expected.sort((a, b) -> a.getRefStartPoint() != b.getRefStartPoint()
+					? Integer.compare(a.getRefStartPoint(), b.getRefStartPoint())
+					: a.getRefEndPoint() != b.getRefEndPoint()
+							? Integer.compare(a.getRefEndPoint(), b.getRefEndPoint())
+							: Integer.compare(a.getId(), b.getId()));
+			assertEquals(expected, randomIndex.findOverlapping(from, to));
+		}
+		assertEquals(Arrays.asList(), randomIndex.findOverlapping(20000, 30000));
+	}
+}
@@ -0,0 +1,91 @@
+package tudelft.ti2806.pl3.data.search;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test for {@link FmIndex}, compared with a search through the whole text.
+ */
+public class FmIndexTest {
+	private static final int TEXT_LENGTH = 2000;
+
+	private static byte[] randomText(Random random) {
+		byte[] text = new byte[TEXT_LENGTH];
+		for (int i = 0; i < text.length - 1; i++) {
+			// A small alphabet, so patterns occur many times.
+			text[i] = (byte) (2 + random.nextInt(3));
+		}
+		text[text.length - 1] = 0;
+		return text;
+	}
+
+	private static int[] findAll(byte[] text, byte[] pattern) {
+		List<Integer> positions = new ArrayList<>();
+		for (int i = 0; i + pattern.length <= text.length; i++) {
+			if (Arrays.equals(Arrays.copyOfRange(text, i, i + pattern.length), pattern)) {
+				positions.add(i);
+			}
+		}
+		return positions.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private static int[] sorted(int[] values) {
+		int[] copy = values.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+
+	@Test
+	public void testSuffixArray() {
+		// "banana$" with a=2, b=3, n=4.
+		byte[] text = { 3, 2, 4, 2, 4, 2, 0 };
+		assertArrayEquals(new int[] { 6, 5, 3, 1, 0, 4, 2 }, FmIndex.buildSuffixArray(text));
+	}
+
+	@Test
+	public void testFind() {
+		Random random = new Random(42);
+		byte[] text = randomText(random);
+		FmIndex index = FmIndex.build(text);
+		assertEquals(TEXT_LENGTH, index.length());
+		for (int length = 1; length <= 12; length++) {
+			int start = random.nextInt(TEXT_LENGTH - length);
+			byte[] pattern = Arrays.copyOfRange(text, start, start + length);
+			int[] expected = findAll(text, pattern);
+			assertEquals(expected.length, index.count(pattern));
+			assertArrayEquals(expected, sorted(index.find(pattern)));
+		}
+	}
+
+	@Test
+	public void testMissingPattern() {
+		FmIndex index = FmIndex.build(randomText(new Random(1)));
+		assertEquals(0, index.find(new byte[] { 5 }).length);
+		assertEquals(0, index.count(new byte[] { 2, 5, 2 }));
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		byte[] text = randomText(new Random(7));
+		FmIndex index = FmIndex.build(text);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		index.write(new DataOutputStream(bytes));
+		FmIndex read = FmIndex.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		byte[] pattern = Arrays.copyOfRange(text, 100, 106);
+		assertArrayEquals(sorted(index.find(pattern)), sorted(read.find(pattern)));
+		assertArrayEquals(findAll(text, pattern), sorted(read.find(pattern)));
+	}
+}
@@ -0,0 +1,166 @@
+package tudelft.ti2806.pl3.data.search;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.Edge;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Test for {@link GenomePathIndex}, on a graph with a bubble, where the ids are not in topological order:
+ * 
+ * <pre>
+ *            / 1 (C, genome a) \
+ * 4 (ACGTA)                     3 (TTGCA)
+ *            \ 2 (GG, genome b) /
+ * </pre>
+ */
+public class GenomePathIndexTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Genome first = new Genome("a");
+	private Genome second = new Genome("b");
+	private List<DataNode> nodes;
+	private List<Edge> edges;
+	private GenomePathIndex index;
+
+	@Before
+	public void setUp() {
+		Set<Genome> both = new HashSet<>(Arrays.asList(first, second));
+		nodes = Arrays.asList(new DataNode(4, both, 0, 4, "ACGTA"),
+				new DataNode(1, Collections.singleton(first), 5, 5, "C"),
+				new DataNode(2, Collections.singleton(second), 5, 6, "GG"), new DataNode(3, both, 6, 10, "TTGCA"));
+		edges = Arrays.asList(new Edge(nodes.get(0), nodes.get(1)), new Edge(nodes.get(0), nodes.get(2)),
+				new Edge(nodes.get(1), nodes.get(3)), new Edge(nodes.get(2), nodes.get(3)));
+		index = GenomePathIndex.build(nodes, edges, Arrays.asList(first, second));
+	}
+
+	@Test
+	public void testTopologicalOrder() {
+		assertArrayEquals(new DataNode[] { nodes.get(0), nodes.get(1), nodes.get(2), nodes.get(3) },
+				GenomePathIndex.sortTopologically(nodes, edges));
+	}
+
+	@Test
+	public void testCycle() {
+		List<Edge> cycle = new ArrayList<>(edges);
+		cycle.add(new Edge(nodes.get(3), nodes.get(0)));
+		DataNode[] order = GenomePathIndex.sortTopologically(nodes, cycle);
+		assertEquals(new HashSet<>(nodes), new HashSet<>(Arrays.asList(order)));
+	}
+
+	@Test
+	public void testLengths() {
+		assertEquals(11, index.getLength(first));
+		assertEquals(12, index.getLength(second));
+		assertEquals(3, index.getNodeCount(first));
+		assertEquals(-1, index.getLength(new Genome("c")));
+	}
+
+	@Test
+	public void testNodeAt() {
+		assertEquals(nodes.get(0), index.getNodeAt(first, 0));
+		assertEquals(nodes.get(0), index.getNodeAt(first, 4));
+		assertEquals(nodes.get(1), index.getNodeAt(first, 5));
+		assertEquals(nodes.get(3), index.getNodeAt(first, 6));
+		assertEquals(nodes.get(2), index.getNodeAt(second, 6));
+		assertEquals(nodes.get(3), index.getNodeAt(second, 11));
+		assertNull(index.getNodeAt(second, 12));
+		assertNull(index.getNodeAt(second, -1));
+		assertNull(index.getNodeAt(new Genome("c"), 0));
+	}
+
+	@Test
+	public void testPosition() {
+		assertEquals(0, index.getPosition(first, nodes.get(0)));
+		assertEquals(5, index.getPosition(first, nodes.get(1)));
+		assertEquals(-1, index.getPosition(first, nodes.get(2)));
+		assertEquals(7, index.getPosition(second, nodes.get(3)));
+		assertEquals(-1, index.getPosition(second, new DataNode(9, Collections.emptySet(), 0, 0, "")));
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		File nodeFile = folder.newFile("graph.node.graph");
+		Files.write(nodeFile.toPath(), "nodes".getBytes(StandardCharsets.UTF_8));
+		File edgeFile = folder.newFile("graph.edge.graph");
+		Files.write(edgeFile.toPath(), "edges".getBytes(StandardCharsets.UTF_8));
+		File file = GenomePathIndex.getIndexFile(nodeFile);
+		index.write(file, nodeFile, edgeFile);
+		List<Genome> genomes = Arrays.asList(new Genome("b"), new Genome("a"));
+		GenomePathIndex read = GenomePathIndex.read(file, nodeFile, edgeFile, nodes, genomes);
+		assertEquals(nodes.get(2), read.getNodeAt(second, 6));
+		assertEquals(7, read.getPosition(second, nodes.get(3)));
+		assertEquals(11, read.getLength(first));
+
+		assertNull(GenomePathIndex.read(file, nodeFile, edgeFile, nodes, Collections.singletonList(first)));
+		Files.write(nodeFile.toPath(), "changed nodes".getBytes(StandardCharsets.UTF_8));
+		assertNull(GenomePathIndex.read(file, nodeFile, edgeFile, nodes, genomes));
+		assertEquals(12, GenomePathIndex.open(nodeFile, edgeFile, nodes, edges, genomes).getLength(second));
+		assertNotNull(GenomePathIndex.read(file, nodeFile, edgeFile, nodes, genomes));
+		Files.write(edgeFile.toPath(), "changed edges".getBytes(StandardCharsets.UTF_8));
+		assertNull(GenomePathIndex.read(file, nodeFile, edgeFile, nodes, genomes));
+	}
+
+	/**
+	 * Compares the index with walking the path on a long chain, so the paths have many samples.
+	 */
+	@Test
+	public void testLongPaths() {
+		Random random = new Random(7);
+		Genome[] genomes = { new Genome("x"), new Genome("y"), new Genome("z") };
+		List<DataNode> chain = new ArrayList<>();
+		List<Edge> chainEdges = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			Set<Genome> source = new HashSet<>();
+			for (Genome genome : genomes) {
+				if (random.nextInt(3) > 0) {
+					source.add(genome);
+				}
+			}
+			char[] content = new char[random.nextInt(300)];
+			Arrays.fill(content, 'A');
+			chain.add(new DataNode(i, source, 0, 0, new String(content)));
+			if (i > 0) {
+				chainEdges.add(new Edge(chain.get(i - 1), chain.get(i)));
+			}
+		}
+		GenomePathIndex chainIndex = GenomePathIndex.build(chain, chainEdges, Arrays.asList(genomes));
+		for (Genome genome : genomes) {
+			int offset = 0;
+			for (DataNode node : chain) {
+				if (!node.getSource().contains(genome)) {
+					assertEquals(-1, chainIndex.getPosition(genome, node));
+					continue;
+				}
+				assertEquals(offset, chainIndex.getPosition(genome, node));
+				for (int i = 0; i < node.getContent().length(); i += 50) {
+					assertEquals(node, chainIndex.getNodeAt(genome, offset + i));
+				}
+				offset += node.getContent().length();
+			}
+			assertEquals(offset, chainIndex.getLength(genome));
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package tudelft.ti2806.pl3.data.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.Edge;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test for {@link SequenceIndex}, on a graph with a bubble:
+ * 
+ * <pre>
+ *            / 1 (C) \
+ * 0 (ACGTA)            3 (TTGCA) - 4 (NAC)
+ *            \ 2 (G) /
+ * </pre>
+ */
+public class SequenceIndexTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private List<DataNode> nodes;
+	private List<Edge> edges;
+	private SequenceIndex index;
+
+	@Before
+	public void setUp() {
+		nodes = new ArrayList<>();
+		String[] contents = { "ACGTA", "C", "G", "TTGCA", "NAC" };
+		for (int i = 0; i < contents.length; i++) {
+			nodes.add(new DataNode(i, Collections.emptySet(), 0, 0, contents[i]));
+		}
+		edges = Arrays.asList(new Edge(nodes.get(0), nodes.get(1)), new Edge(nodes.get(0), nodes.get(2)),
+				new Edge(nodes.get(1), nodes.get(3)), new Edge(nodes.get(2), nodes.get(3)),
+				new Edge(nodes.get(3), nodes.get(4)));
+		index = SequenceIndex.build(nodes, edges);
+	}
+
+	private SequenceMatch match(int node, int offset) {
+		return new SequenceMatch(nodes.get(node), offset);
+	}
+
+	@Test
+	public void testWithinNodes() {
+		assertEquals(Collections.singletonList(match(0, 1)), index.find("CG"));
+		// The occurrence from 0 into 1 is found between the two occurrences within nodes.
+		assertEquals(Arrays.asList(match(0, 0), match(0, 4), match(4, 1)), index.find("ac"));
+	}
+
+	@Test
+	public void testAcrossNodes() {
+		// A over the edge to 1 or 2, and then into 3.
+		assertEquals(Collections.singletonList(match(0, 3)), index.find("TACTT"));
+		assertEquals(Collections.singletonList(match(0, 4)), index.find("AGT"));
+		// Through all nodes on the path over 2.
+		assertEquals(Collections.singletonList(match(0, 0)), index.find("ACGTAGTTGCANAC"));
+		assertEquals(Collections.singletonList(match(1, 0)), index.find("CT"));
+		assertEquals(Collections.singletonList(match(3, 3)), index.find("CAN"));
+	}
+
+	@Test
+	public void testNotFound() {
+		assertTrue(index.find("GCT").isEmpty());
+		// There is no edge from 4 back to 0.
+		assertTrue(index.find("ACA").isEmpty());
+		assertTrue(index.find("").isEmpty());
+	}
+
+	@Test
+	public void testOpenWritesAndReadsIndex() throws IOException {
+		File nodeFile = newFile("graph.node.graph", "nodes");
+		File edgeFile = newFile("graph.edge.graph", "edges");
+		SequenceIndex written = SequenceIndex.open(nodeFile, edgeFile, nodes, edges);
+		File indexFile = SequenceIndex.getIndexFile(nodeFile);
+		assertTrue(indexFile.isFile());
+
+		SequenceIndex read = SequenceIndex.read(indexFile, nodeFile, edgeFile, nodes, edges);
+		assertEquals(nodes.size(), read.size());
+		assertEquals(written.find("TACTT"), read.find("TACTT"));
+		assertEquals(written.find("CG"), read.find("CG"));
+	}
+
+	@Test
+	public void testChangedNodeFileIsNotRead() throws IOException {
+		File nodeFile = newFile("graph.node.graph", "nodes");
+		File edgeFile = newFile("graph.edge.graph", "edges");
+		SequenceIndex.open(nodeFile, edgeFile, nodes, edges);
+		Files.write(nodeFile.toPath(), "changed nodes".getBytes(StandardCharsets.UTF_8));
+		assertEquals(null, SequenceIndex.read(SequenceIndex.getIndexFile(nodeFile), nodeFile, edgeFile, nodes, edges));
+		assertEquals(Collections.singletonList(match(0, 3)),
+				SequenceIndex.open(nodeFile, edgeFile, nodes, edges).find("TACTT"));
+	}
+
+	@Test
+	public void testChangedEdgeFileIsNotRead() throws IOException {
+		File nodeFile = newFile("graph.node.graph", "nodes");
+		File edgeFile = newFile("graph.edge.graph", "edges");
+		SequenceIndex.open(nodeFile, edgeFile, nodes, edges);
+		Files.write(edgeFile.toPath(), "changed edges".getBytes(StandardCharsets.UTF_8));
+		assertEquals(null, SequenceIndex.read(SequenceIndex.getIndexFile(nodeFile), nodeFile, edgeFile, nodes, edges));
+	}
+
+	private File newFile(String name, String content) throws IOException {
+		File file = folder.newFile(name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
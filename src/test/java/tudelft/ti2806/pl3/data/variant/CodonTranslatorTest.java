@@ -0,0 +1,61 @@
+package tudelft.ti2806.pl3.data.variant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.data.gene.Gene;
+
+/**
+ * Test for {@link CodonTranslator}.
+ */
+public class CodonTranslatorTest {
+	private static final Gene FORWARD = new Gene("f", 1, 9);
+	private static final Gene REVERSE = new Gene("r", 1, 9, true);
+
+	private CodonTranslator forward = CodonTranslator.of("ATGGCTTAA");
+	/**
+	 * The reverse complement of the forward sequence.
+	 */
+	private CodonTranslator reverse = CodonTranslator.of("TTAAGCCAT");
+
+	private String translate(CodonTranslator translator, Gene gene, int position, String allele) {
+		CodonChange change = translator.translate(gene, position, allele);
+		return change == null ? null : change.getDescription() + " " + change.getImpact().getCode();
+	}
+
+	@Test
+	public void testForward() {
+		assertEquals("Ala2Ala synonymous", translate(forward, FORWARD, 5, "C"));
+		assertEquals("Ala2Ser missense", translate(forward, FORWARD, 3, "T"));
+		assertEquals("Ala2Ochre nonsense", translate(forward, FORWARD, 3, "TAA"));
+		assertEquals("Met1Ile missense", translate(forward, FORWARD, 2, "CA"));
+		assertNull(translate(forward, FORWARD, 3, "G"));
+	}
+
+	@Test
+	public void testMostSevere() {
+		CodonTranslator translator = CodonTranslator.of("ATGTGGCAA");
+		assertEquals("Gln3Ochre nonsense", translate(translator, FORWARD, 4, "TGT"));
+	}
+
+	@Test
+	public void testReverse() {
+		assertEquals("Ala2Pro missense", translate(reverse, REVERSE, 5, "G"));
+		assertEquals("Ala2Ala synonymous", translate(reverse, REVERSE, 3, "G"));
+		assertEquals("Met1Leu missense", translate(reverse, REVERSE, 8, "G"));
+	}
+
+	@Test
+	public void testOutsideGene() {
+		assertNull(translate(forward, new Gene("g", 4, 9), 2, "C"));
+		assertNull(translate(forward, new Gene("g", 1, 8), 7, "C"));
+	}
+
+	@Test
+	public void testUnknownBasePair() {
+		assertNull(translate(CodonTranslator.of("ATGGNTTAA"), FORWARD, 3, "T"));
+		assertNull(translate(forward, FORWARD, 3, "N"));
+	}
+}
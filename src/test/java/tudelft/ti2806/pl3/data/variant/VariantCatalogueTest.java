@@ -0,0 +1,164 @@
+package tudelft.ti2806.pl3.data.variant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.graph.Edge;
+import tudelft.ti2806.pl3.data.search.GenomePathIndex;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test for {@link VariantCatalogue}, on a graph with a bubble where genome a follows the reference, genome b has a
+ * SNP and genome c a deletion, followed by a bubble where genome b has an insertion:
+ * 
+ * <pre>
+ *            / 1 (C, ref and a) \            / 4 (AAA, b) \
+ * 0 (ACGT) -  2 (G, b)          - 3 (TT)   -               - 5 (G)
+ *            \ ---------------- /            \ ---------- /
+ * </pre>
+ */
+public class VariantCatalogueTest {
+	private static final String HEADER = "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT";
+
+	private Genome reference = new Genome(VariantCatalogue.DEFAULT_REFERENCE);
+	private Genome first = new Genome("a");
+	private Genome second = new Genome("b");
+	private Genome third = new Genome("c");
+	private List<DataNode> nodes;
+	private List<Edge> edges;
+	private GenomePathIndex pathIndex;
+
+	@Before
+	public void setUp() {
+		Set<Genome> all = new HashSet<>(Arrays.asList(reference, first, second, third));
+		nodes = Arrays.asList(new DataNode(0, all, 0, 3, "ACGT"),
+				new DataNode(1, new HashSet<>(Arrays.asList(reference, first)), 4, 4, "C"),
+				new DataNode(2, Collections.singleton(second), 4, 4, "G"), new DataNode(3, all, 5, 6, "TT"),
+				new DataNode(4, Collections.singleton(second), 7, 7, "AAA"), new DataNode(5, all, 7, 7, "G"));
+		edges = Arrays.asList(new Edge(nodes.get(0), nodes.get(1)), new Edge(nodes.get(0), nodes.get(2)),
+				new Edge(nodes.get(0), nodes.get(3)), new Edge(nodes.get(1), nodes.get(3)),
+				new Edge(nodes.get(2), nodes.get(3)), new Edge(nodes.get(3), nodes.get(4)),
+				new Edge(nodes.get(3), nodes.get(5)), new Edge(nodes.get(4), nodes.get(5)));
+		pathIndex = GenomePathIndex.build(nodes, edges, Arrays.asList(reference, first, second, third));
+	}
+
+	private List<String> write(VariantCatalogue catalogue, int threads, int expected) throws IOException {
+		StringWriter out = new StringWriter();
+		assertEquals(expected, catalogue.write(out, threads));
+		List<String> records = new ArrayList<>();
+		for (String line : out.toString().split("\n")) {
+			if (!line.startsWith("##")) {
+				records.add(line);
+			}
+		}
+		return records;
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+		VariantCatalogue catalogue = new VariantCatalogue(nodes, edges, pathIndex,
+				VariantCatalogue.DEFAULT_REFERENCE, Arrays.asList("a", "b", "c"));
+		assertEquals(2, catalogue.getSiteCount());
+		assertEquals(Arrays.asList(HEADER + "\ta\tb\tc",
+				"TKK_REF\t4\t.\tTC\tTG,T\t.\tPASS\tTYPE=snp,del;NS=3\tGT\t0\t1\t2",
+				"TKK_REF\t7\t.\tT\tTAAA\t.\tPASS\tTYPE=ins;NS=3\tGT\t0\t1\t0"), write(catalogue, 1, 2));
+	}
+
+	@Test
+	public void testHeader() throws IOException {
+		VariantCatalogue catalogue = new VariantCatalogue(nodes, edges, pathIndex,
+				VariantCatalogue.DEFAULT_REFERENCE, Collections.singletonList("a"));
+		StringWriter out = new StringWriter();
+		catalogue.write(out, 1);
+		String[] lines = out.toString().split("\n");
+		assertEquals("##fileformat=VCFv4.2", lines[0]);
+		assertEquals("##contig=<ID=TKK_REF,length=8>", lines[1]);
+		assertEquals(HEADER + "\ta", lines[lines.length - 1]);
+	}
+
+	@Test
+	public void testOnlyVariantsOfSamples() throws IOException {
+		VariantCatalogue catalogue = new VariantCatalogue(nodes, edges, pathIndex,
+				VariantCatalogue.DEFAULT_REFERENCE, Arrays.asList("c", "a"));
+		assertEquals(Arrays.asList(HEADER + "\tc\ta", "TKK_REF\t4\t.\tTC\tT\t.\tPASS\tTYPE=del;NS=2\tGT\t1\t0"),
+				write(catalogue, 1, 1));
+	}
+
+	@Test
+	public void testParallelInOrder() throws IOException {
+		int sites = VariantCatalogue.BATCH_SIZE * 3 + 7;
+		Set<Genome> both = new HashSet<>(Arrays.asList(reference, first));
+		List<DataNode> chain = new ArrayList<>();
+		List<Edge> links = new ArrayList<>();
+		DataNode anchor = new DataNode(0, both, 0, 0, "A");
+		chain.add(anchor);
+		for (int i = 0; i < sites; i++) {
+			DataNode ref = new DataNode(chain.size(), Collections.singleton(reference), 0, 0, "C");
+			DataNode alt = new DataNode(chain.size() + 1, Collections.singleton(first), 0, 0, "T");
+			DataNode next = new DataNode(chain.size() + 2, both, 0, 0, "A");
+			chain.addAll(Arrays.asList(ref, alt, next));
+			links.addAll(Arrays.asList(new Edge(anchor, ref), new Edge(anchor, alt), new Edge(ref, next),
+					new Edge(alt, next)));
+			anchor = next;
+		}
+		VariantCatalogue catalogue = new VariantCatalogue(chain, links,
+				GenomePathIndex.build(chain, links, Arrays.asList(reference, first)),
+				VariantCatalogue.DEFAULT_REFERENCE, Collections.singletonList("a"));
+		List<String> records = write(catalogue, 4, sites);
+		assertEquals(sites + 1, records.size());
+		for (int i = 0; i < sites; i++) {
+			assertEquals("TKK_REF\t" + (2 + 2 * i) + "\t.\tC\tT\t.\tPASS\tTYPE=snp;NS=1\tGT\t1", records.get(i + 1));
+		}
+	}
+
+	@Test
+	public void testAnnotate() throws IOException {
+		VariantCatalogue catalogue = new VariantCatalogue(nodes, edges, pathIndex,
+				VariantCatalogue.DEFAULT_REFERENCE, Arrays.asList("a", "b", "c"));
+		assertEquals(1, catalogue.annotate(Arrays.asList(new Gene("g 1", 4, 6), new Gene("h", 7, 8))));
+		assertEquals(Arrays.asList(HEADER + "\ta\tb\tc",
+				"TKK_REF\t4\t.\tTC\tTG,T\t.\tPASS\tTYPE=snp,del;NS=3;IMPACT=missense|g_1|Ser1Cys,.\tGT\t0\t1\t2",
+				"TKK_REF\t7\t.\tT\tTAAA\t.\tPASS\tTYPE=ins;NS=3\tGT\t0\t1\t0"), write(catalogue, 2, 2));
+	}
+
+	@Test
+	public void testImpactLabels() {
+		VariantCatalogue catalogue = new VariantCatalogue(nodes, edges, pathIndex,
+				VariantCatalogue.DEFAULT_REFERENCE, Arrays.asList("a", "b", "c"));
+		catalogue.annotate(Collections.singletonList(new Gene("g", 4, 6)));
+		catalogue.addImpactLabels();
+		catalogue.addImpactLabels();
+		assertEquals(1, nodes.get(2).getLabelList().size());
+		assertEquals("g Ser1Cys (missense)", nodes.get(2).getLabelList().get(0).toString());
+		assertEquals("g", nodes.get(2).getLabelList().get(0).getText());
+		assertTrue(nodes.get(1).getLabelList().isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownReference() {
+		new VariantCatalogue(nodes, edges, pathIndex, "d", Collections.singletonList("a"));
+	}
+
+	@Test
+	public void testUnknownSampleSkipped() throws IOException {
+		VariantCatalogue catalogue = new VariantCatalogue(nodes, edges, pathIndex,
+				VariantCatalogue.DEFAULT_REFERENCE, Arrays.asList("d", "c", "e"));
+		assertEquals(Arrays.asList("d", "e"), catalogue.getSkippedSamples());
+		assertEquals(Arrays.asList(HEADER + "\tc", "TKK_REF\t4\t.\tTC\tT\t.\tPASS\tTYPE=del;NS=1\tGT\t1"),
+				write(catalogue, 1, 1));
+	}
+}
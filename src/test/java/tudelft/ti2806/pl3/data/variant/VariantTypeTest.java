@@ -0,0 +1,27 @@
+package tudelft.ti2806.pl3.data.variant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link VariantType}.
+ */
+public class VariantTypeTest {
+	@Test
+	public void testClassify() {
+		assertNull(VariantType.classify("ACG", "ACG"));
+		assertEquals(VariantType.SNP, VariantType.classify("ACG", "ATG"));
+		assertEquals(VariantType.MNP, VariantType.classify("ACGT", "ATCT"));
+		assertEquals(VariantType.INSERTION, VariantType.classify("AG", "ACCG"));
+		assertEquals(VariantType.DELETION, VariantType.classify("ACCG", "AG"));
+		assertEquals(VariantType.COMPLEX, VariantType.classify("ACG", "ATTTG"));
+	}
+
+	@Test
+	public void testClassifyRepeat() {
+		assertEquals(VariantType.INSERTION, VariantType.classify("AA", "AAA"));
+		assertEquals(VariantType.DELETION, VariantType.classify("A", ""));
+	}
+}
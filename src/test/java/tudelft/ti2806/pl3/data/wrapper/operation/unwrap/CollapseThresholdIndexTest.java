@@ -0,0 +1,114 @@
+package tudelft.ti2806.pl3.data.wrapper.operation.unwrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.HorizontalWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class tests the {@link CollapseThresholdIndex}.
+ *
+ * <p>
+ * The right wrapper has a higher collapse value than the root, so its threshold is the collapse value of the root.
+ * </p>
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CollapseThresholdIndexTest {
+
+	@Mock
+	private DataNode dataNode1;
+	@Mock
+	private DataNode dataNode2;
+	@Mock
+	private DataNode dataNode3;
+	@Mock
+	private DataNode dataNode4;
+	@Mock
+	private DataNode dataNode5;
+
+	private HorizontalWrapper root;
+	private HorizontalWrapper left;
+	private HorizontalWrapper right;
+	private HorizontalWrapper fixed;
+	private CollapseThresholdIndex index;
+
+	/**
+	 * Create the wrappers and the index.
+	 */
+	@Before
+	public void before() {
+		left = getHorizontalWrapper(new DataNodeWrapper(dataNode1), new DataNodeWrapper(dataNode2), true);
+		right = getHorizontalWrapper(new DataNodeWrapper(dataNode3), new DataNodeWrapper(dataNode4), true);
+		fixed = getHorizontalWrapper(right, new DataNodeWrapper(dataNode5), false);
+		root = getHorizontalWrapper(left, fixed, true);
+		root.addCollapse(10);
+		left.addCollapse(5);
+		right.addCollapse(20);
+		fixed.addCollapse(30);
+		index = new CollapseThresholdIndex(root);
+	}
+
+	@Test
+	public void testThresholds() {
+		assertEquals(10, index.getThreshold(root), 0);
+		assertEquals(5, index.getThreshold(left), 0);
+		assertEquals(Float.NEGATIVE_INFINITY, index.getThreshold(fixed), 0);
+		assertEquals(Float.NEGATIVE_INFINITY, index.getThreshold(right), 0);
+	}
+
+	@Test
+	public void testUnwrapped() {
+		assertEquals(0, index.getUnwrappedCount(11));
+		assertEquals(1, index.getUnwrappedCount(10));
+		assertEquals(2, index.getUnwrappedCount(0));
+		assertEquals(root, index.getUnwrapped(6).get(0));
+		assertTrue(index.isUnwrapped(left, 5));
+		assertFalse(index.isUnwrapped(left, 6));
+		assertFalse(index.isUnwrapped(right, 0));
+	}
+
+	@Test
+	public void testChanged() {
+		assertTrue(index.getChanged(6, 7).isEmpty());
+		assertEquals(1, index.getChanged(6, 5).size());
+		assertEquals(left, index.getChanged(5, 6).get(0));
+		assertEquals(2, index.getChanged(11, 0).size());
+	}
+
+	/**
+	 * Verify that the index unwraps the same wrappers as {@link UnwrapOnCollapse}.
+	 */
+	@Test
+	public void testSameAsUnwrapOnCollapse() {
+		for (float condition : new float[] { 11, 10, 5, 0 }) {
+			Unwrap onCollapse = new UnwrapOnCollapse(condition);
+			onCollapse.compute(root);
+			Unwrap onLevel = new UnwrapOnLevel(new UnwrapPyramid(index, new float[] { condition }), 0,
+					-Float.MAX_VALUE, Float.MAX_VALUE);
+			onLevel.compute(root);
+			assertEquals(onCollapse.getWrapperClones().size(), onLevel.getWrapperClones().size());
+		}
+	}
+
+	private HorizontalWrapper getHorizontalWrapper(Wrapper wrapper1, Wrapper wrapper2, boolean canUnwrap) {
+		List<Wrapper> list = new ArrayList<>(2);
+		list.add(wrapper1);
+		list.add(wrapper2);
+		wrapper1.getOutgoing().add(wrapper2);
+		wrapper2.getIncoming().add(wrapper1);
+		return new HorizontalWrapper(list, canUnwrap);
+	}
+}
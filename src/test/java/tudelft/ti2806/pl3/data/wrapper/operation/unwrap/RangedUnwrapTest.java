@@ -0,0 +1,144 @@
+package tudelft.ti2806.pl3.data.wrapper.operation.unwrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.HorizontalWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class tests the unwrapping of a {@link HorizontalWrapper} with a range.
+ *
+ * <p>
+ * It creates five {@link DataNodeWrapper}s in a row and only unwraps the middle one. The nodes on both sides of it
+ * should each be combined into a single node.
+ * </p>
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RangedUnwrapTest {
+
+	@Mock
+	private DataNode dataNode0;
+	@Mock
+	private DataNode dataNode1;
+	@Mock
+	private DataNode dataNode2;
+	@Mock
+	private DataNode dataNode3;
+	@Mock
+	private DataNode dataNode4;
+
+	private Wrapper graph;
+	private Unwrap unwrap;
+
+	/**
+	 * Create five {@link DataNodeWrapper}s at x = 0 to 4 in a {@link HorizontalWrapper} and unwrap the range around
+	 * x = 2.
+	 */
+	@Before
+	public void before() {
+		DataNode[] dataNodes = { dataNode0, dataNode1, dataNode2, dataNode3, dataNode4 };
+		List<Wrapper> list = new ArrayList<>();
+		for (int i = 0; i < dataNodes.length; i++) {
+			DataNodeWrapper wrapper = new DataNodeWrapper(dataNodes[i]);
+			wrapper.setX(i);
+			if (i > 0) {
+				list.get(i - 1).getOutgoing().add(wrapper);
+				wrapper.getIncoming().add(list.get(i - 1));
+			}
+			list.add(wrapper);
+		}
+		graph = new HorizontalWrapper(list, true);
+		unwrap = new UnwrapOnCollapse(-1, 1.5f, 2.5f);
+		unwrap.compute(graph);
+	}
+
+	/**
+	 * Verify that the nodes out of range are combined.
+	 */
+	@Test
+	public void testWrapperCloneCount() {
+		assertEquals(3, unwrap.getWrapperClones().size());
+	}
+
+	/**
+	 * Verify that the left node contains both nodes left of the range.
+	 */
+	@Test
+	public void testLeftNode() {
+		Wrapper left = unwrap.getResult();
+		assertTrue(left instanceof WrapperClone);
+		assertEquals(0, left.getIncoming().size());
+		assertEquals(1, left.getOutgoing().size());
+		assertEquals(2, left.getDataNodes().size());
+		assertTrue(left.getDataNodes().contains(dataNode0));
+		assertTrue(left.getDataNodes().contains(dataNode1));
+	}
+
+	/**
+	 * Verify that the node in range is unwrapped.
+	 */
+	@Test
+	public void testMiddleNode() {
+		Wrapper middle = unwrap.getResult().getOutgoing().get(0);
+		assertEquals(1, middle.getIncoming().size());
+		assertEquals(1, middle.getOutgoing().size());
+		assertEquals(1, middle.getDataNodes().size());
+		assertTrue(middle.getDataNodes().contains(dataNode2));
+	}
+
+	/**
+	 * Verify that the right node contains both nodes right of the range.
+	 */
+	@Test
+	public void testRightNode() {
+		Wrapper right = unwrap.getResult().getOutgoing().get(0).getOutgoing().get(0);
+		assertEquals(0, right.getOutgoing().size());
+		assertEquals(2, right.getDataNodes().size());
+		assertTrue(right.getDataNodes().contains(dataNode3));
+		assertTrue(right.getDataNodes().contains(dataNode4));
+	}
+
+	/**
+	 * Verify that with a pool, unwrapping the same range again gives the same combined nodes, so their clones are
+	 * reused as well.
+	 */
+	@Test
+	public void testCombinedReusedWithPool() {
+		WrapperClonePool pool = new WrapperClonePool();
+		Unwrap first = new UnwrapOnCollapse(-1, 1.5f, 2.5f);
+		first.setPool(pool);
+		first.compute(graph);
+		List<WrapperClone> clones = new ArrayList<>(first.getWrapperClones());
+		pool.release(clones);
+		Unwrap second = new UnwrapOnCollapse(-1, 1.5f, 2.5f);
+		second.setPool(pool);
+		second.compute(graph);
+		assertEquals(clones.size(), second.getWrapperClones().size());
+		for (int i = 0; i < clones.size(); i++) {
+			assertSame(clones.get(i), second.getWrapperClones().get(i));
+		}
+		assertEquals(2, second.getResult().getDataNodes().size());
+	}
+
+	/**
+	 * Verify that no more {@link tudelft.ti2806.pl3.data.wrapper.WrapperPlaceholder}s are left.
+	 */
+	@Test
+	public void testNoMorePlaceholders() {
+		new NoMorePlaceholdersTest(unwrap.getWrapperClones());
+	}
+}
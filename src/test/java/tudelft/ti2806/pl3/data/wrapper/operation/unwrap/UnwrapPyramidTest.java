@@ -0,0 +1,160 @@
+package tudelft.ti2806.pl3.data.wrapper.operation.unwrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.HorizontalWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class tests the {@link UnwrapPyramid} and the unwrapping of its levels.
+ *
+ * <p>
+ * It creates two {@link HorizontalWrapper}s with a different collapse value in a {@link HorizontalWrapper}, so
+ * each level of the pyramid unwraps one wrapper more.
+ * </p>
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UnwrapPyramidTest {
+
+	@Mock
+	private DataNode dataNode1;
+	@Mock
+	private DataNode dataNode2;
+	@Mock
+	private DataNode dataNode3;
+	@Mock
+	private DataNode dataNode4;
+
+	private HorizontalWrapper root;
+	private HorizontalWrapper left;
+	private HorizontalWrapper right;
+	private UnwrapPyramid pyramid;
+
+	/**
+	 * Create the wrappers and the pyramid.
+	 */
+	@Before
+	public void before() {
+		left = getHorizontalWrapper(new DataNodeWrapper(dataNode1), new DataNodeWrapper(dataNode2));
+		right = getHorizontalWrapper(new DataNodeWrapper(dataNode3), new DataNodeWrapper(dataNode4));
+		root = getHorizontalWrapper(left, right);
+		root.addCollapse(10);
+		left.addCollapse(5);
+		right.addCollapse(1);
+		pyramid = new UnwrapPyramid(root, new float[] { 10, 5, 1 });
+	}
+
+	/**
+	 * Verify which wrappers are unwrapped at each level.
+	 */
+	@Test
+	public void testLevels() {
+		assertEquals(3, pyramid.getLevelCount());
+		assertTrue(pyramid.isUnwrapped(0, root));
+		assertFalse(pyramid.isUnwrapped(0, left));
+		assertTrue(pyramid.isUnwrapped(1, left));
+		assertFalse(pyramid.isUnwrapped(1, right));
+		assertTrue(pyramid.isUnwrapped(2, right));
+		assertEquals(2, pyramid.getChanged(0, 2).cardinality());
+	}
+
+	/**
+	 * Verify that a wrapper is not unwrapped when the wrapper containing it isn't.
+	 */
+	@Test
+	public void testParentNotUnwrapped() {
+		UnwrapPyramid closed = new UnwrapPyramid(root, new float[] { 11, 1 });
+		assertFalse(closed.isUnwrapped(0, root));
+		assertFalse(closed.isUnwrapped(0, left));
+		assertTrue(closed.isUnwrapped(1, left));
+	}
+
+	/**
+	 * Verify that other conditions only compute the levels again.
+	 */
+	@Test
+	public void testWithConditions() {
+		assertSame(pyramid, pyramid.withConditions(new float[] { 10, 5, 1 }));
+		UnwrapPyramid resized = pyramid.withConditions(new float[] { 5, 1 });
+		assertSame(pyramid.getIndex(), resized.getIndex());
+		assertEquals(2, resized.getLevelCount());
+		assertTrue(resized.isUnwrapped(0, left));
+		assertFalse(resized.isUnwrapped(0, right));
+		assertTrue(resized.isUnwrapped(1, right));
+	}
+
+	/**
+	 * Verify that unwrapping a level gives the same amount of nodes as unwrapping on collapse.
+	 */
+	@Test
+	public void testUnwrapOnLevel() {
+		for (int level = 0; level < 3; level++) {
+			Unwrap unwrap = new UnwrapOnLevel(pyramid, level, -Float.MAX_VALUE, Float.MAX_VALUE);
+			unwrap.compute(root);
+			assertEquals(level + 2, unwrap.getWrapperClones().size());
+		}
+	}
+
+	/**
+	 * Verify that expanding a previous result connects all nodes in the right order.
+	 */
+	@Test
+	public void testExpand() {
+		Unwrap first = new UnwrapOnLevel(pyramid, 0, -Float.MAX_VALUE, Float.MAX_VALUE);
+		first.compute(root);
+		Unwrap second = new UnwrapOnLevel(pyramid, 2, -Float.MAX_VALUE, Float.MAX_VALUE);
+		second.expand(first.getResult(), first.getWrapperClones());
+		assertEquals(4, second.getWrapperClones().size());
+		new NoMorePlaceholdersTest(second.getWrapperClones());
+
+		Wrapper node = second.getResult();
+		assertEquals(0, node.getIncoming().size());
+		for (DataNode dataNode : new DataNode[] { dataNode1, dataNode2, dataNode3, dataNode4 }) {
+			assertTrue(node.getDataNodes().contains(dataNode));
+			node = node.getOutgoing().isEmpty() ? null : node.getOutgoing().get(0);
+		}
+	}
+
+	/**
+	 * Verify that expanding a previous result doesn't change it, so it can still be shown.
+	 */
+	@Test
+	public void testExpandKeepsPrevious() {
+		Unwrap first = new UnwrapOnLevel(pyramid, 0, -Float.MAX_VALUE, Float.MAX_VALUE);
+		first.compute(root);
+		List<WrapperClone> previous = new ArrayList<>(first.getWrapperClones());
+		List<List<Wrapper>> outgoing = new ArrayList<>();
+		previous.forEach(clone -> outgoing.add(new ArrayList<>(clone.getOutgoing())));
+
+		Unwrap second = new UnwrapOnLevel(pyramid, 2, -Float.MAX_VALUE, Float.MAX_VALUE);
+		second.expand(first.getResult(), first.getWrapperClones());
+		for (int i = 0; i < previous.size(); i++) {
+			assertEquals(outgoing.get(i), previous.get(i).getOutgoing());
+			assertFalse(second.getWrapperClones().contains(previous.get(i)));
+		}
+	}
+
+	private HorizontalWrapper getHorizontalWrapper(Wrapper wrapper1, Wrapper wrapper2) {
+		List<Wrapper> list = new ArrayList<>(2);
+		list.add(wrapper1);
+		list.add(wrapper2);
+		wrapper1.getOutgoing().add(wrapper2);
+		wrapper2.getIncoming().add(wrapper1);
+		return new HorizontalWrapper(list, true);
+	}
+}
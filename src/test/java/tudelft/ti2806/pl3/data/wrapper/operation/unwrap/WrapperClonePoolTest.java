@@ -0,0 +1,163 @@
+package tudelft.ti2806.pl3.data.wrapper.operation.unwrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.HorizontalWrapper;
+import tudelft.ti2806.pl3.data.wrapper.SpaceWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+import tudelft.ti2806.pl3.data.wrapper.WrapperPlaceholder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class tests unwrapping the same graph twice with a {@link WrapperClonePool}.
+ *
+ * <p>
+ * It creates a {@link SpaceWrapper} in a {@link HorizontalWrapper} and verifies that the second operation reuses the
+ * clones of the first one when they are released, with the same edges.
+ * </p>
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WrapperClonePoolTest {
+
+	@Mock
+	private DataNode dataNode1;
+	@Mock
+	private DataNode dataNode2;
+	@Mock
+	private DataNode dataNode3;
+	@Mock
+	private DataNode dataNode4;
+
+	private Wrapper graph;
+	private WrapperClonePool pool;
+
+	/**
+	 * Create a {@link SpaceWrapper} wrapped in a {@link HorizontalWrapper}.
+	 */
+	@Before
+	public void before() {
+		DataNodeWrapper nodePosition1 = new DataNodeWrapper(dataNode1);
+		DataNodeWrapper nodePosition2 = new DataNodeWrapper(dataNode2);
+		DataNodeWrapper nodePosition3 = new DataNodeWrapper(dataNode3);
+		DataNodeWrapper nodePosition4 = new DataNodeWrapper(dataNode4);
+
+		List<Wrapper> listSpace = new ArrayList<>(3);
+		listSpace.add(nodePosition1);
+		listSpace.add(nodePosition2);
+		listSpace.add(nodePosition3);
+
+		nodePosition1.getOutgoing().add(nodePosition2);
+		nodePosition1.getOutgoing().add(nodePosition3);
+		nodePosition2.getOutgoing().add(nodePosition3);
+
+		nodePosition2.getIncoming().add(nodePosition1);
+		nodePosition3.getIncoming().add(nodePosition1);
+		nodePosition3.getIncoming().add(nodePosition2);
+
+		SpaceWrapper space = new SpaceWrapper(listSpace);
+
+		List<Wrapper> horizontalList = new ArrayList<>(2);
+		horizontalList.add(space);
+		horizontalList.add(nodePosition4);
+		space.getOutgoing().add(nodePosition4);
+		nodePosition4.getIncoming().add(space);
+
+		graph = new HorizontalWrapper(horizontalList, true);
+		pool = new WrapperClonePool();
+	}
+
+	private Unwrap unwrap() {
+		Unwrap unwrap = new UnwrapOnCollapse(-1);
+		unwrap.setPool(pool);
+		unwrap.compute(graph);
+		return unwrap;
+	}
+
+	/**
+	 * Verify that the released clones of the first operation are used again, with the same edges.
+	 */
+	@Test
+	public void testClonesReused() {
+		List<WrapperClone> first = new ArrayList<>(unwrap().getWrapperClones());
+		List<Integer> outgoingCounts = new ArrayList<>();
+		first.forEach(clone -> outgoingCounts.add(clone.getOutgoing().size()));
+		pool.release(first);
+
+		Unwrap second = unwrap();
+		assertEquals(first.size(), second.getWrapperClones().size());
+		for (int i = 0; i < first.size(); i++) {
+			assertSame(first.get(i), second.getWrapperClones().get(i));
+			assertEquals((int) outgoingCounts.get(i), second.getWrapperClones().get(i).getOutgoing().size());
+		}
+		new NoMorePlaceholdersTest(second.getWrapperClones());
+	}
+
+	/**
+	 * Verify that the clones of a result which isn't released are not changed by the next operation.
+	 */
+	@Test
+	public void testNotReleasedNotReused() {
+		List<WrapperClone> first = new ArrayList<>(unwrap().getWrapperClones());
+		List<Integer> outgoingCounts = new ArrayList<>();
+		first.forEach(clone -> outgoingCounts.add(clone.getOutgoing().size()));
+		List<WrapperClone> second = unwrap().getWrapperClones();
+		for (int i = 0; i < first.size(); i++) {
+			assertNotSame(first.get(i), second.get(i));
+			assertEquals((int) outgoingCounts.get(i), first.get(i).getOutgoing().size());
+		}
+	}
+
+	/**
+	 * Verify that a released clone is only handed out once.
+	 */
+	@Test
+	public void testReleasedOnce() {
+		List<WrapperClone> first = new ArrayList<>(unwrap().getWrapperClones());
+		pool.release(first);
+		unwrap();
+		List<WrapperClone> third = unwrap().getWrapperClones();
+		for (WrapperClone clone : third) {
+			first.forEach(previous -> assertNotSame(previous, clone));
+		}
+	}
+
+	/**
+	 * Verify that no clones are reused after the pool is cleared.
+	 */
+	@Test
+	public void testClear() {
+		List<WrapperClone> first = new ArrayList<>(unwrap().getWrapperClones());
+		pool.release(first);
+		pool.clear();
+		List<WrapperClone> second = unwrap().getWrapperClones();
+		for (WrapperClone clone : second) {
+			first.forEach(previous -> assertNotSame(previous, clone));
+		}
+	}
+
+	/**
+	 * Verify that a released placeholder is handed out again without edges.
+	 */
+	@Test
+	public void testPlaceholderReused() {
+		WrapperPlaceholder placeholder = pool.obtainPlaceholder();
+		placeholder.getOutgoing().add(placeholder);
+		pool.releasePlaceholder(placeholder);
+		WrapperPlaceholder reused = pool.obtainPlaceholder();
+		assertSame(placeholder, reused);
+		assertEquals(0, reused.getOutgoing().size());
+	}
+}
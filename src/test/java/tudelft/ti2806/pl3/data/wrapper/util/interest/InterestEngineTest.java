@@ -0,0 +1,138 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.label.EndGeneLabel;
+import tudelft.ti2806.pl3.data.label.StartGeneLabel;
+import tudelft.ti2806.pl3.data.mapping.Coverage;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.HorizontalWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test for {@link InterestEngine} and the built in {@link InterestScorer}s.
+ */
+public class InterestEngineTest {
+	private Genome first;
+	private Genome second;
+	private List<Wrapper> wrappers;
+
+	/**
+	 * Creates a node shared by both genomes, a node of the first genome with a gene and a node of the second genome
+	 * with N's.
+	 */
+	@Before
+	public void setUp() {
+		first = new Genome("first");
+		second = new Genome("second");
+		wrappers = new ArrayList<>();
+		wrappers.add(createWrapper(0, "ACGT", first, second));
+		DataNode gene = new DataNode(1, genomes(first), 0, 0, "ACGTACGTA");
+		gene.addLabel(new StartGeneLabel("gene", 0));
+		gene.addLabel(new EndGeneLabel("gene", 9));
+		gene.setCurrentGenomeList(genomes(first));
+		DataNodeWrapper geneWrapper = new DataNodeWrapper(gene);
+		geneWrapper.setX(1);
+		wrappers.add(geneWrapper);
+		wrappers.add(createWrapper(2, "NNAA", second));
+	}
+
+	private static Set<Genome> genomes(Genome... genomes) {
+		return new HashSet<>(Arrays.asList(genomes));
+	}
+
+	private static DataNodeWrapper createWrapper(int id, String content, Genome... genomes) {
+		DataNode node = new DataNode(id, genomes(genomes), 0, 0, content);
+		node.setCurrentGenomeList(genomes(genomes));
+		DataNodeWrapper wrapper = new DataNodeWrapper(node);
+		wrapper.setX(id);
+		return wrapper;
+	}
+
+	@Test
+	public void testDefault() {
+		InterestEngine engine = InterestEngine.createDefault(wrappers, 2);
+		engine.apply();
+		assertEquals(1f, wrappers.get(0).getInterest(), 0);
+		assertEquals(1f + (float) Math.sqrt(9), wrappers.get(1).getInterest(), 1e-6);
+		assertEquals(1f + (float) (Math.sqrt(4) * 0.5), wrappers.get(2).getInterest(), 1e-6);
+	}
+
+	@Test
+	public void testSetWeight() {
+		InterestEngine engine = InterestEngine.createDefault(wrappers, 2);
+		engine.setWeight(SequenceInterestScorer.NAME, 0);
+		engine.setWeight(GeneOverlapScorer.NAME, 2);
+		engine.apply();
+		assertEquals(1f, wrappers.get(0).getInterest(), 0);
+		assertEquals(3f, wrappers.get(1).getInterest(), 0);
+		assertEquals(1f, wrappers.get(2).getInterest(), 0);
+		engine.setWeight(VariantDensityScorer.NAME, 1);
+		engine.apply();
+		assertEquals(3f, wrappers.get(0).getInterest(), 0);
+		assertEquals(5f, wrappers.get(1).getInterest(), 0);
+	}
+
+	@Test
+	public void testCombinedLabels() {
+		HorizontalWrapper combined = new HorizontalWrapper(Arrays.asList(wrappers.get(1), wrappers.get(2)), true);
+		combined.setX(1);
+		NodeAggregates aggregates = new NodeAggregates(Arrays.asList(wrappers.get(1), combined), 2);
+		assertEquals(aggregates.getLabelCount(0), aggregates.getLabelCount(1));
+		assertEquals(1, aggregates.getGeneCount(1));
+	}
+
+	@Test
+	public void testCoverage() {
+		DataNode[] nodes = new DataNode[wrappers.size()];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = ((DataNodeWrapper) wrappers.get(i)).getNode();
+		}
+		InterestEngine engine = new InterestEngine(wrappers, 2);
+		engine.addScorer(new CoverageScorer(new Coverage(nodes, new long[] { 4, 0, 8 }, 3, 0)), 1);
+		engine.apply();
+		assertEquals(1f + (float) (0.5 * Math.sqrt(8)), wrappers.get(0).getInterest(), 1e-6);
+		assertEquals(1f, wrappers.get(1).getInterest(), 0);
+		assertEquals(1f + (float) Math.sqrt(4), wrappers.get(2).getInterest(), 1e-6);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownScorer() {
+		InterestEngine.createDefault(wrappers, 2).setWeight("unknown", 1);
+	}
+
+	@Test
+	public void testMetadataAssociation() {
+		InterestEngine engine = new InterestEngine(wrappers, 2);
+		engine.addScorer(new MetadataAssociationScorer(first::equals), 1);
+		engine.apply();
+		assertEquals(1f, wrappers.get(0).getInterest(), 0);
+		assertEquals(2f, wrappers.get(1).getInterest(), 0);
+		assertEquals(2f, wrappers.get(2).getInterest(), 0);
+	}
+
+	@Test
+	public void testParallelRanges() {
+		List<Wrapper> many = new ArrayList<>();
+		for (int i = 0; i < InterestEngine.RANGE_SIZE * 3 + 1; i++) {
+			many.add(createWrapper(i, i % 2 == 0 ? "AC" : "ACGT", first));
+		}
+		InterestEngine engine = InterestEngine.createDefault(many, 2);
+		engine.apply();
+		for (int i = 0; i < many.size(); i++) {
+			float expected = 1f + (float) Math.sqrt(i % 2 == 0 ? 2 : 4);
+			assertEquals(expected, many.get(i).getInterest(), 1e-6);
+		}
+	}
+}
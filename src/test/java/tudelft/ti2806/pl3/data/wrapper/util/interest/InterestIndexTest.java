@@ -0,0 +1,88 @@
+package tudelft.ti2806.pl3.data.wrapper.util.interest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.data.wrapper.FixWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test for {@link InterestIndex}.
+ */
+public class InterestIndexTest {
+	private InterestIndex index;
+
+	/**
+	 * Creates wrappers at x = 0 to 4, where the wrapper at x has an interest of x + 1. The wrappers are shuffled, so
+	 * the index has to sort them.
+	 */
+	@Before
+	public void setUp() {
+		List<Wrapper> wrappers = new ArrayList<>();
+		for (int x = 4; x >= 0; x--) {
+			Wrapper wrapper = new FixWrapper(x);
+			wrapper.setX(x);
+			wrapper.addInterest(x);
+			wrappers.add(wrapper);
+		}
+		Collections.swap(wrappers, 1, 3);
+		index = new InterestIndex(wrappers);
+	}
+
+	@Test
+	public void testProject() {
+		assertEquals(5, index.size());
+		assertEquals(4, index.getMaxX(), 0);
+		assertArrayEquals(new float[] { 1, 2, 3, 4, 5 }, index.project(5, false), 0);
+		assertArrayEquals(new float[] { 3, 12 }, index.project(2, false), 0);
+		assertArrayEquals(new float[] { 15 }, index.project(1, false), 0);
+	}
+
+	@Test
+	public void testProjectRange() {
+		assertArrayEquals(new float[] { 2, 3, 4 }, index.project(3, 1, 3, false), 0);
+		assertArrayEquals(new float[] { 7 }, index.project(1, 1.5f, 3, false), 0);
+		assertArrayEquals(new float[] { 3, 0 }, index.project(2, 2, 2, false), 0);
+		assertArrayEquals(new float[] { 0, 0 }, index.project(2, 10, 20, false), 0);
+	}
+
+	@Test
+	public void testProjectLogarithmic() {
+		float[] linear = index.project(2, false);
+		float[] logarithmic = index.project(2, true);
+		for (int i = 0; i < linear.length; i++) {
+			assertEquals(Math.log1p(linear[i]), logarithmic[i], 1e-6);
+		}
+	}
+
+	@Test
+	public void testPeakInterest() {
+		assertEquals(5, index.getPeakInterest(0, 4), 0);
+		assertEquals(4, index.getPeakInterest(0, 3.5f), 0);
+		assertEquals(3, index.getPeakInterest(1, 2), 0);
+		assertEquals(2, index.getPeakInterest(1, 1), 0);
+		assertEquals(0, index.getPeakInterest(5, 6), 0);
+	}
+
+	@Test
+	public void testCollectInterest() {
+		CollectInterest collectInterest = new CollectInterest(2);
+		collectInterest.calculate(index);
+		assertArrayEquals(new float[] { 3, 12 }, collectInterest.getInterest(), 0);
+		assertEquals(12, collectInterest.getMaxInterest(), 0);
+	}
+
+	@Test
+	public void testEmpty() {
+		InterestIndex empty = new InterestIndex(new ArrayList<>());
+		assertArrayEquals(new float[] { 0, 0 }, empty.project(2, false), 0);
+		assertEquals(0, empty.getPeakInterest(0, 1), 0);
+	}
+}
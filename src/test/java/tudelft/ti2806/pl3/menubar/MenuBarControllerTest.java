@@ -1,6 +1,8 @@
 package tudelft.ti2806.pl3.menubar;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -161,6 +163,16 @@ public class MenuBarControllerTest {
 		verify(sideBarController, times(1)).toggleSideBar();
 	}
 
+	@Test
+	public void testParseRange() {
+		assertArrayEquals(new int[] { 1000, 1000 }, MenuBarController.parseRange(" 1,000 "));
+		assertArrayEquals(new int[] { 5, 20 }, MenuBarController.parseRange("5 - 20"));
+		assertArrayEquals(new int[] { 5, 20 }, MenuBarController.parseRange("20-5"));
+		assertNull(MenuBarController.parseRange("5-"));
+		assertNull(MenuBarController.parseRange("1-2-3"));
+		assertNull(MenuBarController.parseRange("abc"));
+	}
+
 	@Test
 	public void testMakeControls() {
 		String expected = Constants.INFO_CONTROLS;
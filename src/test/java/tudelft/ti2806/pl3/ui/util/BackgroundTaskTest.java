@@ -0,0 +1,39 @@
+package tudelft.ti2806.pl3.ui.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.swing.SwingUtilities;
+
+/**
+ * Test for {@link BackgroundTask}.
+ */
+public class BackgroundTaskTest {
+
+	@Test
+	public void testResultOnEventDispatchThread() throws Exception {
+		List<Boolean> threads = new ArrayList<>();
+		List<String> results = new ArrayList<>();
+		Thread thread = BackgroundTask.start("test", () -> {
+				threads.add(SwingUtilities.isEventDispatchThread());
+				return "done";
+			}, result -> {
+				threads.add(SwingUtilities.isEventDispatchThread());
+				results.add(result);
+			}
+		);
+		assertTrue(thread.isDaemon());
+		thread.join();
+		// The result is handed over before the thread ends, so it is handled before this empty event.
+		SwingUtilities.invokeAndWait(() -> { });
+		assertEquals("test", thread.getName());
+		assertEquals(Arrays.asList(false, true), threads);
+		assertEquals(Collections.singletonList("done"), results);
+	}
+}
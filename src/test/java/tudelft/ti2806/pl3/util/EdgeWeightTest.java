@@ -1,6 +1,6 @@
 package tudelft.ti2806.pl3.util;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertEquals;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -60,16 +60,25 @@ public class EdgeWeightTest {
 	 */
 	@Test
 	public void testWeight() {
-		assertTrue(wrappers[0].getOutgoingWeight().get(0).equals(3));
-		assertTrue(wrappers[1].getOutgoingWeight().get(0).equals(2));
-		assertTrue(wrappers[1].getOutgoingWeight().get(1).equals(1));
-		assertTrue(wrappers[2].getOutgoingWeight().get(0).equals(2));
-		assertTrue(wrappers[3].getOutgoingWeight().get(0).equals(1));
-		assertTrue(wrappers[3].getOutgoingWeight().get(1).equals(1));
-		assertTrue(wrappers[3].getOutgoingWeight().get(2).equals(1));
-		assertTrue(wrappers[4].getOutgoingWeight().get(0).equals(1));
-		assertTrue(wrappers[5].getOutgoingWeight().get(0).equals(1));
-		assertTrue(wrappers[6].getOutgoingWeight().get(0).equals(1));
+		assertEquals(3, wrappers[0].getOutgoingWeight(0));
+		assertEquals(2, wrappers[1].getOutgoingWeight(0));
+		assertEquals(1, wrappers[1].getOutgoingWeight(1));
+		assertEquals(2, wrappers[2].getOutgoingWeight(0));
+		assertEquals(1, wrappers[3].getOutgoingWeight(0));
+		assertEquals(1, wrappers[3].getOutgoingWeight(1));
+		assertEquals(1, wrappers[3].getOutgoingWeight(2));
+		assertEquals(1, wrappers[4].getOutgoingWeight(0));
+		assertEquals(1, wrappers[5].getOutgoingWeight(0));
+		assertEquals(1, wrappers[6].getOutgoingWeight(0));
 	}
 
+	/**
+	 * Test whether every outgoing edge has exactly one weight.
+	 */
+	@Test
+	public void testOneWeightPerEdge() {
+		for (Wrapper wrapper : wrappers) {
+			assertEquals(wrapper.getOutgoing().size(), wrapper.getOutgoingWeights().length);
+		}
+	}
 }
@@ -0,0 +1,70 @@
+package tudelft.ti2806.pl3.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for {@link SpatialGrid}.
+ */
+public class SpatialGridTest {
+
+	private SpatialGrid<String> grid;
+
+	/**
+	 * Create a grid with three points.
+	 */
+	@Before
+	public void setUp() {
+		grid = new SpatialGrid<>(10, 10);
+		grid.put("a", 0, 0);
+		grid.put("b", 15, 5);
+		grid.put("c", 17, 5);
+	}
+
+	@Test
+	public void testFindNearest() {
+		assertEquals("a", grid.findNearest(1, 1, 2, 2));
+		assertEquals("b", grid.findNearest(15.5f, 5, 2, 2));
+		assertEquals("c", grid.findNearest(16.5f, 5, 2, 2));
+	}
+
+	@Test
+	public void testOutOfReach() {
+		assertNull(grid.findNearest(5, 5, 2, 2));
+	}
+
+	@Test
+	public void testNearestInNeighbouringCell() {
+		assertEquals("b", grid.findNearest(11, 5, 5, 5));
+	}
+
+	@Test
+	public void testMove() {
+		grid.put("a", 50, 50);
+		assertNull(grid.findNearest(0, 0, 2, 2));
+		assertEquals("a", grid.findNearest(50, 50, 2, 2));
+		assertEquals(3, grid.size());
+	}
+
+	@Test
+	public void testRemove() {
+		grid.remove("b");
+		assertEquals("c", grid.findNearest(15, 5, 3, 3));
+		assertEquals(2, grid.size());
+	}
+
+	@Test
+	public void testSetCellSize() {
+		grid.setCellSize(1, 1);
+		assertEquals("a", grid.findNearest(1, 1, 2, 2));
+		assertEquals("c", grid.findNearest(17, 5, 0.5f, 0.5f));
+	}
+
+	@Test
+	public void testLargeReach() {
+		assertEquals("a", grid.findNearest(-500, 0, 1000, 1000));
+	}
+}
@@ -0,0 +1,84 @@
+package tudelft.ti2806.pl3.visualisation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.gene.GeneData;
+import tudelft.ti2806.pl3.data.graph.GraphDataRepository;
+import tudelft.ti2806.pl3.visualization.BatchRenderer;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+/**
+ * Test for {@link BatchRenderer}.
+ */
+public class BatchRendererTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private BatchRenderer renderer;
+
+	/**
+	 * Parses the edge weight test graph, of which the nodes cover the reference coordinates 0 to 14.
+	 *
+	 * @throws IOException
+	 *             when the test files can't be read
+	 */
+	@Before
+	public void setUp() throws IOException {
+		GraphDataRepository graphData = new GraphDataRepository();
+		graphData.parseGraph(new File("data/testdata/edgeWeightTest.node.graph"),
+				new File("data/testdata/edgeWeightTest.edge.graph"),
+				GeneData.parseGenes("data/testdata/TestGeneAnnotationsFile"));
+		renderer = new BatchRenderer(graphData, new ArrayList<>(), 200, 100);
+	}
+
+	@Test
+	public void testRenderPng() throws IOException {
+		List<File> files = renderer.render(Arrays.asList(new BatchRenderer.Window("all", 0, 14),
+				BatchRenderer.Window.of(new Gene("gene/1", 5, 9)), new BatchRenderer.Window("none", 100, 200)),
+				folder.getRoot(), BatchRenderer.Format.PNG, 2);
+		assertEquals(3, files.size());
+		assertEquals("all.png", files.get(0).getName());
+		assertEquals("gene_1.png", files.get(1).getName());
+		assertNull(files.get(2));
+		BufferedImage image = ImageIO.read(files.get(0));
+		assertEquals(200, image.getWidth());
+		assertEquals(100, image.getHeight());
+	}
+
+	@Test
+	public void testSameFileName() throws IOException {
+		List<File> files = renderer.render(Arrays.asList(new BatchRenderer.Window("a b", 0, 14),
+				new BatchRenderer.Window("a_b", 0, 14), new BatchRenderer.Window("A_B", 0, 14)),
+				folder.getRoot(), BatchRenderer.Format.PNG, 2);
+		assertEquals("a_b.png", files.get(0).getName());
+		assertEquals("a_b-2.png", files.get(1).getName());
+		assertEquals("A_B-3.png", files.get(2).getName());
+	}
+
+	@Test
+	public void testRenderSvg() throws IOException {
+		File file = renderer.render(new BatchRenderer.Window("all", 0, 14), folder.getRoot(),
+				BatchRenderer.Format.SVG);
+		String svg = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		assertTrue(svg.startsWith("<svg"));
+		assertTrue(svg.contains("<circle") || svg.contains("<rect x"));
+		assertTrue(svg.trim().endsWith("</svg>"));
+	}
+}
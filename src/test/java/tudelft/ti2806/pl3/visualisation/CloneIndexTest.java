@@ -0,0 +1,69 @@
+package tudelft.ti2806.pl3.visualisation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.gene.Gene;
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.label.EndGeneLabel;
+import tudelft.ti2806.pl3.data.label.GeneLabel;
+import tudelft.ti2806.pl3.data.label.StartGeneLabel;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.FixWrapper;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+import tudelft.ti2806.pl3.visualization.CloneIndex;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Test for {@link CloneIndex}.
+ */
+public class CloneIndexTest {
+	private DataNode[] nodes;
+	private WrapperClone first;
+	private WrapperClone second;
+	private CloneIndex index;
+
+	/**
+	 * Builds two clones, where the first contains two nodes of the same gene.
+	 */
+	@Before
+	public void setUp() {
+		Set<Genome> genome = new HashSet<>();
+		genome.add(new Genome("a"));
+		nodes = new DataNode[] { new DataNode(0, genome, 0, 0, ""), new DataNode(1, genome, 0, 0, ""),
+				new DataNode(2, genome, 0, 0, ""), new DataNode(3, genome, 0, 0, "") };
+		nodes[0].addLabel(new StartGeneLabel("gene", 0));
+		nodes[1].addLabel(new EndGeneLabel("gene", 1));
+		nodes[2].addLabel(new GeneLabel("other"));
+		first = new WrapperClone(new HashSet<>(Arrays.asList(nodes[0], nodes[1])), new DataNodeWrapper(nodes[0]));
+		second = new WrapperClone(Collections.singleton(nodes[2]), new DataNodeWrapper(nodes[2]));
+		WrapperClone fix = new WrapperClone(Collections.emptySet(), new FixWrapper(-1));
+		index = new CloneIndex(Arrays.asList(fix, first, second));
+	}
+
+	@Test
+	public void testGetClone() {
+		assertSame(first, index.getClone(nodes[0]));
+		assertSame(first, index.getClone(nodes[1]));
+		assertSame(second, index.getClone(nodes[2]));
+		assertNull(index.getClone(nodes[3]));
+	}
+
+	@Test
+	public void testGetClones() {
+		assertEquals(Collections.singletonList(first), index.getClones(new Gene("gene", 0, 1)));
+		assertEquals(Collections.singletonList(second), index.getClones(new Gene("other", 0, 1)));
+		assertTrue(index.getClones(new Gene("missing", 0, 1)).isEmpty());
+		assertTrue(index.getClones(null).isEmpty());
+	}
+}
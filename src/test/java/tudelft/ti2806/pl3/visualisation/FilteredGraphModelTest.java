@@ -13,6 +13,7 @@ import tudelft.ti2806.pl3.data.gene.GeneData;
 import tudelft.ti2806.pl3.data.graph.DataNode;
 import tudelft.ti2806.pl3.data.graph.Edge;
 import tudelft.ti2806.pl3.data.graph.GraphDataRepository;
+import tudelft.ti2806.pl3.data.mapping.Coverage;
 import tudelft.ti2806.pl3.data.wrapper.HorizontalWrapper;
 import tudelft.ti2806.pl3.data.wrapper.WrappedGraphData;
 import tudelft.ti2806.pl3.data.wrapper.Wrapper;
@@ -31,13 +32,14 @@ public class FilteredGraphModelTest {
 	private List<Edge> resultEdges;
 	private final String genomeToFilter = "B";
 	private int genomeCount;
+	private GraphDataRepository graphDataRepository;
 
 	@Before
 	public void before() throws IOException {
 		File nodesFile = new File("data/testdata/genomeFilter.node.graph");
 		File edgesFile = new File("data/testdata/genomeFilter.edge.graph");
 		GeneData geneData = GeneData.parseGenes("data/testdata/TestGeneAnnotationsFile");
-		GraphDataRepository graphDataRepository = new GraphDataRepository();
+		graphDataRepository = new GraphDataRepository();
 		graphDataRepository.parseGraph(nodesFile, edgesFile, geneData);
 		FilteredGraphModel filteredGraphModel = new FilteredGraphModel(graphDataRepository);
 
@@ -117,4 +119,20 @@ public class FilteredGraphModelTest {
 		assertTrue(collapsedNode instanceof HorizontalWrapper);
 		assertEquals(4, ((HorizontalWrapper) collapsedNode).getNodeList().size());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testCoverageResetOnParse() {
+		FilteredGraphModel model = new FilteredGraphModel(graphDataRepository, () -> 100);
+		model.graphParsed();
+		float withoutCoverage = model.getMaxInterest();
+		DataNode[] nodes = graphDataRepository.getNodes().toArray(new DataNode[0]);
+		long[] bases = new long[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			bases[i] = nodes[i].getContent().length();
+		}
+		model.setCoverage(new Coverage(nodes, bases, 1, 0));
+		assertTrue(model.getMaxInterest() > withoutCoverage);
+		model.graphParsed();
+		assertEquals(withoutCoverage, model.getMaxInterest(), 0);
+	}
+}
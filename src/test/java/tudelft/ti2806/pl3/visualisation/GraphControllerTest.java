@@ -1,17 +1,30 @@
 package tudelft.ti2806.pl3.visualisation;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import tudelft.ti2806.pl3.data.Genome;
+import tudelft.ti2806.pl3.data.graph.DataNode;
 import tudelft.ti2806.pl3.data.graph.GraphDataRepository;
+import tudelft.ti2806.pl3.data.graph.GraphParsedObserver;
+import tudelft.ti2806.pl3.exception.NodeNotFoundException;
 import tudelft.ti2806.pl3.visualization.GraphController;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Test for the GraphController
@@ -23,16 +36,54 @@ public class GraphControllerTest {
 	@Mock
 	GraphDataRepository graphDataRepository;
 
+	/**
+	 * The folder of the graph files, where the indices of the graph are written.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	GraphController graphController;
 
 	@Test
 	public void testParseGraph() throws IOException {
 
 		graphController = new GraphController(graphDataRepository);
-		File nodefile = new File("data/testdata/LastOpenedTest/test.node.graph");
-		File edgefile = new File("data/testdata/LastOpenedTest/test.edge.graph");
+		File nodefile = folder.newFile("test.node.graph");
+		File edgefile = folder.newFile("test.edge.graph");
 
 		graphController.parseGraph(nodefile,edgefile);
 		verify(graphDataRepository, times(1)).parseGraph(nodefile, edgefile, graphController.getGeneData());
+		assertFalse(graphController.isGraphParsed());
+
+		// The controller is notified first, before the filtered graph model wraps the graph.
+		ArgumentCaptor<GraphParsedObserver> observers = ArgumentCaptor.forClass(GraphParsedObserver.class);
+		verify(graphDataRepository, times(2)).addGraphParsedObserver(observers.capture());
+		observers.getAllValues().get(0).graphParsed();
+		assertTrue(graphController.isGraphParsed());
+		assertEquals(0, graphController.getPathIndex().getGenomes().size());
+	}
+
+	@Test
+	public void testFindNodesAt() {
+		DataNode first = new DataNode(0, Collections.emptySet(), 0, 9, "");
+		DataNode second = new DataNode(1, Collections.emptySet(), 10, 19, "");
+		when(graphDataRepository.getNodes()).thenReturn(Arrays.asList(second, first));
+		graphController = new GraphController(graphDataRepository);
+		assertEquals(Arrays.asList(first, second), graphController.findNodesAt(5, 15));
+		assertEquals(Collections.singletonList(second), graphController.findNodesAt(19, 30));
+	}
+
+	@Test(expected = NodeNotFoundException.class)
+	public void testCenterOnUncoveredPosition() throws NodeNotFoundException {
+		when(graphDataRepository.getNodes()).thenReturn(Collections.emptyList());
+		graphController = new GraphController(graphDataRepository);
+		graphController.centerOnPosition(0, 10);
+	}
+
+	@Test
+	public void testSelectedGenomesWithoutFilter() {
+		when(graphDataRepository.getGenomes()).thenReturn(Arrays.asList(new Genome("a"), new Genome("b")));
+		graphController = new GraphController(graphDataRepository);
+		assertEquals(Arrays.asList("a", "b"), graphController.getSelectedGenomes());
 	}
 }
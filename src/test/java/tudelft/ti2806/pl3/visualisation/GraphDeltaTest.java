@@ -0,0 +1,103 @@
+package tudelft.ti2806.pl3.visualisation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+import tudelft.ti2806.pl3.visualization.GraphDelta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Test for {@link GraphDelta}.
+ */
+public class GraphDeltaTest {
+
+	private Graph graph;
+	private GraphDelta graphDelta;
+	private List<Wrapper> originals;
+
+	/**
+	 * Create three wrappers to clone.
+	 */
+	@Before
+	public void setUp() {
+		graph = new SingleGraph("test");
+		graphDelta = new GraphDelta(graph, 10f);
+		originals = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			DataNodeWrapper wrapper = new DataNodeWrapper(new DataNode(i, new HashSet<>(), 0, 0, "A"));
+			wrapper.setX(i);
+			originals.add(wrapper);
+		}
+	}
+
+	@Test
+	public void testAdd() {
+		graphDelta.apply(createClones(3), 1, 1);
+		assertEquals(3, graph.getNodeCount());
+		assertEquals(2, graph.getEdgeCount());
+		assertNotNull(graph.getEdge("1-2"));
+		assertEquals("1", graph.getNode("1").getAttribute("ui.label"));
+	}
+
+	@Test
+	public void testNothingChanged() {
+		graphDelta.apply(createClones(3), 1, 1);
+		graphDelta.apply(createClones(3), 1, 1);
+		assertEquals(0, graphDelta.getChangeCount());
+		assertEquals(3, graph.getNodeCount());
+	}
+
+	@Test
+	public void testOnlyChangesApplied() {
+		graphDelta.apply(createClones(3), 1, 1);
+		List<WrapperClone> clones = createClones(2);
+		clones.get(1).setX(5);
+		graphDelta.apply(clones, 1, 1);
+		assertEquals(2, graphDelta.getChangeCount());
+		assertNull(graph.getNode("3"));
+		assertNull(graph.getEdge("2-3"));
+		assertEquals(1, graph.getEdgeCount());
+		assertEquals(Arrays.asList(5f, 0d), Arrays.asList((Object[]) graph.getNode("2").getAttribute("xy")));
+	}
+
+	@Test
+	public void testNodeGrid() {
+		graphDelta.apply(createClones(3), 1, 1);
+		assertEquals(3, graphDelta.getNodeGrid().size());
+		List<WrapperClone> clones = createClones(2);
+		clones.get(1).setX(5);
+		graphDelta.apply(clones, 1, 1);
+		assertEquals(2, graphDelta.getNodeGrid().size());
+		assertEquals(graph.getNode("2"), graphDelta.getNodeGrid().findNearest(5, 0, 0.5f, 0.5f));
+		assertNull(graphDelta.getNodeGrid().findNearest(3, 0, 0.5f, 0.5f));
+	}
+
+	private List<WrapperClone> createClones(int count) {
+		List<WrapperClone> clones = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			WrapperClone clone = new WrapperClone(originals.get(i));
+			clone.calculateX();
+			if (i > 0) {
+				clones.get(i - 1).getOutgoing().add(clone);
+				clones.get(i - 1).setOutgoingWeights(new int[] { 1 });
+				clone.getIncoming().add(clones.get(i - 1));
+			}
+			clones.add(clone);
+		}
+		return clones;
+	}
+}
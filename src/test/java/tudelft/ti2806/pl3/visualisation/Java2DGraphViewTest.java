@@ -0,0 +1,98 @@
+package tudelft.ti2806.pl3.visualisation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import tudelft.ti2806.pl3.data.graph.DataNode;
+import tudelft.ti2806.pl3.data.wrapper.DataNodeWrapper;
+import tudelft.ti2806.pl3.data.wrapper.WrapperClone;
+import tudelft.ti2806.pl3.exception.NodeNotFoundException;
+import tudelft.ti2806.pl3.visualization.Java2DGraphView;
+import tudelft.ti2806.pl3.visualization.ZoomedGraphModel;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Test for {@link Java2DGraphView}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class Java2DGraphViewTest {
+
+	@Mock
+	private ZoomedGraphModel zoomedGraphModel;
+
+	private Java2DGraphView view;
+	private List<DataNode> dataNodes;
+
+	/**
+	 * Publish three connected nodes at x = 2, 4 and 6 to the view.
+	 */
+	@Before
+	public void setUp() {
+		dataNodes = new ArrayList<>();
+		List<WrapperClone> clones = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			DataNode dataNode = new DataNode(i, new HashSet<>(), 0, 0, "A");
+			DataNodeWrapper wrapper = new DataNodeWrapper(dataNode);
+			wrapper.setX(i * 2);
+			WrapperClone clone = new WrapperClone(wrapper);
+			clone.calculateX();
+			if (i > 1) {
+				clones.get(i - 2).getOutgoing().add(clone);
+				clones.get(i - 2).setOutgoingWeights(new int[] { 1 });
+				clone.getIncoming().add(clones.get(i - 2));
+			}
+			dataNodes.add(dataNode);
+			clones.add(clone);
+		}
+		when(zoomedGraphModel.getDataNodeWrapperList()).thenReturn(clones);
+		when(zoomedGraphModel.getGenomesCount()).thenReturn(1);
+		when(zoomedGraphModel.getZoomLevel()).thenReturn(2f);
+		view = new Java2DGraphView(zoomedGraphModel);
+		view.update(zoomedGraphModel, null);
+	}
+
+	@Test
+	public void testGraphDimension() {
+		assertEquals(4, view.getGraphDimension(), 0);
+	}
+
+	@Test
+	public void testViewPercent() {
+		assertEquals(0.5, view.getViewPercent(), 0);
+		view.previewZoom(4);
+		assertEquals(0.25, view.getViewPercent(), 0);
+	}
+
+	@Test
+	public void testCenterOnNode() throws NodeNotFoundException {
+		view.centerOnNode(dataNodes.get(1), null);
+		assertEquals(4, view.getZoomCenter(), 0);
+	}
+
+	@Test
+	public void testPaint() {
+		view.getPanel().setSize(800, 600);
+		BufferedImage image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		view.getPanel().paint(graphics);
+		graphics.dispose();
+		assertNotEquals(image.getRGB(0, 0), image.getRGB(400, 300));
+	}
+
+	@Test(expected = NodeNotFoundException.class)
+	public void testCenterOnMissingNode() throws NodeNotFoundException {
+		view.centerOnNode(new DataNode(4, new HashSet<>(), 0, 0, "A"), null);
+	}
+}
@@ -0,0 +1,78 @@
+package tudelft.ti2806.pl3.visualisation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.visualization.TileCache;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Test for {@link TileCache}.
+ */
+public class TileCacheTest {
+	private static final int TILE_BYTES = 16 * 16 * 4;
+
+	private TileCache cache;
+
+	@Before
+	public void setUp() {
+		cache = new TileCache(3 * TILE_BYTES);
+	}
+
+	private static BufferedImage createTile() {
+		return new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	@Test
+	public void testGet() {
+		BufferedImage tile = createTile();
+		cache.put(new TileCache.Key(0, 1f, true, 2, 0), tile);
+		assertSame(tile, cache.get(new TileCache.Key(0, 1f, true, 2, 0)));
+		assertNull(cache.get(new TileCache.Key(0, 2f, true, 2, 0)));
+		assertNull(cache.get(new TileCache.Key(0, 1f, false, 2, 0)));
+		assertNull(cache.get(new TileCache.Key(0, 1f, true, 3, 0)));
+	}
+
+	@Test
+	public void testMemoryBudget() {
+		for (int i = 0; i < 4; i++) {
+			cache.put(new TileCache.Key(0, 1f, true, i, 0), createTile());
+		}
+		assertEquals(3, cache.size());
+		assertEquals(3 * TILE_BYTES, cache.getMemoryUsed());
+		assertNull(cache.get(new TileCache.Key(0, 1f, true, 0, 0)));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedRemoved() {
+		for (int i = 0; i < 3; i++) {
+			cache.put(new TileCache.Key(0, 1f, true, i, 0), createTile());
+		}
+		cache.get(new TileCache.Key(0, 1f, true, 0, 0));
+		cache.put(new TileCache.Key(0, 1f, true, 3, 0), createTile());
+		assertNotNull(cache.get(new TileCache.Key(0, 1f, true, 0, 0)));
+		assertNull(cache.get(new TileCache.Key(0, 1f, true, 1, 0)));
+	}
+
+	@Test
+	public void testOlderGenerationRemoved() {
+		cache.put(new TileCache.Key(0, 1f, true, 0, 0), createTile());
+		cache.put(new TileCache.Key(1, 1f, true, 1, 0), createTile());
+		assertEquals(1, cache.size());
+		assertNull(cache.get(new TileCache.Key(0, 1f, true, 0, 0)));
+	}
+
+	@Test
+	public void testClear() {
+		cache.put(new TileCache.Key(0, 1f, true, 0, 0), createTile());
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getMemoryUsed());
+	}
+}
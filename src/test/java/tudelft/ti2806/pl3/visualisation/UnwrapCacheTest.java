@@ -0,0 +1,60 @@
+package tudelft.ti2806.pl3.visualisation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.visualization.UnwrapCache;
+
+import java.util.ArrayList;
+
+/**
+ * Test for {@link UnwrapCache}.
+ */
+public class UnwrapCacheTest {
+
+	private UnwrapCache cache;
+
+	@Before
+	public void setUp() {
+		cache = new UnwrapCache();
+	}
+
+	@Test
+	public void testTakeCoveringWindow() {
+		UnwrapCache.Entry entry = createEntry(1, 2f, 0, 100);
+		cache.put(entry);
+		assertTrue(cache.contains(1, 2f, 10, 90));
+		assertFalse(cache.contains(1, 2f, 10, 110));
+		assertSame(entry, cache.take(1, 2f, 0, 100));
+		assertNull(cache.take(1, 2f, 0, 100));
+	}
+
+	@Test
+	public void testKey() {
+		cache.put(createEntry(1, 2f, 0, 100));
+		assertFalse(cache.contains(2, 2f, 10, 90));
+		assertFalse(cache.contains(1, 3f, 10, 90));
+	}
+
+	@Test
+	public void testBounded() {
+		for (int i = 0; i < 20; i++) {
+			cache.put(createEntry(1, 2f, i, i + 100));
+		}
+		assertEquals(8, cache.size());
+		assertFalse(cache.contains(1, 2f, 0, 100));
+		assertTrue(cache.contains(1, 2f, 19, 119));
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+	private UnwrapCache.Entry createEntry(int version, float zoomLevel, float from, float to) {
+		return new UnwrapCache.Entry(version, zoomLevel, from, to, 1f, null, new ArrayList<>());
+	}
+}
@@ -0,0 +1,114 @@
+package tudelft.ti2806.pl3.visualisation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import tudelft.ti2806.pl3.visualization.ZoomPipeline;
+import tudelft.ti2806.pl3.visualization.ZoomedGraphModel;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Test for {@link ZoomPipeline}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ZoomPipelineTest {
+
+	private static final long WAIT = 1000;
+
+	@Mock
+	ZoomedGraphModel zoomedGraphModel;
+
+	ZoomPipeline zoomPipeline;
+
+	@Before
+	public void setUp() {
+		zoomPipeline = new ZoomPipeline(zoomedGraphModel);
+	}
+
+	/**
+	 * Counts down the returned latch on each computation.
+	 */
+	private CountDownLatch countComputations(int count) {
+		CountDownLatch computed = new CountDownLatch(count);
+		when(zoomedGraphModel.computeDataNodeWrapperList(any(BooleanSupplier.class))).thenAnswer(invocation -> {
+			computed.countDown();
+			return false;
+		});
+		return computed;
+	}
+
+	/**
+	 * Verify that a burst of requests is computed once. The computations run in the order of the requests, so any
+	 * computation of the burst would run before the computation of the request after it.
+	 */
+	@Test
+	public void testCoalesce() throws InterruptedException {
+		CountDownLatch computed = countComputations(2);
+		zoomPipeline.request();
+		zoomPipeline.request();
+		zoomPipeline.request();
+		assertEquals(3, zoomPipeline.getGeneration());
+		verify(zoomedGraphModel, timeout(WAIT)).computeDataNodeWrapperList(any(BooleanSupplier.class));
+		zoomPipeline.request();
+		assertTrue(computed.await(WAIT, TimeUnit.MILLISECONDS));
+		verify(zoomedGraphModel, times(2)).computeDataNodeWrapperList(any(BooleanSupplier.class));
+	}
+
+	/**
+	 * Verify that a cancelled request is never computed. A cancelled computation would run before the computation of
+	 * the request after it.
+	 */
+	@Test
+	public void testCancel() throws InterruptedException {
+		CountDownLatch computed = countComputations(1);
+		zoomPipeline.request();
+		zoomPipeline.cancel();
+		zoomPipeline.request();
+		assertTrue(computed.await(WAIT, TimeUnit.MILLISECONDS));
+		verify(zoomedGraphModel, times(1)).computeDataNodeWrapperList(any(BooleanSupplier.class));
+	}
+
+	/**
+	 * Verify that a running computation sees it is stale after a new request.
+	 */
+	@Test
+	public void testStale() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch requested = new CountDownLatch(1);
+		AtomicBoolean staleBefore = new AtomicBoolean(true);
+		AtomicBoolean staleAfter = new AtomicBoolean(false);
+		when(zoomedGraphModel.computeDataNodeWrapperList(any(BooleanSupplier.class))).thenAnswer(invocation -> {
+			BooleanSupplier stale = (BooleanSupplier) invocation.getArguments()[0];
+			if (started.getCount() > 0) {
+				staleBefore.set(stale.getAsBoolean());
+				started.countDown();
+				requested.await(WAIT, TimeUnit.MILLISECONDS);
+				staleAfter.set(stale.getAsBoolean());
+			}
+			return false;
+		});
+		zoomPipeline.request();
+		assertTrue(started.await(WAIT, TimeUnit.MILLISECONDS));
+		zoomPipeline.request();
+		requested.countDown();
+		verify(zoomedGraphModel, timeout(WAIT).times(2)).computeDataNodeWrapperList(any(BooleanSupplier.class));
+		assertFalse(staleBefore.get());
+		assertTrue(staleAfter.get());
+	}
+}
@@ -0,0 +1,78 @@
+package tudelft.ti2806.pl3.visualisation;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyFloat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import tudelft.ti2806.pl3.visualization.UnwrapCache;
+import tudelft.ti2806.pl3.visualization.ZoomPrefetcher;
+import tudelft.ti2806.pl3.visualization.ZoomedGraphModel;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Test for {@link ZoomPrefetcher}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ZoomPrefetcherTest {
+
+	private static final long WAIT = 1000;
+
+	@Mock
+	ZoomedGraphModel zoomedGraphModel;
+
+	ZoomPrefetcher zoomPrefetcher;
+
+	/**
+	 * At zoom level 1 the whole graph is visible, like the real model does.
+	 */
+	@Before
+	public void setUp() {
+		when(zoomedGraphModel.getVisibleWidth(anyFloat())).thenAnswer(invocation ->
+				100 / (Float) invocation.getArguments()[0]);
+		when(zoomedGraphModel.getVisibleRange(anyFloat(), anyFloat())).thenAnswer(invocation -> {
+			float zoomLevel = (Float) invocation.getArguments()[0];
+			float zoomCenter = (Float) invocation.getArguments()[1];
+			if (zoomLevel <= 1) {
+				return new float[] { -Float.MAX_VALUE, Float.MAX_VALUE };
+			}
+			return new float[] { zoomCenter - 50 / zoomLevel, zoomCenter + 50 / zoomLevel };
+		});
+		zoomPrefetcher = new ZoomPrefetcher(zoomedGraphModel, new UnwrapCache());
+	}
+
+	/**
+	 * Verify that at the lowest zoom level only zooming in is computed, because zooming out and moving the view give
+	 * the current view.
+	 */
+	@Test
+	public void testSkipCurrentView() {
+		zoomPrefetcher.prefetch(1, 50);
+		verify(zoomedGraphModel, timeout(WAIT)).unwrap(eq(ZoomedGraphModel.ZOOM_STEP_SIZE), eq(50f),
+				any(BooleanSupplier.class));
+		verify(zoomedGraphModel, never()).unwrap(eq(1f), anyFloat(), any(BooleanSupplier.class));
+	}
+
+	/**
+	 * Verify that all neighbouring views are computed when the view can move in each direction.
+	 */
+	@Test
+	public void testAllNeighbours() {
+		zoomPrefetcher.prefetch(2, 50);
+		verify(zoomedGraphModel, timeout(WAIT)).unwrap(eq(2 * ZoomedGraphModel.ZOOM_STEP_SIZE), eq(50f),
+				any(BooleanSupplier.class));
+		verify(zoomedGraphModel, timeout(WAIT)).unwrap(eq(2 / ZoomedGraphModel.ZOOM_STEP_SIZE), eq(50f),
+				any(BooleanSupplier.class));
+		verify(zoomedGraphModel, timeout(WAIT).times(2)).unwrap(eq(2f), anyFloat(), any(BooleanSupplier.class));
+	}
+}
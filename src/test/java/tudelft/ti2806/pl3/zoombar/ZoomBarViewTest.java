@@ -0,0 +1,77 @@
+package tudelft.ti2806.pl3.zoombar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import tudelft.ti2806.pl3.data.wrapper.FixWrapper;
+import tudelft.ti2806.pl3.data.wrapper.Wrapper;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test for the minimap of {@link ZoomBarView}.
+ */
+public class ZoomBarViewTest {
+	private static final int HEIGHT = 20;
+
+	private ZoomBarView view;
+	private List<Wrapper> nodes;
+
+	/**
+	 * Creates a zoom bar with two nodes, one at the top left and one at the bottom right.
+	 */
+	@Before
+	public void setUp() {
+		view = new ZoomBarView();
+		view.setPreferredSize(new Dimension(10, HEIGHT));
+		nodes = new ArrayList<>();
+		Wrapper first = new FixWrapper(0);
+		Wrapper second = new FixWrapper(1);
+		second.setX(10);
+		second.setY(1);
+		nodes.add(first);
+		nodes.add(second);
+	}
+
+	@Test
+	public void testRender() {
+		float[] interest = new float[] { 0, 0, 0, 0, 0, 4, 0, 0, 0, 2 };
+		BufferedImage image = MinimapRenderer.render(10, HEIGHT, interest, 4, nodes);
+		assertEquals(10, image.getWidth());
+		assertEquals(HEIGHT, image.getHeight());
+		assertEquals(0xffff0000, image.getRGB(5, 0));
+		assertEquals(0xffff0000, image.getRGB(5, HEIGHT - 1));
+		assertEquals(0, image.getRGB(4, HEIGHT / 2));
+		assertTrue((image.getRGB(9, HEIGHT / 2) >>> 24) > 0);
+		assertEquals(0, image.getRGB(9, 0) >>> 24);
+		assertTrue((image.getRGB(0, 2) >>> 24) > 0);
+		assertTrue((image.getRGB(9, HEIGHT - 3) >>> 24) > 0);
+	}
+
+	@Test
+	public void testMinimapCached() {
+		float[] interest = new float[10];
+		view.setInterest(interest);
+		view.setNodes(nodes);
+		BufferedImage minimap = view.getMinimap();
+		assertSame(minimap, view.getMinimap());
+		view.setInterest(interest);
+		assertSame(minimap, view.getMinimap());
+		view.setInterest(new float[10]);
+		assertNotSame(minimap, view.getMinimap());
+		minimap = view.getMinimap();
+		view.setNodes(new ArrayList<>(nodes));
+		assertNotSame(minimap, view.getMinimap());
+		minimap = view.getMinimap();
+		view.setPreferredSize(new Dimension(10, HEIGHT + 1));
+		assertNotSame(minimap, view.getMinimap());
+	}
+}